@@ -35,6 +35,8 @@ import org.json.simple.parser.ParseException;
 import org.wso2.carbon.identity.application.authentication.framework.AsyncProcess;
 import org.wso2.carbon.identity.application.authentication.framework.config.model.graph.JsGraphBuilder;
 import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
+import org.wso2.carbon.identity.conditional.auth.functions.common.scheduler.OutboundCall;
+import org.wso2.carbon.identity.conditional.auth.functions.common.scheduler.OutboundScheduler;
 import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
 import org.wso2.carbon.identity.event.IdentityEventException;
 
@@ -75,7 +77,7 @@ public class CallAnalyticsFunctionImpl extends AbstractAnalyticsFunction impleme
          */
         Map<String, String> metadataMap = new HashMap<>(metadata);
         Map<String, Object> payloadDataMap = getPayloadDataMap(payloadData);
-        AsyncProcess asyncProcess = new AsyncProcess((authenticationContext, asyncReturn) -> {
+        OutboundCall outboundCall = (authenticationContext, asyncReturn) -> {
 
             String appName = metadataMap.get(PARAM_APP_NAME);
             String inputStream = metadataMap.get(PARAM_INPUT_STREAM);
@@ -211,7 +213,9 @@ public class CallAnalyticsFunctionImpl extends AbstractAnalyticsFunction impleme
                 LOG.error("Error while creating authentication. ", e);
                 asyncReturn.accept(authenticationContext, Collections.emptyMap(), OUTCOME_FAIL);
             }
-        });
+        };
+        AsyncProcess asyncProcess = new AsyncProcess((context, asyncReturn) ->
+                OutboundScheduler.getInstance().execute(context, asyncReturn, outboundCall));
         JsGraphBuilder.addLongWaitProcess(asyncProcess, eventHandlers);
     }
 }
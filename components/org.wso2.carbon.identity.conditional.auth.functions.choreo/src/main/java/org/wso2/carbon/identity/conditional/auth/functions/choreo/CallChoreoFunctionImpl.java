@@ -21,18 +21,16 @@ package org.wso2.carbon.identity.conditional.auth.functions.choreo;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
-import com.nimbusds.jwt.SignedJWT;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpResponse;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
-import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.util.EntityUtils;
 import org.graalvm.polyglot.HostAccess;
 import org.json.simple.JSONObject;
@@ -42,7 +40,18 @@ import org.wso2.carbon.identity.application.authentication.framework.config.mode
 import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
 import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
 import org.wso2.carbon.identity.conditional.auth.functions.choreo.cache.ChoreoAccessTokenCache;
+import org.wso2.carbon.identity.conditional.auth.functions.choreo.cache.ChoreoResultCache;
+import org.wso2.carbon.identity.conditional.auth.functions.choreo.cache.ChoreoSecretCache;
 import org.wso2.carbon.identity.conditional.auth.functions.choreo.internal.ChoreoFunctionServiceHolder;
+import org.wso2.carbon.identity.conditional.auth.functions.common.limiter.AdaptiveConcurrencyLimiter;
+import org.wso2.carbon.identity.conditional.auth.functions.common.limiter.ConcurrencyLimiterRegistry;
+import org.wso2.carbon.identity.conditional.auth.functions.common.logging.LogTemplate;
+import org.wso2.carbon.identity.conditional.auth.functions.common.logging.OutboundLogger;
+import org.wso2.carbon.identity.conditional.auth.functions.common.model.JsUtilsProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.common.retry.RetryPolicy;
+import org.wso2.carbon.identity.conditional.auth.functions.common.scheduler.OutboundCall;
+import org.wso2.carbon.identity.conditional.auth.functions.common.scheduler.OutboundScheduler;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
 import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
 import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
@@ -56,14 +65,8 @@ import java.lang.reflect.Type;
 import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.ArrayList;
-import java.util.Base64;
 import java.util.Collections;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -81,38 +84,64 @@ import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.C
 public class CallChoreoFunctionImpl implements CallChoreoFunction {
 
     private static final Log LOG = LogFactory.getLog(CallChoreoFunctionImpl.class);
+    private static final OutboundLogger OUTBOUND_LOG = new OutboundLogger(CallChoreoFunctionImpl.class);
+    private static final LogTemplate START_LOG =
+            LogTemplate.of("Starting the callChoreo function for session data key: {}");
+    private static final LogTemplate CACHED_TOKEN_LOG =
+            LogTemplate.of("Unexpired access token available in cache. Session data key: {}");
+    private static final LogTemplate TOKEN_REQUEST_LOG =
+            LogTemplate.of("Requesting the access token from Choreo. Session data key: {}");
+    private static final LogTemplate TOKEN_REQUEST_EXECUTION_LOG =
+            LogTemplate.of("CloseableHttpAsyncClient executing access token request for session data key: {}");
+    private static final LogTemplate TOKEN_RESPONSE_LOG =
+            LogTemplate.of("Access token response received. Session data key: {}");
+    private static final LogTemplate CACHED_RESULT_LOG =
+            LogTemplate.of("Choreo result available in cache. Session data key: {}");
+    private static final LogTemplate CALL_LOG = LogTemplate.of("Calling Choreo endpoint for session data key: {}");
+    private static final LogTemplate CALL_COMPLETED_LOG =
+            LogTemplate.of("Choreo call completed for session data key: {}");
+    private static final LogTemplate SUCCESS_RESPONSE_LOG =
+            LogTemplate.of("Received 2xx response from Choreo. Status Code: {} Session data key: {}");
+    private static final LogTemplate RETRY_LOG = LogTemplate.of("Retrying request for session data key: {}");
+    private static final LogTemplate INACTIVE_TOKEN_LOG =
+            LogTemplate.of("Access token inactive for session data key: {}");
+    private static final LogTemplate TOKEN_RETRY_LOG =
+            LogTemplate.of("Retrying token request for session data key: {}");
     private static final String TYPE_APPLICATION_JSON = "application/json";
-    private static final String TYPE_FORM_DATA = "application/x-www-form-urlencoded";
     private static final String AUTHORIZATION = "Authorization";
-    private static final String GRANT_TYPE = "grant_type";
-    private static final String GRANT_TYPE_CLIENT_CREDENTIALS = "client_credentials";
     private static final String URL_VARIABLE_NAME = "url";
     private static final String CONSUMER_KEY_VARIABLE_NAME = "consumerKey";
     private static final String CONSUMER_KEY_ALIAS_VARIABLE_NAME = "consumerKeyAlias";
     private static final String CONSUMER_SECRET_VARIABLE_NAME = "consumerSecret";
     private static final String CONSUMER_SECRET_ALIAS_VARIABLE_NAME = "consumerSecretAlias";
     private static final String ASGARDEO_TOKEN_ENDPOINT = "asgardeoTokenEndpoint";
-    private static final String SECRET_TYPE = "ADAPTIVE_AUTH_CALL_CHOREO";
+    static final String SECRET_TYPE = "ADAPTIVE_AUTH_CALL_CHOREO";
     private static final char DOMAIN_SEPARATOR = '.';
-    private static final String ACCESS_TOKEN_KEY = "access_token";
     private static final int HTTP_STATUS_OK = 200;
     private static final int HTTP_STATUS_UNAUTHORIZED = 401;
     private static final String ERROR_CODE_ACCESS_TOKEN_INACTIVE = "900901";
     private static final String CODE = "code";
-    private static final String JWT_EXP_CLAIM = "exp";
     private final List<String> choreoDomains;
     private static final String BEARER = "Bearer ";
-    private static final String BASIC = "Basic ";
     private static final int MAX_TOKEN_REQUEST_ATTEMPTS = 2;
     private int maxTokenRequestAttemptsForTimeOut = 2;
     private int maxRequestAttemptsForChoreoAPIEndpointTimeout = 2;
 
     private final ChoreoAccessTokenCache choreoAccessTokenCache;
+    private final ChoreoTokenRefresher choreoTokenRefresher;
+    private final ChoreoSecretCache choreoSecretCache;
+    private final ChoreoResultCache choreoResultCache;
+    private final ChoreoTimeoutController choreoTimeoutController;
+    private final Gson gson = new GsonBuilder().create();
 
     public CallChoreoFunctionImpl() {
 
         this.choreoDomains = ConfigProvider.getInstance().getChoreoDomains();
         this.choreoAccessTokenCache = ChoreoAccessTokenCache.getInstance();
+        this.choreoTokenRefresher = ChoreoTokenRefresher.getInstance();
+        this.choreoSecretCache = ChoreoSecretCache.getInstance();
+        this.choreoResultCache = ChoreoResultCache.getInstance();
+        this.choreoTimeoutController = ChoreoTimeoutController.getInstance();
 
         if (StringUtils.isNotBlank(IdentityUtil.getProperty(Constants.CALL_CHOREO_TOKEN_REQUEST_RETRY_COUNT))) {
             maxTokenRequestAttemptsForTimeOut = Integer.parseInt
@@ -137,9 +166,8 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
          */
         Map<String, String> connectionMetaDataMap = new HashMap<>(connectionMetaData);
         Map<String, Object> payloadDataMap = getPayloadDataMap(payloadData);
-        AsyncProcess asyncProcess = new AsyncProcess((authenticationContext, asyncReturn) -> {
-            LOG.info("Starting the callChoreo function for session data key: " +
-                    authenticationContext.getContextIdentifier());
+        OutboundCall outboundCall = (authenticationContext, asyncReturn) -> {
+            OUTBOUND_LOG.successInfo(START_LOG, authenticationContext.getContextIdentifier());
             String epUrl = connectionMetaDataMap.get(URL_VARIABLE_NAME);
             try {
                 if (!isValidChoreoDomain(epUrl)) {
@@ -149,17 +177,26 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
                 }
 
                 String tenantDomain = authenticationContext.getTenantDomain();
+                String resultCacheKey = choreoResultCache.buildCacheKey(epUrl, getConsumer(connectionMetaDataMap),
+                        payloadDataMap);
+                String cachedResult = choreoResultCache.get(tenantDomain, resultCacheKey);
+                if (cachedResult != null) {
+                    OUTBOUND_LOG.successInfo(CACHED_RESULT_LOG, authenticationContext.getContextIdentifier());
+                    asyncReturn.accept(authenticationContext, JsUtilsProvider.getInstance().getJsUtils()
+                            .toResponseView(toResponseBody(cachedResult)), Constants.OUTCOME_SUCCESS);
+                    return;
+                }
                 AccessTokenRequestHelper accessTokenRequestHelper = new AccessTokenRequestHelper(
                         connectionMetaDataMap, asyncReturn, authenticationContext, payloadDataMap);
-                String accessToken = choreoAccessTokenCache.getValueFromCache(accessTokenRequestHelper.getConsumerKey(),
-                        tenantDomain);
-                if (StringUtils.isNotEmpty(accessToken) && !isTokenExpired(accessToken)) {
-                    LOG.info("Unexpired access token available in cache. Session data key: " +
-                            authenticationContext.getContextIdentifier());
+                accessTokenRequestHelper.setResultCacheKey(resultCacheKey);
+                String accessToken = getUnexpiredAccessToken(getTokenEndpoint(accessTokenRequestHelper),
+                        accessTokenRequestHelper.getConsumerKey(), tenantDomain);
+                if (accessToken != null) {
+                    OUTBOUND_LOG.successInfo(CACHED_TOKEN_LOG, authenticationContext.getContextIdentifier());
                     accessTokenRequestHelper.callChoreoEndpoint(accessToken);
                 } else {
-                    LOG.info("Requesting the access token from Choreo. Session data key: " +
-                            authenticationContext.getContextIdentifier());
+                    OUTBOUND_LOG.successInfo(TOKEN_REQUEST_LOG, authenticationContext.getContextIdentifier());
+                    RetryPolicy.getInstance().onRequest(getTokenEndpointKey(accessTokenRequestHelper));
                     requestAccessToken(tenantDomain, accessTokenRequestHelper);
                 }
             } catch (IllegalArgumentException e) {
@@ -178,10 +215,69 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
                 LOG.error("Error while invoking callChoreo.", e);
                 asyncReturn.accept(authenticationContext, Collections.emptyMap(), OUTCOME_FAIL);
             }
-        });
+        };
+        AsyncProcess asyncProcess = new AsyncProcess((context, asyncReturn) ->
+                OutboundScheduler.getInstance().execute(context, asyncReturn, outboundCall));
         JsGraphBuilder.addLongWaitProcess(asyncProcess, eventHandlers);
     }
 
+    /**
+     * Identify the consumer a call is made as, without resolving the consumer key from the secret store.
+     *
+     * @param connectionMetaData Connection metadata of the call.
+     * @return Consumer key, or the alias of the consumer key prefixed to keep it apart from consumer keys.
+     */
+    private String getConsumer(Map<String, String> connectionMetaData) {
+
+        if (StringUtils.isNotEmpty(connectionMetaData.get(CONSUMER_KEY_VARIABLE_NAME))) {
+            return connectionMetaData.get(CONSUMER_KEY_VARIABLE_NAME);
+        }
+        String consumerKeyAlias = connectionMetaData.get(CONSUMER_KEY_ALIAS_VARIABLE_NAME);
+        return StringUtils.isNotEmpty(consumerKeyAlias) ? CONSUMER_KEY_ALIAS_VARIABLE_NAME + ":" + consumerKeyAlias :
+                null;
+    }
+
+    /**
+     * Parse the body of a successful response from a Choreo endpoint.
+     *
+     * @param responseBodyString Response body.
+     * @return Parsed response body, which is empty if the response body is empty.
+     */
+    private Map<String, Object> toResponseBody(String responseBodyString) {
+
+        if (StringUtils.isEmpty(responseBodyString)) {
+            // To handle the case where the response body is empty.
+            return Collections.emptyMap();
+        }
+        Type responseBodyType = new TypeToken<Map<String, Object>>() { }.getType();
+        return gson.fromJson(responseBodyString, responseBodyType);
+    }
+
+    /**
+     * Get an unexpired access token of the consumer key, from the token renewed in the background or else from the
+     * cache. The token is marked as used, so that it is kept renewed.
+     *
+     * @param tokenEndpoint Token endpoint.
+     * @param consumerKey   Consumer key.
+     * @param tenantDomain  Tenant domain.
+     * @return Unexpired access token, or null if there is none.
+     * @throws ParseException {@link ParseException}
+     */
+    private String getUnexpiredAccessToken(String tokenEndpoint, String consumerKey, String tenantDomain)
+            throws ParseException {
+
+        String accessToken = choreoTokenRefresher.getToken(tokenEndpoint, consumerKey, tenantDomain);
+        if (accessToken != null) {
+            return accessToken;
+        }
+        accessToken = choreoAccessTokenCache.getValueFromCache(consumerKey, tenantDomain);
+        if (StringUtils.isNotEmpty(accessToken) && !isTokenExpired(accessToken)) {
+            choreoTokenRefresher.onTokenUsed(tokenEndpoint, consumerKey, tenantDomain);
+            return accessToken;
+        }
+        return null;
+    }
+
     /**
      * This method decodes access token and compare its expiry time with the current time to decide whether it's
      * expired.
@@ -192,10 +288,7 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
      */
     private boolean isTokenExpired(String accessToken) throws ParseException {
 
-        SignedJWT decodedToken = SignedJWT.parse(accessToken);
-        Date expiryDate = (Date) decodedToken.getJWTClaimsSet().getClaim(JWT_EXP_CLAIM);
-        LocalDateTime expiryTimestamp = LocalDateTime.ofInstant(expiryDate.toInstant(), ZoneId.systemDefault());
-        return LocalDateTime.now().isAfter(expiryTimestamp);
+        return System.currentTimeMillis() > ChoreoTokenRequester.getExpiryTime(accessToken);
     }
 
     public String getResolvedSecret(String name) throws SecretManagementException {
@@ -205,6 +298,25 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
         return responseDTO.getResolvedSecretValue();
     }
 
+    /**
+     * Get the resolved secret of the given alias from the secret cache, resolving it from the secret store if it is
+     * not cached.
+     *
+     * @param name         Alias of the secret.
+     * @param tenantDomain Tenant domain.
+     * @return Resolved secret.
+     * @throws SecretManagementException {@link SecretManagementException}
+     */
+    private String getCachedResolvedSecret(String name, String tenantDomain) throws SecretManagementException {
+
+        String secret = choreoSecretCache.getValueFromCache(tenantDomain, name);
+        if (secret == null) {
+            secret = getResolvedSecret(name);
+            choreoSecretCache.addToCache(tenantDomain, name, secret);
+        }
+        return secret;
+    }
+
     private boolean isValidChoreoDomain(String url) {
 
         if (StringUtils.isBlank(url)) {
@@ -278,31 +390,37 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
     private void requestAccessToken(String tenantDomain, AccessTokenRequestHelper accessTokenRequestHelper)
             throws IOException, FrameworkException {
 
-        String tokenEndpoint;
-        if (StringUtils.isNotEmpty(accessTokenRequestHelper.getAsgardeoTokenEndpoint())) {
-            tokenEndpoint = accessTokenRequestHelper.getAsgardeoTokenEndpoint();
-        } else {
-            tokenEndpoint = ConfigProvider.getInstance().getChoreoTokenEndpoint();
-        }
-        HttpPost request = new HttpPost(tokenEndpoint);
-        request.setHeader(ACCEPT, TYPE_APPLICATION_JSON);
-        request.setHeader(CONTENT_TYPE, TYPE_FORM_DATA);
-
-        request.setHeader(AUTHORIZATION, BASIC + Base64.getEncoder()
-                .encodeToString((accessTokenRequestHelper.consumerKey + ":" + accessTokenRequestHelper.consumerSecret)
-                .getBytes(StandardCharsets.UTF_8)));
-
-        List<BasicNameValuePair> bodyParams = new ArrayList<>();
-        bodyParams.add(new BasicNameValuePair(GRANT_TYPE, GRANT_TYPE_CLIENT_CREDENTIALS));
-        request.setEntity(new UrlEncodedFormEntity(bodyParams));
+        HttpPost request = ChoreoTokenRequester.createTokenRequest(getTokenEndpoint(accessTokenRequestHelper),
+                accessTokenRequestHelper.consumerKey, accessTokenRequestHelper.consumerSecret);
 
         CloseableHttpAsyncClient client = ChoreoFunctionServiceHolder.getInstance().getClientManager()
                 .getClient(tenantDomain);
-        LOG.info("CloseableHttpAsyncClient executing access token request for session data key: " +
+        OUTBOUND_LOG.successInfo(TOKEN_REQUEST_EXECUTION_LOG,
                 accessTokenRequestHelper.authenticationContext.getContextIdentifier());
         client.execute(request, accessTokenRequestHelper);
     }
 
+    private String getTokenEndpoint(AccessTokenRequestHelper accessTokenRequestHelper) {
+
+        if (StringUtils.isNotEmpty(accessTokenRequestHelper.getAsgardeoTokenEndpoint())) {
+            return accessTokenRequestHelper.getAsgardeoTokenEndpoint();
+        }
+        return ConfigProvider.getInstance().getChoreoTokenEndpoint();
+    }
+
+    private String getTokenEndpointKey(AccessTokenRequestHelper accessTokenRequestHelper) {
+
+        String tokenEndpoint = getTokenEndpoint(accessTokenRequestHelper);
+        if (StringUtils.isEmpty(tokenEndpoint)) {
+            return tokenEndpoint;
+        }
+        try {
+            return CommonUtils.getEndpointKey(URI.create(tokenEndpoint));
+        } catch (IllegalArgumentException e) {
+            return tokenEndpoint;
+        }
+    }
+
     private class AccessTokenRequestHelper implements FutureCallback<HttpResponse> {
 
         private final Map<String, String> connectionMetaData;
@@ -316,6 +434,7 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
         private String consumerKey;
         private String consumerSecret;
         private String asgardeoTokenEndpoint;
+        private String resultCacheKey;
 
         public AccessTokenRequestHelper(Map<String, String> connectionMetaData,
                                         AsyncReturn asyncReturn,
@@ -343,17 +462,14 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
 
             boolean isFailure = false;
             try {
-                LOG.info("Access token response received. Session data key: " +
-                        authenticationContext.getContextIdentifier());
+                OUTBOUND_LOG.successInfo(TOKEN_RESPONSE_LOG, authenticationContext.getContextIdentifier());
                 int responseCode = httpResponse.getStatusLine().getStatusCode();
                 if (responseCode == HTTP_STATUS_OK) {
-                    Type responseBodyType = new TypeToken<Map<String, String>>() { }.getType();
-                    Map<String, String> responseBody = this.gson
-                            .fromJson(EntityUtils.toString(httpResponse.getEntity()), responseBodyType);
-                    String accessToken = responseBody.get(ACCESS_TOKEN_KEY);
+                    String accessToken = ChoreoTokenRequester.getAccessToken(httpResponse);
                     if (accessToken != null) {
                         choreoAccessTokenCache.addToCache(this.consumerKey, accessToken,
                                 this.authenticationContext.getTenantDomain());
+                        trackForRefresh(accessToken);
                         callChoreoEndpoint(accessToken);
                     } else {
                         LOG.error("Token response does not contain an access token. Session data key: " +
@@ -363,6 +479,12 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
                 } else {
                     LOG.error("Failed to retrieve access token from Choreo. Response Code: " + responseCode +
                             ". Session data key: " + authenticationContext.getContextIdentifier());
+                    if (responseCode == HttpStatus.SC_BAD_REQUEST || responseCode == HTTP_STATUS_UNAUTHORIZED) {
+                        // The consumer key or secret may have been updated in the secret store.
+                        invalidateResolvedSecrets();
+                        choreoTokenRefresher.invalidate(getTokenEndpoint(this), this.consumerKey,
+                                this.authenticationContext.getTenantDomain());
+                    }
                     isFailure = true;
                 }
             } catch (IOException e) {
@@ -444,18 +566,24 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
                 JSONObject jsonObject = new JSONObject();
                 jsonObject.putAll(this.payloadData);
                 request.setEntity(new StringEntity(jsonObject.toJSONString()));
-                CloseableHttpAsyncClient client = ChoreoFunctionServiceHolder.getInstance().getClientManager()
-                        .getClient(this.authenticationContext.getTenantDomain());
-                LOG.info("Calling Choreo endpoint for session data key: " +
-                        authenticationContext.getContextIdentifier());
+                ClientManager clientManager = ChoreoFunctionServiceHolder.getInstance().getClientManager();
+                CloseableHttpAsyncClient client = clientManager.getClient(this.authenticationContext.getTenantDomain());
+                if (choreoTimeoutController.isEnabled()) {
+                    request.setConfig(choreoTimeoutController.getRequestConfig(request.getURI(),
+                            clientManager.getRequestConfig(this.authenticationContext.getTenantDomain())));
+                }
+                String choreoEndpointKey = CommonUtils.getEndpointKey(request.getURI());
+                AdaptiveConcurrencyLimiter limiter = ConcurrencyLimiterRegistry.getInstance()
+                        .getLimiter(choreoEndpointKey);
+                RetryPolicy.getInstance().onRequest(choreoEndpointKey);
+                OUTBOUND_LOG.successInfo(CALL_LOG, authenticationContext.getContextIdentifier());
                 FutureCallback<HttpResponse> callChoreoEndpointCallback = new FutureCallback<HttpResponse>() {
 
                     @Override
                     public void completed(final HttpResponse response) {
 
                         try {
-                            LOG.info("Choreo call completed for session data key: " +
-                                    authenticationContext.getContextIdentifier());
+                            OUTBOUND_LOG.successInfo(CALL_COMPLETED_LOG, authenticationContext.getContextIdentifier());
                             handleChoreoEndpointResponse(response);
                         } catch (Exception e) {
                             LOG.error("Error while proceeding after handling the response from Choreo call for " +
@@ -474,12 +602,14 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
                                 outcome = Constants.OUTCOME_TIMEOUT;
                             }
 
+                            // Choreo API calls are retried as configured, with backoff and within the retry budget.
                             if (requestAttemptCountForChoreoAPIEndpointTimeOut
-                                    .get() < maxRequestAttemptsForChoreoAPIEndpointTimeout) {
-                                LOG.info("Retrying request for session data key: " +
-                                        authenticationContext.getContextIdentifier());
-                                client.execute(request, this);
-                                requestAttemptCountForChoreoAPIEndpointTimeOut.incrementAndGet();
+                                    .get() < maxRequestAttemptsForChoreoAPIEndpointTimeout &&
+                                    RetryPolicy.getInstance().tryAcquireRetry(choreoEndpointKey)) {
+                                OUTBOUND_LOG.info(RETRY_LOG, authenticationContext.getContextIdentifier());
+                                int retryAttempt = requestAttemptCountForChoreoAPIEndpointTimeOut.incrementAndGet();
+                                String failedOutcome = outcome;
+                                RetryPolicy.getInstance().scheduleRetry(retryAttempt, () -> retry(failedOutcome));
                             } else {
                                 LOG.warn("Maximum request attempt count exceeded for session data key: " +
                                         authenticationContext.getContextIdentifier());
@@ -492,6 +622,26 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
                         }
                     }
 
+                    private void retry(String failedOutcome) {
+
+                        try {
+                            if (!executeWithinLimit(client, request, limiter, this)) {
+                                LOG.warn("Concurrency limit of Choreo is reached. Not retrying the call for session " +
+                                        "data key: " + authenticationContext.getContextIdentifier());
+                                asyncReturn.accept(authenticationContext, Collections.emptyMap(), failedOutcome);
+                            }
+                        } catch (Exception e) {
+                            LOG.error("Error while retrying the Choreo call for session data key: " +
+                                    authenticationContext.getContextIdentifier(), e);
+                            try {
+                                asyncReturn.accept(authenticationContext, Collections.emptyMap(), failedOutcome);
+                            } catch (FrameworkException ex) {
+                                LOG.error("Error while proceeding after failing to retry the Choreo call for " +
+                                        "session data key: " + authenticationContext.getContextIdentifier(), ex);
+                            }
+                        }
+                    }
+
                     @Override
                     public void cancelled() {
 
@@ -506,7 +656,11 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
                     }
                 };
 
-                client.execute(request, callChoreoEndpointCallback);
+                if (!executeWithinLimit(client, request, limiter, callChoreoEndpointCallback)) {
+                    LOG.warn("Concurrency limit of Choreo is reached. Failing the call for session data key: " +
+                            authenticationContext.getContextIdentifier());
+                    isFailure = true;
+                }
             } catch (UnsupportedEncodingException e) {
                 LOG.error("Error while constructing request payload for calling choreo endpoint. session data key: " +
                         authenticationContext.getContextIdentifier(), e);
@@ -531,6 +685,64 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
             }
         }
 
+        /**
+         * Sends the request to the Choreo endpoint, unless the concurrency limit of the endpoint is reached. The
+         * outcome of the call is recorded in the limiter, and its latency in the timeout controller, before the given
+         * callback is notified.
+         *
+         * @param client   Client of the tenant.
+         * @param request  Request to the Choreo endpoint.
+         * @param limiter  Concurrency limiter of the endpoint or null if the concurrency limit is disabled.
+         * @param callback Callback of the request.
+         * @return True if the request is sent, false if it is rejected by the limiter.
+         */
+        private boolean executeWithinLimit(CloseableHttpAsyncClient client, HttpPost request,
+                                           AdaptiveConcurrencyLimiter limiter, FutureCallback<HttpResponse> callback) {
+
+            if (limiter == null) {
+                client.execute(request, choreoTimeoutController.observe(request.getURI(), callback));
+                return true;
+            }
+            if (!limiter.tryAcquire()) {
+                return false;
+            }
+            FutureCallback<HttpResponse> observedCallback = choreoTimeoutController.observe(request.getURI(), callback);
+            long startTime = System.nanoTime();
+            try {
+                client.execute(request, new FutureCallback<HttpResponse>() {
+
+                    @Override
+                    public void completed(HttpResponse response) {
+
+                        if (response.getStatusLine().getStatusCode() >= HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+                            limiter.onDropped();
+                        } else {
+                            limiter.onSuccess(System.nanoTime() - startTime);
+                        }
+                        observedCallback.completed(response);
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+
+                        limiter.onDropped();
+                        observedCallback.failed(e);
+                    }
+
+                    @Override
+                    public void cancelled() {
+
+                        limiter.onIgnore();
+                        observedCallback.cancelled();
+                    }
+                });
+            } catch (RuntimeException e) {
+                limiter.onIgnore();
+                throw e;
+            }
+            return true;
+        }
+
         /**
          * Handles the response from the API call to the Choreo endpoint specified in the connection metadata.
          *
@@ -542,27 +754,26 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
             Type responseBodyType;
             try {
                 int statusCode = response.getStatusLine().getStatusCode();
-                Map<String, Object> successResponseBody;
                 if (statusCode >= 200 && statusCode < 300) { // Accepting 2xx as success.
-                    responseBodyType = new TypeToken<Map<String, Object>>() { }.getType();
                     String responseBodyString = EntityUtils.toString(response.getEntity());
-                    if (StringUtils.isEmpty(responseBodyString)) {
-                        // To handle the case where the response body is empty.
-                        successResponseBody = Collections.emptyMap();
-                    } else {
-                        successResponseBody = this.gson.fromJson(responseBodyString, responseBodyType);
+                    Map<String, Object> successResponseBody = toResponseBody(responseBodyString);
+                    OUTBOUND_LOG.successInfo(SUCCESS_RESPONSE_LOG, statusCode,
+                            authenticationContext.getContextIdentifier());
+                    // Only the bodies which could be parsed are cached, so that a failure is never served from cache.
+                    if (successResponseBody != null) {
+                        choreoResultCache.put(authenticationContext.getTenantDomain(),
+                                connectionMetaData.get(URL_VARIABLE_NAME), resultCacheKey, responseBodyString);
                     }
-                    LOG.info("Received 2xx response from Choreo. Status Code: " + statusCode +
-                            " Session data key: " + authenticationContext.getContextIdentifier());
-                    this.asyncReturn.accept(authenticationContext, successResponseBody, Constants.OUTCOME_SUCCESS);
+                    this.asyncReturn.accept(authenticationContext,
+                            JsUtilsProvider.getInstance().getJsUtils().toResponseView(successResponseBody),
+                            Constants.OUTCOME_SUCCESS);
                 } else if (statusCode == HTTP_STATUS_UNAUTHORIZED) {
                     responseBodyType = new TypeToken<Map<String, String>>() { }.getType();
                     Map<String, String> responseBody = this.gson
                             .fromJson(EntityUtils.toString(response.getEntity()), responseBodyType);
 
                     if (ERROR_CODE_ACCESS_TOKEN_INACTIVE.equals(responseBody.get(CODE))) {
-                        LOG.info("Access token inactive for session data key: " +
-                                authenticationContext.getContextIdentifier());
+                        OUTBOUND_LOG.info(INACTIVE_TOKEN_LOG, authenticationContext.getContextIdentifier());
                         handleRetryTokenRequest(tokenRequestAttemptCount, OUTCOME_FAIL, MAX_TOKEN_REQUEST_ATTEMPTS);
                     } else {
                         LOG.warn("Received 401 response from Choreo. Session data key: " +
@@ -588,22 +799,22 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
         /**
          * Handles the scenario where the response from the Choreo API call is 401 Unauthorized due to an expired
          * token or if it's a time-out. The program will retry the token request flow until it exceeds the specified
-         * max request attempt count.
+         * max request attempt count or the retry budget of the token endpoint is exhausted. Each retry is sent after
+         * a backoff delay.
          *
          * @param tokenRequestAttemptCount {@link AtomicInteger}
          * @param outcome {@link String}
          * @param maxTokenRequestAttempts {@link Integer}
-         * @throws IOException {@link IOException}
          * @throws FrameworkException {@link FrameworkException}
          */
         private void handleRetryTokenRequest(AtomicInteger tokenRequestAttemptCount, String outcome,
-                                             int maxTokenRequestAttempts) throws IOException, FrameworkException {
+                                             int maxTokenRequestAttempts) throws FrameworkException {
 
-            if (tokenRequestAttemptCount.get() < maxTokenRequestAttempts) {
-                LOG.info("Retrying token request for session data key: " +
-                        this.authenticationContext.getContextIdentifier());
-                requestAccessToken(this.authenticationContext.getTenantDomain(), this);
-                tokenRequestAttemptCount.incrementAndGet();
+            if (tokenRequestAttemptCount.get() < maxTokenRequestAttempts &&
+                    RetryPolicy.getInstance().tryAcquireRetry(getTokenEndpointKey(this))) {
+                OUTBOUND_LOG.info(TOKEN_RETRY_LOG, this.authenticationContext.getContextIdentifier());
+                int retryAttempt = tokenRequestAttemptCount.incrementAndGet();
+                RetryPolicy.getInstance().scheduleRetry(retryAttempt, () -> retryTokenRequest(outcome));
             } else {
                 LOG.warn("Maximum token request attempt count exceeded for session data key: " +
                         this.authenticationContext.getContextIdentifier());
@@ -612,20 +823,60 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
             }
         }
 
+        /**
+         * Hands the token obtained for the login to the refresher, so that it is renewed before it expires. Tokens
+         * obtained with a consumer secret given in the script are not renewed in the background.
+         *
+         * @param accessToken Access token.
+         */
+        private void trackForRefresh(String accessToken) {
+
+            try {
+                // Only the alias of the consumer secret is handed over, the refresher never holds the secret.
+                String consumerSecretAlias = StringUtils.isEmpty(connectionMetaData.get(CONSUMER_SECRET_VARIABLE_NAME))
+                        ? connectionMetaData.get(CONSUMER_SECRET_ALIAS_VARIABLE_NAME) : null;
+                choreoTokenRefresher.onTokenObtained(getTokenEndpoint(this), this.consumerKey, consumerSecretAlias,
+                        this.authenticationContext.getTenantDomain(), accessToken,
+                        ChoreoTokenRequester.getExpiryTime(accessToken));
+            } catch (ParseException e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Unable to read the expiry time of the access token, hence it is not renewed in the " +
+                            "background. Session data key: " + authenticationContext.getContextIdentifier(), e);
+                }
+            }
+        }
+
+        private void retryTokenRequest(String failedOutcome) {
+
+            try {
+                requestAccessToken(this.authenticationContext.getTenantDomain(), this);
+            } catch (Exception e) {
+                LOG.error("Error while retrying the token request for session data key: " +
+                        this.authenticationContext.getContextIdentifier(), e);
+                try {
+                    this.asyncReturn.accept(authenticationContext, Collections.emptyMap(), failedOutcome);
+                } catch (FrameworkException ex) {
+                    LOG.error("Error while proceeding after failing to retry the token request for session data " +
+                            "key: " + this.authenticationContext.getContextIdentifier(), ex);
+                }
+            }
+        }
+
         public void resolveConsumerKeySecrete() throws SecretManagementException {
 
             if (StringUtils.isNotEmpty(connectionMetaData.get(CONSUMER_KEY_VARIABLE_NAME))) {
                 this.consumerKey = connectionMetaData.get(CONSUMER_KEY_VARIABLE_NAME);
             } else {
                 String consumerKeyAlias = connectionMetaData.get(CONSUMER_KEY_ALIAS_VARIABLE_NAME);
-                this.consumerKey = getResolvedSecret(consumerKeyAlias);
+                this.consumerKey = getCachedResolvedSecret(consumerKeyAlias, authenticationContext.getTenantDomain());
             }
 
             if (StringUtils.isNotEmpty(connectionMetaData.get(CONSUMER_SECRET_VARIABLE_NAME))) {
                 this.consumerSecret = connectionMetaData.get(CONSUMER_SECRET_VARIABLE_NAME);
             } else {
                 String consumerSecretAlias = connectionMetaData.get(CONSUMER_SECRET_ALIAS_VARIABLE_NAME);
-                this.consumerSecret = getResolvedSecret(consumerSecretAlias);
+                this.consumerSecret = getCachedResolvedSecret(consumerSecretAlias,
+                        authenticationContext.getTenantDomain());
             }
 
             if (StringUtils.isNotEmpty(connectionMetaData.get(ASGARDEO_TOKEN_ENDPOINT))) {
@@ -633,6 +884,22 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
             }
         }
 
+        /**
+         * Removes the consumer key and secret resolved for the login from the secret cache, so that the next login
+         * resolves them again from the secret store.
+         */
+        private void invalidateResolvedSecrets() {
+
+            String tenantDomain = authenticationContext.getTenantDomain();
+            if (StringUtils.isEmpty(connectionMetaData.get(CONSUMER_KEY_VARIABLE_NAME))) {
+                choreoSecretCache.invalidate(tenantDomain, connectionMetaData.get(CONSUMER_KEY_ALIAS_VARIABLE_NAME));
+            }
+            if (StringUtils.isEmpty(connectionMetaData.get(CONSUMER_SECRET_VARIABLE_NAME))) {
+                choreoSecretCache.invalidate(tenantDomain,
+                        connectionMetaData.get(CONSUMER_SECRET_ALIAS_VARIABLE_NAME));
+            }
+        }
+
         public void setConsumerKey(String consumerKey) {
 
             this.consumerKey = consumerKey;
@@ -657,5 +924,10 @@ public class CallChoreoFunctionImpl implements CallChoreoFunction {
 
             return asgardeoTokenEndpoint;
         }
+
+        public void setResultCacheKey(String resultCacheKey) {
+
+            this.resultCacheKey = resultCacheKey;
+        }
     }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo;
+
+/**
+ * Point in time view of the observed latency and the effective read timeout of a Choreo endpoint.
+ */
+public class ChoreoEndpointTimeout {
+
+    private final String endpoint;
+    private final long sampleCount;
+    private final long timeoutCount;
+    private final double latencyPercentile;
+    private final int timeout;
+
+    public ChoreoEndpointTimeout(String endpoint, long sampleCount, long timeoutCount, double latencyPercentile,
+                                 int timeout) {
+
+        this.endpoint = endpoint;
+        this.sampleCount = sampleCount;
+        this.timeoutCount = timeoutCount;
+        this.latencyPercentile = latencyPercentile;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Get the endpoint, in the form scheme://host:port/path.
+     *
+     * @return Endpoint.
+     */
+    public String getEndpoint() {
+
+        return endpoint;
+    }
+
+    public long getSampleCount() {
+
+        return sampleCount;
+    }
+
+    /**
+     * Get the number of calls to the endpoint which timed out. These are not counted in the sample count, but are
+     * estimated at the timeout they were sent with.
+     *
+     * @return Timed out call count.
+     */
+    public long getTimeoutCount() {
+
+        return timeoutCount;
+    }
+
+    /**
+     * Get the estimated latency percentile of the endpoint.
+     *
+     * @return Latency in milliseconds, or NaN if not enough latencies are observed yet.
+     */
+    public double getLatencyPercentile() {
+
+        return latencyPercentile;
+    }
+
+    /**
+     * Get the read timeout applied to the calls to the endpoint.
+     *
+     * @return Timeout in milliseconds, or -1 if the configured read timeout is applied.
+     */
+    public int getTimeout() {
+
+        return timeout;
+    }
+
+    @Override
+    public String toString() {
+
+        return "ChoreoEndpointTimeout{endpoint=" + endpoint + ", sampleCount=" + sampleCount +
+                ", timeoutCount=" + timeoutCount +
+                ", latencyPercentile=" + latencyPercentile + ", timeout=" + timeout + "}";
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.concurrent.FutureCallback;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Derives the read timeout of each Choreo endpoint from its observed latency. The configured percentile of the
+ * latency is estimated per endpoint with a {@link P2QuantileEstimator}, and the read timeout is set to a multiple of
+ * it, within the configured min and max timeouts. Until enough latencies of an endpoint are observed, the configured
+ * read timeout is applied.
+ * <p>
+ * The percentile is estimated afresh over each window of latencies, and the estimate of the last complete window is
+ * used while the next is filled, so that the timeout follows changes in the latency of an endpoint.
+ * <p>
+ * Calls which time out are estimated at the timeout they were sent with, as their latency is only known to exceed it.
+ * Leaving them out would let the estimate see only the fast calls, and the timeout would keep falling as more calls
+ * time out. Once calls time out more often than the percentile allows, the timeout widens. Unless a max timeout is
+ * configured, the timeout never exceeds the configured read timeout, so the controller only ever tightens it.
+ */
+public class ChoreoTimeoutController implements ChoreoTimeoutControllerMXBean {
+
+    public static final String OBJECT_NAME = "org.wso2.carbon.identity.conditional.auth:type=ChoreoTimeoutController";
+    static final int MAX_ENDPOINTS = 1000;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final int multiplier;
+    private final int minTimeout;
+    private final int maxTimeout;
+    private final int minSamples;
+    private final int windowSize;
+    private final Map<String, EndpointLatency> endpointLatencies = new ConcurrentHashMap<>();
+    private volatile int defaultTimeout;
+
+    private ChoreoTimeoutController() {
+
+        this(ConfigProvider.getInstance());
+    }
+
+    private ChoreoTimeoutController(ConfigProvider configProvider) {
+
+        this(configProvider.isChoreoAdaptiveTimeoutEnabled(), configProvider.getChoreoAdaptiveTimeoutPercentile(),
+                configProvider.getChoreoAdaptiveTimeoutMultiplier(),
+                configProvider.getChoreoAdaptiveTimeoutMinTimeout(),
+                configProvider.getChoreoAdaptiveTimeoutMaxTimeout(),
+                configProvider.getChoreoAdaptiveTimeoutMinSamples(),
+                configProvider.getChoreoAdaptiveTimeoutWindowSize());
+    }
+
+    ChoreoTimeoutController(boolean enabled, int percentile, int multiplier, int minTimeout, int maxTimeout,
+                            int minSamples, int windowSize) {
+
+        this.enabled = enabled;
+        this.percentile = Math.min(99.9, Math.max(1, percentile)) / 100;
+        this.multiplier = Math.max(1, multiplier);
+        this.minTimeout = Math.max(1, minTimeout);
+        // A max timeout which is not positive means the read timeout of the client.
+        this.maxTimeout = maxTimeout > 0 ? Math.max(this.minTimeout, maxTimeout) : 0;
+        this.windowSize = Math.max(1, windowSize);
+        this.minSamples = Math.min(this.windowSize, Math.max(1, minSamples));
+    }
+
+    private static class ChoreoTimeoutControllerHolder {
+
+        static final ChoreoTimeoutController INSTANCE = new ChoreoTimeoutController();
+    }
+
+    public static ChoreoTimeoutController getInstance() {
+
+        return ChoreoTimeoutControllerHolder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Get the request config of a call to the given Choreo endpoint, with the read timeout derived from the latency
+     * of the endpoint.
+     *
+     * @param uri           Url of the Choreo endpoint.
+     * @param defaultConfig Request config of the client.
+     * @return Request config with the adapted read timeout, or the given config if the timeout is not adapted.
+     */
+    public RequestConfig getRequestConfig(URI uri, RequestConfig defaultConfig) {
+
+        if (!enabled) {
+            return defaultConfig;
+        }
+        defaultTimeout = defaultConfig.getSocketTimeout();
+        EndpointLatency endpointLatency = endpointLatencies.get(getEndpointKey(uri));
+        int timeout = endpointLatency != null ? endpointLatency.getTimeout() : -1;
+        if (timeout < 0) {
+            return defaultConfig;
+        }
+        return RequestConfig.copy(defaultConfig).setSocketTimeout(timeout).build();
+    }
+
+    /**
+     * Observe the latency of a call to the given Choreo endpoint which is about to be sent.
+     *
+     * @param uri      Url of the Choreo endpoint.
+     * @param callback Callback of the call.
+     * @return Callback which observes the latency before notifying the given callback.
+     */
+    public FutureCallback<HttpResponse> observe(URI uri, FutureCallback<HttpResponse> callback) {
+
+        if (!enabled) {
+            return callback;
+        }
+        EndpointLatency endpointLatency = getEndpointLatency(getEndpointKey(uri));
+        if (endpointLatency == null) {
+            return callback;
+        }
+        long startTime = System.nanoTime();
+        // Timeout the call is sent with, see getRequestConfig.
+        int timeout = endpointLatency.getTimeout();
+        return new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed(HttpResponse response) {
+
+                endpointLatency.record(getElapsedMillis(startTime));
+                callback.completed(response);
+            }
+
+            @Override
+            public void failed(Exception e) {
+
+                // Timed out calls are censored samples, the latency is only known to exceed the timeout.
+                if (e instanceof SocketTimeoutException) {
+                    endpointLatency.recordTimeout(timeout >= 0 ? timeout : defaultTimeout,
+                            getElapsedMillis(startTime));
+                }
+                callback.failed(e);
+            }
+
+            @Override
+            public void cancelled() {
+
+                callback.cancelled();
+            }
+        };
+    }
+
+    @Override
+    public List<ChoreoEndpointTimeout> getEndpointTimeouts() {
+
+        List<ChoreoEndpointTimeout> endpointTimeouts = new ArrayList<>(endpointLatencies.size());
+        endpointLatencies.forEach((endpoint, endpointLatency) ->
+                endpointTimeouts.add(endpointLatency.snapshot(endpoint)));
+        return endpointTimeouts;
+    }
+
+    @Override
+    public void reset() {
+
+        endpointLatencies.clear();
+    }
+
+    /**
+     * Register the controller with the platform MBean server, unless the adaptive timeout is disabled.
+     */
+    public void registerMBean() {
+
+        if (!enabled) {
+            return;
+        }
+        CommonUtils.registerMBean(this, OBJECT_NAME);
+    }
+
+    /**
+     * Unregister the controller from the platform MBean server.
+     */
+    public void unregisterMBean() {
+
+        CommonUtils.unregisterMBean(OBJECT_NAME);
+    }
+
+    /**
+     * Build the key which identifies a Choreo endpoint. Unlike {@link CommonUtils#getEndpointKey(URI)}, the path is
+     * kept, as the services behind a Choreo gateway differ in latency.
+     *
+     * @param uri Url of the Choreo endpoint.
+     * @return Endpoint key in the form scheme://host:port/path.
+     */
+    static String getEndpointKey(URI uri) {
+
+        String endpointKey = CommonUtils.getEndpointKey(uri);
+        if (uri == null || uri.getHost() == null || uri.getRawPath() == null) {
+            return endpointKey;
+        }
+        return endpointKey + uri.getRawPath();
+    }
+
+    EndpointLatency getEndpointLatency(String endpointKey) {
+
+        EndpointLatency endpointLatency = endpointLatencies.get(endpointKey);
+        if (endpointLatency != null || endpointLatencies.size() >= MAX_ENDPOINTS) {
+            return endpointLatency;
+        }
+        return endpointLatencies.computeIfAbsent(endpointKey, key -> new EndpointLatency());
+    }
+
+    private static double getElapsedMillis(long startTime) {
+
+        return (System.nanoTime() - startTime) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Latency of a Choreo endpoint, estimated over the current and the last complete window of calls.
+     */
+    class EndpointLatency {
+
+        private P2QuantileEstimator currentWindow = new P2QuantileEstimator(percentile);
+        private P2QuantileEstimator lastWindow;
+        private long sampleCount;
+        private long timeoutCount;
+
+        synchronized void record(double latencyMillis) {
+
+            sampleCount++;
+            addSample(latencyMillis);
+        }
+
+        /**
+         * Record a call which timed out.
+         *
+         * @param timeoutMillis Timeout the call was sent with, or 0 if it is not known.
+         * @param elapsedMillis Time until the call timed out.
+         */
+        synchronized void recordTimeout(int timeoutMillis, double elapsedMillis) {
+
+            timeoutCount++;
+            addSample(timeoutMillis > 0 ? timeoutMillis : elapsedMillis);
+        }
+
+        private void addSample(double latencyMillis) {
+
+            currentWindow.add(latencyMillis);
+            if (currentWindow.getCount() >= windowSize) {
+                lastWindow = currentWindow;
+                currentWindow = new P2QuantileEstimator(percentile);
+            }
+        }
+
+        synchronized double getLatency() {
+
+            if (currentWindow.getCount() >= minSamples) {
+                return currentWindow.getQuantile();
+            }
+            if (lastWindow != null) {
+                return lastWindow.getQuantile();
+            }
+            return Double.NaN;
+        }
+
+        /**
+         * Get the read timeout of the endpoint.
+         *
+         * @return Timeout in milliseconds, or -1 if not enough latencies are observed yet.
+         */
+        int getTimeout() {
+
+            double latency = getLatency();
+            if (Double.isNaN(latency)) {
+                return -1;
+            }
+            long timeout = Math.max(minTimeout, Math.round(Math.ceil(latency * multiplier)));
+            int upperBound = maxTimeout > 0 ? maxTimeout : defaultTimeout;
+            if (upperBound > 0) {
+                timeout = Math.min(upperBound, timeout);
+            }
+            return (int) timeout;
+        }
+
+        synchronized ChoreoEndpointTimeout snapshot(String endpoint) {
+
+            return new ChoreoEndpointTimeout(endpoint, sampleCount, timeoutCount, getLatency(), getTimeout());
+        }
+    }
+}
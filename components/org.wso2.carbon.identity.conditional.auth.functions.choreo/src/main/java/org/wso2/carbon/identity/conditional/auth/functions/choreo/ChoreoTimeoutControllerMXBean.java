@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo;
+
+import java.util.List;
+
+/**
+ * Management interface of the {@link ChoreoTimeoutController}, exposed over JMX.
+ */
+public interface ChoreoTimeoutControllerMXBean {
+
+    /**
+     * Get the observed latency and the effective read timeout of each Choreo endpoint called so far.
+     *
+     * @return Endpoint timeouts.
+     */
+    List<ChoreoEndpointTimeout> getEndpointTimeouts();
+
+    /**
+     * Discard the latencies observed so far, so that the configured read timeout is applied until enough latencies
+     * are observed again.
+     */
+    void reset();
+}
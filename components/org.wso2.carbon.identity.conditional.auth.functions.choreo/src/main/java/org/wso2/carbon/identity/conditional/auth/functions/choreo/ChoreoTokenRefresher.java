@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Renews the Choreo access tokens in the background before they expire, so that logins find an unexpired token
+ * instead of waiting for a token request. The refresher runs only when enabled in the configuration.
+ * <p>
+ * The token of each consumer key and tenant is renewed at a configured share of its lifetime, moved randomly by a
+ * jitter so that the tokens obtained together are not renewed together. A failed renewal is retried at half of the
+ * remaining lifetime of the token. Renewal stops once a token is not used within the idle timeout, after which the
+ * next login requests the token as before.
+ * <p>
+ * The refresher never holds a consumer secret. Only tokens obtained with a consumer secret from the secret store are
+ * renewed, and the secret is resolved again through the {@link
+ * org.wso2.carbon.identity.conditional.auth.functions.choreo.cache.ChoreoSecretCache} for each renewal.
+ */
+public class ChoreoTokenRefresher {
+
+    private static final Log LOG = LogFactory.getLog(ChoreoTokenRefresher.class);
+    private static final String KEY_SEPARATOR = ":";
+    private static final long MIN_RETRY_DELAY = 1000;
+
+    /**
+     * Requests an access token from the token endpoint.
+     */
+    interface TokenRequester {
+
+        /**
+         * Request an access token with the client credentials grant.
+         *
+         * @param tokenEndpoint       Token endpoint.
+         * @param consumerKey         Consumer key.
+         * @param consumerSecretAlias Alias of the consumer secret in the secret store of the tenant.
+         * @param tenantDomain        Tenant domain.
+         * @param callback            Callback invoked with the token, or with the failure.
+         */
+        void requestToken(String tokenEndpoint, String consumerKey, String consumerSecretAlias, String tenantDomain,
+                          TokenCallback callback);
+    }
+
+    /**
+     * Callback of a token request.
+     */
+    interface TokenCallback {
+
+        void onToken(String accessToken, long expiryTime);
+
+        void onFailure(Exception e);
+    }
+
+    private final boolean enabled;
+    private final int lifetimeRatio;
+    private final int jitterRatio;
+    private final long idleTimeout;
+    private final TokenRequester tokenRequester;
+    private final ScheduledExecutorService scheduler;
+    private final LongSupplier clock;
+    private final DoubleSupplier random;
+    private final Map<String, TokenEntry> tokens = new ConcurrentHashMap<>();
+    private volatile boolean shutdown;
+
+    ChoreoTokenRefresher(boolean enabled, int lifetimeRatio, int jitterRatio, long idleTimeout,
+                         TokenRequester tokenRequester, ScheduledExecutorService scheduler, LongSupplier clock,
+                         DoubleSupplier random) {
+
+        this.enabled = enabled;
+        this.lifetimeRatio = Math.min(100, Math.max(1, lifetimeRatio));
+        this.jitterRatio = Math.max(0, jitterRatio);
+        this.idleTimeout = idleTimeout;
+        this.tokenRequester = tokenRequester;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.random = random;
+    }
+
+    private static class ChoreoTokenRefresherHolder {
+
+        static final ChoreoTokenRefresher INSTANCE = createRefresher(ConfigProvider.getInstance());
+    }
+
+    public static ChoreoTokenRefresher getInstance() {
+
+        return ChoreoTokenRefresherHolder.INSTANCE;
+    }
+
+    private static ChoreoTokenRefresher createRefresher(ConfigProvider configProvider) {
+
+        if (!configProvider.isChoreoTokenRefreshEnabled()) {
+            return new ChoreoTokenRefresher(false, 100, 0, 0, null, null, System::currentTimeMillis, () -> 0);
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "choreo-token-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new ChoreoTokenRefresher(true, configProvider.getChoreoTokenRefreshLifetimeRatio(),
+                configProvider.getChoreoTokenRefreshJitterRatio(), configProvider.getChoreoTokenRefreshIdleTimeout(),
+                new ChoreoTokenRequester(), scheduler, System::currentTimeMillis,
+                () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * Get the renewed token of the given consumer key and tenant, marking it as used.
+     *
+     * @param tokenEndpoint Token endpoint.
+     * @param consumerKey   Consumer key.
+     * @param tenantDomain  Tenant domain.
+     * @return Unexpired access token, or null if there is none.
+     */
+    public String getToken(String tokenEndpoint, String consumerKey, String tenantDomain) {
+
+        if (!enabled) {
+            return null;
+        }
+        TokenEntry entry = tokens.get(getKey(tokenEndpoint, consumerKey, tenantDomain));
+        if (entry == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        if (now >= entry.expiryTime) {
+            return null;
+        }
+        entry.lastUsedTime = now;
+        return entry.accessToken;
+    }
+
+    /**
+     * Mark the token of the given consumer key and tenant as used, so that it is kept renewed.
+     *
+     * @param tokenEndpoint Token endpoint.
+     * @param consumerKey   Consumer key.
+     * @param tenantDomain  Tenant domain.
+     */
+    public void onTokenUsed(String tokenEndpoint, String consumerKey, String tenantDomain) {
+
+        if (!enabled) {
+            return;
+        }
+        TokenEntry entry = tokens.get(getKey(tokenEndpoint, consumerKey, tenantDomain));
+        if (entry != null) {
+            entry.lastUsedTime = clock.getAsLong();
+        }
+    }
+
+    /**
+     * Track a token obtained for a login, and schedule its renewal. Tokens obtained with a consumer secret given in
+     * the script are not tracked, as the secret would have to be kept to renew them.
+     *
+     * @param tokenEndpoint       Token endpoint.
+     * @param consumerKey         Consumer key.
+     * @param consumerSecretAlias Alias of the consumer secret in the secret store, or null if the secret is given in
+     *                            the script.
+     * @param tenantDomain        Tenant domain.
+     * @param accessToken         Access token.
+     * @param expiryTime          Expiry time of the token in milliseconds since the epoch.
+     */
+    public void onTokenObtained(String tokenEndpoint, String consumerKey, String consumerSecretAlias,
+                                String tenantDomain, String accessToken, long expiryTime) {
+
+        if (!enabled || shutdown || consumerSecretAlias == null) {
+            return;
+        }
+        String key = getKey(tokenEndpoint, consumerKey, tenantDomain);
+        TokenEntry entry = tokens.computeIfAbsent(key,
+                tokenKey -> new TokenEntry(tokenEndpoint, consumerKey, tenantDomain));
+        synchronized (entry) {
+            entry.consumerSecretAlias = consumerSecretAlias;
+            entry.lastUsedTime = clock.getAsLong();
+            updateToken(key, entry, accessToken, expiryTime);
+        }
+    }
+
+    /**
+     * Stop renewing the token of the given consumer key and tenant, as its credentials are no longer accepted by the
+     * token endpoint.
+     *
+     * @param tokenEndpoint Token endpoint.
+     * @param consumerKey   Consumer key.
+     * @param tenantDomain  Tenant domain.
+     */
+    public void invalidate(String tokenEndpoint, String consumerKey, String tenantDomain) {
+
+        if (!enabled) {
+            return;
+        }
+        TokenEntry entry = tokens.remove(getKey(tokenEndpoint, consumerKey, tenantDomain));
+        if (entry != null) {
+            cancel(entry);
+        }
+    }
+
+    /**
+     * Stop renewing all the tokens of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void clear(String tenantDomain) {
+
+        if (!enabled) {
+            return;
+        }
+        Iterator<TokenEntry> entries = tokens.values().iterator();
+        while (entries.hasNext()) {
+            TokenEntry entry = entries.next();
+            if (entry.tenantDomain.equals(tenantDomain)) {
+                entries.remove();
+                cancel(entry);
+            }
+        }
+    }
+
+    /**
+     * Stop renewing all the tokens and shut the scheduler down.
+     */
+    public void shutdown() {
+
+        if (!enabled) {
+            return;
+        }
+        shutdown = true;
+        tokens.clear();
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Renew the token of the given key, unless it has not been used within the idle timeout.
+     *
+     * @param key Key of the token.
+     */
+    void refresh(String key) {
+
+        TokenEntry entry = tokens.get(key);
+        if (entry == null) {
+            return;
+        }
+        if (clock.getAsLong() - entry.lastUsedTime > idleTimeout) {
+            if (tokens.remove(key, entry) && LOG.isDebugEnabled()) {
+                LOG.debug("Stopped renewing the idle Choreo access token of the tenant: " + entry.tenantDomain);
+            }
+            return;
+        }
+        tokenRequester.requestToken(entry.tokenEndpoint, entry.consumerKey, entry.consumerSecretAlias,
+                entry.tenantDomain, new TokenCallback() {
+
+                    @Override
+                    public void onToken(String accessToken, long expiryTime) {
+
+                        synchronized (entry) {
+                            if (tokens.get(key) != entry) {
+                                // The token is invalidated while it was renewed.
+                                return;
+                            }
+                            updateToken(key, entry, accessToken, expiryTime);
+                        }
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Renewed the Choreo access token of the tenant: " + entry.tenantDomain);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+
+                        LOG.warn("Failed to renew the Choreo access token of the tenant: " + entry.tenantDomain, e);
+                        synchronized (entry) {
+                            if (tokens.get(key) != entry) {
+                                return;
+                            }
+                            long retryDelay = (entry.expiryTime - clock.getAsLong()) / 2;
+                            if (retryDelay < MIN_RETRY_DELAY) {
+                                // The token expires before a retry, hence the next login requests the token.
+                                tokens.remove(key, entry);
+                                return;
+                            }
+                            schedule(key, entry, retryDelay);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Delay of the renewal of a token, as the configured share of the lifetime, moved by a random jitter.
+     *
+     * @param lifetime Remaining lifetime of the token in milliseconds.
+     * @return Delay in milliseconds, within the lifetime.
+     */
+    long getRefreshDelay(long lifetime) {
+
+        double jitter = (random.getAsDouble() * 2 - 1) * jitterRatio / 100;
+        long delay = (long) (lifetime * (lifetimeRatio / 100.0 + jitter));
+        return Math.max(0, Math.min(delay, lifetime - 1));
+    }
+
+    boolean isTracked(String tokenEndpoint, String consumerKey, String tenantDomain) {
+
+        return tokens.containsKey(getKey(tokenEndpoint, consumerKey, tenantDomain));
+    }
+
+    private void updateToken(String key, TokenEntry entry, String accessToken, long expiryTime) {
+
+        entry.accessToken = accessToken;
+        entry.expiryTime = expiryTime;
+        long lifetime = expiryTime - clock.getAsLong();
+        if (lifetime <= 0) {
+            cancel(entry);
+            tokens.remove(key, entry);
+            return;
+        }
+        schedule(key, entry, getRefreshDelay(lifetime));
+    }
+
+    private void schedule(String key, TokenEntry entry, long delay) {
+
+        cancel(entry);
+        try {
+            entry.refreshTask = scheduler.schedule(() -> {
+                try {
+                    refresh(key);
+                } catch (RuntimeException e) {
+                    LOG.error("Error while renewing the Choreo access token of the tenant: " + entry.tenantDomain,
+                            e);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // The refresher is shut down, hence the next login requests the token.
+            tokens.remove(key, entry);
+        }
+    }
+
+    private static void cancel(TokenEntry entry) {
+
+        if (entry.refreshTask != null) {
+            entry.refreshTask.cancel(false);
+        }
+    }
+
+    private static String getKey(String tokenEndpoint, String consumerKey, String tenantDomain) {
+
+        return tokenEndpoint + KEY_SEPARATOR + consumerKey + KEY_SEPARATOR + tenantDomain;
+    }
+
+    /**
+     * Token of a consumer key in a tenant, with what is needed to renew it. The consumer secret is kept only as its
+     * alias in the secret store.
+     */
+    private static class TokenEntry {
+
+        private final String tokenEndpoint;
+        private final String consumerKey;
+        private final String tenantDomain;
+        private volatile String consumerSecretAlias;
+        private volatile String accessToken;
+        private volatile long expiryTime;
+        private volatile long lastUsedTime;
+        private ScheduledFuture<?> refreshTask;
+
+        TokenEntry(String tokenEndpoint, String consumerKey, String tenantDomain) {
+
+            this.tokenEndpoint = tokenEndpoint;
+            this.consumerKey = consumerKey;
+            this.tenantDomain = tenantDomain;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.conditional.auth.functions.choreo.cache.ChoreoSecretCache;
+import org.wso2.carbon.identity.conditional.auth.functions.choreo.internal.ChoreoFunctionServiceHolder;
+import org.wso2.carbon.identity.secret.mgt.core.exception.SecretManagementException;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+import static org.apache.http.HttpHeaders.ACCEPT;
+import static org.apache.http.HttpHeaders.CONTENT_TYPE;
+
+/**
+ * Requests the Choreo access tokens with the client credentials grant.
+ */
+class ChoreoTokenRequester implements ChoreoTokenRefresher.TokenRequester {
+
+    private static final String TYPE_APPLICATION_JSON = "application/json";
+    private static final String TYPE_FORM_DATA = "application/x-www-form-urlencoded";
+    private static final String AUTHORIZATION = "Authorization";
+    private static final String BASIC = "Basic ";
+    private static final String GRANT_TYPE = "grant_type";
+    private static final String GRANT_TYPE_CLIENT_CREDENTIALS = "client_credentials";
+    private static final String ACCESS_TOKEN_KEY = "access_token";
+    private static final String JWT_EXP_CLAIM = "exp";
+    private static final int HTTP_STATUS_OK = 200;
+    private static final Gson GSON = new Gson();
+
+    /**
+     * Create the access token request using client credentials grant type.
+     *
+     * @param tokenEndpoint  Token endpoint.
+     * @param consumerKey    Consumer key.
+     * @param consumerSecret Consumer secret.
+     * @return Token request.
+     * @throws UnsupportedEncodingException {@link UnsupportedEncodingException}
+     */
+    static HttpPost createTokenRequest(String tokenEndpoint, String consumerKey, String consumerSecret)
+            throws UnsupportedEncodingException {
+
+        HttpPost request = new HttpPost(tokenEndpoint);
+        request.setHeader(ACCEPT, TYPE_APPLICATION_JSON);
+        request.setHeader(CONTENT_TYPE, TYPE_FORM_DATA);
+        request.setHeader(AUTHORIZATION, BASIC + Base64.getEncoder()
+                .encodeToString((consumerKey + ":" + consumerSecret).getBytes(StandardCharsets.UTF_8)));
+        request.setEntity(new UrlEncodedFormEntity(Collections.singletonList(
+                new BasicNameValuePair(GRANT_TYPE, GRANT_TYPE_CLIENT_CREDENTIALS))));
+        return request;
+    }
+
+    /**
+     * Get the expiry time of a JWT access token.
+     *
+     * @param accessToken Access token.
+     * @return Expiry time in milliseconds since the epoch.
+     * @throws ParseException If the token is not a JWT with an expiry time.
+     */
+    static long getExpiryTime(String accessToken) throws ParseException {
+
+        Date expiryDate = (Date) SignedJWT.parse(accessToken).getJWTClaimsSet().getClaim(JWT_EXP_CLAIM);
+        if (expiryDate == null) {
+            throw new ParseException("Access token does not have an expiry time.", 0);
+        }
+        return expiryDate.getTime();
+    }
+
+    /**
+     * Get the access token from a token response.
+     *
+     * @param response Token response.
+     * @return Access token, or null if the response does not contain one.
+     * @throws IOException If the response cannot be read.
+     */
+    static String getAccessToken(HttpResponse response) throws IOException {
+
+        Type responseBodyType = new TypeToken<Map<String, String>>() { }.getType();
+        Map<String, String> responseBody = GSON.fromJson(EntityUtils.toString(response.getEntity()),
+                responseBodyType);
+        return responseBody == null ? null : responseBody.get(ACCESS_TOKEN_KEY);
+    }
+
+    /**
+     * Resolve the consumer secret of the given alias from the secret cache, or else from the secret store of the
+     * tenant. Used off the login thread, hence the secret store is read within a flow of the tenant.
+     *
+     * @param consumerSecretAlias Alias of the consumer secret.
+     * @param tenantDomain        Tenant domain.
+     * @return Consumer secret.
+     * @throws SecretManagementException {@link SecretManagementException}
+     */
+    static String resolveConsumerSecret(String consumerSecretAlias, String tenantDomain)
+            throws SecretManagementException {
+
+        ChoreoSecretCache secretCache = ChoreoSecretCache.getInstance();
+        String consumerSecret = secretCache.getValueFromCache(tenantDomain, consumerSecretAlias);
+        if (consumerSecret != null) {
+            return consumerSecret;
+        }
+        try {
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain, true);
+            consumerSecret = ChoreoFunctionServiceHolder.getInstance().getSecretConfigManager()
+                    .getResolvedSecret(CallChoreoFunctionImpl.SECRET_TYPE, consumerSecretAlias)
+                    .getResolvedSecretValue();
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+        secretCache.addToCache(tenantDomain, consumerSecretAlias, consumerSecret);
+        return consumerSecret;
+    }
+
+    @Override
+    public void requestToken(String tokenEndpoint, String consumerKey, String consumerSecretAlias,
+                             String tenantDomain, ChoreoTokenRefresher.TokenCallback callback) {
+
+        try {
+            HttpPost request = createTokenRequest(tokenEndpoint, consumerKey,
+                    resolveConsumerSecret(consumerSecretAlias, tenantDomain));
+            CloseableHttpAsyncClient client = ChoreoFunctionServiceHolder.getInstance().getClientManager()
+                    .getClient(tenantDomain);
+            client.execute(request, new FutureCallback<HttpResponse>() {
+
+                @Override
+                public void completed(HttpResponse response) {
+
+                    try {
+                        int statusCode = response.getStatusLine().getStatusCode();
+                        if (statusCode != HTTP_STATUS_OK) {
+                            callback.onFailure(new IOException("Token request failed with the status code: " +
+                                    statusCode));
+                            return;
+                        }
+                        String accessToken = getAccessToken(response);
+                        if (accessToken == null) {
+                            callback.onFailure(new IOException("Token response does not contain an access token."));
+                            return;
+                        }
+                        callback.onToken(accessToken, getExpiryTime(accessToken));
+                    } catch (IOException | ParseException | RuntimeException e) {
+                        callback.onFailure(e);
+                    } finally {
+                        EntityUtils.consumeQuietly(response.getEntity());
+                    }
+                }
+
+                @Override
+                public void failed(Exception e) {
+
+                    callback.onFailure(e);
+                }
+
+                @Override
+                public void cancelled() {
+
+                    callback.onFailure(new IOException("Token request is cancelled."));
+                }
+            });
+        } catch (Exception e) {
+            callback.onFailure(e);
+        }
+    }
+}
@@ -24,16 +24,11 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLContexts;
-import org.apache.http.conn.ssl.X509HostnameVerifier;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
-import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
-import org.apache.http.impl.nio.client.HttpAsyncClients;
-import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
-import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
-import org.apache.http.nio.reactor.ConnectingIOReactor;
-import org.apache.http.nio.reactor.IOReactorException;
 import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
 import org.wso2.carbon.identity.conditional.auth.functions.choreo.internal.ChoreoFunctionServiceHolder;
+import org.wso2.carbon.identity.conditional.auth.functions.common.http.OutboundClientSettings;
+import org.wso2.carbon.identity.conditional.auth.functions.common.http.OutboundHttpEngine;
 import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
@@ -42,22 +37,18 @@ import java.io.IOException;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashMap;
-import java.util.Map;
 
+import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 
 /**
- * Class to retrieve the HTTP Clients.
+ * Class to retrieve the HTTP Clients. The clients are managed by the shared {@link OutboundHttpEngine}.
  */
-public class ClientManager {
+public class ClientManager implements OutboundClientSettings {
 
     private static final Log LOG = LogFactory.getLog(ClientManager.class);
 
-    private static Map<Integer, CloseableHttpAsyncClient> clientMap = new HashMap<>();
-
-    private PoolingNHttpClientConnectionManager poolingHttpClientConnectionManager;
-
+    private static final String MODULE_NAME = "choreo";
     private static final int HTTP_CONNECTION_TIMEOUT = 1000;
     private static final int HTTP_CONNECTION_REQUEST_TIMEOUT = 1000;
     private static final int DEFAULT_MAX_CONNECTIONS = 20;
@@ -76,22 +67,11 @@ public class ClientManager {
     public CloseableHttpAsyncClient getClient(String tenantDomain) throws FrameworkException, IOException {
 
         int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
-        CloseableHttpAsyncClient client = clientMap.get(tenantId);
-        if (client == null) {
-            PoolingNHttpClientConnectionManager poolingHttpClientConnectionManager = createPoolingConnectionManager();
-            RequestConfig config = createRequestConfig();
-            HttpAsyncClientBuilder httpClientBuilder = HttpAsyncClients.custom().setDefaultRequestConfig(config);
-            addSslContext(httpClientBuilder, tenantDomain);
-            httpClientBuilder.setConnectionManager(poolingHttpClientConnectionManager);
-            client = httpClientBuilder.build();
-            client.start();
-            clientMap.put(tenantId, client);
-        }
-
-        return client;
+        return OutboundHttpEngine.getInstance().getClient(MODULE_NAME, tenantId, tenantDomain, this);
     }
 
-    private RequestConfig createRequestConfig() {
+    @Override
+    public RequestConfig getRequestConfig(String tenantDomain) {
 
         return RequestConfig.custom()
                 .setConnectTimeout(StringUtils.isNotBlank(
@@ -112,62 +92,47 @@ public class ClientManager {
                 .build();
     }
 
-    private PoolingNHttpClientConnectionManager createPoolingConnectionManager() throws FrameworkException {
+    @Override
+    public int getMaxConnections() {
 
         String maxConnectionsString = IdentityUtil.getProperty(Constants.CONNECTION_POOL_MAX_CONNECTIONS);
-        String maxConnectionsPerRouteString = IdentityUtil.getProperty(Constants
-                .CONNECTION_POOL_MAX_CONNECTIONS_PER_ROUTE);
-        int maxConnections = DEFAULT_MAX_CONNECTIONS;
-        int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS;
         try {
-            maxConnections = Integer.parseInt(maxConnectionsString);
+            return Integer.parseInt(maxConnectionsString);
         } catch (NumberFormatException e) {
             // Default value is used.
-            LOG.error("Error while converting MaxConnection " + maxConnections + " to integer. So proceed with " +
-                    "default value ", e);
+            LOG.error("Error while converting MaxConnection " + maxConnectionsString + " to integer. So proceed " +
+                    "with default value ", e);
         }
+        return DEFAULT_MAX_CONNECTIONS;
+    }
+
+    @Override
+    public int getMaxConnectionsPerRoute() {
+
+        String maxConnectionsPerRouteString = IdentityUtil.getProperty(Constants
+                .CONNECTION_POOL_MAX_CONNECTIONS_PER_ROUTE);
         try {
-            maxConnectionsPerRoute = Integer.parseInt(maxConnectionsPerRouteString);
+            return Integer.parseInt(maxConnectionsPerRouteString);
         } catch (NumberFormatException e) {
             // Default value is used.
-            LOG.error("Error while converting MaxConnectionsPerRoute " + maxConnectionsPerRoute + " to integer. " +
-                    "So proceed with default value ", e);
+            LOG.error("Error while converting MaxConnectionsPerRoute " + maxConnectionsPerRouteString + " to " +
+                    "integer. So proceed with default value ", e);
         }
-
-        ConnectingIOReactor ioReactor;
-        try {
-            ioReactor = new DefaultConnectingIOReactor();
-        } catch (IOReactorException e) {
-            throw new FrameworkException("Error while creating ConnectingIOReactor", e);
-        }
-        PoolingNHttpClientConnectionManager poolingHttpClientConnectionManager = new
-                PoolingNHttpClientConnectionManager(ioReactor);
-        // Increase max total connection to 20.
-        poolingHttpClientConnectionManager.setMaxTotal(maxConnections);
-        // Increase default max connection per route to 20.
-        poolingHttpClientConnectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
-        return poolingHttpClientConnectionManager;
+        return DEFAULT_MAX_CONNECTIONS;
     }
 
     public void closeClient(int tenantId) throws IOException {
 
-        CloseableHttpAsyncClient client = clientMap.get(tenantId);
-        if (client != null) {
-            clientMap.remove(tenantId);
-            client.close();
-        }
+        OutboundHttpEngine.getInstance().closeClient(MODULE_NAME, tenantId);
     }
 
-    private void addSslContext(HttpAsyncClientBuilder builder, String tenantDomain) throws IOException {
+    @Override
+    public SSLContext getSSLContext(String tenantDomain) throws IOException {
 
         try {
-            SSLContext sslContext = SSLContexts.custom()
+            return SSLContexts.custom()
                     .loadTrustMaterial(ChoreoFunctionServiceHolder.getInstance().getTrustStore())
                     .build();
-            X509HostnameVerifier hostnameVerifier = SSLConnectionSocketFactory.STRICT_HOSTNAME_VERIFIER;
-            builder.setSSLContext(sslContext);
-            builder.setHostnameVerifier(hostnameVerifier);
-
         } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
             LOG.error("Error while creating ssl context for Choreo endpoint invocation in tenant domain: " +
                     tenantDomain, e);
@@ -175,4 +140,10 @@ public class ClientManager {
                     "domain: " + tenantDomain, e);
         }
     }
+
+    @Override
+    public HostnameVerifier getHostnameVerifier(String tenantDomain) {
+
+        return SSLConnectionSocketFactory.STRICT_HOSTNAME_VERIFIER;
+    }
 }
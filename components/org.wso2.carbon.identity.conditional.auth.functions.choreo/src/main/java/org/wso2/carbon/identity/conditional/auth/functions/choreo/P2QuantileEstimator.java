@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo;
+
+import java.util.Arrays;
+
+/**
+ * Streaming estimator of a quantile with the P-square algorithm (Jain and Chlamtac), which keeps five markers
+ * instead of the observations, so that the memory and the time per observation are constant.
+ * <p>
+ * Not thread safe.
+ */
+final class P2QuantileEstimator {
+
+    private static final int MARKERS = 5;
+
+    private final double quantile;
+    private final double[] heights = new double[MARKERS];
+    private final int[] positions = new int[MARKERS];
+    private final double[] desiredPositions = new double[MARKERS];
+    private final double[] increments = new double[MARKERS];
+    private int count;
+
+    /**
+     * @param quantile Quantile to estimate, between 0 and 1.
+     */
+    P2QuantileEstimator(double quantile) {
+
+        this.quantile = quantile;
+    }
+
+    void add(double value) {
+
+        if (count < MARKERS) {
+            heights[count++] = value;
+            if (count == MARKERS) {
+                initMarkers();
+            }
+            return;
+        }
+
+        int cell;
+        if (value < heights[0]) {
+            heights[0] = value;
+            cell = 0;
+        } else if (value >= heights[MARKERS - 1]) {
+            heights[MARKERS - 1] = value;
+            cell = MARKERS - 2;
+        } else {
+            cell = 0;
+            while (value >= heights[cell + 1]) {
+                cell++;
+            }
+        }
+        for (int i = cell + 1; i < MARKERS; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < MARKERS; i++) {
+            desiredPositions[i] += increments[i];
+        }
+        count++;
+
+        for (int i = 1; i < MARKERS - 1; i++) {
+            double offset = desiredPositions[i] - positions[i];
+            if ((offset >= 1 && positions[i + 1] - positions[i] > 1) ||
+                    (offset <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int direction = offset > 0 ? 1 : -1;
+                double height = parabolic(i, direction);
+                if (heights[i - 1] < height && height < heights[i + 1]) {
+                    heights[i] = height;
+                } else {
+                    heights[i] = linear(i, direction);
+                }
+                positions[i] += direction;
+            }
+        }
+    }
+
+    /**
+     * Get the estimated quantile of the observations so far.
+     *
+     * @return Estimated quantile, or NaN if there are no observations.
+     */
+    double getQuantile() {
+
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count < MARKERS) {
+            double[] observations = Arrays.copyOf(heights, count);
+            Arrays.sort(observations);
+            int index = (int) Math.ceil(quantile * count) - 1;
+            return observations[Math.max(0, Math.min(count - 1, index))];
+        }
+        return heights[2];
+    }
+
+    int getCount() {
+
+        return count;
+    }
+
+    private void initMarkers() {
+
+        Arrays.sort(heights);
+        for (int i = 0; i < MARKERS; i++) {
+            positions[i] = i;
+        }
+        desiredPositions[0] = 0;
+        desiredPositions[1] = 2 * quantile;
+        desiredPositions[2] = 4 * quantile;
+        desiredPositions[3] = 2 + 2 * quantile;
+        desiredPositions[4] = 4;
+        increments[0] = 0;
+        increments[1] = quantile / 2;
+        increments[2] = quantile;
+        increments[3] = (1 + quantile) / 2;
+        increments[4] = 1;
+    }
+
+    private double parabolic(int i, int direction) {
+
+        return heights[i] + (double) direction / (positions[i + 1] - positions[i - 1]) *
+                ((positions[i] - positions[i - 1] + direction) * (heights[i + 1] - heights[i]) /
+                        (positions[i + 1] - positions[i]) +
+                        (positions[i + 1] - positions[i] - direction) * (heights[i] - heights[i - 1]) /
+                                (positions[i] - positions[i - 1]));
+    }
+
+    private double linear(int i, int direction) {
+
+        return heights[i] + direction * (heights[i + direction] - heights[i]) /
+                (positions[i + direction] - positions[i]);
+    }
+}
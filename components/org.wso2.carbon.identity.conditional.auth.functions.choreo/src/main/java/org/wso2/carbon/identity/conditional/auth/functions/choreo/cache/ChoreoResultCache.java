@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, tenant scoped cache of the successful responses of the Choreo endpoints called with callChoreo. Many of
+ * these endpoints are decision functions, which give the same result for the same inputs, so a result is reused for
+ * the time to live configured for the endpoint.
+ * <p>
+ * Only the endpoints configured under AdaptiveAuth.CallChoreo.ResultCache are cached. The cache key is the
+ * fingerprint of the endpoint url, the consumer the call is made as, and the values of the payload keys configured for
+ * the endpoint, so the payload keys have to cover every input that changes the result. Failed calls are never cached.
+ */
+public class ChoreoResultCache implements ChoreoResultCacheMXBean {
+
+    private static final Log LOG = LogFactory.getLog(ChoreoResultCache.class);
+    public static final String OBJECT_NAME = "org.wso2.carbon.identity.conditional.auth:type=ChoreoResultCache";
+    private static final String PAYLOAD_KEY_SEPARATOR = ",";
+
+    private final boolean enabled;
+    private final int maxEntriesPerTenant;
+    private final int maxResponseSize;
+    private final LongSupplier clock;
+    private final Gson gson = new GsonBuilder().serializeNulls().create();
+    private final Map<String, EndpointPolicy> endpointPolicies;
+    private final Map<String, Map<String, CachedResult>> tenantCaches = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+
+    private ChoreoResultCache() {
+
+        this(ConfigProvider.getInstance());
+    }
+
+    private ChoreoResultCache(ConfigProvider configProvider) {
+
+        this(configProvider.getChoreoResultCacheEndpoints(), configProvider.getChoreoResultCacheMaxEntries(),
+                configProvider.getChoreoResultCacheMaxResponseSize(), System::currentTimeMillis);
+    }
+
+    ChoreoResultCache(Map<String, Map<String, String>> endpoints, int maxEntriesPerTenant, int maxResponseSize,
+                      LongSupplier clock) {
+
+        this.maxEntriesPerTenant = maxEntriesPerTenant;
+        this.maxResponseSize = maxResponseSize;
+        this.clock = clock;
+        this.endpointPolicies = maxEntriesPerTenant > 0 ? toEndpointPolicies(endpoints) : Collections.emptyMap();
+        this.enabled = !endpointPolicies.isEmpty();
+    }
+
+    private static class ChoreoResultCacheHolder {
+
+        static final ChoreoResultCache INSTANCE = new ChoreoResultCache();
+    }
+
+    public static ChoreoResultCache getInstance() {
+
+        return ChoreoResultCacheHolder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Build the cache key of a call to the endpoint. The consumer is part of the key, so that applications calling
+     * the same endpoint with different credentials never share results.
+     *
+     * @param url         Url of the Choreo endpoint.
+     * @param consumer    Consumer key, or alias of the consumer key, the call is made as.
+     * @param payloadData Payload of the call.
+     * @return Cache key, or null if the results of the endpoint are not cached.
+     */
+    public String buildCacheKey(String url, String consumer, Map<String, Object> payloadData) {
+
+        if (!enabled || url == null || consumer == null) {
+            return null;
+        }
+        EndpointPolicy endpointPolicy = endpointPolicies.get(url);
+        if (endpointPolicy == null) {
+            return null;
+        }
+        StringBuilder fingerprintBuilder = new StringBuilder(url).append('\n').append(consumer);
+        for (String payloadKey : endpointPolicy.payloadKeys) {
+            fingerprintBuilder.append('\n').append(payloadKey);
+            // An absent key and a key with a null value are kept apart.
+            if (payloadData != null && payloadData.containsKey(payloadKey)) {
+                fingerprintBuilder.append('=').append(gson.toJson(toCanonicalValue(payloadData.get(payloadKey))));
+            }
+        }
+        return CommonUtils.sha256Hex(fingerprintBuilder.toString());
+    }
+
+    /**
+     * Get the cached result of a call.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param cacheKey     Cache key built with {@link #buildCacheKey(String, String, Map)}.
+     * @return Response body of the endpoint, or null if it is not cached or has expired.
+     */
+    public String get(String tenantDomain, String cacheKey) {
+
+        if (!enabled || cacheKey == null) {
+            return null;
+        }
+        CachedResult cachedResult = null;
+        Map<String, CachedResult> tenantCache = tenantCaches.get(tenantDomain);
+        if (tenantCache != null) {
+            cachedResult = tenantCache.get(cacheKey);
+            if (cachedResult != null && clock.getAsLong() >= cachedResult.expiryTime) {
+                tenantCache.remove(cacheKey, cachedResult);
+                expirationCount.increment();
+                cachedResult = null;
+            }
+        }
+        if (cachedResult == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return cachedResult.body;
+    }
+
+    /**
+     * Cache the result of a successful call. Bodies larger than the max response size are not cached.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param url          Url of the Choreo endpoint.
+     * @param cacheKey     Cache key built with {@link #buildCacheKey(String, String, Map)}.
+     * @param body         Response body of the endpoint.
+     */
+    public void put(String tenantDomain, String url, String cacheKey, String body) {
+
+        if (!enabled || cacheKey == null || body == null) {
+            return;
+        }
+        EndpointPolicy endpointPolicy = endpointPolicies.get(url);
+        if (endpointPolicy == null) {
+            return;
+        }
+        if (body.length() > maxResponseSize) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Response of the Choreo endpoint: " + url + " exceeds the max cached response size of " +
+                        maxResponseSize + " characters. Hence it is not cached.");
+            }
+            return;
+        }
+        tenantCaches.computeIfAbsent(tenantDomain, domain -> createTenantCache())
+                .put(cacheKey, new CachedResult(body, clock.getAsLong() + endpointPolicy.timeToLive));
+    }
+
+    /**
+     * Remove all the cached results of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void clear(String tenantDomain) {
+
+        tenantCaches.remove(tenantDomain);
+    }
+
+    @Override
+    public void clear() {
+
+        tenantCaches.clear();
+    }
+
+    @Override
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+
+        return evictionCount.sum();
+    }
+
+    @Override
+    public long getExpirationCount() {
+
+        return expirationCount.sum();
+    }
+
+    @Override
+    public int getSize() {
+
+        int size = 0;
+        for (Map<String, CachedResult> tenantCache : tenantCaches.values()) {
+            size += tenantCache.size();
+        }
+        return size;
+    }
+
+    @Override
+    public int getTenantCount() {
+
+        return tenantCaches.size();
+    }
+
+    @Override
+    public void resetStats() {
+
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+        expirationCount.reset();
+    }
+
+    /**
+     * Register the cache with the platform MBean server, unless the cache is disabled.
+     */
+    public void registerMBean() {
+
+        if (!enabled) {
+            return;
+        }
+        CommonUtils.registerMBean(this, OBJECT_NAME);
+    }
+
+    /**
+     * Unregister the cache from the platform MBean server.
+     */
+    public void unregisterMBean() {
+
+        CommonUtils.unregisterMBean(OBJECT_NAME);
+    }
+
+    private Map<String, CachedResult> createTenantCache() {
+
+        return Collections.synchronizedMap(new LinkedHashMap<String, CachedResult>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 6914317503261860721L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+
+                if (size() > maxEntriesPerTenant) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Convert the value to a form which serializes the same regardless of the order of map entries.
+     */
+    private static Object toCanonicalValue(Object value) {
+
+        if (value instanceof Map) {
+            Map<String, Object> sortedMap = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sortedMap.put(String.valueOf(entry.getKey()), toCanonicalValue(entry.getValue()));
+            }
+            return sortedMap;
+        }
+        if (value instanceof Iterable) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (Iterable<?>) value) {
+                list.add(toCanonicalValue(element));
+            }
+            return list;
+        }
+        if (value instanceof Object[]) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (Object[]) value) {
+                list.add(toCanonicalValue(element));
+            }
+            return list;
+        }
+        return value;
+    }
+
+    private static Map<String, EndpointPolicy> toEndpointPolicies(Map<String, Map<String, String>> endpoints) {
+
+        Map<String, EndpointPolicy> endpointPolicies = new HashMap<>();
+        if (endpoints == null) {
+            return endpointPolicies;
+        }
+        for (Map.Entry<String, Map<String, String>> endpoint : endpoints.entrySet()) {
+            Map<String, String> attributes = endpoint.getValue();
+            String url = attributes.get(Constants.ChoreoResultCacheAttributes.URL);
+            String timeToLive = attributes.get(Constants.ChoreoResultCacheAttributes.TIME_TO_LIVE);
+            String payloadKeys = attributes.get(Constants.ChoreoResultCacheAttributes.PAYLOAD_KEYS);
+            if (StringUtils.isAnyBlank(url, timeToLive, payloadKeys)) {
+                LOG.error("Url, time to live and payload keys are required to cache the results of the choreo " +
+                        "endpoint: " + endpoint.getKey() + ". Hence its results are not cached.");
+                continue;
+            }
+            long timeToLiveValue;
+            try {
+                timeToLiveValue = Long.parseLong(timeToLive);
+            } catch (NumberFormatException e) {
+                timeToLiveValue = -1;
+            }
+            if (timeToLiveValue <= 0) {
+                LOG.error("Invalid time to live: " + timeToLive + " configured to cache the results of the choreo " +
+                        "endpoint: " + endpoint.getKey() + ". Hence its results are not cached.");
+                continue;
+            }
+            TreeSet<String> payloadKeySet = new TreeSet<>();
+            for (String payloadKey : payloadKeys.split(PAYLOAD_KEY_SEPARATOR)) {
+                if (StringUtils.isNotBlank(payloadKey)) {
+                    payloadKeySet.add(payloadKey.trim());
+                }
+            }
+            if (payloadKeySet.isEmpty()) {
+                LOG.error("No payload keys configured to cache the results of the choreo endpoint: " +
+                        endpoint.getKey() + ". Hence its results are not cached.");
+                continue;
+            }
+            endpointPolicies.put(url, new EndpointPolicy(timeToLiveValue, new ArrayList<>(payloadKeySet)));
+        }
+        return endpointPolicies;
+    }
+
+    /**
+     * Time to live and payload keys of an endpoint whose results are cached.
+     */
+    private static final class EndpointPolicy {
+
+        private final long timeToLive;
+        private final List<String> payloadKeys;
+
+        EndpointPolicy(long timeToLive, List<String> payloadKeys) {
+
+            this.timeToLive = timeToLive;
+            this.payloadKeys = payloadKeys;
+        }
+    }
+
+    /**
+     * Response body cached until its expiry time.
+     */
+    private static final class CachedResult {
+
+        private final String body;
+        private final long expiryTime;
+
+        CachedResult(String body, long expiryTime) {
+
+            this.body = body;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo.cache;
+
+/**
+ * Management interface of the {@link ChoreoResultCache}, exposed over JMX.
+ */
+public interface ChoreoResultCacheMXBean {
+
+    /**
+     * Get the number of callChoreo calls served from the cache, each of which avoided a call to Choreo.
+     *
+     * @return Hit count.
+     */
+    long getHitCount();
+
+    /**
+     * Get the number of callChoreo calls to cached endpoints which were not served from the cache.
+     *
+     * @return Miss count.
+     */
+    long getMissCount();
+
+    /**
+     * Get the number of results removed from the cache as the cache of the tenant reached its max size.
+     *
+     * @return Eviction count.
+     */
+    long getEvictionCount();
+
+    /**
+     * Get the number of results removed from the cache as their time to live passed.
+     *
+     * @return Expiration count.
+     */
+    long getExpirationCount();
+
+    /**
+     * Get the number of results in the cache, across all the tenants.
+     *
+     * @return Cached result count.
+     */
+    int getSize();
+
+    /**
+     * Get the number of tenants with cached results.
+     *
+     * @return Tenant count.
+     */
+    int getTenantCount();
+
+    /**
+     * Remove all the results from the cache.
+     */
+    void clear();
+
+    /**
+     * Discard the counts recorded so far.
+     */
+    void resetStats();
+}
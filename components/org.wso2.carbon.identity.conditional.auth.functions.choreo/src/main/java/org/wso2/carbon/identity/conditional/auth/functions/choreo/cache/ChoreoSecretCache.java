@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Bounded local cache of the consumer keys and secrets resolved from the secret store for callChoreo, scoped by
+ * tenant. Unlike {@link ChoreoAccessTokenCache}, the cache is kept in the node, so that resolved secrets are never
+ * replicated, and the values are kept sealed with a key generated for the node, so that they do not show up as plain
+ * strings in logs or heap dumps.
+ * <p>
+ * Secrets are cached only when the cache is enabled in the configuration. Secrets are removed when their time to
+ * live passes, when the least recently used secrets exceed the max size, or when they are invalidated.
+ */
+public class ChoreoSecretCache implements ChoreoSecretCacheMXBean {
+
+    private static final Log LOG = LogFactory.getLog(ChoreoSecretCache.class);
+    public static final String OBJECT_NAME = "org.wso2.carbon.identity.conditional.auth:type=ChoreoSecretCache";
+    private static final String KEY_SEPARATOR = ":";
+    private static final String SEALING_ALGORITHM = "AES";
+    private static final String SEALING_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int SEALING_KEY_SIZE = 256;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+
+    private final boolean enabled;
+    private final long timeToLive;
+    private final LongSupplier clock;
+    private final SecretKey sealingKey;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Map<String, SealedSecret> secrets;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+
+    private ChoreoSecretCache() {
+
+        this(ConfigProvider.getInstance());
+    }
+
+    private ChoreoSecretCache(ConfigProvider configProvider) {
+
+        this(configProvider.isChoreoSecretCacheEnabled(), configProvider.getChoreoSecretCacheMaxEntries(),
+                configProvider.getChoreoSecretCacheTimeToLive(), System::currentTimeMillis);
+    }
+
+    ChoreoSecretCache(boolean enabled, int maxEntries, long timeToLive, LongSupplier clock) {
+
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        this.secrets = new LinkedHashMap<String, SealedSecret>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = -3158692470273184416L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SealedSecret> eldest) {
+
+                if (size() > maxEntries) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.sealingKey = enabled && maxEntries > 0 && timeToLive > 0 ? generateSealingKey() : null;
+        this.enabled = sealingKey != null;
+    }
+
+    private static class ChoreoSecretCacheHolder {
+
+        static final ChoreoSecretCache INSTANCE = new ChoreoSecretCache();
+    }
+
+    public static ChoreoSecretCache getInstance() {
+
+        return ChoreoSecretCacheHolder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Get the resolved secret of the given alias in the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param alias        Alias of the secret.
+     * @return Resolved secret, or null if it is not cached or has expired.
+     */
+    public String getValueFromCache(String tenantDomain, String alias) {
+
+        if (!enabled) {
+            return null;
+        }
+        String key = getKey(tenantDomain, alias);
+        SealedSecret sealedSecret;
+        synchronized (secrets) {
+            sealedSecret = secrets.get(key);
+            if (sealedSecret != null && clock.getAsLong() >= sealedSecret.expiryTime) {
+                secrets.remove(key);
+                sealedSecret = null;
+            }
+        }
+        if (sealedSecret == null) {
+            missCount.increment();
+            return null;
+        }
+        try {
+            String secret = unseal(key, sealedSecret);
+            hitCount.increment();
+            return secret;
+        } catch (GeneralSecurityException e) {
+            LOG.error("Error while reading the cached secret of the alias: " + alias + " of the tenant: " +
+                    tenantDomain, e);
+            synchronized (secrets) {
+                secrets.remove(key, sealedSecret);
+            }
+            missCount.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Cache the resolved secret of the given alias in the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param alias        Alias of the secret.
+     * @param secret       Resolved secret.
+     */
+    public void addToCache(String tenantDomain, String alias, String secret) {
+
+        if (!enabled || secret == null) {
+            return;
+        }
+        String key = getKey(tenantDomain, alias);
+        try {
+            SealedSecret sealedSecret = seal(key, secret, clock.getAsLong() + timeToLive);
+            synchronized (secrets) {
+                secrets.put(key, sealedSecret);
+            }
+        } catch (GeneralSecurityException e) {
+            LOG.error("Error while caching the secret of the alias: " + alias + " of the tenant: " + tenantDomain, e);
+        }
+    }
+
+    /**
+     * Remove the secret of the given alias in the tenant, so that it is resolved again from the secret store.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param alias        Alias of the secret.
+     */
+    public void invalidate(String tenantDomain, String alias) {
+
+        if (!enabled) {
+            return;
+        }
+        synchronized (secrets) {
+            if (secrets.remove(getKey(tenantDomain, alias)) != null) {
+                invalidationCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Remove all the secrets of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void clear(String tenantDomain) {
+
+        if (!enabled) {
+            return;
+        }
+        String keyPrefix = tenantDomain + KEY_SEPARATOR;
+        synchronized (secrets) {
+            Iterator<String> keys = secrets.keySet().iterator();
+            while (keys.hasNext()) {
+                if (keys.next().startsWith(keyPrefix)) {
+                    keys.remove();
+                    invalidationCount.increment();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+
+        synchronized (secrets) {
+            invalidationCount.add(secrets.size());
+            secrets.clear();
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+
+        return evictionCount.sum();
+    }
+
+    @Override
+    public long getInvalidationCount() {
+
+        return invalidationCount.sum();
+    }
+
+    @Override
+    public int getSize() {
+
+        synchronized (secrets) {
+            return secrets.size();
+        }
+    }
+
+    @Override
+    public void resetStats() {
+
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+        invalidationCount.reset();
+    }
+
+    /**
+     * Register the cache with the platform MBean server, unless the cache is disabled.
+     */
+    public void registerMBean() {
+
+        if (!enabled) {
+            return;
+        }
+        CommonUtils.registerMBean(this, OBJECT_NAME);
+    }
+
+    /**
+     * Unregister the cache from the platform MBean server.
+     */
+    public void unregisterMBean() {
+
+        CommonUtils.unregisterMBean(OBJECT_NAME);
+    }
+
+    private SealedSecret seal(String key, String secret, long expiryTime) throws GeneralSecurityException {
+
+        byte[] iv = new byte[IV_LENGTH];
+        secureRandom.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance(SEALING_TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, sealingKey, new GCMParameterSpec(TAG_LENGTH, iv));
+        // The key is bound to the sealed value, so that a value can not be read as the secret of another alias.
+        cipher.updateAAD(key.getBytes(StandardCharsets.UTF_8));
+        byte[] plainText = secret.getBytes(StandardCharsets.UTF_8);
+        try {
+            return new SealedSecret(iv, cipher.doFinal(plainText), expiryTime);
+        } finally {
+            Arrays.fill(plainText, (byte) 0);
+        }
+    }
+
+    private String unseal(String key, SealedSecret sealedSecret) throws GeneralSecurityException {
+
+        Cipher cipher = Cipher.getInstance(SEALING_TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, sealingKey, new GCMParameterSpec(TAG_LENGTH, sealedSecret.iv));
+        cipher.updateAAD(key.getBytes(StandardCharsets.UTF_8));
+        byte[] plainText = cipher.doFinal(sealedSecret.cipherText);
+        try {
+            return new String(plainText, StandardCharsets.UTF_8);
+        } finally {
+            Arrays.fill(plainText, (byte) 0);
+        }
+    }
+
+    private static SecretKey generateSealingKey() {
+
+        try {
+            KeyGenerator keyGenerator = KeyGenerator.getInstance(SEALING_ALGORITHM);
+            keyGenerator.init(SEALING_KEY_SIZE);
+            return keyGenerator.generateKey();
+        } catch (GeneralSecurityException e) {
+            LOG.error("Error while generating the key to seal the cached choreo secrets. Hence resolved secrets " +
+                    "are not cached.", e);
+            return null;
+        }
+    }
+
+    private static String getKey(String tenantDomain, String alias) {
+
+        return tenantDomain + KEY_SEPARATOR + alias;
+    }
+
+    /**
+     * Secret sealed with the key of the node. Does not override toString, so that it is never logged.
+     */
+    private static final class SealedSecret {
+
+        private final byte[] iv;
+        private final byte[] cipherText;
+        private final long expiryTime;
+
+        SealedSecret(byte[] iv, byte[] cipherText, long expiryTime) {
+
+            this.iv = iv;
+            this.cipherText = cipherText;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo.cache;
+
+/**
+ * Management interface of the {@link ChoreoSecretCache}, exposed over JMX.
+ */
+public interface ChoreoSecretCacheMXBean {
+
+    /**
+     * Get the number of lookups served from the cache, each of which avoided resolving a secret from the secret store.
+     *
+     * @return Hit count.
+     */
+    long getHitCount();
+
+    /**
+     * Get the number of lookups which were not served from the cache.
+     *
+     * @return Miss count.
+     */
+    long getMissCount();
+
+    /**
+     * Get the number of secrets removed from the cache as it reached its max size.
+     *
+     * @return Eviction count.
+     */
+    long getEvictionCount();
+
+    /**
+     * Get the number of secrets removed from the cache as they were invalidated.
+     *
+     * @return Invalidation count.
+     */
+    long getInvalidationCount();
+
+    /**
+     * Get the number of secrets in the cache.
+     *
+     * @return Cached secret count.
+     */
+    int getSize();
+
+    /**
+     * Remove all the secrets from the cache, so that they are resolved again from the secret store.
+     */
+    void clear();
+
+    /**
+     * Discard the counts recorded so far.
+     */
+    void resetStats();
+}
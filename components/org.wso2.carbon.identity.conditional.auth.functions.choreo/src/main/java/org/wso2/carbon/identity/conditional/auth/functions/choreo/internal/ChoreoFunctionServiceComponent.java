@@ -33,7 +33,11 @@ import org.wso2.carbon.identity.application.authentication.framework.JsFunctionR
 import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
 import org.wso2.carbon.identity.conditional.auth.functions.choreo.CallChoreoFunction;
 import org.wso2.carbon.identity.conditional.auth.functions.choreo.CallChoreoFunctionImpl;
+import org.wso2.carbon.identity.conditional.auth.functions.choreo.ChoreoTimeoutController;
+import org.wso2.carbon.identity.conditional.auth.functions.choreo.ChoreoTokenRefresher;
 import org.wso2.carbon.identity.conditional.auth.functions.choreo.ClientManager;
+import org.wso2.carbon.identity.conditional.auth.functions.choreo.cache.ChoreoResultCache;
+import org.wso2.carbon.identity.conditional.auth.functions.choreo.cache.ChoreoSecretCache;
 import org.wso2.carbon.identity.conditional.auth.functions.choreo.listener.ChoreoAxis2ConfigurationContextObserver;
 import org.wso2.carbon.identity.core.util.IdentityCoreInitializedEvent;
 import org.wso2.carbon.identity.secret.mgt.core.SecretResolveManager;
@@ -84,6 +88,9 @@ public class ChoreoFunctionServiceComponent {
 
         SecretResolveManager secretManager = new SecretResolveManagerImpl();
         ChoreoFunctionServiceHolder.getInstance().setSecretConfigManager(secretManager);
+        ChoreoSecretCache.getInstance().registerMBean();
+        ChoreoResultCache.getInstance().registerMBean();
+        ChoreoTimeoutController.getInstance().registerMBean();
 
         String filePath = config.getFirstProperty("Security.TrustStore.Location");
         String keyStoreType = config.getFirstProperty("Security.TrustStore.Type");
@@ -106,6 +113,10 @@ public class ChoreoFunctionServiceComponent {
         if (jsFunctionRegistry != null) {
             jsFunctionRegistry.deRegister(JsFunctionRegistry.Subsystem.SEQUENCE_HANDLER, FUNC_CALL_CHOREO);
         }
+        ChoreoSecretCache.getInstance().unregisterMBean();
+        ChoreoResultCache.getInstance().unregisterMBean();
+        ChoreoTokenRefresher.getInstance().shutdown();
+        ChoreoTimeoutController.getInstance().unregisterMBean();
     }
 
     @Reference(
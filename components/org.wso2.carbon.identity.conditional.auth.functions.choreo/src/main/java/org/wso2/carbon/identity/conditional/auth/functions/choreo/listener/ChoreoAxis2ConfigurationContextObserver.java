@@ -19,29 +19,28 @@
 package org.wso2.carbon.identity.conditional.auth.functions.choreo.listener;
 
 import org.apache.axis2.context.ConfigurationContext;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
-import org.wso2.carbon.identity.conditional.auth.functions.choreo.internal.ChoreoFunctionServiceHolder;
+import org.wso2.carbon.identity.conditional.auth.functions.choreo.ChoreoTokenRefresher;
+import org.wso2.carbon.identity.conditional.auth.functions.choreo.cache.ChoreoResultCache;
+import org.wso2.carbon.identity.conditional.auth.functions.choreo.cache.ChoreoSecretCache;
+import org.wso2.carbon.identity.conditional.auth.functions.common.http.OutboundHttpEngine;
 import org.wso2.carbon.utils.AbstractAxis2ConfigurationContextObserver;
 
-import java.io.IOException;
-
 /**
- * This class is responsible for closing the http client used for the tenant when the tenant is unloaded.
+ * This class is responsible for closing the http clients used for the tenant, stopping the renewal of its tokens and
+ * removing the cached secrets of the tenant when the tenant is unloaded.
  */
 public class ChoreoAxis2ConfigurationContextObserver extends AbstractAxis2ConfigurationContextObserver {
 
-    private static final Log LOG = LogFactory.getLog(
-            ChoreoAxis2ConfigurationContextObserver.class);
-
     public void terminatingConfigurationContext(ConfigurationContext configContext) {
 
         int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
-        try {
-            ChoreoFunctionServiceHolder.getInstance().getClientManager().closeClient(tenantId);
-        } catch (IOException e) {
-            LOG.error("Error while closing http client for tenant: " + tenantId, e);
-        }
+        // Closes the clients of all the modules of the tenant, as they share the outbound http engine.
+        OutboundHttpEngine.getInstance().closeClients(tenantId);
+        String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+        // Stops renewing the tokens of the tenant, as renewals would create the clients of the tenant again.
+        ChoreoTokenRefresher.getInstance().clear(tenantDomain);
+        ChoreoSecretCache.getInstance().clear(tenantDomain);
+        ChoreoResultCache.getInstance().clear(tenantDomain);
     }
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.concurrent.FutureCallback;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for the {@link ChoreoTimeoutController}.
+ */
+public class ChoreoTimeoutControllerTest {
+
+    private static final URI ENDPOINT = URI.create("https://example.choreoapis.dev/org/risk/v1/score?x=1");
+    private static final URI OTHER_ENDPOINT = URI.create("https://example.choreoapis.dev/org/fraud/v1/check");
+    private static final RequestConfig DEFAULT_CONFIG = RequestConfig.custom().setSocketTimeout(1000).build();
+
+    @Test
+    public void testQuantileEstimate() {
+
+        List<Integer> latencies = new ArrayList<>();
+        for (int i = 1; i <= 10000; i++) {
+            latencies.add(i);
+        }
+        Collections.shuffle(latencies, new Random(42));
+        P2QuantileEstimator estimator = new P2QuantileEstimator(0.99);
+        latencies.forEach(estimator::add);
+
+        assertEquals(estimator.getCount(), 10000);
+        assertTrue(Math.abs(estimator.getQuantile() - 9900) < 100, "Estimate: " + estimator.getQuantile());
+    }
+
+    @Test
+    public void testQuantileEstimateOfFewObservations() {
+
+        P2QuantileEstimator estimator = new P2QuantileEstimator(0.99);
+        assertTrue(Double.isNaN(estimator.getQuantile()));
+        estimator.add(30);
+        estimator.add(10);
+        estimator.add(20);
+        assertEquals(estimator.getQuantile(), 30.0);
+    }
+
+    @Test
+    public void testDefaultTimeoutUntilEnoughSamples() {
+
+        ChoreoTimeoutController controller = new ChoreoTimeoutController(true, 99, 3, 100, 5000, 50, 1000);
+        record(controller, ENDPOINT, 49, 100);
+        assertSame(controller.getRequestConfig(ENDPOINT, DEFAULT_CONFIG), DEFAULT_CONFIG);
+
+        record(controller, ENDPOINT, 1, 100);
+        RequestConfig requestConfig = controller.getRequestConfig(ENDPOINT, DEFAULT_CONFIG);
+        assertEquals(requestConfig.getSocketTimeout(), 300);
+        assertSame(controller.getRequestConfig(OTHER_ENDPOINT, DEFAULT_CONFIG), DEFAULT_CONFIG);
+    }
+
+    @Test
+    public void testTimeoutIsClamped() {
+
+        ChoreoTimeoutController controller = new ChoreoTimeoutController(true, 99, 3, 100, 5000, 10, 1000);
+        record(controller, ENDPOINT, 10, 5);
+        record(controller, OTHER_ENDPOINT, 10, 4000);
+
+        assertEquals(controller.getRequestConfig(ENDPOINT, DEFAULT_CONFIG).getSocketTimeout(), 100);
+        assertEquals(controller.getRequestConfig(OTHER_ENDPOINT, DEFAULT_CONFIG).getSocketTimeout(), 5000);
+    }
+
+    @Test
+    public void testTimeoutIsBoundedByReadTimeoutByDefault() {
+
+        ChoreoTimeoutController controller = new ChoreoTimeoutController(true, 99, 3, 100, 0, 10, 1000);
+        record(controller, ENDPOINT, 10, 800);
+
+        assertEquals(controller.getRequestConfig(ENDPOINT, DEFAULT_CONFIG).getSocketTimeout(), 1000);
+    }
+
+    @Test
+    public void testTimedOutCallsWidenTimeout() {
+
+        ChoreoTimeoutController controller = new ChoreoTimeoutController(true, 99, 3, 100, 5000, 10, 1000);
+        FutureCallback<HttpResponse> callback = new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed(HttpResponse response) {
+
+            }
+
+            @Override
+            public void failed(Exception e) {
+
+            }
+
+            @Override
+            public void cancelled() {
+
+            }
+        };
+        record(controller, ENDPOINT, 10, 100);
+        for (int i = 0; i < 20; i++) {
+            controller.observe(ENDPOINT, callback).failed(new SocketTimeoutException());
+        }
+
+        // Calls time out far more often than the percentile allows, so the timeout should not keep falling.
+        assertTrue(controller.getRequestConfig(ENDPOINT, DEFAULT_CONFIG).getSocketTimeout() > 300);
+        assertEquals(controller.getEndpointTimeouts().get(0).getTimeoutCount(), 20);
+        assertEquals(controller.getEndpointTimeouts().get(0).getSampleCount(), 10);
+    }
+
+    @Test
+    public void testTimeoutFollowsLatencyChange() {
+
+        ChoreoTimeoutController controller = new ChoreoTimeoutController(true, 99, 3, 10, 5000, 10, 100);
+        record(controller, ENDPOINT, 100, 800);
+        assertEquals(controller.getRequestConfig(ENDPOINT, DEFAULT_CONFIG).getSocketTimeout(), 2400);
+
+        // The last complete window is used until the next has enough samples.
+        record(controller, ENDPOINT, 9, 50);
+        assertEquals(controller.getRequestConfig(ENDPOINT, DEFAULT_CONFIG).getSocketTimeout(), 2400);
+
+        record(controller, ENDPOINT, 1, 50);
+        assertEquals(controller.getRequestConfig(ENDPOINT, DEFAULT_CONFIG).getSocketTimeout(), 150);
+    }
+
+    @Test
+    public void testEndpointKeyKeepsPath() {
+
+        assertEquals(ChoreoTimeoutController.getEndpointKey(ENDPOINT),
+                "https://example.choreoapis.dev:443/org/risk/v1/score");
+        assertNotEquals(ChoreoTimeoutController.getEndpointKey(ENDPOINT),
+                ChoreoTimeoutController.getEndpointKey(OTHER_ENDPOINT));
+    }
+
+    @Test
+    public void testObservedCalls() {
+
+        ChoreoTimeoutController controller = new ChoreoTimeoutController(true, 99, 3, 100, 5000, 10, 1000);
+        List<String> notifications = new ArrayList<>();
+        FutureCallback<HttpResponse> callback = new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed(HttpResponse response) {
+
+                notifications.add("completed");
+            }
+
+            @Override
+            public void failed(Exception e) {
+
+                notifications.add("failed");
+            }
+
+            @Override
+            public void cancelled() {
+
+                notifications.add("cancelled");
+            }
+        };
+
+        controller.observe(ENDPOINT, callback).completed(null);
+        controller.observe(ENDPOINT, callback).failed(new SocketTimeoutException());
+        controller.observe(ENDPOINT, callback).failed(new IOException("Connection reset"));
+        controller.observe(ENDPOINT, callback).cancelled();
+
+        assertEquals(notifications, List.of("completed", "failed", "failed", "cancelled"));
+        assertEquals(controller.getEndpointTimeouts().size(), 1);
+        assertEquals(controller.getEndpointTimeouts().get(0).getSampleCount(), 1);
+        assertEquals(controller.getEndpointTimeouts().get(0).getTimeoutCount(), 1);
+    }
+
+    @Test
+    public void testDisabledController() {
+
+        ChoreoTimeoutController controller = new ChoreoTimeoutController(false, 99, 3, 100, 5000, 1, 1000);
+        FutureCallback<HttpResponse> callback = new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed(HttpResponse response) {
+
+            }
+
+            @Override
+            public void failed(Exception e) {
+
+            }
+
+            @Override
+            public void cancelled() {
+
+            }
+        };
+
+        assertSame(controller.observe(ENDPOINT, callback), callback);
+        assertSame(controller.getRequestConfig(ENDPOINT, DEFAULT_CONFIG), DEFAULT_CONFIG);
+        assertTrue(controller.getEndpointTimeouts().isEmpty());
+    }
+
+    private static void record(ChoreoTimeoutController controller, URI uri, int count, double latency) {
+
+        ChoreoTimeoutController.EndpointLatency endpointLatency =
+                controller.getEndpointLatency(ChoreoTimeoutController.getEndpointKey(uri));
+        for (int i = 0; i < count; i++) {
+            endpointLatency.record(latency);
+        }
+    }
+}
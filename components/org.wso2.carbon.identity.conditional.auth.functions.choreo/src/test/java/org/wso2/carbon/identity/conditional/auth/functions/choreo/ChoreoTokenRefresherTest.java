@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for the {@link ChoreoTokenRefresher}.
+ */
+public class ChoreoTokenRefresherTest {
+
+    private static final String TOKEN_ENDPOINT = "https://sts.choreo.dev/oauth2/token";
+    private static final String CONSUMER_KEY = "consumer-key";
+    private static final String CONSUMER_SECRET_ALIAS = "choreo-secret";
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String OTHER_TENANT_DOMAIN = "wso2.com";
+    private static final String KEY = TOKEN_ENDPOINT + ":" + CONSUMER_KEY + ":" + TENANT_DOMAIN;
+    private static final long LIFETIME = 3600000;
+    private static final long IDLE_TIMEOUT = 1800000;
+
+    private final AtomicLong clock = new AtomicLong(1000000);
+    private final List<ChoreoTokenRefresher.TokenCallback> requests = new ArrayList<>();
+    private final List<String> requestedSecretAliases = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+    private ChoreoTokenRefresher refresher;
+
+    @BeforeMethod
+    public void setUp() {
+
+        requests.clear();
+        requestedSecretAliases.clear();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        refresher = new ChoreoTokenRefresher(true, 75, 10, IDLE_TIMEOUT,
+                (tokenEndpoint, consumerKey, consumerSecretAlias, tenantDomain, callback) -> {
+                    requestedSecretAliases.add(consumerSecretAlias);
+                    requests.add(callback);
+                }, scheduler, clock::get, () -> 1);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testRefreshDelayIsWithinLifetime() {
+
+        // Random value 1 moves the delay by the full jitter, to 85% of the lifetime.
+        assertEquals(refresher.getRefreshDelay(LIFETIME), LIFETIME * 85 / 100);
+
+        ChoreoTokenRefresher early = new ChoreoTokenRefresher(true, 75, 10, IDLE_TIMEOUT, null, scheduler,
+                clock::get, () -> 0);
+        assertEquals(early.getRefreshDelay(LIFETIME), LIFETIME * 65 / 100);
+
+        ChoreoTokenRefresher late = new ChoreoTokenRefresher(true, 100, 50, IDLE_TIMEOUT, null, scheduler,
+                clock::get, () -> 1);
+        assertEquals(late.getRefreshDelay(LIFETIME), LIFETIME - 1);
+    }
+
+    @Test
+    public void testRenewedTokenIsServed() {
+
+        refresher.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, CONSUMER_SECRET_ALIAS, TENANT_DOMAIN, "token-1",
+                clock.get() + LIFETIME);
+        assertEquals(refresher.getToken(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN), "token-1");
+
+        clock.addAndGet(LIFETIME * 85 / 100);
+        refresher.onTokenUsed(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN);
+        refresher.refresh(KEY);
+        assertEquals(requests.size(), 1);
+        assertEquals(requestedSecretAliases.get(0), CONSUMER_SECRET_ALIAS);
+        requests.get(0).onToken("token-2", clock.get() + LIFETIME);
+
+        clock.addAndGet(LIFETIME / 2);
+        assertEquals(refresher.getToken(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN), "token-2");
+    }
+
+    @Test
+    public void testExpiredTokenIsNotServed() {
+
+        refresher.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, CONSUMER_SECRET_ALIAS, TENANT_DOMAIN, "token-1",
+                clock.get() + LIFETIME);
+        clock.addAndGet(LIFETIME);
+        assertNull(refresher.getToken(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN));
+    }
+
+    @Test
+    public void testIdleTokenIsNotRenewed() {
+
+        refresher.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, CONSUMER_SECRET_ALIAS, TENANT_DOMAIN, "token-1",
+                clock.get() + LIFETIME);
+        clock.addAndGet(IDLE_TIMEOUT + 1);
+        refresher.refresh(KEY);
+
+        assertTrue(requests.isEmpty());
+        assertFalse(refresher.isTracked(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN));
+    }
+
+    @Test
+    public void testUsedTokenIsRenewed() {
+
+        refresher.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, CONSUMER_SECRET_ALIAS, TENANT_DOMAIN, "token-1",
+                clock.get() + LIFETIME);
+        clock.addAndGet(IDLE_TIMEOUT);
+        refresher.onTokenUsed(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN);
+        clock.addAndGet(IDLE_TIMEOUT / 2);
+        refresher.refresh(KEY);
+
+        assertEquals(requests.size(), 1);
+    }
+
+    @Test
+    public void testFailedRenewalIsRetriedUntilExpiry() {
+
+        refresher.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, CONSUMER_SECRET_ALIAS, TENANT_DOMAIN, "token-1",
+                clock.get() + LIFETIME);
+        clock.addAndGet(LIFETIME * 85 / 100);
+        refresher.onTokenUsed(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN);
+        refresher.refresh(KEY);
+        requests.get(0).onFailure(new IOException("Connection refused"));
+
+        // The token is kept, and served until it expires.
+        assertTrue(refresher.isTracked(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN));
+        assertEquals(refresher.getToken(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN), "token-1");
+
+        clock.addAndGet(LIFETIME * 15 / 100 - 500);
+        refresher.refresh(KEY);
+        requests.get(1).onFailure(new IOException("Connection refused"));
+        assertFalse(refresher.isTracked(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN));
+    }
+
+    @Test
+    public void testTokenIsKeyedByTokenEndpoint() {
+
+        refresher.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, CONSUMER_SECRET_ALIAS, TENANT_DOMAIN, "token-1",
+                clock.get() + LIFETIME);
+
+        assertNull(refresher.getToken("https://sts.asgardeo.io/oauth2/token", CONSUMER_KEY, TENANT_DOMAIN));
+        assertEquals(refresher.getToken(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN), "token-1");
+    }
+
+    @Test
+    public void testTokenOfInlineSecretIsNotTracked() {
+
+        refresher.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, null, TENANT_DOMAIN, "token-1",
+                clock.get() + LIFETIME);
+
+        assertFalse(refresher.isTracked(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN));
+    }
+
+    @Test
+    public void testInvalidatedTokenIsNotRenewed() {
+
+        refresher.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, CONSUMER_SECRET_ALIAS, TENANT_DOMAIN, "token-1",
+                clock.get() + LIFETIME);
+        clock.addAndGet(LIFETIME * 85 / 100);
+        refresher.onTokenUsed(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN);
+        refresher.refresh(KEY);
+        refresher.invalidate(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN);
+        // A renewal in flight when the token is invalidated does not track it again.
+        requests.get(0).onToken("token-2", clock.get() + LIFETIME);
+
+        assertFalse(refresher.isTracked(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN));
+        assertNull(refresher.getToken(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN));
+    }
+
+    @Test
+    public void testClearTenant() {
+
+        refresher.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, CONSUMER_SECRET_ALIAS, TENANT_DOMAIN, "token-1",
+                clock.get() + LIFETIME);
+        refresher.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, CONSUMER_SECRET_ALIAS, OTHER_TENANT_DOMAIN,
+                "token-2", clock.get() + LIFETIME);
+        refresher.clear(TENANT_DOMAIN);
+
+        assertFalse(refresher.isTracked(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN));
+        assertTrue(refresher.isTracked(TOKEN_ENDPOINT, CONSUMER_KEY, OTHER_TENANT_DOMAIN));
+    }
+
+    @Test
+    public void testShutdownStopsTracking() {
+
+        refresher.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, CONSUMER_SECRET_ALIAS, TENANT_DOMAIN, "token-1",
+                clock.get() + LIFETIME);
+        refresher.shutdown();
+        refresher.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, CONSUMER_SECRET_ALIAS, OTHER_TENANT_DOMAIN,
+                "token-2", clock.get() + LIFETIME);
+
+        assertTrue(scheduler.isShutdown());
+        assertFalse(refresher.isTracked(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN));
+        assertFalse(refresher.isTracked(TOKEN_ENDPOINT, CONSUMER_KEY, OTHER_TENANT_DOMAIN));
+    }
+
+    @Test
+    public void testDisabledRefresherDoesNotTrackTokens() {
+
+        ChoreoTokenRefresher disabled = new ChoreoTokenRefresher(false, 75, 10, IDLE_TIMEOUT, null, null,
+                clock::get, () -> 1);
+        disabled.onTokenObtained(TOKEN_ENDPOINT, CONSUMER_KEY, CONSUMER_SECRET_ALIAS, TENANT_DOMAIN, "token-1",
+                clock.get() + LIFETIME);
+
+        assertNull(disabled.getToken(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN));
+        assertFalse(disabled.isTracked(TOKEN_ENDPOINT, CONSUMER_KEY, TENANT_DOMAIN));
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo.cache;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for the {@link ChoreoResultCache}.
+ */
+public class ChoreoResultCacheTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String OTHER_TENANT_DOMAIN = "wso2.com";
+    private static final String RISK_URL = "https://risk.choreoapis.dev/risk/v1/score";
+    private static final String CONSUMER = "risk-app";
+    private static final String OTHER_URL = "https://other.choreoapis.dev/other/v1";
+    private static final long TIME_TO_LIVE = 60000;
+    private static final String RESULT = "{\"hasRisk\":false}";
+
+    private final AtomicLong clock = new AtomicLong(1000000);
+
+    @Test
+    public void testCacheKeyCoversOnlyConfiguredPayloadKeys() {
+
+        ChoreoResultCache cache = createCache(10, 1024);
+        Map<String, Object> device = new LinkedHashMap<>();
+        device.put("os", "linux");
+        device.put("browser", "firefox");
+        Map<String, Object> reorderedDevice = new LinkedHashMap<>();
+        reorderedDevice.put("browser", "firefox");
+        reorderedDevice.put("os", "linux");
+
+        String cacheKey = cache.buildCacheKey(RISK_URL, CONSUMER, payload("alex", "10.0.0.1", device, "1"));
+        assertNotNull(cacheKey);
+        assertEquals(cache.buildCacheKey(RISK_URL, CONSUMER, payload("alex", "10.0.0.1", reorderedDevice, "2")),
+                cacheKey);
+        assertNotEquals(cache.buildCacheKey(RISK_URL, CONSUMER, payload("alex", "10.0.0.2", device, "1")), cacheKey);
+        assertNotEquals(cache.buildCacheKey(RISK_URL, CONSUMER, payload("kim", "10.0.0.1", device, "1")), cacheKey);
+        assertNull(cache.buildCacheKey(OTHER_URL, CONSUMER, payload("alex", "10.0.0.1", device, "1")));
+    }
+
+    @Test
+    public void testCacheKeyCoversConsumer() {
+
+        ChoreoResultCache cache = createCache(10, 1024);
+        Map<String, Object> payload = payload("alex", "10.0.0.1", null, "1");
+
+        assertNotEquals(cache.buildCacheKey(RISK_URL, "other-app", payload),
+                cache.buildCacheKey(RISK_URL, CONSUMER, payload));
+        assertNull(cache.buildCacheKey(RISK_URL, null, payload));
+    }
+
+    @Test
+    public void testAbsentAndNullPayloadValuesAreKeptApart() {
+
+        ChoreoResultCache cache = createCache(10, 1024);
+        Map<String, Object> withNull = payload("alex", null, null, "1");
+        Map<String, Object> withoutIp = payload("alex", null, null, "1");
+        withoutIp.remove("ip");
+
+        assertNotEquals(cache.buildCacheKey(RISK_URL, CONSUMER, withNull),
+                cache.buildCacheKey(RISK_URL, CONSUMER, withoutIp));
+    }
+
+    @Test
+    public void testCachedResultIsServed() {
+
+        ChoreoResultCache cache = createCache(10, 1024);
+        String cacheKey = cache.buildCacheKey(RISK_URL, CONSUMER, payload("alex", "10.0.0.1", null, "1"));
+        assertNull(cache.get(TENANT_DOMAIN, cacheKey));
+
+        cache.put(TENANT_DOMAIN, RISK_URL, cacheKey, RESULT);
+        assertEquals(cache.get(TENANT_DOMAIN, cacheKey), RESULT);
+        assertNull(cache.get(OTHER_TENANT_DOMAIN, cacheKey));
+
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 2);
+        assertEquals(cache.getSize(), 1);
+    }
+
+    @Test
+    public void testExpiredResultIsNotServed() {
+
+        ChoreoResultCache cache = createCache(10, 1024);
+        String cacheKey = cache.buildCacheKey(RISK_URL, CONSUMER, payload("alex", "10.0.0.1", null, "1"));
+        cache.put(TENANT_DOMAIN, RISK_URL, cacheKey, RESULT);
+
+        clock.addAndGet(TIME_TO_LIVE);
+        assertNull(cache.get(TENANT_DOMAIN, cacheKey));
+        assertEquals(cache.getExpirationCount(), 1);
+        assertEquals(cache.getSize(), 0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResultOfTenantIsEvicted() {
+
+        ChoreoResultCache cache = createCache(2, 1024);
+        String firstKey = cache.buildCacheKey(RISK_URL, CONSUMER, payload("alex", "10.0.0.1", null, "1"));
+        String secondKey = cache.buildCacheKey(RISK_URL, CONSUMER, payload("kim", "10.0.0.1", null, "1"));
+        String thirdKey = cache.buildCacheKey(RISK_URL, CONSUMER, payload("sam", "10.0.0.1", null, "1"));
+        cache.put(TENANT_DOMAIN, RISK_URL, firstKey, RESULT);
+        cache.put(TENANT_DOMAIN, RISK_URL, secondKey, RESULT);
+        cache.get(TENANT_DOMAIN, firstKey);
+        cache.put(OTHER_TENANT_DOMAIN, RISK_URL, thirdKey, RESULT);
+        cache.put(TENANT_DOMAIN, RISK_URL, thirdKey, RESULT);
+
+        assertEquals(cache.get(TENANT_DOMAIN, firstKey), RESULT);
+        assertNull(cache.get(TENANT_DOMAIN, secondKey));
+        assertEquals(cache.get(OTHER_TENANT_DOMAIN, thirdKey), RESULT);
+        assertEquals(cache.getEvictionCount(), 1);
+        assertEquals(cache.getTenantCount(), 2);
+    }
+
+    @Test
+    public void testLargeResultIsNotCached() {
+
+        ChoreoResultCache cache = createCache(10, RESULT.length() - 1);
+        String cacheKey = cache.buildCacheKey(RISK_URL, CONSUMER, payload("alex", "10.0.0.1", null, "1"));
+        cache.put(TENANT_DOMAIN, RISK_URL, cacheKey, RESULT);
+
+        assertNull(cache.get(TENANT_DOMAIN, cacheKey));
+        assertEquals(cache.getSize(), 0);
+    }
+
+    @Test
+    public void testClearTenant() {
+
+        ChoreoResultCache cache = createCache(10, 1024);
+        String cacheKey = cache.buildCacheKey(RISK_URL, CONSUMER, payload("alex", "10.0.0.1", null, "1"));
+        cache.put(TENANT_DOMAIN, RISK_URL, cacheKey, RESULT);
+        cache.put(OTHER_TENANT_DOMAIN, RISK_URL, cacheKey, RESULT);
+
+        cache.clear(TENANT_DOMAIN);
+        assertNull(cache.get(TENANT_DOMAIN, cacheKey));
+        assertEquals(cache.get(OTHER_TENANT_DOMAIN, cacheKey), RESULT);
+    }
+
+    @Test
+    public void testInvalidEndpointsAreNotCached() {
+
+        Map<String, Map<String, String>> endpoints = new HashMap<>();
+        endpoints.put("noKeys", endpoint(RISK_URL, String.valueOf(TIME_TO_LIVE), " , "));
+        endpoints.put("invalidTtl", endpoint(OTHER_URL, "soon", "user"));
+        ChoreoResultCache cache = new ChoreoResultCache(endpoints, 10, 1024, clock::get);
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.buildCacheKey(RISK_URL, CONSUMER, payload("alex", "10.0.0.1", null, "1")));
+        assertNull(cache.buildCacheKey(OTHER_URL, CONSUMER, payload("alex", "10.0.0.1", null, "1")));
+    }
+
+    @Test
+    public void testCacheIsDisabledWithoutEndpoints() {
+
+        ChoreoResultCache cache = new ChoreoResultCache(new HashMap<>(), 10, 1024, clock::get);
+        assertFalse(cache.isEnabled());
+        assertTrue(createCache(10, 1024).isEnabled());
+    }
+
+    private ChoreoResultCache createCache(int maxEntries, int maxResponseSize) {
+
+        Map<String, Map<String, String>> endpoints = new HashMap<>();
+        endpoints.put("risk", endpoint(RISK_URL, String.valueOf(TIME_TO_LIVE), "user, ip ,device"));
+        return new ChoreoResultCache(endpoints, maxEntries, maxResponseSize, clock::get);
+    }
+
+    private static Map<String, String> endpoint(String url, String timeToLive, String payloadKeys) {
+
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(Constants.ChoreoResultCacheAttributes.URL, url);
+        attributes.put(Constants.ChoreoResultCacheAttributes.TIME_TO_LIVE, timeToLive);
+        attributes.put(Constants.ChoreoResultCacheAttributes.PAYLOAD_KEYS, payloadKeys);
+        return attributes;
+    }
+
+    private static Map<String, Object> payload(String user, String ip, Map<String, Object> device, String nonce) {
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("user", user);
+        payload.put("ip", ip);
+        payload.put("device", device);
+        payload.put("nonce", nonce);
+        payload.put("roles", Arrays.asList("admin", "user"));
+        return payload;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.choreo.cache;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests for the {@link ChoreoSecretCache}.
+ */
+public class ChoreoSecretCacheTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String OTHER_TENANT_DOMAIN = "wso2.com";
+    private static final String KEY_ALIAS = "choreo-key";
+    private static final String SECRET_ALIAS = "choreo-secret";
+    private static final long TIME_TO_LIVE = 300000;
+
+    private final AtomicLong clock = new AtomicLong(1000000);
+
+    @Test
+    public void testCachedSecretIsServed() {
+
+        ChoreoSecretCache cache = new ChoreoSecretCache(true, 10, TIME_TO_LIVE, clock::get);
+        assertNull(cache.getValueFromCache(TENANT_DOMAIN, KEY_ALIAS));
+
+        cache.addToCache(TENANT_DOMAIN, KEY_ALIAS, "consumer-key");
+        cache.addToCache(TENANT_DOMAIN, SECRET_ALIAS, "consumer-secret");
+        assertEquals(cache.getValueFromCache(TENANT_DOMAIN, KEY_ALIAS), "consumer-key");
+        assertEquals(cache.getValueFromCache(TENANT_DOMAIN, SECRET_ALIAS), "consumer-secret");
+        assertNull(cache.getValueFromCache(OTHER_TENANT_DOMAIN, KEY_ALIAS));
+
+        assertEquals(cache.getHitCount(), 2);
+        assertEquals(cache.getMissCount(), 2);
+        assertEquals(cache.getSize(), 2);
+    }
+
+    @Test
+    public void testExpiredSecretIsNotServed() {
+
+        ChoreoSecretCache cache = new ChoreoSecretCache(true, 10, TIME_TO_LIVE, clock::get);
+        cache.addToCache(TENANT_DOMAIN, KEY_ALIAS, "consumer-key");
+
+        clock.addAndGet(TIME_TO_LIVE);
+        assertNull(cache.getValueFromCache(TENANT_DOMAIN, KEY_ALIAS));
+        assertEquals(cache.getSize(), 0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedSecretIsEvicted() {
+
+        ChoreoSecretCache cache = new ChoreoSecretCache(true, 2, TIME_TO_LIVE, clock::get);
+        cache.addToCache(TENANT_DOMAIN, KEY_ALIAS, "consumer-key");
+        cache.addToCache(TENANT_DOMAIN, SECRET_ALIAS, "consumer-secret");
+        cache.getValueFromCache(TENANT_DOMAIN, KEY_ALIAS);
+        cache.addToCache(OTHER_TENANT_DOMAIN, KEY_ALIAS, "other-consumer-key");
+
+        assertEquals(cache.getValueFromCache(TENANT_DOMAIN, KEY_ALIAS), "consumer-key");
+        assertNull(cache.getValueFromCache(TENANT_DOMAIN, SECRET_ALIAS));
+        assertEquals(cache.getEvictionCount(), 1);
+    }
+
+    @Test
+    public void testInvalidatedSecretsAreRemoved() {
+
+        ChoreoSecretCache cache = new ChoreoSecretCache(true, 10, TIME_TO_LIVE, clock::get);
+        cache.addToCache(TENANT_DOMAIN, KEY_ALIAS, "consumer-key");
+        cache.addToCache(TENANT_DOMAIN, SECRET_ALIAS, "consumer-secret");
+        cache.addToCache(OTHER_TENANT_DOMAIN, KEY_ALIAS, "other-consumer-key");
+
+        cache.invalidate(TENANT_DOMAIN, KEY_ALIAS);
+        assertNull(cache.getValueFromCache(TENANT_DOMAIN, KEY_ALIAS));
+        assertEquals(cache.getValueFromCache(TENANT_DOMAIN, SECRET_ALIAS), "consumer-secret");
+
+        cache.clear(TENANT_DOMAIN);
+        assertNull(cache.getValueFromCache(TENANT_DOMAIN, SECRET_ALIAS));
+        assertEquals(cache.getValueFromCache(OTHER_TENANT_DOMAIN, KEY_ALIAS), "other-consumer-key");
+        assertEquals(cache.getInvalidationCount(), 2);
+    }
+
+    @Test
+    public void testDisabledCacheDoesNotCacheSecrets() {
+
+        ChoreoSecretCache cache = new ChoreoSecretCache(false, 10, TIME_TO_LIVE, clock::get);
+        cache.addToCache(TENANT_DOMAIN, KEY_ALIAS, "consumer-key");
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.getValueFromCache(TENANT_DOMAIN, KEY_ALIAS));
+        assertEquals(cache.getSize(), 0);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.http;
+
+import org.apache.http.client.config.RequestConfig;
+
+import java.io.IOException;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+/**
+ * Settings of the outbound http clients of a module, used by the {@link OutboundHttpEngine} when it creates the
+ * client of a tenant.
+ */
+public interface OutboundClientSettings {
+
+    /**
+     * Default request configuration of the client of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Request configuration.
+     */
+    RequestConfig getRequestConfig(String tenantDomain);
+
+    /**
+     * SSL context used for the https routes of the client of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return SSL context.
+     * @throws IOException If the SSL context cannot be created.
+     */
+    SSLContext getSSLContext(String tenantDomain) throws IOException;
+
+    /**
+     * Hostname verifier used for the https routes of the client of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Hostname verifier.
+     */
+    HostnameVerifier getHostnameVerifier(String tenantDomain);
+
+    /**
+     * Max connections of the client of a tenant, added to the limit of the pool shared by the clients.
+     *
+     * @return Max connections.
+     */
+    int getMaxConnections();
+
+    /**
+     * Max connections per route of the client of a tenant, added to the limit of the pool shared by the clients.
+     *
+     * @return Max connections per route.
+     */
+    int getMaxConnectionsPerRoute();
+}
@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.http;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.nio.reactor.IOReactorStatus;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Engine of the outbound async http clients of the functions, shared by the modules calling external services.
+ * <p>
+ * All the requests run on a single async client, with one connection pool on one I/O reactor with a thread per core.
+ * The client handed out for each module and tenant starts no threads of its own. It sets the SSL session strategies,
+ * the request configuration and the pool partition of the tenant on each request it passes to the shared client.
+ * The connection limits of the clients add up on the shared pool. Clients not used within the idle timeout are
+ * closed, as are the clients of a tenant when the tenant is unloaded.
+ */
+public class OutboundHttpEngine {
+
+    private static final Log LOG = LogFactory.getLog(OutboundHttpEngine.class);
+    private static final String KEY_SEPARATOR = ":";
+    private static final long MIN_EVICTION_INTERVAL = 1000;
+    // Attribute of the request context, from which the connection manager looks up the session strategy of a route.
+    private static final String SESSION_STRATEGY_REGISTRY = "http.iosession-factory-registry";
+
+    private final int ioThreadCount;
+    private final long clientIdleTimeout;
+    private final LongSupplier clock;
+    private final Map<String, TenantClient> clients = new ConcurrentHashMap<>();
+    private SharedClient sharedClient;
+    private ScheduledExecutorService evictor;
+
+    OutboundHttpEngine(int ioThreadCount, long clientIdleTimeout, LongSupplier clock) {
+
+        this.ioThreadCount = Math.max(1, ioThreadCount);
+        this.clientIdleTimeout = clientIdleTimeout;
+        this.clock = clock;
+    }
+
+    private static class OutboundHttpEngineHolder {
+
+        static final OutboundHttpEngine INSTANCE = new OutboundHttpEngine(
+                ConfigProvider.getInstance().getOutboundHttpEngineIoThreadCount(),
+                ConfigProvider.getInstance().getOutboundHttpEngineClientIdleTimeout(), System::currentTimeMillis);
+    }
+
+    public static OutboundHttpEngine getInstance() {
+
+        return OutboundHttpEngineHolder.INSTANCE;
+    }
+
+    /**
+     * Get the client of the given module for the given tenant, creating it with the given settings if the tenant does
+     * not have a running client of the module yet.
+     *
+     * @param module       Name of the module calling the external service.
+     * @param tenantId     Tenant id.
+     * @param tenantDomain Tenant domain.
+     * @param settings     Settings of the clients of the module.
+     * @return Running client.
+     * @throws FrameworkException If the client cannot be created.
+     */
+    public CloseableHttpAsyncClient getClient(String module, int tenantId, String tenantDomain,
+                                              OutboundClientSettings settings) throws FrameworkException {
+
+        String key = module + KEY_SEPARATOR + tenantId;
+        long now = clock.getAsLong();
+        TenantClient client = clients.get(key);
+        // The client is marked as used before it is returned, so that the evictor cannot close it in between.
+        if (client == null || !client.use(now)) {
+            // The shared client is taken outside the map computation, as restarting it closes the clients in the map.
+            SharedClient shared = getSharedClient();
+            try {
+                client = clients.compute(key, (clientKey, existingClient) -> {
+                    if (existingClient != null && existingClient.use(now)) {
+                        return existingClient;
+                    }
+                    return createClient(clientKey, tenantDomain, settings, shared);
+                });
+            } catch (ClientCreationException e) {
+                throw new FrameworkException("Error while creating the http client of the module: " + module +
+                        " for the tenant: " + tenantDomain, e.getCause());
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Close the client of the given module for the given tenant.
+     *
+     * @param module   Name of the module.
+     * @param tenantId Tenant id.
+     */
+    public void closeClient(String module, int tenantId) {
+
+        TenantClient client = clients.remove(module + KEY_SEPARATOR + tenantId);
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    /**
+     * Close the clients of all the modules for the given tenant, when the tenant is unloaded.
+     *
+     * @param tenantId Tenant id.
+     */
+    public void closeClients(int tenantId) {
+
+        String keySuffix = KEY_SEPARATOR + tenantId;
+        clients.forEach((key, client) -> {
+            if (key.endsWith(keySuffix) && clients.remove(key, client)) {
+                client.close();
+            }
+        });
+    }
+
+    /**
+     * Close all the clients and stop the shared client.
+     */
+    public synchronized void shutdown() {
+
+        clients.forEach((key, client) -> {
+            if (clients.remove(key, client)) {
+                client.close();
+            }
+        });
+        if (evictor != null) {
+            evictor.shutdownNow();
+            evictor = null;
+        }
+        if (sharedClient != null) {
+            sharedClient.close();
+            sharedClient = null;
+        }
+    }
+
+    /**
+     * Close the clients not used within the idle timeout, and the expired and idle connections of the shared pool.
+     */
+    void evictIdleClients() {
+
+        long now = clock.getAsLong();
+        clients.forEach((key, client) -> {
+            if (client.retireIfIdle(now, clientIdleTimeout)) {
+                // A retired client is no longer handed out, hence it is closed even if a new client replaced it.
+                clients.remove(key, client);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Closing the idle outbound http client: " + key);
+                }
+                client.close();
+            }
+        });
+        SharedClient shared = getCurrentSharedClient();
+        if (shared != null) {
+            // Connections pooled for the closed clients are left idle, hence closed here.
+            shared.closeIdleConnections(clientIdleTimeout);
+        }
+    }
+
+    int getClientCount() {
+
+        return clients.size();
+    }
+
+    private TenantClient createClient(String key, String tenantDomain, OutboundClientSettings settings,
+                                      SharedClient shared) {
+
+        try {
+            Registry<SchemeIOSessionStrategy> sessionStrategyRegistry = RegistryBuilder
+                    .<SchemeIOSessionStrategy>create()
+                    .register("http", NoopIOSessionStrategy.INSTANCE)
+                    .register("https", new SSLIOSessionStrategy(settings.getSSLContext(tenantDomain),
+                            settings.getHostnameVerifier(tenantDomain)))
+                    .build();
+            TenantClient client = new TenantClient(key, shared, sessionStrategyRegistry,
+                    settings.getRequestConfig(tenantDomain), settings.getMaxConnections(),
+                    settings.getMaxConnectionsPerRoute(), clock.getAsLong());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Created the outbound http client: " + key);
+            }
+            return client;
+        } catch (IOException e) {
+            throw new ClientCreationException(e);
+        }
+    }
+
+    private synchronized SharedClient getCurrentSharedClient() {
+
+        return sharedClient;
+    }
+
+    private synchronized SharedClient getSharedClient() throws FrameworkException {
+
+        if (sharedClient != null && !sharedClient.isActive()) {
+            LOG.error("Outbound http reactor has stopped. Hence closing its clients and starting a new reactor.");
+            clients.forEach((key, client) -> {
+                if (clients.remove(key, client)) {
+                    client.close();
+                }
+            });
+            sharedClient.close();
+            sharedClient = null;
+        }
+        if (sharedClient == null) {
+            DefaultConnectingIOReactor reactor;
+            try {
+                reactor = new DefaultConnectingIOReactor(IOReactorConfig.custom()
+                        .setIoThreadCount(ioThreadCount)
+                        .build(), createThreadFactory("outbound-http-io"));
+            } catch (IOReactorException e) {
+                throw new FrameworkException("Error while creating ConnectingIOReactor", e);
+            }
+            // The session strategies of the default registry are not used, as each client sets its own registry.
+            PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(reactor);
+            CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setThreadFactory(createThreadFactory("outbound-http-reactor"))
+                    .build();
+            client.start();
+            sharedClient = new SharedClient(reactor, connectionManager, client);
+            startEvictor();
+        }
+        return sharedClient;
+    }
+
+    private void startEvictor() {
+
+        if (evictor != null || clientIdleTimeout <= 0) {
+            return;
+        }
+        long interval = Math.max(MIN_EVICTION_INTERVAL, clientIdleTimeout / 2);
+        evictor = Executors.newSingleThreadScheduledExecutor(createThreadFactory("outbound-http-evictor"));
+        evictor.scheduleWithFixedDelay(() -> {
+            try {
+                evictIdleClients();
+            } catch (RuntimeException e) {
+                LOG.error("Error while evicting the idle outbound http clients.", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory createThreadFactory(String namePrefix) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Async client, connection pool and I/O reactor shared by the clients of all the modules and tenants.
+     */
+    private static class SharedClient {
+
+        private final DefaultConnectingIOReactor ioReactor;
+        private final PoolingNHttpClientConnectionManager connectionManager;
+        private final CloseableHttpAsyncClient client;
+        private int maxConnections;
+        private int maxConnectionsPerRoute;
+
+        SharedClient(DefaultConnectingIOReactor ioReactor, PoolingNHttpClientConnectionManager connectionManager,
+                     CloseableHttpAsyncClient client) {
+
+            this.ioReactor = ioReactor;
+            this.connectionManager = connectionManager;
+            this.client = client;
+        }
+
+        boolean isActive() {
+
+            return ioReactor.getStatus().compareTo(IOReactorStatus.ACTIVE) <= 0;
+        }
+
+        /**
+         * Add the connection limits of a client to the limits of the pool, or remove them when given negative.
+         *
+         * @param connections         Max connections of the client.
+         * @param connectionsPerRoute Max connections per route of the client.
+         */
+        synchronized void addPoolLimits(int connections, int connectionsPerRoute) {
+
+            maxConnections += connections;
+            maxConnectionsPerRoute += connectionsPerRoute;
+            connectionManager.setMaxTotal(Math.max(1, maxConnections));
+            connectionManager.setDefaultMaxPerRoute(Math.max(1, maxConnectionsPerRoute));
+        }
+
+        void closeIdleConnections(long idleTimeout) {
+
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+        }
+
+        void close() {
+
+            try {
+                client.close();
+            } catch (IOException e) {
+                LOG.error("Error while closing the outbound http client.", e);
+            }
+        }
+    }
+
+    /**
+     * Client of a module for a tenant, running its requests on the shared client.
+     */
+    private static class TenantClient extends CloseableHttpAsyncClient {
+
+        private final String userToken;
+        private final SharedClient sharedClient;
+        private final Registry<SchemeIOSessionStrategy> sessionStrategyRegistry;
+        private final RequestConfig requestConfig;
+        private final int maxConnections;
+        private final int maxConnectionsPerRoute;
+        private long lastUsedTime;
+        private boolean retired;
+        private volatile boolean closed;
+
+        TenantClient(String userToken, SharedClient sharedClient,
+                     Registry<SchemeIOSessionStrategy> sessionStrategyRegistry, RequestConfig requestConfig,
+                     int maxConnections, int maxConnectionsPerRoute, long createdTime) {
+
+            this.userToken = userToken;
+            this.sharedClient = sharedClient;
+            this.sessionStrategyRegistry = sessionStrategyRegistry;
+            this.requestConfig = requestConfig;
+            this.maxConnections = maxConnections;
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            this.lastUsedTime = createdTime;
+            sharedClient.addPoolLimits(maxConnections, maxConnectionsPerRoute);
+        }
+
+        @Override
+        public <T> Future<T> execute(HttpAsyncRequestProducer requestProducer,
+                                     HttpAsyncResponseConsumer<T> responseConsumer, HttpContext context,
+                                     FutureCallback<T> callback) {
+
+            if (closed) {
+                throw new IllegalStateException("Request cannot be executed as the client is closed.");
+            }
+            HttpClientContext tenantContext = HttpClientContext.adapt(new BasicHttpContext(context));
+            tenantContext.setAttribute(SESSION_STRATEGY_REGISTRY, sessionStrategyRegistry);
+            // Pooled connections are secured with the SSL context of the tenant, hence not shared with other clients.
+            tenantContext.setUserToken(userToken);
+            if (tenantContext.getAttribute(HttpClientContext.REQUEST_CONFIG) == null) {
+                tenantContext.setRequestConfig(requestConfig);
+            }
+            return sharedClient.client.execute(requestProducer, responseConsumer, tenantContext, callback);
+        }
+
+        /**
+         * The client runs on the shared client started by the engine, hence there is nothing to start.
+         */
+        @Override
+        public void start() {
+
+        }
+
+        @Override
+        public boolean isRunning() {
+
+            return !closed && sharedClient.client.isRunning();
+        }
+
+        /**
+         * Mark the client as used at the given time, unless it is closed or retired by the evictor.
+         *
+         * @param time Current time.
+         * @return True if the client can be used.
+         */
+        synchronized boolean use(long time) {
+
+            if (retired || !isRunning()) {
+                return false;
+            }
+            lastUsedTime = time;
+            return true;
+        }
+
+        /**
+         * Retire the client if it has not been used within the idle timeout. A retired client is never used again.
+         *
+         * @param now         Current time.
+         * @param idleTimeout Idle timeout of the clients.
+         * @return True if the client was retired and should be closed.
+         */
+        synchronized boolean retireIfIdle(long now, long idleTimeout) {
+
+            if (retired || now - lastUsedTime <= idleTimeout) {
+                return false;
+            }
+            retired = true;
+            return true;
+        }
+
+        /**
+         * Close the client, releasing its connection limits on the shared pool. The shared client is not closed.
+         */
+        @Override
+        public void close() {
+
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            sharedClient.addPoolLimits(-maxConnections, -maxConnectionsPerRoute);
+        }
+    }
+
+    /**
+     * Carries the failure to create a client out of the map computation.
+     */
+    private static class ClientCreationException extends RuntimeException {
+
+        private static final long serialVersionUID = 6240718834531077652L;
+
+        ClientCreationException(Exception cause) {
+
+            super(cause);
+        }
+    }
+}
@@ -20,10 +20,15 @@ package org.wso2.carbon.identity.conditional.auth.functions.common.internal;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
+import org.wso2.carbon.identity.conditional.auth.functions.common.http.OutboundHttpEngine;
+import org.wso2.carbon.identity.conditional.auth.functions.common.scheduler.OutboundScheduler;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 
 @Component(
@@ -34,6 +39,19 @@ public class FunctionsServiceComponent {
 
     private static final Log LOG = LogFactory.getLog(FunctionsServiceComponent.class);
 
+    @Activate
+    protected void activate(ComponentContext ctxt) {
+
+        OutboundScheduler.getInstance().registerMBean();
+    }
+
+    @Deactivate
+    protected void deactivate(ComponentContext ctxt) {
+
+        OutboundScheduler.getInstance().unregisterMBean();
+        OutboundHttpEngine.getInstance().shutdown();
+    }
+
     @Reference(
             name = "identity.governance.service",
             service = IdentityGovernanceService.class,
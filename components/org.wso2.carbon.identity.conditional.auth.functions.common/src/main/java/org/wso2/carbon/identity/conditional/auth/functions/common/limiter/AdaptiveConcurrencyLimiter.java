@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.limiter;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive limit on the calls in flight to an external endpoint.
+ * <p>
+ * The limit follows the gradient between the baseline latency of the endpoint and the recent latency. While the
+ * recent latency stays within the tolerance of the baseline the limit grows by about its square root per call, and
+ * once the endpoint starts queueing the requests the limit shrinks in proportion to the latency increase. Failed
+ * calls decrease the limit multiplicatively. Calls over the limit are rejected without contacting the endpoint.
+ * <p>
+ * The baseline is the minimum latency of the calls served while at most half of the limit is in flight, measured in a
+ * short probe which is repeated periodically. Measuring it at the regular limit would let the queueing caused by a
+ * high limit become the new baseline, and the limit would never come down. The probe does not lower the limit, as
+ * that would reject calls the endpoint is able to serve. If the load does not drop low enough during the probe, the
+ * earlier baseline is kept.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Log LOG = LogFactory.getLog(AdaptiveConcurrencyLimiter.class);
+
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final int MIN_PROBE_SAMPLES = 10;
+    private static final long PROBE_INTERVAL = TimeUnit.SECONDS.toNanos(30);
+    private static final long PROBE_TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double backoffRatio;
+    private final LongSupplier clock;
+
+    private double estimatedLimit;
+    private int limit;
+    private int inFlight;
+    private long windowStartTime;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private long baselineRtt;
+
+    // Baseline probe in progress, started at probeStartTime, sampling the calls served with up to probeLimit in flight.
+    private boolean probing = true;
+    private long probeStartTime;
+    private int probeLimit;
+    private int probeSamples;
+    private long probeMinRtt = Long.MAX_VALUE;
+    private long nextProbeTime;
+    private final AtomicLong rejectedCallCount = new AtomicLong();
+
+    /**
+     * @param name         Name of the limiter, used in the logs.
+     * @param initialLimit Limit used until the baseline latency is measured.
+     * @param minLimit     Lower bound of the limit.
+     * @param maxLimit     Upper bound of the limit.
+     * @param rttTolerance Percentage of the baseline latency tolerated before the limit shrinks.
+     * @param backoffRatio Percentage of the limit kept after a failed call.
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, int rttTolerance,
+                                      int backoffRatio) {
+
+        this(name, initialLimit, minLimit, maxLimit, rttTolerance, backoffRatio, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, int rttTolerance,
+                               int backoffRatio, LongSupplier clock) {
+
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.rttTolerance = Math.max(100, rttTolerance) / 100d;
+        this.backoffRatio = Math.min(Math.max(backoffRatio, 10), 100) / 100d;
+        this.clock = clock;
+        this.estimatedLimit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+        this.limit = (int) estimatedLimit;
+        // The first baseline is measured at the initial limit.
+        this.probeStartTime = clock.getAsLong();
+        this.probeLimit = limit;
+    }
+
+    /**
+     * Check whether a call can be sent to the endpoint. Each permitted call should be followed by a call to one of
+     * {@link #onSuccess(long)}, {@link #onDropped()} or {@link #onIgnore()}.
+     *
+     * @return True if the call is within the limit, false if it should fail fast.
+     */
+    public synchronized boolean tryAcquire() {
+
+        if (inFlight >= limit) {
+            rejectedCallCount.incrementAndGet();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Record a call which the endpoint served.
+     *
+     * @param rtt Round trip time of the call in nanoseconds.
+     */
+    public synchronized void onSuccess(long rtt) {
+
+        int currentInFlight = inFlight;
+        release();
+        if (rtt <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (probing) {
+            onProbeSample(rtt, currentInFlight, now);
+            return;
+        }
+        if (now - nextProbeTime >= 0) {
+            startProbe(now);
+            return;
+        }
+        windowRttSum += rtt;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, currentInFlight);
+        if (now - rtt < windowStartTime) {
+            // The limit is updated once per round trip, when a call sent after the last update completes. Updating
+            // it on each call would apply the same latency increase once for every call in flight.
+            return;
+        }
+        double windowRtt = (double) windowRttSum / windowSamples;
+        boolean limitUsed = windowMaxInFlight >= estimatedLimit / 2;
+        resetWindow(now);
+        if (!limitUsed) {
+            // The limit is not being used, so the latency says nothing about whether it could be higher.
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1, rttTolerance * baselineRtt / windowRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        updateLimit(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+    }
+
+    /**
+     * Record a call which failed due to the endpoint, i.e. a connection error, a timeout or a server error.
+     */
+    public synchronized void onDropped() {
+
+        release();
+        updateLimit(estimatedLimit * backoffRatio);
+    }
+
+    /**
+     * Release a call without recording its result, e.g. when it was cancelled or not sent.
+     */
+    public synchronized void onIgnore() {
+
+        release();
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    public synchronized int getLimit() {
+
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+
+        return inFlight;
+    }
+
+    /**
+     * Get the baseline latency of the endpoint.
+     *
+     * @return Baseline latency in nanoseconds, or 0 if it is not measured yet.
+     */
+    public synchronized long getBaselineRtt() {
+
+        return baselineRtt;
+    }
+
+    /**
+     * Get the number of calls rejected as the limit was reached.
+     *
+     * @return Rejected call count.
+     */
+    public long getRejectedCallCount() {
+
+        return rejectedCallCount.get();
+    }
+
+    private void release() {
+
+        if (inFlight > 0) {
+            inFlight--;
+        }
+    }
+
+    private void startProbe(long now) {
+
+        probing = true;
+        probeStartTime = now;
+        probeLimit = Math.max(minLimit, limit / 2);
+        probeSamples = 0;
+        probeMinRtt = Long.MAX_VALUE;
+    }
+
+    private void onProbeSample(long rtt, int callInFlight, long now) {
+
+        // Calls sent before the probe started or served along with more calls than the probe limit may have queued.
+        if (now - rtt >= probeStartTime && callInFlight <= probeLimit) {
+            probeMinRtt = Math.min(probeMinRtt, rtt);
+            probeSamples++;
+        }
+        // Calls sent at the start of the probe still queue behind the ones sent earlier, so wait for two rounds.
+        if (probeSamples >= Math.max(MIN_PROBE_SAMPLES, probeLimit * 2)) {
+            endProbe(probeMinRtt, now);
+        } else if (baselineRtt > 0 && now - probeStartTime >= PROBE_TIMEOUT) {
+            // The load stayed high, so the calls served at a low concurrency are all there is to go by.
+            endProbe(probeSamples > 0 ? probeMinRtt : baselineRtt, now);
+        }
+    }
+
+    private void endProbe(long minRtt, long now) {
+
+        probing = false;
+        baselineRtt = minRtt;
+        resetWindow(now);
+        nextProbeTime = now + PROBE_INTERVAL;
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Baseline latency of the endpoint: " + name + " is " +
+                    TimeUnit.NANOSECONDS.toMicros(baselineRtt) + " us. Concurrency limit: " + limit);
+        }
+    }
+
+    private void resetWindow(long now) {
+
+        windowStartTime = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+    }
+
+    private void updateLimit(double newLimit) {
+
+        estimatedLimit = Math.min(Math.max(newLimit, minLimit), maxLimit);
+        int previousLimit = limit;
+        limit = (int) estimatedLimit;
+        if (limit != previousLimit && LOG.isDebugEnabled()) {
+            LOG.debug("Concurrency limit of the endpoint: " + name + " changed from " + previousLimit + " to " +
+                    limit + ".");
+        }
+    }
+}
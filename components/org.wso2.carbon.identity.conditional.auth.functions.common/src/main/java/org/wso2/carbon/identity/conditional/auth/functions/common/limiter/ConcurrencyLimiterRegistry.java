@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.limiter;
+
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds an {@link AdaptiveConcurrencyLimiter} per endpoint (scheme://host:port) called by the functions.
+ */
+public class ConcurrencyLimiterRegistry {
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int rttTolerance;
+    private final int backoffRatio;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    private ConcurrencyLimiterRegistry() {
+
+        ConfigProvider configProvider = ConfigProvider.getInstance();
+        enabled = configProvider.isOutboundConcurrencyLimitEnabled();
+        initialLimit = configProvider.getOutboundConcurrencyLimitInitialLimit();
+        minLimit = configProvider.getOutboundConcurrencyLimitMinLimit();
+        maxLimit = configProvider.getOutboundConcurrencyLimitMaxLimit();
+        rttTolerance = configProvider.getOutboundConcurrencyLimitRttTolerance();
+        backoffRatio = configProvider.getOutboundConcurrencyLimitBackoffRatio();
+    }
+
+    private static class ConcurrencyLimiterRegistryHolder {
+
+        static final ConcurrencyLimiterRegistry INSTANCE = new ConcurrencyLimiterRegistry();
+    }
+
+    public static ConcurrencyLimiterRegistry getInstance() {
+
+        return ConcurrencyLimiterRegistryHolder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Get the concurrency limiter of the given endpoint.
+     *
+     * @param endpointKey Endpoint in the form scheme://host:port.
+     * @return Concurrency limiter of the endpoint, or null if the concurrency limit is disabled or the endpoint is
+     * not known.
+     */
+    public AdaptiveConcurrencyLimiter getLimiter(String endpointKey) {
+
+        if (!enabled || StringUtils.isEmpty(endpointKey)) {
+            return null;
+        }
+        return limiters.computeIfAbsent(endpointKey, key -> new AdaptiveConcurrencyLimiter(key, initialLimit,
+                minLimit, maxLimit, rttTolerance, backoffRatio));
+    }
+
+    /**
+     * Get the concurrency limits of all the endpoints called so far.
+     *
+     * @return Map of endpoint (scheme://host:port) to its current concurrency limit.
+     */
+    public Map<String, Integer> getLimits() {
+
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        limiters.forEach((endpoint, limiter) -> limits.put(endpoint, limiter.getLimit()));
+        return Collections.unmodifiableMap(limits);
+    }
+}
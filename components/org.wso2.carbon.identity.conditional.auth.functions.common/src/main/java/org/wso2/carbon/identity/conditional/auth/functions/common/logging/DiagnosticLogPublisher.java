@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.logging;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.slf4j.MDC;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
+import org.wso2.carbon.identity.central.log.mgt.utils.LoggerUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+import org.wso2.carbon.utils.DiagnosticLog;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the diagnostic log events of the outbound calls from a bounded queue, so that the authentication flow
+ * does not wait for the events to be published. Events are dropped while the queue is full, and are published in
+ * the tenant and with the logging context, such as the correlation id, of the flow which raised them.
+ */
+public class DiagnosticLogPublisher {
+
+    private static final Log LOG = LogFactory.getLog(DiagnosticLogPublisher.class);
+    // Dropped events are reported once per this many events, so that a full queue does not flood the logs.
+    private static final int DROPPED_EVENT_REPORT_INTERVAL = 1000;
+
+    private final BlockingQueue<PendingEvent> queue;
+    private final AtomicLong droppedEventCount = new AtomicLong();
+
+    /**
+     * @param queueSize Maximum number of events waiting to be published, or 0 to publish the events on the calling
+     *                  thread.
+     */
+    DiagnosticLogPublisher(int queueSize) {
+
+        if (queueSize <= 0) {
+            queue = null;
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        Thread publisherThread = new Thread(this::publishEvents, "adaptive-auth-diagnostic-log-publisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    private static class DiagnosticLogPublisherHolder {
+
+        static final DiagnosticLogPublisher INSTANCE = new DiagnosticLogPublisher(
+                ConfigProvider.getInstance().getOutboundLoggingDiagnosticQueueSize());
+    }
+
+    public static DiagnosticLogPublisher getInstance() {
+
+        return DiagnosticLogPublisherHolder.INSTANCE;
+    }
+
+    /**
+     * Publish the diagnostic log event. The event should be built only if diagnostic logs are enabled.
+     *
+     * @param diagnosticLogBuilder Diagnostic log event.
+     */
+    public void publish(DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder) {
+
+        if (queue == null) {
+            LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
+            return;
+        }
+        String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+        if (!queue.offer(new PendingEvent(diagnosticLogBuilder, tenantDomain, MDC.getCopyOfContextMap()))) {
+            long dropped = droppedEventCount.incrementAndGet();
+            if (dropped % DROPPED_EVENT_REPORT_INTERVAL == 1) {
+                LOG.warn("Diagnostic log queue of the outbound calls is full. Dropped " + dropped + " events so " +
+                        "far.");
+            }
+        }
+    }
+
+    public long getDroppedEventCount() {
+
+        return droppedEventCount.get();
+    }
+
+    public int getPendingEventCount() {
+
+        return queue != null ? queue.size() : 0;
+    }
+
+    private void publishEvents() {
+
+        while (true) {
+            PendingEvent event;
+            try {
+                event = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            boolean tenantFlowStarted = false;
+            try {
+                if (event.mdcContext != null) {
+                    MDC.setContextMap(event.mdcContext);
+                }
+                if (event.tenantDomain != null) {
+                    FrameworkUtils.startTenantFlow(event.tenantDomain);
+                    tenantFlowStarted = true;
+                }
+                LoggerUtils.triggerDiagnosticLogEvent(event.diagnosticLogBuilder);
+            } catch (RuntimeException e) {
+                // Do not let a failed event stop the publisher.
+                LOG.error("Error while publishing the diagnostic log event of an outbound call.", e);
+            } finally {
+                if (tenantFlowStarted) {
+                    FrameworkUtils.endTenantFlow();
+                }
+                // Do not let the logging context of the event leak into the next one.
+                MDC.clear();
+            }
+        }
+    }
+
+    private static class PendingEvent {
+
+        private final DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder;
+        private final String tenantDomain;
+        private final Map<String, String> mdcContext;
+
+        PendingEvent(DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder, String tenantDomain,
+                     Map<String, String> mdcContext) {
+
+            this.diagnosticLogBuilder = diagnosticLogBuilder;
+            this.tenantDomain = tenantDomain;
+            this.mdcContext = mdcContext;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pre-built log message with {} placeholders for its arguments, e.g.
+ * LogTemplate.of("Successfully called the external api. Status code: {}. Url: {}"). The message is split once when
+ * the template is created, and is only formatted when it is going to be logged.
+ */
+public final class LogTemplate {
+
+    private static final String PLACEHOLDER = "{}";
+
+    private final String[] parts;
+    private final int length;
+
+    private LogTemplate(String pattern) {
+
+        List<String> partList = new ArrayList<>();
+        int start = 0;
+        int placeholderIndex;
+        while ((placeholderIndex = pattern.indexOf(PLACEHOLDER, start)) != -1) {
+            partList.add(pattern.substring(start, placeholderIndex));
+            start = placeholderIndex + PLACEHOLDER.length();
+        }
+        partList.add(pattern.substring(start));
+        this.parts = partList.toArray(new String[0]);
+        this.length = pattern.length();
+    }
+
+    /**
+     * Create a template.
+     *
+     * @param pattern Message with a {} placeholder for each argument.
+     * @return LogTemplate.
+     */
+    public static LogTemplate of(String pattern) {
+
+        return new LogTemplate(pattern);
+    }
+
+    /**
+     * Get the number of placeholders of the template.
+     *
+     * @return Argument count.
+     */
+    public int getArgumentCount() {
+
+        return parts.length - 1;
+    }
+
+    /**
+     * Format the message with the given arguments. Placeholders without an argument are left as they are, and
+     * arguments without a placeholder are ignored.
+     *
+     * @param arguments Arguments of the message.
+     * @return Formatted message.
+     */
+    public String format(Object... arguments) {
+
+        if (parts.length == 1) {
+            return parts[0];
+        }
+        StringBuilder message = new StringBuilder(length + 16 * (parts.length - 1));
+        message.append(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            message.append(i <= arguments.length ? String.valueOf(arguments[i - 1]) : PLACEHOLDER).append(parts[i]);
+        }
+        return message.toString();
+    }
+
+    @Override
+    public String toString() {
+
+        return String.join(PLACEHOLDER, parts);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.logging;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.central.log.mgt.utils.LoggerUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
+import org.wso2.carbon.utils.DiagnosticLog;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Logger of the outbound calls made by the adaptive authentication functions, meant for their hot paths.
+ * <p>
+ * Messages are given as {@link LogTemplate}s and are only formatted if the level is enabled. The info logs of
+ * successful calls are sampled with the configured sample rate. Diagnostic log events are only built if diagnostic
+ * logs are enabled, and are published asynchronously by the {@link DiagnosticLogPublisher}.
+ */
+public class OutboundLogger {
+
+    private static final int FULL_SAMPLE_RATE = 100;
+
+    private final Log log;
+    private final int successLogSampleRate;
+    private final DiagnosticLogPublisher diagnosticLogPublisher;
+
+    /**
+     * @param clazz Class of which the logs are written.
+     */
+    public OutboundLogger(Class<?> clazz) {
+
+        this(LogFactory.getLog(clazz), ConfigProvider.getInstance().getOutboundLoggingSuccessLogSampleRate(),
+                DiagnosticLogPublisher.getInstance());
+    }
+
+    OutboundLogger(Log log, int successLogSampleRate, DiagnosticLogPublisher diagnosticLogPublisher) {
+
+        this.log = log;
+        this.successLogSampleRate = successLogSampleRate;
+        this.diagnosticLogPublisher = diagnosticLogPublisher;
+    }
+
+    public void debug(LogTemplate template, Object argument) {
+
+        if (log.isDebugEnabled()) {
+            log.debug(template.format(argument));
+        }
+    }
+
+    public void debug(LogTemplate template, Object argument1, Object argument2) {
+
+        if (log.isDebugEnabled()) {
+            log.debug(template.format(argument1, argument2));
+        }
+    }
+
+    public void info(LogTemplate template, Object argument) {
+
+        if (log.isInfoEnabled()) {
+            log.info(template.format(argument));
+        }
+    }
+
+    public void info(LogTemplate template, Object argument1, Object argument2) {
+
+        if (log.isInfoEnabled()) {
+            log.info(template.format(argument1, argument2));
+        }
+    }
+
+    /**
+     * Write the info log of a successful call, if it is sampled.
+     *
+     * @param template Message template.
+     * @param argument Argument of the message.
+     */
+    public void successInfo(LogTemplate template, Object argument) {
+
+        if (isSuccessInfoEnabled()) {
+            log.info(template.format(argument));
+        }
+    }
+
+    /**
+     * Write the info log of a successful call, if it is sampled.
+     *
+     * @param template  Message template.
+     * @param argument1 First argument of the message.
+     * @param argument2 Second argument of the message.
+     */
+    public void successInfo(LogTemplate template, Object argument1, Object argument2) {
+
+        if (isSuccessInfoEnabled()) {
+            log.info(template.format(argument1, argument2));
+        }
+    }
+
+    public void warn(LogTemplate template, Object argument) {
+
+        if (log.isWarnEnabled()) {
+            log.warn(template.format(argument));
+        }
+    }
+
+    public void warn(LogTemplate template, Object argument1, Object argument2) {
+
+        if (log.isWarnEnabled()) {
+            log.warn(template.format(argument1, argument2));
+        }
+    }
+
+    /**
+     * Publish a diagnostic log event of the adaptive auth service with an input param and a result message.
+     *
+     * @param actionId      Action id of the event.
+     * @param inputKey      Key of the input param.
+     * @param inputValue    Value of the input param.
+     * @param resultMessage Result message template without placeholders.
+     * @param resultStatus  Result status.
+     */
+    public void diagnostic(String actionId, String inputKey, Object inputValue, LogTemplate resultMessage,
+                           DiagnosticLog.ResultStatus resultStatus) {
+
+        if (LoggerUtils.isDiagnosticLogsEnabled()) {
+            diagnosticLogPublisher.publish(createDiagnosticLogBuilder(actionId, inputKey, inputValue,
+                    resultMessage.format(), resultStatus));
+        }
+    }
+
+    /**
+     * Publish a diagnostic log event of the adaptive auth service with an input param and a result message.
+     *
+     * @param actionId      Action id of the event.
+     * @param inputKey      Key of the input param.
+     * @param inputValue    Value of the input param.
+     * @param resultMessage Result message template.
+     * @param argument      Argument of the result message.
+     * @param resultStatus  Result status.
+     */
+    public void diagnostic(String actionId, String inputKey, Object inputValue, LogTemplate resultMessage,
+                           Object argument, DiagnosticLog.ResultStatus resultStatus) {
+
+        if (LoggerUtils.isDiagnosticLogsEnabled()) {
+            diagnosticLogPublisher.publish(createDiagnosticLogBuilder(actionId, inputKey, inputValue,
+                    resultMessage.format(argument), resultStatus));
+        }
+    }
+
+    /**
+     * Publish a diagnostic log event built by the given supplier, for events with further params.
+     *
+     * @param diagnosticLogBuilder Supplier of the event, only called if diagnostic logs are enabled.
+     */
+    public void diagnostic(Supplier<DiagnosticLog.DiagnosticLogBuilder> diagnosticLogBuilder) {
+
+        if (LoggerUtils.isDiagnosticLogsEnabled()) {
+            diagnosticLogPublisher.publish(diagnosticLogBuilder.get());
+        }
+    }
+
+    private boolean isSuccessInfoEnabled() {
+
+        if (!log.isInfoEnabled() || successLogSampleRate <= 0) {
+            return false;
+        }
+        return successLogSampleRate >= FULL_SAMPLE_RATE ||
+                ThreadLocalRandom.current().nextInt(FULL_SAMPLE_RATE) < successLogSampleRate;
+    }
+
+    private static DiagnosticLog.DiagnosticLogBuilder createDiagnosticLogBuilder(
+            String actionId, String inputKey, Object inputValue, String resultMessage,
+            DiagnosticLog.ResultStatus resultStatus) {
+
+        DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new DiagnosticLog.DiagnosticLogBuilder(
+                Constants.LogConstants.ADAPTIVE_AUTH_SERVICE, actionId);
+        diagnosticLogBuilder.inputParam(inputKey, inputValue)
+                .resultMessage(resultMessage)
+                .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
+                .resultStatus(resultStatus);
+        return diagnosticLogBuilder;
+    }
+}
@@ -18,7 +18,21 @@
 
 package org.wso2.carbon.identity.conditional.auth.functions.common.model;
 
+import java.util.Map;
+
 public interface JsUtils {
 
     boolean isArray(Object obj);
+
+    /**
+     * Get the view of a parsed response handed to the adaptive script. Engines which can access the response
+     * lazily override this to return a read-only view, which converts nested values only when the script reads them.
+     *
+     * @param response Parsed response.
+     * @return Response to hand to the script. The response itself by default.
+     */
+    default Map<String, Object> toResponseView(Map<String, Object> response) {
+
+        return response;
+    }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.model.graaljs;
+
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Javascript wrapper for a parsed json array, wrapping its objects and arrays only when they are read.
+ * The wrapper is also a read-only {@link List} of the same values, for the java code handling the response, and is
+ * serialized as the list it wraps.
+ *
+ * @see JsGraalJsonObject
+ */
+public class JsGraalJsonArray extends AbstractList<Object> implements ProxyArray, Serializable {
+
+    private static final long serialVersionUID = -4419384723640571280L;
+
+    private final List<Object> wrapped;
+    // Wrappers of the nested values read so far, so that a value is the same object each time it is read.
+    private transient Object[] views;
+
+    public JsGraalJsonArray(List<Object> wrapped) {
+
+        this.wrapped = wrapped;
+    }
+
+    @Override
+    public Object get(int index) {
+
+        Object value = wrapped.get(index);
+        if (!(value instanceof Map) && !(value instanceof List)) {
+            return value;
+        }
+        if (views == null) {
+            views = new Object[wrapped.size()];
+        }
+        if (views[index] == null) {
+            views[index] = JsGraalJsonObject.toView(value);
+        }
+        return views[index];
+    }
+
+    @Override
+    public int size() {
+
+        return wrapped.size();
+    }
+
+    @Override
+    public Object get(long index) {
+
+        if (index < 0 || index >= wrapped.size()) {
+            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index + " for the array of size: " +
+                    wrapped.size());
+        }
+        return get((int) index);
+    }
+
+    @Override
+    public void set(long index, Value value) {
+
+        // read-only array.
+    }
+
+    @Override
+    public boolean remove(long index) {
+
+        // read-only array.
+        return false;
+    }
+
+    @Override
+    public long getSize() {
+
+        return wrapped.size();
+    }
+
+    /**
+     * Serialize the wrapped list in place of the wrapper.
+     *
+     * @return Wrapped list.
+     */
+    private Object writeReplace() {
+
+        return wrapped instanceof Serializable ? wrapped : new ArrayList<>(wrapped);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.model.graaljs;
+
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyObject;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Javascript wrapper for a parsed json object, such as the response of an outbound call.
+ * This provides read-only access to the object via javascript native syntax without converting it upfront. Nested
+ * objects and arrays are wrapped only when they are read, hence a script reading a few fields of a large response
+ * does not pay for converting all of it.
+ * <p>
+ * The wrapper is also a read-only {@link Map} of the same values, for the java code handling the response. As the
+ * response is kept in the authentication context, which is serialized across the long wait, the wrapper is
+ * serialized as the map it wraps.
+ */
+public class JsGraalJsonObject extends AbstractMap<String, Object> implements ProxyObject, Serializable {
+
+    private static final long serialVersionUID = 2954180213578946721L;
+
+    private final Map<String, Object> wrapped;
+    // Wrappers of the nested values read so far, so that a value is the same object each time it is read.
+    private transient Map<String, Object> views;
+
+    public JsGraalJsonObject(Map<String, Object> wrapped) {
+
+        this.wrapped = wrapped;
+    }
+
+    /**
+     * Wrap the given json value if it is an object or an array.
+     *
+     * @param value Json value.
+     * @return Wrapper of the value or the value itself.
+     */
+    @SuppressWarnings("unchecked")
+    static Object toView(Object value) {
+
+        if (value instanceof JsGraalJsonObject || value instanceof JsGraalJsonArray) {
+            return value;
+        }
+        if (value instanceof Map) {
+            return new JsGraalJsonObject((Map<String, Object>) value);
+        }
+        if (value instanceof List) {
+            return new JsGraalJsonArray((List<Object>) value);
+        }
+        return value;
+    }
+
+    @Override
+    public Object get(Object key) {
+
+        Object value = wrapped.get(key);
+        if (!(value instanceof Map) && !(value instanceof List)) {
+            return value;
+        }
+        if (views == null) {
+            views = new HashMap<>();
+        }
+        return views.computeIfAbsent((String) key, k -> toView(value));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+
+        return wrapped.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+
+        return wrapped.size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+
+        return new AbstractSet<Entry<String, Object>>() {
+
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+
+                Iterator<String> keys = wrapped.keySet().iterator();
+                return new Iterator<Entry<String, Object>>() {
+
+                    @Override
+                    public boolean hasNext() {
+
+                        return keys.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+
+                        String key = keys.next();
+                        return new SimpleImmutableEntry<>(key, get(key));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+
+                return wrapped.size();
+            }
+        };
+    }
+
+    @Override
+    public Object getMember(String key) {
+
+        return get(key);
+    }
+
+    @Override
+    public Object getMemberKeys() {
+
+        return ProxyArray.fromArray(wrapped.keySet().toArray());
+    }
+
+    @Override
+    public boolean hasMember(String key) {
+
+        return wrapped.containsKey(key);
+    }
+
+    @Override
+    public void putMember(String key, Value value) {
+
+        // read-only object.
+    }
+
+    @Override
+    public boolean removeMember(String key) {
+
+        // read-only object.
+        return false;
+    }
+
+    /**
+     * Serialize the wrapped map in place of the wrapper.
+     *
+     * @return Wrapped map.
+     */
+    private Object writeReplace() {
+
+        return wrapped instanceof Serializable ? wrapped : new LinkedHashMap<>(wrapped);
+    }
+}
@@ -21,6 +21,7 @@ package org.wso2.carbon.identity.conditional.auth.functions.common.model.graaljs
 import org.wso2.carbon.identity.conditional.auth.functions.common.model.JsUtils;
 
 import java.util.List;
+import java.util.Map;
 
 public class JsGraalUtils implements JsUtils {
 
@@ -30,4 +31,9 @@ public class JsGraalUtils implements JsUtils {
         return obj instanceof List;
     }
 
+    @Override
+    public Map<String, Object> toResponseView(Map<String, Object> response) {
+
+        return response instanceof JsGraalJsonObject ? response : new JsGraalJsonObject(response);
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket which caps the retries sent to an endpoint to a share of its traffic. Each request deposits a
+ * fraction of a token and each retry withdraws a whole token, so retries cannot exceed the configured ratio of the
+ * requests, plus a small allowance per second which lets endpoints with little traffic retry too.
+ */
+public class RetryBudget {
+
+    private final double depositPerRequest;
+    private final double minRetriesPerSecond;
+    private final double maxTokens;
+    private final LongSupplier clock;
+
+    private double tokens;
+    private long lastRefillTime;
+    private final AtomicLong rejectedRetryCount = new AtomicLong();
+
+    /**
+     * @param retryRatio          Percentage of the requests which may be retried.
+     * @param minRetriesPerSecond Retries allowed per second regardless of the traffic.
+     * @param maxTokens           Maximum number of retries that can be accumulated.
+     */
+    public RetryBudget(int retryRatio, int minRetriesPerSecond, int maxTokens) {
+
+        this(retryRatio, minRetriesPerSecond, maxTokens, System::currentTimeMillis);
+    }
+
+    RetryBudget(int retryRatio, int minRetriesPerSecond, int maxTokens, LongSupplier clock) {
+
+        this.depositPerRequest = Math.max(retryRatio, 0) / 100d;
+        this.minRetriesPerSecond = Math.max(minRetriesPerSecond, 0);
+        this.maxTokens = Math.max(maxTokens, 1);
+        this.clock = clock;
+        this.tokens = Math.min(Math.max(minRetriesPerSecond, 0), this.maxTokens);
+        this.lastRefillTime = clock.getAsLong();
+    }
+
+    /**
+     * Record a request sent to the endpoint for the first time.
+     */
+    public synchronized void onRequest() {
+
+        refill();
+        tokens = Math.min(maxTokens, tokens + depositPerRequest);
+    }
+
+    /**
+     * Withdraw a token for a retry.
+     *
+     * @return True if the retry is within the budget, false if it should not be sent.
+     */
+    public synchronized boolean tryAcquireRetry() {
+
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        rejectedRetryCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Get the number of retries which were not sent as the budget was exhausted.
+     *
+     * @return Rejected retry count.
+     */
+    public long getRejectedRetryCount() {
+
+        return rejectedRetryCount.get();
+    }
+
+    synchronized double getTokens() {
+
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+
+        long now = clock.getAsLong();
+        if (now > lastRefillTime) {
+            tokens = Math.min(maxTokens, tokens + (now - lastRefillTime) * minRetriesPerSecond / 1000d);
+            lastRefillTime = now;
+        }
+    }
+}
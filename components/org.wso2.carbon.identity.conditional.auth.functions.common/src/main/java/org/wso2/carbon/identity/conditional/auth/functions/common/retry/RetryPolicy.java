@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.retry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retry policy shared by the outbound calls of the adaptive authentication functions.
+ * <p>
+ * Retries are delayed with exponential backoff and full jitter, i.e. a random delay between zero and an upper
+ * bound which doubles with each attempt, so that the callers of a failing endpoint do not retry in lockstep. Only
+ * idempotent requests are retried unless the caller opts in, and the retries to each endpoint are capped by a
+ * {@link RetryBudget}.
+ */
+public class RetryPolicy {
+
+    private static final Log LOG = LogFactory.getLog(RetryPolicy.class);
+    private static final Set<String> IDEMPOTENT_METHODS = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE")));
+
+    private final long baseDelay;
+    private final long maxDelay;
+    private final int budgetRetryRatio;
+    private final int budgetMinRetriesPerSecond;
+    private final int budgetMaxTokens;
+    private final Map<String, RetryBudget> retryBudgets = new ConcurrentHashMap<>();
+
+    /**
+     * @param baseDelay                 Upper bound of the delay before the first retry, in milliseconds.
+     * @param maxDelay                  Upper bound of the delay before any retry, in milliseconds.
+     * @param budgetRetryRatio          Percentage of the requests to an endpoint which may be retried.
+     * @param budgetMinRetriesPerSecond Retries allowed per second to an endpoint regardless of its traffic.
+     * @param budgetMaxTokens           Maximum number of retries that can be accumulated for an endpoint.
+     */
+    public RetryPolicy(long baseDelay, long maxDelay, int budgetRetryRatio, int budgetMinRetriesPerSecond,
+                       int budgetMaxTokens) {
+
+        this.baseDelay = Math.max(baseDelay, 0);
+        this.maxDelay = Math.max(maxDelay, this.baseDelay);
+        this.budgetRetryRatio = budgetRetryRatio;
+        this.budgetMinRetriesPerSecond = budgetMinRetriesPerSecond;
+        this.budgetMaxTokens = budgetMaxTokens;
+    }
+
+    private static class RetryPolicyHolder {
+
+        static final RetryPolicy INSTANCE = createFromConfig();
+    }
+
+    private static class RetrySchedulerHolder {
+
+        static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "adaptive-auth-outbound-retry-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the retry policy configured for the outbound calls.
+     *
+     * @return RetryPolicy.
+     */
+    public static RetryPolicy getInstance() {
+
+        return RetryPolicyHolder.INSTANCE;
+    }
+
+    private static RetryPolicy createFromConfig() {
+
+        ConfigProvider configProvider = ConfigProvider.getInstance();
+        return new RetryPolicy(configProvider.getOutboundRetryBaseDelay(), configProvider.getOutboundRetryMaxDelay(),
+                configProvider.getOutboundRetryBudgetRetryRatio(),
+                configProvider.getOutboundRetryBudgetMinRetriesPerSecond(),
+                configProvider.getOutboundRetryBudgetMaxTokens());
+    }
+
+    /**
+     * Check whether a request can be retried.
+     *
+     * @param method     Http method of the request.
+     * @param retryOptIn Whether the caller declared the request safe to retry even if the method is not idempotent.
+     * @return True if the request can be retried.
+     */
+    public boolean isRetryable(String method, boolean retryOptIn) {
+
+        return retryOptIn || (method != null && IDEMPOTENT_METHODS.contains(method.toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * Record the first attempt of a request to the endpoint, which adds to the retry budget of the endpoint.
+     *
+     * @param endpoint Endpoint key, see {@link CommonUtils#getEndpointKey(java.net.URI)}.
+     */
+    public void onRequest(String endpoint) {
+
+        getRetryBudget(endpoint).onRequest();
+    }
+
+    /**
+     * Check whether a retry to the endpoint is within its retry budget. A permitted retry is withdrawn from the
+     * budget.
+     *
+     * @param endpoint Endpoint key, see {@link CommonUtils#getEndpointKey(java.net.URI)}.
+     * @return True if the retry can be sent.
+     */
+    public boolean tryAcquireRetry(String endpoint) {
+
+        if (getRetryBudget(endpoint).tryAcquireRetry()) {
+            return true;
+        }
+        LOG.warn("Retry budget of the endpoint: " + endpoint + " is exhausted. The request is not retried.");
+        return false;
+    }
+
+    /**
+     * Get the delay before the given retry attempt.
+     *
+     * @param retryAttempt Retry attempt, starting from 1.
+     * @return Random delay in milliseconds between zero and the backoff bound of the attempt.
+     */
+    public long getBackoffDelay(int retryAttempt) {
+
+        int exponent = Math.min(Math.max(retryAttempt - 1, 0), 30);
+        long bound = Math.min(maxDelay, baseDelay << exponent);
+        if (baseDelay > 0 && bound < baseDelay) {
+            // Overflow of the shift.
+            bound = maxDelay;
+        }
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    /**
+     * Block the calling thread for the backoff delay of the given retry attempt. Used by the callers which already
+     * wait for the response on the calling thread.
+     *
+     * @param retryAttempt Retry attempt, starting from 1.
+     * @return True if the delay elapsed, false if the thread was interrupted and the retry should be abandoned.
+     */
+    public boolean awaitBackoff(int retryAttempt) {
+
+        long delay = getBackoffDelay(retryAttempt);
+        if (delay == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while waiting to retry the request.");
+            return false;
+        }
+    }
+
+    /**
+     * Run the retry after the backoff delay of the given retry attempt, without blocking the calling thread. Used
+     * by the non-blocking callers, which retry from the completion callbacks of the http client.
+     *
+     * @param retryAttempt Retry attempt, starting from 1.
+     * @param retry        Task sending the retry. It should handle its own failures.
+     */
+    public void scheduleRetry(int retryAttempt, Runnable retry) {
+
+        long delay = getBackoffDelay(retryAttempt);
+        if (delay == 0) {
+            retry.run();
+            return;
+        }
+        RetrySchedulerHolder.SCHEDULER.schedule(retry, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the retry budget of the endpoint.
+     *
+     * @param endpoint Endpoint key, see {@link CommonUtils#getEndpointKey(java.net.URI)}.
+     * @return RetryBudget.
+     */
+    public RetryBudget getRetryBudget(String endpoint) {
+
+        return retryBudgets.computeIfAbsent(String.valueOf(endpoint), key -> new RetryBudget(budgetRetryRatio,
+                budgetMinRetriesPerSecond, budgetMaxTokens));
+    }
+}
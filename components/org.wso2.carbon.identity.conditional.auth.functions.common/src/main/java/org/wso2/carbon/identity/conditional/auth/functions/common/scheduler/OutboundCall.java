@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.scheduler;
+
+import org.wso2.carbon.identity.application.authentication.framework.AsyncReturn;
+import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
+import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
+
+/**
+ * Outbound call of a function, executed by the {@link OutboundScheduler}. The call is considered to be in progress
+ * until the given {@link AsyncReturn} is invoked.
+ */
+@FunctionalInterface
+public interface OutboundCall {
+
+    /**
+     * Make the call.
+     *
+     * @param context     Authentication context.
+     * @param asyncReturn AsyncReturn to be invoked with the outcome of the call.
+     * @throws FrameworkException If the call cannot be made.
+     */
+    void execute(AuthenticationContext context, AsyncReturn asyncReturn) throws FrameworkException;
+}
@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.scheduler;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.authentication.framework.AsyncReturn;
+import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
+import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
+import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Scheduler of the outbound calls of the functions, so that a tenant calling a slow endpoint cannot take up all the
+ * outbound capacity of the server.
+ * <p>
+ * Each tenant has a bulkhead limiting its concurrent calls, with a bounded queue for the calls beyond the limit. The
+ * concurrent calls across all the tenants are limited as well. When capacity frees up, queued calls are dispatched
+ * across the tenants with self clocked weighted fair queuing, so that each backlogged tenant gets a share of the
+ * dispatches proportional to its weight. Calls arriving at a full queue, or waiting in the queue longer than the max
+ * queue time, fail fast with the fail outcome. A dispatched call holds its capacity at most for the max call time,
+ * so that a call whose completion is lost does not keep the capacity of its tenant forever.
+ */
+public class OutboundScheduler implements OutboundSchedulerMXBean {
+
+    public static final String OBJECT_NAME = "org.wso2.carbon.identity.conditional.auth:type=OutboundScheduler";
+    private static final Log LOG = LogFactory.getLog(OutboundScheduler.class);
+    private static final int DEFAULT_WEIGHT = 1;
+
+    /**
+     * Reasons to fail a call without making it.
+     */
+    public enum RejectionReason {
+        QUEUE_FULL,
+        QUEUE_TIMEOUT,
+        DISPATCH_FAILED
+    }
+
+    /**
+     * Task scheduled with the scheduler.
+     */
+    interface ScheduledTask {
+
+        /**
+         * Run the task.
+         *
+         * @param release Releases the capacity taken by the task. Should be run once the call of the task completes.
+         * @param queued  Whether the task waited in the queue, in which case it runs on a dispatcher thread.
+         */
+        void run(Runnable release, boolean queued);
+
+        /**
+         * Fail the task without running it.
+         *
+         * @param reason Reason for the failure.
+         */
+        void reject(RejectionReason reason);
+    }
+
+    private final boolean enabled;
+    private final int maxConcurrentCalls;
+    private final int tenantMaxConcurrentCalls;
+    private final int tenantMaxQueueSize;
+    private final long maxQueueTime;
+    private final long maxCallTime;
+    private final Map<String, Integer> tenantWeights;
+    private final Executor dispatcher;
+    private final ScheduledExecutorService timer;
+
+    // Bulkheads of the tenants with calls in flight or queued, and of the tenants with a configured weight.
+    private final Map<String, TenantBulkhead> bulkheads = new HashMap<>();
+    // Bulkheads with queued calls, in the order they got backlogged.
+    private final Set<TenantBulkhead> backloggedBulkheads = new LinkedHashSet<>();
+    private int inFlightCalls;
+    private int queuedCalls;
+    // Start tag of the latest dispatched call, used as the virtual time of the weighted fair queuing.
+    private double virtualTime;
+
+    OutboundScheduler(boolean enabled, int maxConcurrentCalls, int tenantMaxConcurrentCalls, int tenantMaxQueueSize,
+                      long maxQueueTime, long maxCallTime, Map<String, Integer> tenantWeights, Executor dispatcher,
+                      ScheduledExecutorService timer) {
+
+        this.enabled = enabled;
+        this.maxConcurrentCalls = Math.max(1, maxConcurrentCalls);
+        this.tenantMaxConcurrentCalls = tenantMaxConcurrentCalls;
+        this.tenantMaxQueueSize = tenantMaxQueueSize;
+        this.maxQueueTime = maxQueueTime;
+        this.maxCallTime = maxCallTime;
+        this.tenantWeights = tenantWeights;
+        this.dispatcher = dispatcher;
+        this.timer = timer;
+    }
+
+    private static class OutboundSchedulerHolder {
+
+        static final OutboundScheduler INSTANCE = createScheduler(ConfigProvider.getInstance());
+    }
+
+    public static OutboundScheduler getInstance() {
+
+        return OutboundSchedulerHolder.INSTANCE;
+    }
+
+    private static OutboundScheduler createScheduler(ConfigProvider configProvider) {
+
+        if (!configProvider.isOutboundSchedulerEnabled()) {
+            return new OutboundScheduler(false, 1, 1, 0, 0, 0, Collections.emptyMap(), null, null);
+        }
+        // Threads are bounded by the max concurrent calls, as queued calls are only dispatched within the limit.
+        Executor dispatcher = Executors.newCachedThreadPool(createThreadFactory("outbound-scheduler-dispatcher"));
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+                createThreadFactory("outbound-scheduler-timer"));
+        return new OutboundScheduler(true, configProvider.getOutboundSchedulerMaxConcurrentCalls(),
+                configProvider.getOutboundSchedulerTenantMaxConcurrentCalls(),
+                configProvider.getOutboundSchedulerTenantMaxQueueSize(),
+                configProvider.getOutboundSchedulerMaxQueueTime(),
+                configProvider.getOutboundSchedulerMaxCallTime(),
+                configProvider.getOutboundSchedulerTenantWeights(), dispatcher, timer);
+    }
+
+    private static ThreadFactory createThreadFactory(String namePrefix) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Execute an outbound call within the bulkhead of the tenant of the given context. The call is made right away
+     * if the tenant is within its limits, otherwise it is queued. If the call cannot be made, the given AsyncReturn
+     * is invoked with the fail outcome.
+     *
+     * @param context     Authentication context.
+     * @param asyncReturn AsyncReturn of the long wait process.
+     * @param call        Outbound call.
+     * @throws FrameworkException If the scheduler is disabled and the call throws.
+     */
+    public void execute(AuthenticationContext context, AsyncReturn asyncReturn, OutboundCall call)
+            throws FrameworkException {
+
+        if (!enabled) {
+            call.execute(context, asyncReturn);
+            return;
+        }
+        String tenantDomain = context.getTenantDomain();
+        submit(tenantDomain, new ScheduledTask() {
+
+            @Override
+            public void run(Runnable release, boolean queued) {
+
+                executeCall(context, asyncReturn, call, release, queued ? tenantDomain : null);
+            }
+
+            @Override
+            public void reject(RejectionReason reason) {
+
+                LOG.warn("Outbound call of the tenant: " + tenantDomain + " failed without being made. Reason: " +
+                        reason + ". Session data key: " + context.getContextIdentifier());
+                failCall(context, asyncReturn);
+            }
+        });
+    }
+
+    private void executeCall(AuthenticationContext context, AsyncReturn asyncReturn, OutboundCall call,
+                             Runnable release, String tenantFlowDomain) {
+
+        AtomicBoolean returned = new AtomicBoolean();
+        AsyncReturn releasingReturn = (returnContext, data, outcome) -> {
+            returned.set(true);
+            release.run();
+            asyncReturn.accept(returnContext, data, outcome);
+        };
+        boolean tenantFlowStarted = false;
+        try {
+            if (tenantFlowDomain != null) {
+                // Queued calls run on a dispatcher thread, hence the tenant of the caller is set for them.
+                FrameworkUtils.startTenantFlow(tenantFlowDomain);
+                tenantFlowStarted = true;
+            }
+            call.execute(context, releasingReturn);
+        } catch (FrameworkException | RuntimeException e) {
+            release.run();
+            LOG.error("Error while making the outbound call for session data key: " +
+                    context.getContextIdentifier(), e);
+            if (!returned.get()) {
+                failCall(context, asyncReturn);
+            }
+        } finally {
+            if (tenantFlowStarted) {
+                FrameworkUtils.endTenantFlow();
+            }
+        }
+    }
+
+    private void failCall(AuthenticationContext context, AsyncReturn asyncReturn) {
+
+        try {
+            asyncReturn.accept(context, Collections.emptyMap(), Constants.OUTCOME_FAIL);
+        } catch (FrameworkException e) {
+            LOG.error("Error while proceeding after failing the outbound call for session data key: " +
+                    context.getContextIdentifier(), e);
+        }
+    }
+
+    /**
+     * Submit a task of a tenant. The task runs on the calling thread if the tenant is within its limits.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param task         Task.
+     */
+    void submit(String tenantDomain, ScheduledTask task) {
+
+        Ticket ticket = null;
+        boolean runNow = false;
+        synchronized (this) {
+            TenantBulkhead bulkhead = bulkheads.computeIfAbsent(tenantDomain, this::createBulkhead);
+            if (bulkhead.getQueue().isEmpty() && bulkhead.hasCapacity() && inFlightCalls < maxConcurrentCalls) {
+                ticket = new Ticket(bulkhead, task, bulkhead.nextFinishTag(virtualTime));
+                dispatch(ticket);
+                runNow = true;
+            } else if (bulkhead.isQueueFull()) {
+                bulkhead.onRejected();
+                removeIfIdle(bulkhead);
+            } else {
+                ticket = new Ticket(bulkhead, task, bulkhead.nextFinishTag(virtualTime));
+                enqueue(ticket);
+            }
+        }
+        if (runNow) {
+            ticket.run(false);
+        } else if (ticket == null) {
+            task.reject(RejectionReason.QUEUE_FULL);
+        }
+    }
+
+    private TenantBulkhead createBulkhead(String tenantDomain) {
+
+        Integer weight = tenantWeights.get(tenantDomain);
+        return new TenantBulkhead(tenantDomain, weight != null ? weight : DEFAULT_WEIGHT, tenantMaxConcurrentCalls,
+                tenantMaxQueueSize);
+    }
+
+    /**
+     * Drop the bulkhead of a tenant without calls in flight or queued, so that the bulkheads do not grow with every
+     * tenant ever seen. Bulkheads of the tenants with a configured weight are kept.
+     *
+     * @param bulkhead Bulkhead of the tenant.
+     */
+    private void removeIfIdle(TenantBulkhead bulkhead) {
+
+        if (bulkhead.isIdle() && !tenantWeights.containsKey(bulkhead.getTenantDomain())) {
+            bulkheads.remove(bulkhead.getTenantDomain());
+        }
+    }
+
+    private void enqueue(Ticket ticket) {
+
+        ticket.bulkhead.getQueue().addLast(ticket);
+        backloggedBulkheads.add(ticket.bulkhead);
+        queuedCalls++;
+        if (timer != null && maxQueueTime > 0) {
+            ticket.timeout = timer.schedule(() -> expire(ticket), maxQueueTime, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void dispatch(Ticket ticket) {
+
+        ticket.bulkhead.onDispatched();
+        inFlightCalls++;
+        virtualTime = Math.max(virtualTime, ticket.bulkhead.getStartTag(ticket.finishTag));
+        if (timer != null && maxCallTime > 0) {
+            ticket.lease = timer.schedule(ticket::expire, maxCallTime, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Dispatch queued calls while there is capacity, picking the call with the smallest finish tag among the tenants
+     * within their limits.
+     *
+     * @return Dispatched calls.
+     */
+    private List<Ticket> dispatchQueued() {
+
+        List<Ticket> dispatched = Collections.emptyList();
+        while (inFlightCalls < maxConcurrentCalls) {
+            TenantBulkhead next = null;
+            double minFinishTag = Double.MAX_VALUE;
+            for (TenantBulkhead bulkhead : backloggedBulkheads) {
+                if (bulkhead.hasCapacity() && bulkhead.getQueue().peekFirst().finishTag < minFinishTag) {
+                    next = bulkhead;
+                    minFinishTag = bulkhead.getQueue().peekFirst().finishTag;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            Ticket ticket = next.getQueue().pollFirst();
+            if (next.getQueue().isEmpty()) {
+                backloggedBulkheads.remove(next);
+            }
+            queuedCalls--;
+            if (ticket.timeout != null) {
+                ticket.timeout.cancel(false);
+            }
+            dispatch(ticket);
+            if (dispatched.isEmpty()) {
+                dispatched = new ArrayList<>();
+            }
+            dispatched.add(ticket);
+        }
+        return dispatched;
+    }
+
+    private void release(Ticket ticket, boolean expired) {
+
+        List<Ticket> dispatched;
+        synchronized (this) {
+            if (expired) {
+                ticket.bulkhead.onExpired();
+            } else if (ticket.lease != null) {
+                ticket.lease.cancel(false);
+            }
+            ticket.bulkhead.onCompleted();
+            inFlightCalls--;
+            dispatched = dispatchQueued();
+            removeIfIdle(ticket.bulkhead);
+        }
+        for (Ticket dispatchedTicket : dispatched) {
+            try {
+                dispatcher.execute(() -> dispatchedTicket.run(true));
+            } catch (RejectedExecutionException e) {
+                LOG.error("Error while dispatching the outbound call of the tenant: " +
+                        dispatchedTicket.bulkhead.getTenantDomain(), e);
+                dispatchedTicket.release();
+                dispatchedTicket.task.reject(RejectionReason.DISPATCH_FAILED);
+            }
+        }
+    }
+
+    private void expire(Ticket ticket) {
+
+        synchronized (this) {
+            TenantBulkhead bulkhead = ticket.bulkhead;
+            if (!bulkhead.getQueue().remove(ticket)) {
+                // Dispatched before the timeout.
+                return;
+            }
+            if (bulkhead.getQueue().isEmpty()) {
+                backloggedBulkheads.remove(bulkhead);
+            }
+            queuedCalls--;
+            bulkhead.onTimedOut();
+            removeIfIdle(bulkhead);
+        }
+        ticket.task.reject(RejectionReason.QUEUE_TIMEOUT);
+    }
+
+    @Override
+    public synchronized int getInFlightCalls() {
+
+        return inFlightCalls;
+    }
+
+    @Override
+    public synchronized int getQueuedCalls() {
+
+        return queuedCalls;
+    }
+
+    @Override
+    public synchronized List<TenantSchedulerStats> getTenantStats() {
+
+        List<TenantSchedulerStats> tenantStats = new ArrayList<>(bulkheads.size());
+        for (TenantBulkhead bulkhead : bulkheads.values()) {
+            tenantStats.add(bulkhead.getStats());
+        }
+        return tenantStats;
+    }
+
+    /**
+     * Register the scheduler statistics in the platform MBean server.
+     */
+    public void registerMBean() {
+
+        if (!enabled) {
+            return;
+        }
+        CommonUtils.registerMBean(this, OBJECT_NAME);
+    }
+
+    /**
+     * Unregister the scheduler statistics from the platform MBean server.
+     */
+    public void unregisterMBean() {
+
+        CommonUtils.unregisterMBean(OBJECT_NAME);
+    }
+
+    /**
+     * Call of a tenant, either queued or dispatched.
+     */
+    final class Ticket {
+
+        private final TenantBulkhead bulkhead;
+        private final ScheduledTask task;
+        private final double finishTag;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private ScheduledFuture<?> timeout;
+        private ScheduledFuture<?> lease;
+
+        private Ticket(TenantBulkhead bulkhead, ScheduledTask task, double finishTag) {
+
+            this.bulkhead = bulkhead;
+            this.task = task;
+            this.finishTag = finishTag;
+        }
+
+        private void run(boolean queued) {
+
+            task.run(this::release, queued);
+        }
+
+        private void release() {
+
+            if (released.compareAndSet(false, true)) {
+                OutboundScheduler.this.release(this, false);
+            }
+        }
+
+        /**
+         * Free the capacity taken by the call as it did not complete within the max call time.
+         */
+        private void expire() {
+
+            if (released.compareAndSet(false, true)) {
+                LOG.warn("Outbound call of the tenant: " + bulkhead.getTenantDomain() + " did not complete within " +
+                        maxCallTime + " ms. Hence freeing its capacity.");
+                OutboundScheduler.this.release(this, true);
+            }
+        }
+    }
+}
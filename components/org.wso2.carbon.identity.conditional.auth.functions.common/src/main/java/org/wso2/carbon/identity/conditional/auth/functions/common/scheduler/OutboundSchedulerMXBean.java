@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.scheduler;
+
+import java.util.List;
+
+/**
+ * Management interface of the {@link OutboundScheduler}, exposed over JMX.
+ */
+public interface OutboundSchedulerMXBean {
+
+    /**
+     * Get the number of outbound calls in progress across all the tenants.
+     *
+     * @return In flight call count.
+     */
+    int getInFlightCalls();
+
+    /**
+     * Get the number of outbound calls waiting to be dispatched across all the tenants.
+     *
+     * @return Queued call count.
+     */
+    int getQueuedCalls();
+
+    /**
+     * Get the statistics of each tenant with outbound calls in flight or queued, and of each tenant with a
+     * configured weight. The counts of other tenants start over once they have no calls in flight or queued.
+     *
+     * @return Tenant statistics.
+     */
+    List<TenantSchedulerStats> getTenantStats();
+}
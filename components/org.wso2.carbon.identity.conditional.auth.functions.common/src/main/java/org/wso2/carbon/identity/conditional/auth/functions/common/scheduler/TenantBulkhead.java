@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Concurrency limit and queue of the outbound calls of a tenant. Guarded by the lock of the {@link OutboundScheduler}.
+ */
+class TenantBulkhead {
+
+    private final String tenantDomain;
+    private final int weight;
+    private final int maxConcurrentCalls;
+    private final int maxQueueSize;
+    private final Deque<OutboundScheduler.Ticket> queue = new ArrayDeque<>();
+    private int inFlightCalls;
+    // Virtual finish time of the latest call of the tenant, used for weighted fair queuing.
+    private double lastFinishTag;
+    private long dispatchedCallCount;
+    private long rejectedCallCount;
+    private long timedOutCallCount;
+    private long expiredCallCount;
+
+    TenantBulkhead(String tenantDomain, int weight, int maxConcurrentCalls, int maxQueueSize) {
+
+        this.tenantDomain = tenantDomain;
+        this.weight = Math.max(1, weight);
+        this.maxConcurrentCalls = Math.max(1, maxConcurrentCalls);
+        this.maxQueueSize = Math.max(0, maxQueueSize);
+    }
+
+    /**
+     * Assign the virtual finish time of a new call of the tenant. Each call advances the finish time of the tenant
+     * by the inverse of its weight, hence a tenant with twice the weight gets twice the dispatches when backlogged.
+     *
+     * @param virtualTime Current virtual time of the scheduler.
+     * @return Finish tag of the call.
+     */
+    double nextFinishTag(double virtualTime) {
+
+        lastFinishTag = Math.max(virtualTime, lastFinishTag) + 1.0 / weight;
+        return lastFinishTag;
+    }
+
+    double getStartTag(double finishTag) {
+
+        return finishTag - 1.0 / weight;
+    }
+
+    boolean hasCapacity() {
+
+        return inFlightCalls < maxConcurrentCalls;
+    }
+
+    /**
+     * Check whether the tenant has no calls in flight or queued, in which case the bulkhead can be dropped.
+     *
+     * @return Whether the bulkhead is idle.
+     */
+    boolean isIdle() {
+
+        return inFlightCalls == 0 && queue.isEmpty();
+    }
+
+    boolean isQueueFull() {
+
+        return queue.size() >= maxQueueSize;
+    }
+
+    Deque<OutboundScheduler.Ticket> getQueue() {
+
+        return queue;
+    }
+
+    void onDispatched() {
+
+        inFlightCalls++;
+        dispatchedCallCount++;
+    }
+
+    void onCompleted() {
+
+        inFlightCalls--;
+    }
+
+    void onRejected() {
+
+        rejectedCallCount++;
+    }
+
+    void onTimedOut() {
+
+        timedOutCallCount++;
+    }
+
+    void onExpired() {
+
+        expiredCallCount++;
+    }
+
+    String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    TenantSchedulerStats getStats() {
+
+        return new TenantSchedulerStats(tenantDomain, weight, maxConcurrentCalls, inFlightCalls, queue.size(),
+                dispatchedCallCount, rejectedCallCount, timedOutCallCount, expiredCallCount);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.scheduler;
+
+/**
+ * Point in time statistics of the outbound calls of a tenant.
+ */
+public class TenantSchedulerStats {
+
+    private final String tenantDomain;
+    private final int weight;
+    private final int maxConcurrentCalls;
+    private final int inFlightCalls;
+    private final int queuedCalls;
+    private final long dispatchedCalls;
+    private final long rejectedCalls;
+    private final long timedOutCalls;
+    private final long expiredCalls;
+
+    public TenantSchedulerStats(String tenantDomain, int weight, int maxConcurrentCalls, int inFlightCalls,
+                                int queuedCalls, long dispatchedCalls, long rejectedCalls, long timedOutCalls,
+                                long expiredCalls) {
+
+        this.tenantDomain = tenantDomain;
+        this.weight = weight;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.inFlightCalls = inFlightCalls;
+        this.queuedCalls = queuedCalls;
+        this.dispatchedCalls = dispatchedCalls;
+        this.rejectedCalls = rejectedCalls;
+        this.timedOutCalls = timedOutCalls;
+        this.expiredCalls = expiredCalls;
+    }
+
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    public int getWeight() {
+
+        return weight;
+    }
+
+    public int getMaxConcurrentCalls() {
+
+        return maxConcurrentCalls;
+    }
+
+    public int getInFlightCalls() {
+
+        return inFlightCalls;
+    }
+
+    /**
+     * Get the number of calls waiting to be dispatched, i.e. the queue depth of the tenant.
+     *
+     * @return Queued call count.
+     */
+    public int getQueuedCalls() {
+
+        return queuedCalls;
+    }
+
+    public long getDispatchedCalls() {
+
+        return dispatchedCalls;
+    }
+
+    /**
+     * Get the number of calls failed because the queue of the tenant was full.
+     *
+     * @return Rejected call count.
+     */
+    public long getRejectedCalls() {
+
+        return rejectedCalls;
+    }
+
+    /**
+     * Get the number of calls failed because they waited in the queue longer than the max queue time.
+     *
+     * @return Timed out call count.
+     */
+    public long getTimedOutCalls() {
+
+        return timedOutCalls;
+    }
+
+    /**
+     * Get the number of dispatched calls whose capacity was freed as they did not complete within the max call time.
+     *
+     * @return Expired call count.
+     */
+    public long getExpiredCalls() {
+
+        return expiredCalls;
+    }
+
+    @Override
+    public String toString() {
+
+        return "TenantSchedulerStats{tenantDomain=" + tenantDomain + ", inFlightCalls=" + inFlightCalls +
+                ", queuedCalls=" + queuedCalls + ", dispatchedCalls=" + dispatchedCalls + ", rejectedCalls=" +
+                rejectedCalls + ", timedOutCalls=" + timedOutCalls + ", expiredCalls=" + expiredCalls + "}";
+    }
+}
@@ -18,6 +18,8 @@
 
 package org.wso2.carbon.identity.conditional.auth.functions.common.utils;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.common.model.Property;
 import org.wso2.carbon.identity.conditional.auth.functions.common.internal.FunctionsDataHolder;
 import org.wso2.carbon.identity.conditional.auth.functions.common.model.JsUtilsProvider;
@@ -25,13 +27,24 @@ import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.identity.governance.IdentityGovernanceException;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 public class CommonUtils {
 
+    private static final Log LOG = LogFactory.getLog(CommonUtils.class);
+
     public static String getConnectorConfig(String key, String tenantDomain) throws IdentityEventException {
 
         //TODO check whether there is a more optimized way
@@ -76,6 +89,84 @@ public class CommonUtils {
         return payloadDataMap;
     }
 
+    /**
+     * Build the key which identifies the endpoint of a url, used to keep per endpoint state of outbound calls.
+     *
+     * @param uri Url of the request.
+     * @return Endpoint key in the form scheme://host:port, or the url itself if it has no host.
+     */
+    public static String getEndpointKey(URI uri) {
+
+        if (uri == null || uri.getHost() == null) {
+            return String.valueOf(uri);
+        }
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "http";
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equals(scheme) ? 443 : 80;
+        }
+        return scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT) + ":" + port;
+    }
+
+    /**
+     * Hash the value with SHA-256, e.g. to build a fixed length key from the parts of a request.
+     *
+     * @param value Value to hash, encoded as UTF-8.
+     * @return Lower case hex encoded hash.
+     */
+    public static String sha256Hex(String value) {
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hexBuilder = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hexBuilder.append(String.format("%02x", b));
+            }
+            return hexBuilder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is available in every JVM.
+            throw new IllegalStateException("SHA-256 algorithm is not available.", e);
+        }
+    }
+
+    /**
+     * Register the MBean with the platform MBean server, unless an MBean is already registered with the name.
+     *
+     * @param mBean      MBean to register.
+     * @param objectName Object name of the MBean.
+     */
+    public static void registerMBean(Object mBean, String objectName) {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(objectName);
+            if (!mBeanServer.isRegistered(name)) {
+                mBeanServer.registerMBean(mBean, name);
+            }
+        } catch (JMException e) {
+            LOG.error("Error while registering the MBean: " + objectName, e);
+        }
+    }
+
+    /**
+     * Unregister the MBean with the given name from the platform MBean server, if it is registered.
+     *
+     * @param objectName Object name of the MBean.
+     */
+    public static void unregisterMBean(String objectName) {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(objectName);
+            if (mBeanServer.isRegistered(name)) {
+                mBeanServer.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            LOG.error("Error while unregistering the MBean: " + objectName, e);
+        }
+    }
+
     private static List<Object> processList(List<Object> list) {
 
         List<Object> resultList = new ArrayList<>();
@@ -18,20 +18,102 @@
 
 package org.wso2.carbon.identity.conditional.auth.functions.common.utils;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_ADAPTIVE_TIMEOUT_ENABLED;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_ADAPTIVE_TIMEOUT_MAX_TIMEOUT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_ADAPTIVE_TIMEOUT_MIN_SAMPLES;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_ADAPTIVE_TIMEOUT_MIN_TIMEOUT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_ADAPTIVE_TIMEOUT_MULTIPLIER;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_ADAPTIVE_TIMEOUT_PERCENTILE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_ADAPTIVE_TIMEOUT_WINDOW_SIZE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_RESULT_CACHE_ENDPOINT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_RESULT_CACHE_ENDPOINTS;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_RESULT_CACHE_MAX_ENTRIES;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_RESULT_CACHE_MAX_RESPONSE_SIZE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_SECRET_CACHE_ENABLED;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_SECRET_CACHE_MAX_ENTRIES;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_SECRET_CACHE_TIME_TO_LIVE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_TOKEN_REFRESH_ENABLED;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_TOKEN_REFRESH_IDLE_TIMEOUT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_TOKEN_REFRESH_JITTER_RATIO;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CALL_CHOREO_TOKEN_REFRESH_LIFETIME_RATIO;
 import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CHOREO_DOMAINS;
 import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.CHOREO_TOKEN_ENDPOINT;
 import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_CONNECTION_REQUEST_TIMEOUT;
 import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_CONNECTION_TIMEOUT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_ACCESS_TOKEN_EXPIRY_SKEW;
 import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_ALLOWED_DOMAINS;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_CIRCUIT_BREAKER_ENABLED;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_CIRCUIT_BREAKER_HALF_OPEN_PROBE_CALLS;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_CIRCUIT_BREAKER_MINIMUM_CALLS;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_CIRCUIT_BREAKER_OPEN_STATE_DURATION;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_CIRCUIT_BREAKER_SLIDING_WINDOW_SIZE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_CIRCUIT_BREAKER_SLOW_CALL_DURATION_THRESHOLD;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_CIRCUIT_BREAKER_SLOW_CALL_RATE_THRESHOLD;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_ENDPOINT_PROFILE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_ENDPOINT_PROFILES;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_FAN_OUT_MAX_REQUESTS;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_FAN_OUT_QUEUE_SIZE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_FAN_OUT_THREAD_POOL_SIZE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_FAN_OUT_TIMEOUT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_HEDGING_BUDGET_RATIO;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_HEDGING_DELAY;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_HEDGING_ENABLED;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_HEDGING_MIN_DELAY;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_MAX_REQUEST_PAYLOAD_SIZE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_MAX_RESPONSE_SIZE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_METRICS_ENABLED;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_NON_BLOCKING_IO_ENABLED;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_POOL_EVICTION_INTERVAL;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_POOL_IDLE_TIMEOUT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_POOL_KEEP_ALIVE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_POOL_MAX_PER_ROUTE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_POOL_MAX_TOTAL;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_POOL_ROUTE_LIMITS;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_REQUEST_COALESCING_ENABLED;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_REQUEST_COMPRESSION_ENDPOINTS;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_REQUEST_COMPRESSION_MIN_SIZE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_RESPONSE_CACHE_ENABLED;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_RESPONSE_CACHE_MAX_ENTRIES;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_RESPONSE_CACHE_MAX_STALE_IF_ERROR;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_RESPONSE_COMPRESSION_ENABLED;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_TRANSPORT_DEFAULT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_FUNCTION_TRANSPORT_ENDPOINTS;
 import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_READ_TIMEOUT;
 import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.HTTP_REQUEST_RETRY_COUNT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_CONCURRENCY_LIMIT_BACKOFF_RATIO;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_CONCURRENCY_LIMIT_ENABLED;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_CONCURRENCY_LIMIT_INITIAL_LIMIT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_CONCURRENCY_LIMIT_MAX_LIMIT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_CONCURRENCY_LIMIT_MIN_LIMIT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_CONCURRENCY_LIMIT_RTT_TOLERANCE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_HTTP_ENGINE_CLIENT_IDLE_TIMEOUT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_HTTP_ENGINE_IO_THREAD_COUNT;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_LOGGING_DIAGNOSTIC_QUEUE_SIZE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_LOGGING_SUCCESS_LOG_SAMPLE_RATE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_SCHEDULER_ENABLED;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_SCHEDULER_MAX_CALL_TIME;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_SCHEDULER_MAX_CONCURRENT_CALLS;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_SCHEDULER_MAX_QUEUE_TIME;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_SCHEDULER_TENANT_MAX_CONCURRENT_CALLS;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_SCHEDULER_TENANT_MAX_QUEUE_SIZE;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_SCHEDULER_TENANT_WEIGHTS;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_RETRY_BASE_DELAY;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_RETRY_BUDGET_MAX_TOKENS;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_RETRY_BUDGET_MIN_RETRIES_PER_SECOND;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_RETRY_BUDGET_RETRY_RATIO;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTBOUND_RETRY_MAX_DELAY;
 
 public class ConfigProvider {
 
@@ -41,6 +123,82 @@ public class ConfigProvider {
     private int readTimeout;
     private int connectionRequestTimeout;
     private int requestRetryCount = 2;
+    private boolean httpFunctionNonBlockingIOEnabled;
+    private int httpFunctionPoolMaxTotal;
+    private int httpFunctionPoolMaxPerRoute;
+    private int httpFunctionPoolIdleTimeout;
+    private int httpFunctionPoolKeepAlive;
+    private int httpFunctionPoolEvictionInterval;
+    private Map<String, Integer> httpFunctionPoolRouteLimits = new LinkedHashMap<>();
+    private int httpFunctionAccessTokenExpirySkew;
+    private boolean httpFunctionResponseCacheEnabled;
+    private int httpFunctionResponseCacheMaxEntries;
+    private int httpFunctionResponseCacheMaxStaleIfError;
+    private boolean httpFunctionRequestCoalescingEnabled;
+    private boolean httpFunctionCircuitBreakerEnabled;
+    private int httpFunctionCircuitBreakerSlidingWindowSize;
+    private int httpFunctionCircuitBreakerMinimumCalls;
+    private int httpFunctionCircuitBreakerFailureRateThreshold;
+    private int httpFunctionCircuitBreakerSlowCallDurationThreshold;
+    private int httpFunctionCircuitBreakerSlowCallRateThreshold;
+    private int httpFunctionCircuitBreakerOpenStateDuration;
+    private int httpFunctionCircuitBreakerHalfOpenProbeCalls;
+    private int httpFunctionMaxResponseSize;
+    private int httpFunctionMaxRequestPayloadSize;
+    private boolean httpFunctionResponseCompressionEnabled;
+    private int httpFunctionRequestCompressionMinSize;
+    private List<String> httpFunctionRequestCompressionEndpoints = new ArrayList<>();
+    private String httpFunctionDefaultTransport;
+    private Map<String, String> httpFunctionEndpointTransports = new LinkedHashMap<>();
+    private Map<String, Map<String, String>> httpFunctionEndpointProfiles = new LinkedHashMap<>();
+    private int httpFunctionFanOutTimeout;
+    private int httpFunctionFanOutMaxRequests;
+    private int httpFunctionFanOutThreadPoolSize;
+    private int httpFunctionFanOutQueueSize;
+    private boolean httpFunctionHedgingEnabled;
+    private int httpFunctionHedgingDelay;
+    private int httpFunctionHedgingMinDelay;
+    private int httpFunctionHedgingBudgetRatio;
+    private boolean httpFunctionMetricsEnabled;
+    private int outboundRetryBaseDelay;
+    private int outboundRetryMaxDelay;
+    private int outboundRetryBudgetRetryRatio;
+    private int outboundRetryBudgetMinRetriesPerSecond;
+    private int outboundRetryBudgetMaxTokens;
+    private int outboundLoggingSuccessLogSampleRate;
+    private int outboundLoggingDiagnosticQueueSize;
+    private boolean outboundSchedulerEnabled;
+    private int outboundSchedulerMaxConcurrentCalls;
+    private int outboundSchedulerTenantMaxConcurrentCalls;
+    private int outboundSchedulerTenantMaxQueueSize;
+    private int outboundSchedulerMaxQueueTime;
+    private int outboundSchedulerMaxCallTime;
+    private Map<String, Integer> outboundSchedulerTenantWeights = new LinkedHashMap<>();
+    private boolean outboundConcurrencyLimitEnabled;
+    private int outboundConcurrencyLimitInitialLimit;
+    private int outboundConcurrencyLimitMinLimit;
+    private int outboundConcurrencyLimitMaxLimit;
+    private int outboundConcurrencyLimitRttTolerance;
+    private int outboundConcurrencyLimitBackoffRatio;
+    private int outboundHttpEngineIoThreadCount;
+    private int outboundHttpEngineClientIdleTimeout;
+    private boolean choreoTokenRefreshEnabled;
+    private int choreoTokenRefreshLifetimeRatio;
+    private int choreoTokenRefreshJitterRatio;
+    private int choreoTokenRefreshIdleTimeout;
+    private boolean choreoSecretCacheEnabled;
+    private int choreoSecretCacheMaxEntries;
+    private int choreoSecretCacheTimeToLive;
+    private boolean choreoAdaptiveTimeoutEnabled;
+    private int choreoAdaptiveTimeoutPercentile;
+    private int choreoAdaptiveTimeoutMultiplier;
+    private int choreoAdaptiveTimeoutMinTimeout;
+    private int choreoAdaptiveTimeoutMaxTimeout;
+    private int choreoAdaptiveTimeoutMinSamples;
+    private int choreoAdaptiveTimeoutWindowSize;
+    private int choreoResultCacheMaxEntries;
+    private int choreoResultCacheMaxResponseSize;
+    private Map<String, Map<String, String>> choreoResultCacheEndpoints = new LinkedHashMap<>();
     private List<String> httpFunctionAllowedDomainList = new ArrayList<>();
     private List<String> choreoDomainList = new ArrayList<>();
     private final String choreoTokenEndpoint;
@@ -58,6 +216,243 @@ public class ConfigProvider {
         List<String> choreoDomainList = IdentityUtil.getPropertyAsList(CHOREO_DOMAINS);
 
         this.choreoTokenEndpoint = IdentityUtil.getProperty(CHOREO_TOKEN_ENDPOINT);
+        this.httpFunctionNonBlockingIOEnabled =
+                Boolean.parseBoolean(IdentityUtil.getProperty(HTTP_FUNCTION_NON_BLOCKING_IO_ENABLED));
+        this.httpFunctionPoolMaxTotal = readIntProperty(HTTP_FUNCTION_POOL_MAX_TOTAL, 200,
+                "max total connections for http functions");
+        this.httpFunctionPoolMaxPerRoute = readIntProperty(HTTP_FUNCTION_POOL_MAX_PER_ROUTE, 50,
+                "max connections per route for http functions");
+        this.httpFunctionPoolIdleTimeout = readIntProperty(HTTP_FUNCTION_POOL_IDLE_TIMEOUT, 30000,
+                "idle connection timeout for http functions");
+        this.httpFunctionPoolKeepAlive = readIntProperty(HTTP_FUNCTION_POOL_KEEP_ALIVE, 30000,
+                "keep alive duration for http functions");
+        this.httpFunctionPoolEvictionInterval = readIntProperty(HTTP_FUNCTION_POOL_EVICTION_INTERVAL, 5000,
+                "connection eviction interval for http functions");
+        this.httpFunctionAccessTokenExpirySkew = readIntProperty(HTTP_FUNCTION_ACCESS_TOKEN_EXPIRY_SKEW, 30000,
+                "access token expiry skew for http functions");
+        this.httpFunctionResponseCacheEnabled =
+                Boolean.parseBoolean(IdentityUtil.getProperty(HTTP_FUNCTION_RESPONSE_CACHE_ENABLED));
+        this.httpFunctionResponseCacheMaxEntries = readIntProperty(HTTP_FUNCTION_RESPONSE_CACHE_MAX_ENTRIES, 500,
+                "max response cache entries per tenant for http functions");
+        this.httpFunctionResponseCacheMaxStaleIfError = readIntProperty(
+                HTTP_FUNCTION_RESPONSE_CACHE_MAX_STALE_IF_ERROR, 300000,
+                "max stale if error duration of the response cache for http functions");
+        this.httpFunctionRequestCoalescingEnabled =
+                Boolean.parseBoolean(IdentityUtil.getProperty(HTTP_FUNCTION_REQUEST_COALESCING_ENABLED));
+        this.httpFunctionCircuitBreakerEnabled =
+                Boolean.parseBoolean(IdentityUtil.getProperty(HTTP_FUNCTION_CIRCUIT_BREAKER_ENABLED));
+        this.httpFunctionCircuitBreakerSlidingWindowSize = readIntProperty(
+                HTTP_FUNCTION_CIRCUIT_BREAKER_SLIDING_WINDOW_SIZE, 20,
+                "circuit breaker sliding window size for http functions");
+        this.httpFunctionCircuitBreakerMinimumCalls = readIntProperty(HTTP_FUNCTION_CIRCUIT_BREAKER_MINIMUM_CALLS,
+                10, "circuit breaker minimum calls for http functions");
+        this.httpFunctionCircuitBreakerFailureRateThreshold = readIntProperty(
+                HTTP_FUNCTION_CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD, 50,
+                "circuit breaker failure rate threshold for http functions");
+        this.httpFunctionCircuitBreakerSlowCallDurationThreshold = readIntProperty(
+                HTTP_FUNCTION_CIRCUIT_BREAKER_SLOW_CALL_DURATION_THRESHOLD, 3000,
+                "circuit breaker slow call duration threshold for http functions");
+        this.httpFunctionCircuitBreakerSlowCallRateThreshold = readIntProperty(
+                HTTP_FUNCTION_CIRCUIT_BREAKER_SLOW_CALL_RATE_THRESHOLD, 80,
+                "circuit breaker slow call rate threshold for http functions");
+        this.httpFunctionCircuitBreakerOpenStateDuration = readIntProperty(
+                HTTP_FUNCTION_CIRCUIT_BREAKER_OPEN_STATE_DURATION, 30000,
+                "circuit breaker open state duration for http functions");
+        this.httpFunctionCircuitBreakerHalfOpenProbeCalls = readIntProperty(
+                HTTP_FUNCTION_CIRCUIT_BREAKER_HALF_OPEN_PROBE_CALLS, 3,
+                "circuit breaker half open probe calls for http functions");
+        this.httpFunctionMaxResponseSize = readIntProperty(HTTP_FUNCTION_MAX_RESPONSE_SIZE, 1048576,
+                "max response size for http functions");
+        this.httpFunctionMaxRequestPayloadSize = readIntProperty(HTTP_FUNCTION_MAX_REQUEST_PAYLOAD_SIZE, -1,
+                "max request payload size for http functions");
+        // Compressed responses are asked for only when explicitly enabled.
+        String responseCompressionEnabled = IdentityUtil.getProperty(HTTP_FUNCTION_RESPONSE_COMPRESSION_ENABLED);
+        this.httpFunctionResponseCompressionEnabled =
+                responseCompressionEnabled != null && Boolean.parseBoolean(responseCompressionEnabled.trim());
+        this.httpFunctionRequestCompressionMinSize = readIntProperty(HTTP_FUNCTION_REQUEST_COMPRESSION_MIN_SIZE,
+                1024, "min request size to be compressed for http functions");
+        List<String> requestCompressionEndpoints =
+                IdentityUtil.getPropertyAsList(HTTP_FUNCTION_REQUEST_COMPRESSION_ENDPOINTS);
+        if (requestCompressionEndpoints != null) {
+            this.httpFunctionRequestCompressionEndpoints = requestCompressionEndpoints;
+        }
+        this.outboundRetryBaseDelay = readIntProperty(OUTBOUND_RETRY_BASE_DELAY, 100,
+                "base delay of outbound retries");
+        this.outboundRetryMaxDelay = readIntProperty(OUTBOUND_RETRY_MAX_DELAY, 2000,
+                "max delay of outbound retries");
+        this.outboundRetryBudgetRetryRatio = readIntProperty(OUTBOUND_RETRY_BUDGET_RETRY_RATIO, 20,
+                "retry ratio of the outbound retry budget");
+        this.outboundRetryBudgetMinRetriesPerSecond = readIntProperty(OUTBOUND_RETRY_BUDGET_MIN_RETRIES_PER_SECOND,
+                1, "min retries per second of the outbound retry budget");
+        this.outboundRetryBudgetMaxTokens = readIntProperty(OUTBOUND_RETRY_BUDGET_MAX_TOKENS, 10,
+                "max tokens of the outbound retry budget");
+        this.outboundLoggingSuccessLogSampleRate = readIntProperty(OUTBOUND_LOGGING_SUCCESS_LOG_SAMPLE_RATE, 100,
+                "sample rate of the outbound success logs");
+        this.outboundLoggingDiagnosticQueueSize = readIntProperty(OUTBOUND_LOGGING_DIAGNOSTIC_QUEUE_SIZE, 1000,
+                "queue size of the outbound diagnostic logs");
+        this.outboundSchedulerEnabled = Boolean.parseBoolean(IdentityUtil.getProperty(OUTBOUND_SCHEDULER_ENABLED));
+        this.outboundSchedulerMaxConcurrentCalls = readIntProperty(OUTBOUND_SCHEDULER_MAX_CONCURRENT_CALLS, 200,
+                "max concurrent calls of the outbound scheduler");
+        this.outboundSchedulerTenantMaxConcurrentCalls = readIntProperty(
+                OUTBOUND_SCHEDULER_TENANT_MAX_CONCURRENT_CALLS, 50,
+                "max concurrent calls of a tenant in the outbound scheduler");
+        this.outboundSchedulerTenantMaxQueueSize = readIntProperty(OUTBOUND_SCHEDULER_TENANT_MAX_QUEUE_SIZE, 100,
+                "max queue size of a tenant in the outbound scheduler");
+        this.outboundSchedulerMaxQueueTime = readIntProperty(OUTBOUND_SCHEDULER_MAX_QUEUE_TIME, 2000,
+                "max queue time of the outbound scheduler");
+        this.outboundSchedulerMaxCallTime = readIntProperty(OUTBOUND_SCHEDULER_MAX_CALL_TIME, 0,
+                "max call time of the outbound scheduler");
+        List<String> tenantWeights = IdentityUtil.getPropertyAsList(OUTBOUND_SCHEDULER_TENANT_WEIGHTS);
+        if (tenantWeights != null) {
+            for (String tenantWeight : tenantWeights) {
+                // Each entry is in the form <tenant domain>=<weight>.
+                int separatorIndex = tenantWeight.lastIndexOf('=');
+                if (separatorIndex <= 0) {
+                    LOG.error("Invalid outbound scheduler tenant weight : " + tenantWeight);
+                    continue;
+                }
+                try {
+                    outboundSchedulerTenantWeights.put(tenantWeight.substring(0, separatorIndex).trim(),
+                            Integer.parseInt(tenantWeight.substring(separatorIndex + 1).trim()));
+                } catch (NumberFormatException e) {
+                    LOG.error("Error while parsing outbound scheduler tenant weight : " + tenantWeight, e);
+                }
+            }
+        }
+        this.outboundConcurrencyLimitEnabled = Boolean.parseBoolean(
+                IdentityUtil.getProperty(OUTBOUND_CONCURRENCY_LIMIT_ENABLED));
+        this.outboundConcurrencyLimitInitialLimit = readIntProperty(OUTBOUND_CONCURRENCY_LIMIT_INITIAL_LIMIT, 20,
+                "initial limit of the outbound concurrency limit");
+        this.outboundConcurrencyLimitMinLimit = readIntProperty(OUTBOUND_CONCURRENCY_LIMIT_MIN_LIMIT, 2,
+                "min limit of the outbound concurrency limit");
+        this.outboundConcurrencyLimitMaxLimit = readIntProperty(OUTBOUND_CONCURRENCY_LIMIT_MAX_LIMIT, 200,
+                "max limit of the outbound concurrency limit");
+        this.outboundConcurrencyLimitRttTolerance = readIntProperty(OUTBOUND_CONCURRENCY_LIMIT_RTT_TOLERANCE, 150,
+                "latency tolerance of the outbound concurrency limit");
+        this.outboundConcurrencyLimitBackoffRatio = readIntProperty(OUTBOUND_CONCURRENCY_LIMIT_BACKOFF_RATIO, 90,
+                "backoff ratio of the outbound concurrency limit");
+        this.outboundHttpEngineIoThreadCount = readIntProperty(OUTBOUND_HTTP_ENGINE_IO_THREAD_COUNT,
+                Runtime.getRuntime().availableProcessors(), "io thread count of the outbound http engine");
+        this.outboundHttpEngineClientIdleTimeout = readIntProperty(OUTBOUND_HTTP_ENGINE_CLIENT_IDLE_TIMEOUT, 1800000,
+                "client idle timeout of the outbound http engine");
+        // Choreo tokens are refreshed ahead of expiry only when explicitly enabled.
+        String choreoTokenRefreshEnabled = IdentityUtil.getProperty(CALL_CHOREO_TOKEN_REFRESH_ENABLED);
+        this.choreoTokenRefreshEnabled = choreoTokenRefreshEnabled != null &&
+                Boolean.parseBoolean(choreoTokenRefreshEnabled.trim());
+        this.choreoTokenRefreshLifetimeRatio = readIntProperty(CALL_CHOREO_TOKEN_REFRESH_LIFETIME_RATIO, 75,
+                "lifetime ratio of the choreo token refresh");
+        this.choreoTokenRefreshJitterRatio = readIntProperty(CALL_CHOREO_TOKEN_REFRESH_JITTER_RATIO, 10,
+                "jitter ratio of the choreo token refresh");
+        this.choreoTokenRefreshIdleTimeout = readIntProperty(CALL_CHOREO_TOKEN_REFRESH_IDLE_TIMEOUT, 1800000,
+                "idle timeout of the choreo token refresh");
+
+        // Resolved choreo secrets are cached only when explicitly enabled.
+        String choreoSecretCacheEnabled = IdentityUtil.getProperty(CALL_CHOREO_SECRET_CACHE_ENABLED);
+        this.choreoSecretCacheEnabled = choreoSecretCacheEnabled != null &&
+                Boolean.parseBoolean(choreoSecretCacheEnabled.trim());
+        this.choreoSecretCacheMaxEntries = readIntProperty(CALL_CHOREO_SECRET_CACHE_MAX_ENTRIES, 1000,
+                "max entries of the choreo secret cache");
+        this.choreoSecretCacheTimeToLive = readIntProperty(CALL_CHOREO_SECRET_CACHE_TIME_TO_LIVE, 300000,
+                "time to live of the choreo secret cache");
+
+        // Choreo read timeouts follow the observed latency only when explicitly enabled.
+        String choreoAdaptiveTimeoutEnabled = IdentityUtil.getProperty(CALL_CHOREO_ADAPTIVE_TIMEOUT_ENABLED);
+        this.choreoAdaptiveTimeoutEnabled = choreoAdaptiveTimeoutEnabled != null &&
+                Boolean.parseBoolean(choreoAdaptiveTimeoutEnabled.trim());
+        this.choreoAdaptiveTimeoutPercentile = readIntProperty(CALL_CHOREO_ADAPTIVE_TIMEOUT_PERCENTILE, 99,
+                "latency percentile of the choreo adaptive timeout");
+        this.choreoAdaptiveTimeoutMultiplier = readIntProperty(CALL_CHOREO_ADAPTIVE_TIMEOUT_MULTIPLIER, 3,
+                "multiplier of the choreo adaptive timeout");
+        this.choreoAdaptiveTimeoutMinTimeout = readIntProperty(CALL_CHOREO_ADAPTIVE_TIMEOUT_MIN_TIMEOUT, 250,
+                "min timeout of the choreo adaptive timeout");
+        this.choreoAdaptiveTimeoutMaxTimeout = readIntProperty(CALL_CHOREO_ADAPTIVE_TIMEOUT_MAX_TIMEOUT, 0,
+                "max timeout of the choreo adaptive timeout");
+        this.choreoAdaptiveTimeoutMinSamples = readIntProperty(CALL_CHOREO_ADAPTIVE_TIMEOUT_MIN_SAMPLES, 50,
+                "min samples of the choreo adaptive timeout");
+        this.choreoAdaptiveTimeoutWindowSize = readIntProperty(CALL_CHOREO_ADAPTIVE_TIMEOUT_WINDOW_SIZE, 1000,
+                "window size of the choreo adaptive timeout");
+        this.choreoResultCacheMaxEntries = readIntProperty(CALL_CHOREO_RESULT_CACHE_MAX_ENTRIES, 1000,
+                "max entries of the choreo result cache");
+        this.choreoResultCacheMaxResponseSize = readIntProperty(CALL_CHOREO_RESULT_CACHE_MAX_RESPONSE_SIZE, 16384,
+                "max response size of the choreo result cache");
+        List<String> resultCacheEndpoints = IdentityUtil.getPropertyAsList(CALL_CHOREO_RESULT_CACHE_ENDPOINTS);
+        if (resultCacheEndpoints != null) {
+            for (String resultCacheEndpoint : resultCacheEndpoints) {
+                String endpointName = resultCacheEndpoint.trim();
+                Map<String, String> attributes = new LinkedHashMap<>();
+                for (String attribute : Constants.ChoreoResultCacheAttributes.ALL) {
+                    String value = IdentityUtil.getProperty(CALL_CHOREO_RESULT_CACHE_ENDPOINT + "." + endpointName +
+                            "." + attribute);
+                    if (StringUtils.isNotBlank(value)) {
+                        attributes.put(attribute, value.trim());
+                    }
+                }
+                choreoResultCacheEndpoints.put(endpointName, Collections.unmodifiableMap(attributes));
+            }
+        }
+        this.httpFunctionDefaultTransport = IdentityUtil.getProperty(HTTP_FUNCTION_TRANSPORT_DEFAULT);
+        List<String> endpointTransports = IdentityUtil.getPropertyAsList(HTTP_FUNCTION_TRANSPORT_ENDPOINTS);
+        if (endpointTransports != null) {
+            for (String endpointTransport : endpointTransports) {
+                // Each entry is in the form <scheme>://<host>[:<port>]=<transport name>.
+                int separatorIndex = endpointTransport.lastIndexOf('=');
+                if (separatorIndex <= 0) {
+                    LOG.error("Invalid transport of endpoint : " + endpointTransport);
+                    continue;
+                }
+                httpFunctionEndpointTransports.put(endpointTransport.substring(0, separatorIndex).trim(),
+                        endpointTransport.substring(separatorIndex + 1).trim());
+            }
+        }
+        List<String> endpointProfiles = IdentityUtil.getPropertyAsList(HTTP_FUNCTION_ENDPOINT_PROFILES);
+        if (endpointProfiles != null) {
+            for (String endpointProfile : endpointProfiles) {
+                String profileName = endpointProfile.trim();
+                Map<String, String> attributes = new LinkedHashMap<>();
+                for (String attribute : Constants.EndpointProfileAttributes.ALL) {
+                    String value = IdentityUtil.getProperty(HTTP_FUNCTION_ENDPOINT_PROFILE + "." + profileName + "." +
+                            attribute);
+                    if (StringUtils.isNotBlank(value)) {
+                        attributes.put(attribute, value.trim());
+                    }
+                }
+                httpFunctionEndpointProfiles.put(profileName, Collections.unmodifiableMap(attributes));
+            }
+        }
+        this.httpFunctionFanOutTimeout = readIntProperty(HTTP_FUNCTION_FAN_OUT_TIMEOUT, 10000,
+                "timeout of http fan out");
+        this.httpFunctionFanOutMaxRequests = readIntProperty(HTTP_FUNCTION_FAN_OUT_MAX_REQUESTS, 10,
+                "max requests of http fan out");
+        this.httpFunctionFanOutThreadPoolSize = readIntProperty(HTTP_FUNCTION_FAN_OUT_THREAD_POOL_SIZE, 20,
+                "thread pool size of http fan out");
+        this.httpFunctionFanOutQueueSize = readIntProperty(HTTP_FUNCTION_FAN_OUT_QUEUE_SIZE, 1000,
+                "queue size of http fan out");
+        this.httpFunctionHedgingEnabled = Boolean.parseBoolean(IdentityUtil.getProperty(HTTP_FUNCTION_HEDGING_ENABLED));
+        this.httpFunctionHedgingDelay = readIntProperty(HTTP_FUNCTION_HEDGING_DELAY, 0, "hedging delay");
+        this.httpFunctionHedgingMinDelay = readIntProperty(HTTP_FUNCTION_HEDGING_MIN_DELAY, 20,
+                "hedging min delay");
+        this.httpFunctionHedgingBudgetRatio = readIntProperty(HTTP_FUNCTION_HEDGING_BUDGET_RATIO, 10,
+                "hedge ratio of the hedging budget");
+        // Metrics are recorded unless explicitly disabled.
+        String metricsEnabled = IdentityUtil.getProperty(HTTP_FUNCTION_METRICS_ENABLED);
+        this.httpFunctionMetricsEnabled = metricsEnabled == null || Boolean.parseBoolean(metricsEnabled.trim());
+        List<String> routeLimits = IdentityUtil.getPropertyAsList(HTTP_FUNCTION_POOL_ROUTE_LIMITS);
+        if (routeLimits != null) {
+            for (String routeLimit : routeLimits) {
+                // Each entry is in the form <scheme>://<host>[:<port>]=<max connections>.
+                int separatorIndex = routeLimit.lastIndexOf('=');
+                if (separatorIndex <= 0) {
+                    LOG.error("Invalid connection pool route limit : " + routeLimit);
+                    continue;
+                }
+                try {
+                    httpFunctionPoolRouteLimits.put(routeLimit.substring(0, separatorIndex).trim(),
+                            Integer.parseInt(routeLimit.substring(separatorIndex + 1).trim()));
+                } catch (NumberFormatException e) {
+                    LOG.error("Error while parsing connection pool route limit : " + routeLimit, e);
+                }
+            }
+        }
         connectionTimeout = defaultTimeout;
         readTimeout = defaultTimeout;
         connectionRequestTimeout = defaultTimeout;
@@ -111,6 +506,19 @@ public class ConfigProvider {
         }
     }
 
+    private static int readIntProperty(String propertyName, int defaultValue, String description) {
+
+        String value = IdentityUtil.getProperty(propertyName);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOG.error("Error while parsing " + description + " : " + value, e);
+            }
+        }
+        return defaultValue;
+    }
+
     public static ConfigProvider getInstance() {
 
         return instance;
@@ -136,6 +544,750 @@ public class ConfigProvider {
         return requestRetryCount;
     }
 
+    /**
+     * Whether the http functions should use the non-blocking (NIO) client instead of blocking a thread per call.
+     *
+     * @return True if non-blocking IO is enabled for http functions.
+     */
+    public boolean isHttpFunctionNonBlockingIOEnabled() {
+
+        return httpFunctionNonBlockingIOEnabled;
+    }
+
+    public int getHttpFunctionPoolMaxTotal() {
+
+        return httpFunctionPoolMaxTotal;
+    }
+
+    public int getHttpFunctionPoolMaxPerRoute() {
+
+        return httpFunctionPoolMaxPerRoute;
+    }
+
+    /**
+     * Per route connection limits which override the default max per route value.
+     *
+     * @return Map of route (scheme://host[:port]) to max connections for the route.
+     */
+    public Map<String, Integer> getHttpFunctionPoolRouteLimits() {
+
+        return Collections.unmodifiableMap(httpFunctionPoolRouteLimits);
+    }
+
+    public int getHttpFunctionPoolIdleTimeout() {
+
+        return httpFunctionPoolIdleTimeout;
+    }
+
+    public int getHttpFunctionPoolKeepAlive() {
+
+        return httpFunctionPoolKeepAlive;
+    }
+
+    public int getHttpFunctionPoolEvictionInterval() {
+
+        return httpFunctionPoolEvictionInterval;
+    }
+
+    /**
+     * Time in milliseconds before the actual expiry at which a cached access token is considered expired.
+     *
+     * @return Access token expiry skew in milliseconds.
+     */
+    public int getHttpFunctionAccessTokenExpirySkew() {
+
+        return httpFunctionAccessTokenExpirySkew;
+    }
+
+    /**
+     * Whether responses of the httpGet function can be cached.
+     *
+     * @return True if the response cache is enabled for http functions.
+     */
+    public boolean isHttpFunctionResponseCacheEnabled() {
+
+        return httpFunctionResponseCacheEnabled;
+    }
+
+    public int getHttpFunctionResponseCacheMaxEntries() {
+
+        return httpFunctionResponseCacheMaxEntries;
+    }
+
+    /**
+     * Maximum time in milliseconds a stale response can be served after its expiry when the origin is failing.
+     *
+     * @return Max stale if error duration in milliseconds.
+     */
+    public int getHttpFunctionResponseCacheMaxStaleIfError() {
+
+        return httpFunctionResponseCacheMaxStaleIfError;
+    }
+
+    /**
+     * Whether identical concurrent httpGet calls should share a single request to the external api.
+     *
+     * @return True if request coalescing is enabled for http functions.
+     */
+    public boolean isHttpFunctionRequestCoalescingEnabled() {
+
+        return httpFunctionRequestCoalescingEnabled;
+    }
+
+    /**
+     * Whether calls of the http functions should go through a circuit breaker per endpoint host.
+     *
+     * @return True if the circuit breaker is enabled for http functions.
+     */
+    public boolean isHttpFunctionCircuitBreakerEnabled() {
+
+        return httpFunctionCircuitBreakerEnabled;
+    }
+
+    /**
+     * Number of the most recent calls to an endpoint host considered when computing the failure and slow call rates.
+     *
+     * @return Sliding window size.
+     */
+    public int getHttpFunctionCircuitBreakerSlidingWindowSize() {
+
+        return httpFunctionCircuitBreakerSlidingWindowSize;
+    }
+
+    /**
+     * Number of calls to be recorded before the circuit breaker can open.
+     *
+     * @return Minimum calls.
+     */
+    public int getHttpFunctionCircuitBreakerMinimumCalls() {
+
+        return httpFunctionCircuitBreakerMinimumCalls;
+    }
+
+    /**
+     * Failure rate at or above which the circuit breaker opens.
+     *
+     * @return Failure rate threshold as a percentage.
+     */
+    public int getHttpFunctionCircuitBreakerFailureRateThreshold() {
+
+        return httpFunctionCircuitBreakerFailureRateThreshold;
+    }
+
+    /**
+     * Duration at or above which a call is considered slow.
+     *
+     * @return Slow call duration threshold in milliseconds.
+     */
+    public int getHttpFunctionCircuitBreakerSlowCallDurationThreshold() {
+
+        return httpFunctionCircuitBreakerSlowCallDurationThreshold;
+    }
+
+    /**
+     * Slow call rate at or above which the circuit breaker opens.
+     *
+     * @return Slow call rate threshold as a percentage.
+     */
+    public int getHttpFunctionCircuitBreakerSlowCallRateThreshold() {
+
+        return httpFunctionCircuitBreakerSlowCallRateThreshold;
+    }
+
+    /**
+     * Time the circuit breaker stays open before probe calls are allowed.
+     *
+     * @return Open state duration in milliseconds.
+     */
+    public int getHttpFunctionCircuitBreakerOpenStateDuration() {
+
+        return httpFunctionCircuitBreakerOpenStateDuration;
+    }
+
+    /**
+     * Number of probe calls which should succeed in the half open state for the circuit breaker to close.
+     *
+     * @return Half open probe calls.
+     */
+    public int getHttpFunctionCircuitBreakerHalfOpenProbeCalls() {
+
+        return httpFunctionCircuitBreakerHalfOpenProbeCalls;
+    }
+
+    /**
+     * Maximum size of a response body read by the http functions. Larger responses fail the call.
+     *
+     * @return Maximum response size in bytes.
+     */
+    public int getHttpFunctionMaxResponseSize() {
+
+        return httpFunctionMaxResponseSize;
+    }
+
+    /**
+     * Maximum size of a request payload serialized by the http functions. Larger payloads are rejected. Payloads
+     * are not limited by default.
+     *
+     * @return Maximum request payload size in bytes, or a negative value if payloads are not limited.
+     */
+    public int getHttpFunctionMaxRequestPayloadSize() {
+
+        return httpFunctionMaxRequestPayloadSize;
+    }
+
+    /**
+     * Whether the http functions ask for gzip or deflate compressed responses. Disabled by default.
+     *
+     * @return True if response compression is enabled.
+     */
+    public boolean isHttpFunctionResponseCompressionEnabled() {
+
+        return httpFunctionResponseCompressionEnabled;
+    }
+
+    /**
+     * Minimum size of a request body to be compressed before it is sent to an opted in endpoint.
+     *
+     * @return Minimum request size in bytes.
+     */
+    public int getHttpFunctionRequestCompressionMinSize() {
+
+        return httpFunctionRequestCompressionMinSize;
+    }
+
+    /**
+     * Endpoints which accept gzip compressed request bodies, in the form scheme://host[:port].
+     *
+     * @return Endpoints opted in for request compression.
+     */
+    public List<String> getHttpFunctionRequestCompressionEndpoints() {
+
+        return httpFunctionRequestCompressionEndpoints;
+    }
+
+    /**
+     * Name of the transport used by the http functions for the endpoints without a transport of their own.
+     *
+     * @return Default transport name or null if not configured.
+     */
+    public String getHttpFunctionDefaultTransport() {
+
+        return httpFunctionDefaultTransport;
+    }
+
+    /**
+     * Transports selected for specific endpoints, which override the default transport.
+     *
+     * @return Map of endpoint (scheme://host[:port]) to transport name.
+     */
+    public Map<String, String> getHttpFunctionEndpointTransports() {
+
+        return Collections.unmodifiableMap(httpFunctionEndpointTransports);
+    }
+
+    /**
+     * Named endpoint profiles of the http functions, which scripts refer to instead of giving the url and the
+     * credentials of the endpoint.
+     *
+     * @return Map of profile name to the attributes of the profile, see {@link Constants.EndpointProfileAttributes}.
+     */
+    public Map<String, Map<String, String>> getHttpFunctionEndpointProfiles() {
+
+        return Collections.unmodifiableMap(httpFunctionEndpointProfiles);
+    }
+
+    /**
+     * Overall time the http fan out function waits for its requests, unless a timeout is given for the call.
+     *
+     * @return Timeout in milliseconds.
+     */
+    public int getHttpFunctionFanOutTimeout() {
+
+        return httpFunctionFanOutTimeout;
+    }
+
+    /**
+     * Maximum number of requests a single call of the http fan out function can send.
+     *
+     * @return Max requests.
+     */
+    public int getHttpFunctionFanOutMaxRequests() {
+
+        return httpFunctionFanOutMaxRequests;
+    }
+
+    /**
+     * Number of threads sending the fan out requests of endpoints whose transport blocks the calling thread.
+     *
+     * @return Thread pool size.
+     */
+    public int getHttpFunctionFanOutThreadPoolSize() {
+
+        return httpFunctionFanOutThreadPoolSize;
+    }
+
+    /**
+     * Maximum number of fan out requests waiting for a thread of the fan out thread pool. Requests beyond it fail
+     * instead of piling up behind a slow endpoint.
+     *
+     * @return Queue size.
+     */
+    public int getHttpFunctionFanOutQueueSize() {
+
+        return httpFunctionFanOutQueueSize;
+    }
+
+    /**
+     * Whether slow GET requests of the http functions are hedged with a second request by default.
+     *
+     * @return True if hedging is enabled.
+     */
+    public boolean isHttpFunctionHedgingEnabled() {
+
+        return httpFunctionHedgingEnabled;
+    }
+
+    /**
+     * Time to wait for the response before sending a hedged request.
+     *
+     * @return Delay in milliseconds, or 0 to use the observed 95th percentile latency of the endpoint.
+     */
+    public int getHttpFunctionHedgingDelay() {
+
+        return httpFunctionHedgingDelay;
+    }
+
+    /**
+     * Lower bound of the hedging delay derived from the observed latency of an endpoint.
+     *
+     * @return Min delay in milliseconds.
+     */
+    public int getHttpFunctionHedgingMinDelay() {
+
+        return httpFunctionHedgingMinDelay;
+    }
+
+    /**
+     * Percentage of the requests to an endpoint which may be hedged.
+     *
+     * @return Hedge ratio.
+     */
+    public int getHttpFunctionHedgingBudgetRatio() {
+
+        return httpFunctionHedgingBudgetRatio;
+    }
+
+    /**
+     * Whether latency histograms and outcome counters are recorded for the calls of the http functions.
+     *
+     * @return True if metrics are enabled.
+     */
+    public boolean isHttpFunctionMetricsEnabled() {
+
+        return httpFunctionMetricsEnabled;
+    }
+
+    /**
+     * Upper bound of the delay before the first retry of an outbound request. The bound doubles for each further
+     * retry until it reaches the max delay.
+     *
+     * @return Base delay in milliseconds.
+     */
+    public int getOutboundRetryBaseDelay() {
+
+        return outboundRetryBaseDelay;
+    }
+
+    /**
+     * Upper bound of the delay before any retry of an outbound request.
+     *
+     * @return Max delay in milliseconds.
+     */
+    public int getOutboundRetryMaxDelay() {
+
+        return outboundRetryMaxDelay;
+    }
+
+    /**
+     * Share of the requests to an endpoint that may be retried.
+     *
+     * @return Retry ratio as a percentage.
+     */
+    public int getOutboundRetryBudgetRetryRatio() {
+
+        return outboundRetryBudgetRetryRatio;
+    }
+
+    /**
+     * Retries allowed per second to an endpoint regardless of its traffic.
+     *
+     * @return Min retries per second.
+     */
+    public int getOutboundRetryBudgetMinRetriesPerSecond() {
+
+        return outboundRetryBudgetMinRetriesPerSecond;
+    }
+
+    /**
+     * Maximum number of retries that can be accumulated in the retry budget of an endpoint.
+     *
+     * @return Max tokens of the retry budget.
+     */
+    public int getOutboundRetryBudgetMaxTokens() {
+
+        return outboundRetryBudgetMaxTokens;
+    }
+
+    /**
+     * Percentage of the info logs of successful outbound calls which are written.
+     *
+     * @return Sample rate between 0 and 100.
+     */
+    public int getOutboundLoggingSuccessLogSampleRate() {
+
+        return outboundLoggingSuccessLogSampleRate;
+    }
+
+    /**
+     * Maximum number of diagnostic log events of outbound calls waiting to be published. Events are dropped while
+     * the queue is full.
+     *
+     * @return Queue size, or 0 to publish the events on the calling thread.
+     */
+    public int getOutboundLoggingDiagnosticQueueSize() {
+
+        return outboundLoggingDiagnosticQueueSize;
+    }
+
+    /**
+     * Whether the outbound calls of the functions are scheduled with per tenant bulkheads.
+     *
+     * @return True if the outbound scheduler is enabled.
+     */
+    public boolean isOutboundSchedulerEnabled() {
+
+        return outboundSchedulerEnabled;
+    }
+
+    /**
+     * Maximum number of outbound calls in progress across all the tenants.
+     *
+     * @return Max concurrent calls.
+     */
+    public int getOutboundSchedulerMaxConcurrentCalls() {
+
+        return outboundSchedulerMaxConcurrentCalls;
+    }
+
+    /**
+     * Maximum number of outbound calls of a single tenant in progress.
+     *
+     * @return Max concurrent calls of a tenant.
+     */
+    public int getOutboundSchedulerTenantMaxConcurrentCalls() {
+
+        return outboundSchedulerTenantMaxConcurrentCalls;
+    }
+
+    /**
+     * Maximum number of outbound calls of a single tenant waiting to be dispatched. Calls beyond this are failed.
+     *
+     * @return Max queue size of a tenant.
+     */
+    public int getOutboundSchedulerTenantMaxQueueSize() {
+
+        return outboundSchedulerTenantMaxQueueSize;
+    }
+
+    /**
+     * Maximum time an outbound call can wait to be dispatched before it is failed.
+     *
+     * @return Max queue time in milliseconds.
+     */
+    public int getOutboundSchedulerMaxQueueTime() {
+
+        return outboundSchedulerMaxQueueTime;
+    }
+
+    /**
+     * Maximum time an outbound call can hold its capacity in the scheduler. The capacity of a call not completed
+     * within this time, e.g. as its completion was lost, is freed. Unless configured, this is the longest time a
+     * call can take with its retries.
+     *
+     * @return Max call time in milliseconds.
+     */
+    public int getOutboundSchedulerMaxCallTime() {
+
+        if (outboundSchedulerMaxCallTime > 0) {
+            return outboundSchedulerMaxCallTime;
+        }
+        return (connectionRequestTimeout + connectionTimeout + readTimeout) * (requestRetryCount + 1) +
+                outboundRetryMaxDelay * requestRetryCount;
+    }
+
+    /**
+     * Weights of the tenants when dispatching queued outbound calls. Tenants without a weight have a weight of 1.
+     *
+     * @return Weights keyed by the tenant domain.
+     */
+    public Map<String, Integer> getOutboundSchedulerTenantWeights() {
+
+        return Collections.unmodifiableMap(outboundSchedulerTenantWeights);
+    }
+
+    /**
+     * Whether the calls in flight to each outbound endpoint are capped by an adaptive concurrency limit.
+     *
+     * @return True if the outbound concurrency limit is enabled.
+     */
+    public boolean isOutboundConcurrencyLimitEnabled() {
+
+        return outboundConcurrencyLimitEnabled;
+    }
+
+    /**
+     * Concurrency limit of an endpoint until its baseline latency is measured.
+     *
+     * @return Initial limit.
+     */
+    public int getOutboundConcurrencyLimitInitialLimit() {
+
+        return outboundConcurrencyLimitInitialLimit;
+    }
+
+    /**
+     * Lower bound of the concurrency limit of an endpoint.
+     *
+     * @return Min limit.
+     */
+    public int getOutboundConcurrencyLimitMinLimit() {
+
+        return outboundConcurrencyLimitMinLimit;
+    }
+
+    /**
+     * Upper bound of the concurrency limit of an endpoint.
+     *
+     * @return Max limit.
+     */
+    public int getOutboundConcurrencyLimitMaxLimit() {
+
+        return outboundConcurrencyLimitMaxLimit;
+    }
+
+    /**
+     * Latency of an endpoint tolerated before its concurrency limit shrinks, relative to its baseline latency.
+     *
+     * @return Tolerance as a percentage of the baseline latency.
+     */
+    public int getOutboundConcurrencyLimitRttTolerance() {
+
+        return outboundConcurrencyLimitRttTolerance;
+    }
+
+    /**
+     * Share of the concurrency limit of an endpoint kept after a failed call.
+     *
+     * @return Backoff ratio as a percentage.
+     */
+    public int getOutboundConcurrencyLimitBackoffRatio() {
+
+        return outboundConcurrencyLimitBackoffRatio;
+    }
+
+    /**
+     * Number of the I/O threads of the reactor shared by the outbound http clients.
+     *
+     * @return I/O thread count.
+     */
+    public int getOutboundHttpEngineIoThreadCount() {
+
+        return outboundHttpEngineIoThreadCount;
+    }
+
+    /**
+     * Time an outbound http client of a tenant is kept without being used, before it is closed.
+     *
+     * @return Idle timeout in milliseconds. Idle clients are not closed if the timeout is not positive.
+     */
+    public int getOutboundHttpEngineClientIdleTimeout() {
+
+        return outboundHttpEngineClientIdleTimeout;
+    }
+
+    /**
+     * Whether the Choreo access tokens are renewed in the background before they expire. Disabled by default.
+     *
+     * @return True if the background token renewal is enabled.
+     */
+    public boolean isChoreoTokenRefreshEnabled() {
+
+        return choreoTokenRefreshEnabled;
+    }
+
+    /**
+     * Share of the lifetime of a Choreo access token after which it is renewed in the background.
+     *
+     * @return Lifetime ratio as a percentage.
+     */
+    public int getChoreoTokenRefreshLifetimeRatio() {
+
+        return choreoTokenRefreshLifetimeRatio;
+    }
+
+    /**
+     * Max share of the lifetime of a Choreo access token by which its renewal is moved randomly earlier or later.
+     *
+     * @return Jitter ratio as a percentage.
+     */
+    public int getChoreoTokenRefreshJitterRatio() {
+
+        return choreoTokenRefreshJitterRatio;
+    }
+
+    /**
+     * Time a Choreo access token is kept renewed without being used.
+     *
+     * @return Idle timeout in milliseconds.
+     */
+    public int getChoreoTokenRefreshIdleTimeout() {
+
+        return choreoTokenRefreshIdleTimeout;
+    }
+
+    /**
+     * Whether the consumer key and secret resolved for callChoreo are cached. Disabled by default.
+     *
+     * @return True if the resolved secrets are cached.
+     */
+    public boolean isChoreoSecretCacheEnabled() {
+
+        return choreoSecretCacheEnabled;
+    }
+
+    /**
+     * Max number of resolved secrets cached for callChoreo, across all the tenants.
+     *
+     * @return Max number of cached secrets.
+     */
+    public int getChoreoSecretCacheMaxEntries() {
+
+        return choreoSecretCacheMaxEntries;
+    }
+
+    /**
+     * Time a resolved secret is cached for callChoreo.
+     *
+     * @return Time to live in milliseconds.
+     */
+    public int getChoreoSecretCacheTimeToLive() {
+
+        return choreoSecretCacheTimeToLive;
+    }
+
+    /**
+     * Whether the read timeout of each Choreo endpoint is derived from its observed latency.
+     *
+     * @return True if the adaptive timeout is enabled.
+     */
+    public boolean isChoreoAdaptiveTimeoutEnabled() {
+
+        return choreoAdaptiveTimeoutEnabled;
+    }
+
+    /**
+     * Latency percentile of a Choreo endpoint which its read timeout is derived from.
+     *
+     * @return Percentile.
+     */
+    public int getChoreoAdaptiveTimeoutPercentile() {
+
+        return choreoAdaptiveTimeoutPercentile;
+    }
+
+    /**
+     * Multiple of the latency percentile of a Choreo endpoint used as its read timeout.
+     *
+     * @return Multiplier.
+     */
+    public int getChoreoAdaptiveTimeoutMultiplier() {
+
+        return choreoAdaptiveTimeoutMultiplier;
+    }
+
+    /**
+     * Lower bound of the adaptive read timeout of a Choreo endpoint.
+     *
+     * @return Min timeout in milliseconds.
+     */
+    public int getChoreoAdaptiveTimeoutMinTimeout() {
+
+        return choreoAdaptiveTimeoutMinTimeout;
+    }
+
+    /**
+     * Upper bound of the adaptive read timeout of a Choreo endpoint.
+     *
+     * @return Max timeout in milliseconds, or 0 to bound it by the configured Choreo read timeout.
+     */
+    public int getChoreoAdaptiveTimeoutMaxTimeout() {
+
+        return choreoAdaptiveTimeoutMaxTimeout;
+    }
+
+    /**
+     * Number of latencies of a Choreo endpoint observed before its read timeout is adapted.
+     *
+     * @return Min sample count.
+     */
+    public int getChoreoAdaptiveTimeoutMinSamples() {
+
+        return choreoAdaptiveTimeoutMinSamples;
+    }
+
+    /**
+     * Number of latencies of a Choreo endpoint after which its percentile is estimated afresh, so that the timeout
+     * follows changes in the latency.
+     *
+     * @return Window size.
+     */
+    public int getChoreoAdaptiveTimeoutWindowSize() {
+
+        return choreoAdaptiveTimeoutWindowSize;
+    }
+
+    /**
+     * Max number of Choreo results cached per tenant.
+     *
+     * @return Max number of cached results.
+     */
+    public int getChoreoResultCacheMaxEntries() {
+
+        return choreoResultCacheMaxEntries;
+    }
+
+    /**
+     * Max size of a Choreo response body which is cached.
+     *
+     * @return Max response size in characters.
+     */
+    public int getChoreoResultCacheMaxResponseSize() {
+
+        return choreoResultCacheMaxResponseSize;
+    }
+
+    /**
+     * Named Choreo endpoints whose results are cached. Results of the endpoints which are not configured are never
+     * cached.
+     *
+     * @return Map of endpoint name to the attributes of the endpoint, see
+     * {@link Constants.ChoreoResultCacheAttributes}.
+     */
+    public Map<String, Map<String, String>> getChoreoResultCacheEndpoints() {
+
+        return Collections.unmodifiableMap(choreoResultCacheEndpoints);
+    }
+
     public List<String> getAllowedDomainsForHttpFunctions() {
 
         return httpFunctionAllowedDomainList;
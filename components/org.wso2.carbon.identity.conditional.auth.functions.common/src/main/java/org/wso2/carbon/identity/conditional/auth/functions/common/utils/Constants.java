@@ -31,6 +31,97 @@ public class Constants {
     public static final String HTTP_REQUEST_RETRY_COUNT = "AdaptiveAuth.HTTPRequestRetryCount";
     public static final String HTTP_READ_TIMEOUT = "AdaptiveAuth.HTTPReadTimeout";
     public static final String HTTP_CONNECTION_REQUEST_TIMEOUT = "AdaptiveAuth.HTTPConnectionRequestTimeout";
+    public static final String HTTP_FUNCTION_NON_BLOCKING_IO_ENABLED = "AdaptiveAuth.HTTPFunctions.NonBlockingIO.Enable";
+    public static final String HTTP_FUNCTION_POOL_MAX_TOTAL = "AdaptiveAuth.HTTPFunctions.ConnectionPool.MaxTotal";
+    public static final String HTTP_FUNCTION_POOL_MAX_PER_ROUTE = "AdaptiveAuth.HTTPFunctions.ConnectionPool.MaxPerRoute";
+    public static final String HTTP_FUNCTION_POOL_ROUTE_LIMITS =
+            "AdaptiveAuth.HTTPFunctions.ConnectionPool.RouteLimits.Route";
+    public static final String HTTP_FUNCTION_POOL_IDLE_TIMEOUT = "AdaptiveAuth.HTTPFunctions.ConnectionPool.IdleTimeout";
+    public static final String HTTP_FUNCTION_POOL_KEEP_ALIVE = "AdaptiveAuth.HTTPFunctions.ConnectionPool.KeepAlive";
+    public static final String HTTP_FUNCTION_POOL_EVICTION_INTERVAL =
+            "AdaptiveAuth.HTTPFunctions.ConnectionPool.EvictionInterval";
+    public static final String HTTP_FUNCTION_ACCESS_TOKEN_EXPIRY_SKEW =
+            "AdaptiveAuth.HTTPFunctions.AccessTokenExpirySkew";
+    public static final String HTTP_FUNCTION_RESPONSE_CACHE_ENABLED = "AdaptiveAuth.HTTPFunctions.ResponseCache.Enable";
+    public static final String HTTP_FUNCTION_RESPONSE_CACHE_MAX_ENTRIES =
+            "AdaptiveAuth.HTTPFunctions.ResponseCache.MaxEntriesPerTenant";
+    public static final String HTTP_FUNCTION_RESPONSE_CACHE_MAX_STALE_IF_ERROR =
+            "AdaptiveAuth.HTTPFunctions.ResponseCache.MaxStaleIfError";
+    public static final String HTTP_FUNCTION_REQUEST_COALESCING_ENABLED =
+            "AdaptiveAuth.HTTPFunctions.RequestCoalescing.Enable";
+    public static final String HTTP_FUNCTION_CIRCUIT_BREAKER_ENABLED =
+            "AdaptiveAuth.HTTPFunctions.CircuitBreaker.Enable";
+    public static final String HTTP_FUNCTION_CIRCUIT_BREAKER_SLIDING_WINDOW_SIZE =
+            "AdaptiveAuth.HTTPFunctions.CircuitBreaker.SlidingWindowSize";
+    public static final String HTTP_FUNCTION_CIRCUIT_BREAKER_MINIMUM_CALLS =
+            "AdaptiveAuth.HTTPFunctions.CircuitBreaker.MinimumCalls";
+    public static final String HTTP_FUNCTION_CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD =
+            "AdaptiveAuth.HTTPFunctions.CircuitBreaker.FailureRateThreshold";
+    public static final String HTTP_FUNCTION_CIRCUIT_BREAKER_SLOW_CALL_DURATION_THRESHOLD =
+            "AdaptiveAuth.HTTPFunctions.CircuitBreaker.SlowCallDurationThreshold";
+    public static final String HTTP_FUNCTION_CIRCUIT_BREAKER_SLOW_CALL_RATE_THRESHOLD =
+            "AdaptiveAuth.HTTPFunctions.CircuitBreaker.SlowCallRateThreshold";
+    public static final String HTTP_FUNCTION_CIRCUIT_BREAKER_OPEN_STATE_DURATION =
+            "AdaptiveAuth.HTTPFunctions.CircuitBreaker.OpenStateDuration";
+    public static final String HTTP_FUNCTION_CIRCUIT_BREAKER_HALF_OPEN_PROBE_CALLS =
+            "AdaptiveAuth.HTTPFunctions.CircuitBreaker.HalfOpenProbeCalls";
+    public static final String HTTP_FUNCTION_MAX_RESPONSE_SIZE = "AdaptiveAuth.HTTPFunctions.MaxResponseSize";
+    public static final String HTTP_FUNCTION_MAX_REQUEST_PAYLOAD_SIZE =
+            "AdaptiveAuth.HTTPFunctions.MaxRequestPayloadSize";
+    public static final String HTTP_FUNCTION_RESPONSE_COMPRESSION_ENABLED =
+            "AdaptiveAuth.HTTPFunctions.Compression.Response.Enable";
+    public static final String HTTP_FUNCTION_REQUEST_COMPRESSION_MIN_SIZE =
+            "AdaptiveAuth.HTTPFunctions.Compression.Request.MinSize";
+    public static final String HTTP_FUNCTION_REQUEST_COMPRESSION_ENDPOINTS =
+            "AdaptiveAuth.HTTPFunctions.Compression.Request.Endpoint";
+    public static final String HTTP_FUNCTION_TRANSPORT_DEFAULT = "AdaptiveAuth.HTTPFunctions.Transport.Default";
+    public static final String HTTP_FUNCTION_TRANSPORT_ENDPOINTS = "AdaptiveAuth.HTTPFunctions.Transport.Endpoint";
+    public static final String HTTP_FUNCTION_FAN_OUT_TIMEOUT = "AdaptiveAuth.HTTPFunctions.FanOut.Timeout";
+    public static final String HTTP_FUNCTION_FAN_OUT_MAX_REQUESTS = "AdaptiveAuth.HTTPFunctions.FanOut.MaxRequests";
+    public static final String HTTP_FUNCTION_FAN_OUT_THREAD_POOL_SIZE =
+            "AdaptiveAuth.HTTPFunctions.FanOut.ThreadPoolSize";
+    public static final String HTTP_FUNCTION_FAN_OUT_QUEUE_SIZE = "AdaptiveAuth.HTTPFunctions.FanOut.QueueSize";
+    public static final String HTTP_FUNCTION_HEDGING_ENABLED = "AdaptiveAuth.HTTPFunctions.Hedging.Enable";
+    public static final String HTTP_FUNCTION_HEDGING_DELAY = "AdaptiveAuth.HTTPFunctions.Hedging.Delay";
+    public static final String HTTP_FUNCTION_HEDGING_MIN_DELAY = "AdaptiveAuth.HTTPFunctions.Hedging.MinDelay";
+    public static final String HTTP_FUNCTION_HEDGING_BUDGET_RATIO =
+            "AdaptiveAuth.HTTPFunctions.Hedging.Budget.HedgeRatio";
+    public static final String HTTP_FUNCTION_METRICS_ENABLED = "AdaptiveAuth.HTTPFunctions.Metrics.Enable";
+    public static final String HTTP_FUNCTION_ENDPOINT_PROFILES = "AdaptiveAuth.HTTPFunctions.EndpointProfiles.Profile";
+    public static final String HTTP_FUNCTION_ENDPOINT_PROFILE = "AdaptiveAuth.HTTPFunctions.EndpointProfile";
+    public static final String OUTBOUND_RETRY_BASE_DELAY = "AdaptiveAuth.OutboundRetry.BaseDelay";
+    public static final String OUTBOUND_RETRY_MAX_DELAY = "AdaptiveAuth.OutboundRetry.MaxDelay";
+    public static final String OUTBOUND_RETRY_BUDGET_RETRY_RATIO = "AdaptiveAuth.OutboundRetry.Budget.RetryRatio";
+    public static final String OUTBOUND_RETRY_BUDGET_MIN_RETRIES_PER_SECOND =
+            "AdaptiveAuth.OutboundRetry.Budget.MinRetriesPerSecond";
+    public static final String OUTBOUND_RETRY_BUDGET_MAX_TOKENS = "AdaptiveAuth.OutboundRetry.Budget.MaxTokens";
+    public static final String OUTBOUND_LOGGING_SUCCESS_LOG_SAMPLE_RATE =
+            "AdaptiveAuth.OutboundLogging.SuccessLogSampleRate";
+    public static final String OUTBOUND_LOGGING_DIAGNOSTIC_QUEUE_SIZE =
+            "AdaptiveAuth.OutboundLogging.DiagnosticQueueSize";
+    public static final String OUTBOUND_SCHEDULER_ENABLED = "AdaptiveAuth.OutboundScheduler.Enable";
+    public static final String OUTBOUND_SCHEDULER_MAX_CONCURRENT_CALLS =
+            "AdaptiveAuth.OutboundScheduler.MaxConcurrentCalls";
+    public static final String OUTBOUND_SCHEDULER_TENANT_MAX_CONCURRENT_CALLS =
+            "AdaptiveAuth.OutboundScheduler.Tenant.MaxConcurrentCalls";
+    public static final String OUTBOUND_SCHEDULER_TENANT_MAX_QUEUE_SIZE =
+            "AdaptiveAuth.OutboundScheduler.Tenant.MaxQueueSize";
+    public static final String OUTBOUND_SCHEDULER_MAX_QUEUE_TIME = "AdaptiveAuth.OutboundScheduler.MaxQueueTime";
+    public static final String OUTBOUND_SCHEDULER_MAX_CALL_TIME = "AdaptiveAuth.OutboundScheduler.MaxCallTime";
+    public static final String OUTBOUND_SCHEDULER_TENANT_WEIGHTS =
+            "AdaptiveAuth.OutboundScheduler.TenantWeights.Tenant";
+    public static final String OUTBOUND_CONCURRENCY_LIMIT_ENABLED = "AdaptiveAuth.OutboundConcurrencyLimit.Enable";
+    public static final String OUTBOUND_CONCURRENCY_LIMIT_INITIAL_LIMIT =
+            "AdaptiveAuth.OutboundConcurrencyLimit.InitialLimit";
+    public static final String OUTBOUND_CONCURRENCY_LIMIT_MIN_LIMIT = "AdaptiveAuth.OutboundConcurrencyLimit.MinLimit";
+    public static final String OUTBOUND_CONCURRENCY_LIMIT_MAX_LIMIT = "AdaptiveAuth.OutboundConcurrencyLimit.MaxLimit";
+    public static final String OUTBOUND_CONCURRENCY_LIMIT_RTT_TOLERANCE =
+            "AdaptiveAuth.OutboundConcurrencyLimit.RttTolerance";
+    public static final String OUTBOUND_CONCURRENCY_LIMIT_BACKOFF_RATIO =
+            "AdaptiveAuth.OutboundConcurrencyLimit.BackoffRatio";
+    public static final String OUTBOUND_HTTP_ENGINE_IO_THREAD_COUNT = "AdaptiveAuth.OutboundHttpEngine.IoThreadCount";
+    public static final String OUTBOUND_HTTP_ENGINE_CLIENT_IDLE_TIMEOUT =
+            "AdaptiveAuth.OutboundHttpEngine.ClientIdleTimeout";
     public static final String AUTHENTICATION_ENABLED = "AdaptiveAuth.EventPublisher.BasicAuthentication.Enable";
     public static final String AUTHENTICATION_USERNAME = "AdaptiveAuth.EventPublisher.BasicAuthentication.Username";
     public static final String AUTHENTICATION_CREDENTIAL = "AdaptiveAuth.EventPublisher.BasicAuthentication.Password";
@@ -45,6 +136,26 @@ public class Constants {
     public static final String CALL_CHOREO_HTTP_READ_TIMEOUT = "AdaptiveAuth.CallChoreo.HTTPReadTimeout";
     public static final String CALL_CHOREO_TOKEN_REQUEST_RETRY_COUNT = "AdaptiveAuth.CallChoreo.TokenRequestRetryCount";
     public static final String CALL_CHOREO_API_REQUEST_RETRY_COUNT = "AdaptiveAuth.CallChoreo.ChoreoAPIRequestRetryCount";
+    public static final String CALL_CHOREO_TOKEN_REFRESH_ENABLED = "AdaptiveAuth.CallChoreo.TokenRefresh.Enable";
+    public static final String CALL_CHOREO_TOKEN_REFRESH_LIFETIME_RATIO =
+            "AdaptiveAuth.CallChoreo.TokenRefresh.LifetimeRatio";
+    public static final String CALL_CHOREO_TOKEN_REFRESH_JITTER_RATIO = "AdaptiveAuth.CallChoreo.TokenRefresh.JitterRatio";
+    public static final String CALL_CHOREO_TOKEN_REFRESH_IDLE_TIMEOUT = "AdaptiveAuth.CallChoreo.TokenRefresh.IdleTimeout";
+    public static final String CALL_CHOREO_SECRET_CACHE_ENABLED = "AdaptiveAuth.CallChoreo.SecretCache.Enable";
+    public static final String CALL_CHOREO_SECRET_CACHE_MAX_ENTRIES = "AdaptiveAuth.CallChoreo.SecretCache.MaxEntries";
+    public static final String CALL_CHOREO_SECRET_CACHE_TIME_TO_LIVE = "AdaptiveAuth.CallChoreo.SecretCache.TimeToLive";
+    public static final String CALL_CHOREO_ADAPTIVE_TIMEOUT_ENABLED = "AdaptiveAuth.CallChoreo.AdaptiveTimeout.Enable";
+    public static final String CALL_CHOREO_ADAPTIVE_TIMEOUT_PERCENTILE = "AdaptiveAuth.CallChoreo.AdaptiveTimeout.Percentile";
+    public static final String CALL_CHOREO_ADAPTIVE_TIMEOUT_MULTIPLIER = "AdaptiveAuth.CallChoreo.AdaptiveTimeout.Multiplier";
+    public static final String CALL_CHOREO_ADAPTIVE_TIMEOUT_MIN_TIMEOUT = "AdaptiveAuth.CallChoreo.AdaptiveTimeout.MinTimeout";
+    public static final String CALL_CHOREO_ADAPTIVE_TIMEOUT_MAX_TIMEOUT = "AdaptiveAuth.CallChoreo.AdaptiveTimeout.MaxTimeout";
+    public static final String CALL_CHOREO_ADAPTIVE_TIMEOUT_MIN_SAMPLES = "AdaptiveAuth.CallChoreo.AdaptiveTimeout.MinSamples";
+    public static final String CALL_CHOREO_ADAPTIVE_TIMEOUT_WINDOW_SIZE = "AdaptiveAuth.CallChoreo.AdaptiveTimeout.WindowSize";
+    public static final String CALL_CHOREO_RESULT_CACHE_MAX_ENTRIES = "AdaptiveAuth.CallChoreo.ResultCache.MaxEntries";
+    public static final String CALL_CHOREO_RESULT_CACHE_MAX_RESPONSE_SIZE =
+            "AdaptiveAuth.CallChoreo.ResultCache.MaxResponseSize";
+    public static final String CALL_CHOREO_RESULT_CACHE_ENDPOINTS = "AdaptiveAuth.CallChoreo.ResultCache.Endpoints.Endpoint";
+    public static final String CALL_CHOREO_RESULT_CACHE_ENDPOINT = "AdaptiveAuth.CallChoreo.ResultCache.Endpoint";
 
     public static final String HTTP_FUNCTION_ALLOWED_DOMAINS = "AdaptiveAuth.HTTPFunctionAllowedDomains.Domain";
     public static final String CHOREO_DOMAINS = "AdaptiveAuth.ChoreoDomains.Domain";
@@ -52,6 +163,48 @@ public class Constants {
 
     public static final String SAAS_ENABLE_CROSS_TENANT_OPERATIONS = "SaaS.EnableCrossTenantOperations";
 
+    /**
+     * Define the attributes of an endpoint profile of the http functions. Each attribute is read from
+     * AdaptiveAuth.HTTPFunctions.EndpointProfile.&lt;profile name&gt;.&lt;attribute&gt;.
+     */
+    public static class EndpointProfileAttributes {
+
+        public static final String BASE_URL = "BaseUrl";
+        public static final String AUTH_TYPE = "AuthType";
+        public static final String USERNAME = "Username";
+        public static final String PASSWORD = "Password";
+        public static final String TOKEN = "Token";
+        public static final String API_KEY = "ApiKey";
+        public static final String HEADER_NAME = "HeaderName";
+        public static final String CONSUMER_KEY = "ConsumerKey";
+        public static final String CONSUMER_SECRET = "ConsumerSecret";
+        public static final String TOKEN_ENDPOINT = "TokenEndpoint";
+        public static final String SCOPE = "Scope";
+        public static final String CONNECT_TIMEOUT = "ConnectTimeout";
+        public static final String READ_TIMEOUT = "ReadTimeout";
+        public static final String MAX_CONNECTIONS = "MaxConnections";
+        public static final String RETRY = "Retry";
+        public static final String CACHE_TTL = "CacheTtl";
+        public static final String TENANTS = "Tenants";
+
+        public static final String[] ALL = {BASE_URL, AUTH_TYPE, USERNAME, PASSWORD, TOKEN, API_KEY, HEADER_NAME,
+                CONSUMER_KEY, CONSUMER_SECRET, TOKEN_ENDPOINT, SCOPE, CONNECT_TIMEOUT, READ_TIMEOUT, MAX_CONNECTIONS,
+                RETRY, CACHE_TTL, TENANTS};
+    }
+
+    /**
+     * Define the attributes of a Choreo endpoint whose results are cached. Each attribute is read from
+     * AdaptiveAuth.CallChoreo.ResultCache.Endpoint.&lt;endpoint name&gt;.&lt;attribute&gt;.
+     */
+    public static class ChoreoResultCacheAttributes {
+
+        public static final String URL = "Url";
+        public static final String TIME_TO_LIVE = "TimeToLive";
+        public static final String PAYLOAD_KEYS = "PayloadKeys";
+
+        public static final String[] ALL = {URL, TIME_TO_LIVE, PAYLOAD_KEYS};
+    }
+
     /**
      * Define logging constants.
      */
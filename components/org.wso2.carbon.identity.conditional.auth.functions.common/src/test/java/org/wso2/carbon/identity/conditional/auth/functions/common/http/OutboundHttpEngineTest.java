@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.http.util.EntityUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link OutboundHttpEngine}. Idle eviction runs on a virtual clock, so it does not depend on the
+ * speed of the machine.
+ */
+public class OutboundHttpEngineTest {
+
+    private static final long IDLE_TIMEOUT = 60000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final CountingSettings settings = new CountingSettings();
+    private OutboundHttpEngine engine;
+
+    @BeforeMethod
+    public void setUp() {
+
+        clock.set(0);
+        settings.createdCount.set(0);
+        engine = new OutboundHttpEngine(1, IDLE_TIMEOUT, clock::get);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        engine.shutdown();
+    }
+
+    @Test
+    public void testClientIsCreatedOncePerModuleAndTenant() throws Exception {
+
+        CloseableHttpAsyncClient client = engine.getClient("choreo", 1, "tenant1.com", settings);
+
+        assertTrue(client.isRunning());
+        assertSame(engine.getClient("choreo", 1, "tenant1.com", settings), client);
+        assertNotSame(engine.getClient("choreo", 2, "tenant2.com", settings), client);
+        assertNotSame(engine.getClient("analytics", 1, "tenant1.com", settings), client);
+        assertEquals(settings.createdCount.get(), 3);
+    }
+
+    @Test
+    public void testConcurrentCallsCreateSingleClient() throws Exception {
+
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        Set<Future<CloseableHttpAsyncClient>> futures = new HashSet<>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                Callable<CloseableHttpAsyncClient> call = () -> {
+                    startLatch.await();
+                    return engine.getClient("elk", 1, "tenant1.com", settings);
+                };
+                futures.add(executor.submit(call));
+            }
+            startLatch.countDown();
+            Set<CloseableHttpAsyncClient> clients = new HashSet<>();
+            for (Future<CloseableHttpAsyncClient> future : futures) {
+                clients.add(future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(clients.size(), 1, "All the callers should get the same client.");
+            assertEquals(settings.createdCount.get(), 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testIdleClientsAreEvicted() throws Exception {
+
+        CloseableHttpAsyncClient idleClient = engine.getClient("choreo", 1, "tenant1.com", settings);
+        clock.set(IDLE_TIMEOUT / 2);
+        CloseableHttpAsyncClient activeClient = engine.getClient("choreo", 2, "tenant2.com", settings);
+
+        clock.set(IDLE_TIMEOUT + 1);
+        engine.evictIdleClients();
+
+        assertFalse(idleClient.isRunning(), "A client idle longer than the timeout should be closed.");
+        assertTrue(activeClient.isRunning());
+        assertEquals(engine.getClientCount(), 1);
+        CloseableHttpAsyncClient newClient = engine.getClient("choreo", 1, "tenant1.com", settings);
+        assertNotSame(newClient, idleClient);
+        assertTrue(newClient.isRunning());
+    }
+
+    @Test
+    public void testClientReturnedDuringEvictionIsNotClosed() throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int i = 1; i <= 50; i++) {
+                // Each round makes the client idle, then races a caller against the evictor.
+                clock.set(i * (IDLE_TIMEOUT + 1));
+                CountDownLatch startLatch = new CountDownLatch(1);
+                Future<CloseableHttpAsyncClient> future = executor.submit(() -> {
+                    startLatch.await();
+                    return engine.getClient("choreo", 1, "tenant1.com", settings);
+                });
+                startLatch.countDown();
+                engine.evictIdleClients();
+                CloseableHttpAsyncClient client = future.get(10, TimeUnit.SECONDS);
+                assertTrue(client.isRunning(), "A client returned to a caller should not be closed by the evictor.");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClientsOfUnloadedTenantAreClosed() throws Exception {
+
+        CloseableHttpAsyncClient choreoClient = engine.getClient("choreo", 1, "tenant1.com", settings);
+        CloseableHttpAsyncClient sessionClient = engine.getClient("session", 1, "tenant1.com", settings);
+        CloseableHttpAsyncClient otherTenantClient = engine.getClient("choreo", 11, "tenant11.com", settings);
+
+        engine.closeClients(1);
+
+        assertFalse(choreoClient.isRunning());
+        assertFalse(sessionClient.isRunning());
+        assertTrue(otherTenantClient.isRunning(), "Clients of other tenants should not be closed.");
+        assertEquals(engine.getClientCount(), 1);
+    }
+
+    @Test
+    public void testClientsShareReactor() throws Exception {
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String url = "http://localhost:" + server.getAddress().getPort() + "/";
+            CloseableHttpAsyncClient tenant1Client = engine.getClient("choreo", 1, "tenant1.com", settings);
+            CloseableHttpAsyncClient tenant2Client = engine.getClient("choreo", 2, "tenant2.com", settings);
+
+            HttpResponse response1 = tenant1Client.execute(new HttpGet(url), null).get(10, TimeUnit.SECONDS);
+            HttpResponse response2 = tenant2Client.execute(new HttpGet(url), null).get(10, TimeUnit.SECONDS);
+            assertEquals(response1.getStatusLine().getStatusCode(), 200);
+            assertEquals(EntityUtils.toString(response2.getEntity()), "ok");
+
+            // Closing a client should not stop the reactor shared with the other clients.
+            engine.closeClient("choreo", 1);
+            HttpResponse response3 = tenant2Client.execute(new HttpGet(url), null).get(10, TimeUnit.SECONDS);
+            assertEquals(response3.getStatusLine().getStatusCode(), 200);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testClientsDoNotStartThreads() throws Exception {
+
+        int clientCount = 0;
+        for (int tenantId = 1; tenantId <= 50; tenantId++) {
+            engine.getClient("choreo", tenantId, "tenant" + tenantId + ".com", settings);
+            engine.getClient("elk", tenantId, "tenant" + tenantId + ".com", settings);
+            clientCount += 2;
+        }
+
+        // The shared client runs a reactor thread, an I/O thread and the evictor, whatever the number of clients.
+        assertTrue(countEngineThreads() < 10, "Clients should run on the threads of the shared client.");
+        assertEquals(engine.getClientCount(), clientCount);
+    }
+
+    @Test
+    public void testConnectionsAreNotSharedAcrossTenants() throws Exception {
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = String.valueOf(exchange.getRemoteAddress().getPort()).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String url = "http://localhost:" + server.getAddress().getPort() + "/";
+            CloseableHttpAsyncClient tenant1Client = engine.getClient("choreo", 1, "tenant1.com", settings);
+            CloseableHttpAsyncClient tenant2Client = engine.getClient("choreo", 2, "tenant2.com", settings);
+
+            HttpResponse response1 = tenant1Client.execute(new HttpGet(url), null).get(10, TimeUnit.SECONDS);
+            String tenant1Port = EntityUtils.toString(response1.getEntity());
+            HttpResponse response2 = tenant2Client.execute(new HttpGet(url), null).get(10, TimeUnit.SECONDS);
+
+            assertNotEquals(EntityUtils.toString(response2.getEntity()), tenant1Port,
+                    "A connection pooled for a tenant should not be used by another tenant.");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static long countEngineThreads() {
+
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.isAlive() && thread.getName().startsWith("outbound-http-"))
+                .count();
+    }
+
+    private static class CountingSettings implements OutboundClientSettings {
+
+        private final AtomicInteger createdCount = new AtomicInteger();
+
+        @Override
+        public RequestConfig getRequestConfig(String tenantDomain) {
+
+            createdCount.incrementAndGet();
+            return RequestConfig.custom().setConnectTimeout(5000).setSocketTimeout(5000).build();
+        }
+
+        @Override
+        public SSLContext getSSLContext(String tenantDomain) {
+
+            return SSLContexts.createDefault();
+        }
+
+        @Override
+        public HostnameVerifier getHostnameVerifier(String tenantDomain) {
+
+            return new DefaultHostnameVerifier();
+        }
+
+        @Override
+        public int getMaxConnections() {
+
+            return 10;
+        }
+
+        @Override
+        public int getMaxConnectionsPerRoute() {
+
+            return 10;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.limiter;
+
+import org.testng.annotations.Test;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link AdaptiveConcurrencyLimiter}. The convergence tests run a local simulation of an endpoint on
+ * a virtual clock, so they are deterministic and do not depend on the speed of the machine.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASE_LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void testCallsOverLimitAreRejected() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("endpoint", 2, 1, 10, 150, 90);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire(), "Calls over the limit should be rejected.");
+        assertEquals(limiter.getRejectedCallCount(), 1);
+
+        limiter.onIgnore();
+        assertTrue(limiter.tryAcquire(), "A released call should make room for another.");
+        assertEquals(limiter.getInFlight(), 2);
+    }
+
+    @Test
+    public void testLimitConvergesToEndpointCapacity() {
+
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("endpoint", 10, 2, 500, 150, 90,
+                clock::get);
+        SimulatedEndpoint endpoint = new SimulatedEndpoint(limiter, clock, 50, 200);
+
+        endpoint.run(TimeUnit.SECONDS.toNanos(60));
+        long servedCalls = endpoint.run(TimeUnit.SECONDS.toNanos(60));
+
+        assertEquals(limiter.getBaselineRtt(), BASE_LATENCY);
+        int limit = limiter.getLimit();
+        assertTrue(limit >= 50 && limit <= 100, "Limit should settle near the capacity of 50, but was " + limit);
+        // 50 calls in flight every 10 ms for 60 seconds, if the endpoint is kept fully utilized.
+        assertTrue(servedCalls >= 300000 * 0.95, "Endpoint should be kept utilized, but served " + servedCalls);
+    }
+
+    @Test
+    public void testLimitFollowsCapacityDrop() {
+
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("endpoint", 10, 2, 500, 150, 90,
+                clock::get);
+        SimulatedEndpoint endpoint = new SimulatedEndpoint(limiter, clock, 100, 400);
+
+        endpoint.run(TimeUnit.SECONDS.toNanos(60));
+        int limitBeforeDrop = limiter.getLimit();
+        endpoint.capacity = 25;
+        endpoint.run(TimeUnit.SECONDS.toNanos(300));
+
+        int limit = limiter.getLimit();
+        assertTrue(limitBeforeDrop >= 100, "Limit should have reached the initial capacity of 100.");
+        assertTrue(limit >= 25 && limit <= 50, "Limit should settle near the new capacity of 25, but was " + limit);
+    }
+
+    @Test
+    public void testLimitDoesNotGrowWhenNotUsed() {
+
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("endpoint", 10, 2, 500, 150, 90,
+                clock::get);
+        SimulatedEndpoint endpoint = new SimulatedEndpoint(limiter, clock, 50, 30);
+
+        endpoint.run(TimeUnit.SECONDS.toNanos(60));
+
+        assertTrue(limiter.getLimit() <= 62, "Limit should stay within twice the calls in flight, but was " +
+                limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitShrinksOnFailures() {
+
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("endpoint", 100, 5, 500, 150, 50,
+                clock::get);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.onDropped();
+        assertEquals(limiter.getLimit(), 50);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onDropped();
+        }
+        assertEquals(limiter.getLimit(), 5, "Limit should not shrink below the min limit.");
+        assertEquals(limiter.getInFlight(), 0);
+    }
+
+    @Test
+    public void testProbeDoesNotRejectCallsWithinLimit() {
+
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("endpoint", 10, 2, 500, 150, 90,
+                clock::get);
+        serveCalls(limiter, clock, 20, BASE_LATENCY);
+        assertEquals(limiter.getBaselineRtt(), BASE_LATENCY);
+
+        // A call served after the probe interval starts the next probe.
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        serveCalls(limiter, clock, 1, BASE_LATENCY);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(), "Calls within the limit should be admitted during the probe.");
+        }
+        assertFalse(limiter.tryAcquire(), "Calls over the limit should be rejected.");
+    }
+
+    @Test
+    public void testProbeMeasuresCallsAtLowConcurrency() {
+
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("endpoint", 10, 2, 500, 150, 90,
+                clock::get);
+        serveCalls(limiter, clock, 20, BASE_LATENCY);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        serveCalls(limiter, clock, 1, BASE_LATENCY);
+
+        // Calls served along with more calls than half of the limit do not count.
+        for (int i = 0; i < 6; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        serveCalls(limiter, clock, 20, BASE_LATENCY / 2);
+        assertEquals(limiter.getBaselineRtt(), BASE_LATENCY);
+        for (int i = 0; i < 6; i++) {
+            limiter.onIgnore();
+        }
+        serveCalls(limiter, clock, 10, BASE_LATENCY * 2);
+        assertEquals(limiter.getBaselineRtt(), BASE_LATENCY * 2, "Baseline should follow the latency measured " +
+                "at a low concurrency.");
+    }
+
+    @Test
+    public void testProbeKeepsBaselineUnderHighLoad() {
+
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("endpoint", 10, 2, 500, 150, 90,
+                clock::get);
+        serveCalls(limiter, clock, 20, BASE_LATENCY);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        serveCalls(limiter, clock, 1, BASE_LATENCY);
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        serveCalls(limiter, clock, 1, BASE_LATENCY / 2);
+        for (int i = 0; i < 6; i++) {
+            limiter.onIgnore();
+        }
+        // The probe is over, so the calls served at a low concurrency no longer change the baseline.
+        serveCalls(limiter, clock, 20, BASE_LATENCY * 2);
+        assertEquals(limiter.getBaselineRtt(), BASE_LATENCY);
+    }
+
+    /**
+     * Serve the given number of calls one after the other, each with the given latency.
+     */
+    private static void serveCalls(AdaptiveConcurrencyLimiter limiter, AtomicLong clock, int calls, long latency) {
+
+        for (int i = 0; i < calls; i++) {
+            assertTrue(limiter.tryAcquire());
+            clock.addAndGet(latency);
+            limiter.onSuccess(latency);
+        }
+    }
+
+    /**
+     * Closed loop simulation of an endpoint serving the given number of clients. The endpoint serves up to its
+     * capacity in parallel within the base latency and queues the calls beyond it, so the latency grows in
+     * proportion to the calls in flight. Clients rejected by the limiter try again after a millisecond.
+     */
+    private static class SimulatedEndpoint {
+
+        private static final long RETRY_DELAY = TimeUnit.MILLISECONDS.toNanos(1);
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final AtomicLong clock;
+        // Events ordered by time. Each holds the time, the start time of the call, or -1 for a client ready to call.
+        private final PriorityQueue<long[]> events = new PriorityQueue<>(Comparator.comparingLong(event -> event[0]));
+        private int capacity;
+        private int inFlight;
+
+        SimulatedEndpoint(AdaptiveConcurrencyLimiter limiter, AtomicLong clock, int capacity, int clients) {
+
+            this.limiter = limiter;
+            this.clock = clock;
+            this.capacity = capacity;
+            for (int i = 0; i < clients; i++) {
+                events.add(new long[]{clock.get() + i * 10000L, -1});
+            }
+        }
+
+        /**
+         * Run the simulation for the given duration.
+         *
+         * @param duration Duration in nanoseconds.
+         * @return Number of calls served in the duration.
+         */
+        long run(long duration) {
+
+            long endTime = clock.get() + duration;
+            long servedCalls = 0;
+            while (events.peek()[0] < endTime) {
+                long[] event = events.poll();
+                clock.set(event[0]);
+                if (event[1] >= 0) {
+                    inFlight--;
+                    servedCalls++;
+                    limiter.onSuccess(event[0] - event[1]);
+                    events.add(new long[]{event[0], -1});
+                } else if (limiter.tryAcquire()) {
+                    inFlight++;
+                    long latency = BASE_LATENCY * Math.max(capacity, inFlight) / capacity;
+                    events.add(new long[]{event[0] + latency, event[0]});
+                } else {
+                    events.add(new long[]{event[0] + RETRY_DELAY, -1});
+                }
+            }
+            clock.set(endTime);
+            return servedCalls;
+        }
+    }
+}
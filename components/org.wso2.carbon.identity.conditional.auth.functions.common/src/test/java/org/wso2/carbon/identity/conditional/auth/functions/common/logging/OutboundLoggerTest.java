@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.logging;
+
+import org.apache.commons.logging.Log;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link OutboundLogger} and {@link LogTemplate}.
+ */
+public class OutboundLoggerTest {
+
+    @Test
+    public void testTemplateFormatting() {
+
+        LogTemplate template = LogTemplate.of("Received {} response from {}.");
+        assertEquals(template.getArgumentCount(), 2);
+        assertEquals(template.format(200, "https://example.com"), "Received 200 response from https://example.com.");
+        assertEquals(template.format(200), "Received 200 response from {}.");
+        assertEquals(LogTemplate.of("No arguments.").format(), "No arguments.");
+        assertEquals(LogTemplate.of("Argument at the end: {}").format((Object) null), "Argument at the end: null");
+    }
+
+    @Test
+    public void testMessageIsNotFormattedIfLevelIsDisabled() {
+
+        Log log = mock(Log.class);
+        when(log.isDebugEnabled()).thenReturn(false);
+        when(log.isInfoEnabled()).thenReturn(false);
+        OutboundLogger logger = new OutboundLogger(log, 100, new DiagnosticLogPublisher(0));
+        Object argument = new Object();
+
+        logger.debug(LogTemplate.of("Debug {}"), argument);
+        logger.info(LogTemplate.of("Info {}"), argument);
+        logger.successInfo(LogTemplate.of("Success {}"), argument);
+        verify(log, never()).debug(anyString());
+        verify(log, never()).info(anyString());
+    }
+
+    @Test
+    public void testSuccessLogsAreSampled() {
+
+        Log log = mock(Log.class);
+        when(log.isInfoEnabled()).thenReturn(true);
+        LogTemplate template = LogTemplate.of("Success {}");
+
+        OutboundLogger fullySampledLogger = new OutboundLogger(log, 100, new DiagnosticLogPublisher(0));
+        for (int i = 0; i < 50; i++) {
+            fullySampledLogger.successInfo(template, i);
+        }
+        verify(log, times(50)).info(anyString());
+
+        Log unsampledLog = mock(Log.class);
+        when(unsampledLog.isInfoEnabled()).thenReturn(true);
+        OutboundLogger unsampledLogger = new OutboundLogger(unsampledLog, 0, new DiagnosticLogPublisher(0));
+        for (int i = 0; i < 50; i++) {
+            unsampledLogger.successInfo(template, i);
+            unsampledLogger.info(template, i);
+        }
+        // Only the success logs are sampled.
+        verify(unsampledLog, times(50)).info(anyString());
+    }
+}
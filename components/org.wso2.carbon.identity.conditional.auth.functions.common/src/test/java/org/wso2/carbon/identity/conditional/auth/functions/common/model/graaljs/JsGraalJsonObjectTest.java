@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.model.graaljs;
+
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class JsGraalJsonObjectTest {
+
+    @Test
+    public void testNestedValuesAreWrappedWhenRead() {
+
+        Map<String, Object> response = createResponse();
+        JsGraalJsonObject view = new JsGraalJsonObject(response);
+
+        assertEquals(view.getMember("score"), 0.9);
+        Object user = view.getMember("user");
+        assertTrue(user instanceof JsGraalJsonObject);
+        assertSame(view.getMember("user"), user);
+        assertEquals(((JsGraalJsonObject) user).getMember("name"), "alice");
+
+        Object roles = ((JsGraalJsonObject) user).getMember("roles");
+        assertTrue(roles instanceof JsGraalJsonArray);
+        assertEquals(((JsGraalJsonArray) roles).getSize(), 2);
+        assertEquals(((JsGraalJsonArray) roles).get(0L), "admin");
+        assertTrue(((JsGraalJsonArray) roles).get(1L) instanceof JsGraalJsonObject);
+    }
+
+    @Test
+    public void testMemberKeys() {
+
+        JsGraalJsonObject view = new JsGraalJsonObject(createResponse());
+
+        ProxyArray keys = (ProxyArray) view.getMemberKeys();
+        assertEquals(keys.getSize(), 2);
+        assertEquals(keys.get(0), "score");
+        assertEquals(keys.get(1), "user");
+        assertTrue(view.hasMember("user"));
+        assertFalse(view.hasMember("address"));
+        assertNull(view.getMember("address"));
+    }
+
+    @Test
+    public void testViewIsReadOnly() {
+
+        Map<String, Object> response = createResponse();
+        JsGraalJsonObject view = new JsGraalJsonObject(response);
+
+        view.putMember("score", null);
+        assertFalse(view.removeMember("score"));
+        assertEquals(view.getMember("score"), 0.9);
+        try {
+            view.put("score", 0.1);
+            throw new AssertionError("View should not be modifiable.");
+        } catch (UnsupportedOperationException e) {
+            // Expected.
+        }
+        assertEquals(response.get("score"), 0.9);
+    }
+
+    @Test
+    public void testViewIsEqualToTheResponse() {
+
+        Map<String, Object> response = createResponse();
+
+        assertEquals(new JsGraalJsonObject(response), response);
+        assertEquals(new JsGraalJsonObject(response).toString(), response.toString());
+    }
+
+    @Test
+    public void testViewIsSerializedAsTheResponse() throws IOException, ClassNotFoundException {
+
+        Map<String, Object> response = createResponse();
+        JsGraalJsonObject view = new JsGraalJsonObject(response);
+        // Nested views are created before serialization, and are not serialized.
+        view.getMember("user");
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(view);
+        }
+        Object deserialized;
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(
+                new ByteArrayInputStream(outputStream.toByteArray()))) {
+            deserialized = objectInputStream.readObject();
+        }
+
+        assertFalse(deserialized instanceof JsGraalJsonObject);
+        assertEquals(deserialized, response);
+    }
+
+    @Test(expectedExceptions = ArrayIndexOutOfBoundsException.class)
+    public void testArrayIndexOutOfBounds() {
+
+        new JsGraalJsonArray(new ArrayList<>(Collections.singletonList("admin"))).get(1L);
+    }
+
+    private Map<String, Object> createResponse() {
+
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("name", "alice");
+        user.put("roles", Arrays.asList("admin", Collections.singletonMap("id", 1L)));
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("score", 0.9);
+        response.put("user", user);
+        return response;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.retry;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link RetryPolicy} and {@link RetryBudget}.
+ */
+public class RetryPolicyTest {
+
+    @Test
+    public void testBackoffDelayIsBoundedByExponentialBackoff() {
+
+        RetryPolicy retryPolicy = new RetryPolicy(100, 1000, 20, 1, 10);
+        for (int i = 0; i < 100; i++) {
+            long firstDelay = retryPolicy.getBackoffDelay(1);
+            assertTrue(firstDelay >= 0 && firstDelay <= 100, "Unexpected first delay: " + firstDelay);
+            long thirdDelay = retryPolicy.getBackoffDelay(3);
+            assertTrue(thirdDelay >= 0 && thirdDelay <= 400, "Unexpected third delay: " + thirdDelay);
+            long laterDelay = retryPolicy.getBackoffDelay(40);
+            assertTrue(laterDelay >= 0 && laterDelay <= 1000, "Unexpected capped delay: " + laterDelay);
+        }
+    }
+
+    @Test
+    public void testBackoffDelayIsZeroWithoutBaseDelay() {
+
+        RetryPolicy retryPolicy = new RetryPolicy(0, 0, 20, 1, 10);
+        assertEquals(retryPolicy.getBackoffDelay(5), 0);
+    }
+
+    @Test
+    public void testOnlyIdempotentMethodsAreRetryableByDefault() {
+
+        RetryPolicy retryPolicy = new RetryPolicy(100, 1000, 20, 1, 10);
+        assertTrue(retryPolicy.isRetryable("GET", false));
+        assertTrue(retryPolicy.isRetryable("put", false));
+        assertFalse(retryPolicy.isRetryable("POST", false));
+        assertFalse(retryPolicy.isRetryable("PATCH", false));
+        assertTrue(retryPolicy.isRetryable("POST", true));
+    }
+
+    @Test
+    public void testRetryBudgetCapsRetriesToRatioOfRequests() {
+
+        AtomicLong clock = new AtomicLong();
+        RetryBudget retryBudget = new RetryBudget(25, 0, 10, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            retryBudget.onRequest();
+        }
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertFalse(retryBudget.tryAcquireRetry(), "Only 25% of the requests should be retried.");
+        assertEquals(retryBudget.getRejectedRetryCount(), 1);
+    }
+
+    @Test
+    public void testRetryBudgetRefillsWithMinRetriesPerSecond() {
+
+        AtomicLong clock = new AtomicLong();
+        RetryBudget retryBudget = new RetryBudget(20, 2, 10, clock::get);
+
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertFalse(retryBudget.tryAcquireRetry());
+
+        clock.addAndGet(500);
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertFalse(retryBudget.tryAcquireRetry());
+
+        clock.addAndGet(60000);
+        assertEquals(retryBudget.getTokens(), 10d, "Tokens should not exceed the max tokens.");
+    }
+}
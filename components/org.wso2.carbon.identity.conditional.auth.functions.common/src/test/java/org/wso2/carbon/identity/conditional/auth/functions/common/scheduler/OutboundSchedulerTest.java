@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.common.scheduler;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.AsyncReturn;
+import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
+import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link OutboundScheduler}.
+ */
+public class OutboundSchedulerTest {
+
+    private static final String TENANT_A = "a.com";
+    private static final String TENANT_B = "b.com";
+
+    @Test
+    public void testCallsBeyondTenantLimitAreQueued() {
+
+        OutboundScheduler scheduler = createScheduler(10, 2, 10, 0, Collections.emptyMap());
+        List<RecordingTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RecordingTask task = new RecordingTask(TENANT_A + "-" + i, null);
+            tasks.add(task);
+            scheduler.submit(TENANT_A, task);
+        }
+        RecordingTask otherTenantTask = new RecordingTask(TENANT_B, null);
+        scheduler.submit(TENANT_B, otherTenantTask);
+
+        assertTrue(tasks.get(0).started && !tasks.get(0).queued);
+        assertTrue(tasks.get(1).started);
+        assertTrue(!tasks.get(2).started, "Call beyond the tenant limit should be queued.");
+        assertTrue(otherTenantTask.started, "Calls of another tenant should not be blocked.");
+        assertEquals(scheduler.getInFlightCalls(), 3);
+        assertEquals(scheduler.getQueuedCalls(), 1);
+
+        tasks.get(0).release.run();
+        // A second release of the same call should not free up capacity again.
+        tasks.get(0).release.run();
+        assertTrue(tasks.get(2).started && tasks.get(2).queued);
+        assertEquals(scheduler.getInFlightCalls(), 3);
+        assertEquals(scheduler.getQueuedCalls(), 0);
+    }
+
+    @Test
+    public void testCallsAreRejectedWhenTenantQueueIsFull() {
+
+        OutboundScheduler scheduler = createScheduler(10, 1, 1, 0, Collections.emptyMap());
+        scheduler.submit(TENANT_A, new RecordingTask(TENANT_A, null));
+        scheduler.submit(TENANT_A, new RecordingTask(TENANT_A, null));
+        RecordingTask rejectedTask = new RecordingTask(TENANT_A, null);
+        scheduler.submit(TENANT_A, rejectedTask);
+
+        assertEquals(rejectedTask.rejectionReason, OutboundScheduler.RejectionReason.QUEUE_FULL);
+        TenantSchedulerStats stats = getStats(scheduler, TENANT_A);
+        assertEquals(stats.getInFlightCalls(), 1);
+        assertEquals(stats.getQueuedCalls(), 1);
+        assertEquals(stats.getRejectedCalls(), 1);
+    }
+
+    @Test
+    public void testQueuedCallsAreDispatchedByWeight() {
+
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put(TENANT_A, 2);
+        List<String> dispatchOrder = new ArrayList<>();
+        OutboundScheduler scheduler = createScheduler(1, 10, 10, 0, weights);
+        RecordingTask firstTask = new RecordingTask(TENANT_A, dispatchOrder);
+        scheduler.submit(TENANT_A, firstTask);
+        List<RecordingTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            RecordingTask tenantATask = new RecordingTask(TENANT_A, dispatchOrder);
+            RecordingTask tenantBTask = new RecordingTask(TENANT_B, dispatchOrder);
+            tasks.add(tenantATask);
+            tasks.add(tenantBTask);
+            scheduler.submit(TENANT_A, tenantATask);
+            scheduler.submit(TENANT_B, tenantBTask);
+        }
+        dispatchOrder.clear();
+
+        RecordingTask running = firstTask;
+        for (int i = 0; i < 9; i++) {
+            running.release.run();
+            running = tasks.stream().filter(task -> task.started && !task.released).findFirst().orElse(null);
+        }
+        long tenantADispatches = dispatchOrder.stream().filter(TENANT_A::equals).count();
+        assertEquals(dispatchOrder.size(), 9);
+        assertEquals(tenantADispatches, 6, "Unexpected dispatch order: " + dispatchOrder);
+    }
+
+    @Test
+    public void testQueuedCallFailsAfterMaxQueueTime() throws InterruptedException {
+
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            OutboundScheduler scheduler = new OutboundScheduler(true, 10, 1, 10, 50, 0, Collections.emptyMap(),
+                    Runnable::run, timer);
+            scheduler.submit(TENANT_A, new RecordingTask(TENANT_A, null));
+            CountDownLatch rejected = new CountDownLatch(1);
+            RecordingTask queuedTask = new RecordingTask(TENANT_A, null) {
+
+                @Override
+                public void reject(OutboundScheduler.RejectionReason reason) {
+
+                    super.reject(reason);
+                    rejected.countDown();
+                }
+            };
+            scheduler.submit(TENANT_A, queuedTask);
+
+            assertTrue(rejected.await(5, TimeUnit.SECONDS), "Queued call should fail after the max queue time.");
+            assertEquals(queuedTask.rejectionReason, OutboundScheduler.RejectionReason.QUEUE_TIMEOUT);
+            assertEquals(scheduler.getQueuedCalls(), 0);
+            assertEquals(getStats(scheduler, TENANT_A).getTimedOutCalls(), 1);
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCapacityOfLostCallIsFreedAfterMaxCallTime() throws InterruptedException {
+
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            OutboundScheduler scheduler = new OutboundScheduler(true, 10, 1, 10, 0, 50, Collections.emptyMap(),
+                    Runnable::run, timer);
+            // The first call never completes, as if its completion was lost.
+            RecordingTask lostTask = new RecordingTask(TENANT_A, null);
+            scheduler.submit(TENANT_A, lostTask);
+            CountDownLatch dispatched = new CountDownLatch(1);
+            RecordingTask queuedTask = new RecordingTask(TENANT_A, null) {
+
+                @Override
+                public void run(Runnable release, boolean queued) {
+
+                    super.run(release, queued);
+                    dispatched.countDown();
+                }
+            };
+            scheduler.submit(TENANT_A, queuedTask);
+            assertFalse(queuedTask.started);
+
+            assertTrue(dispatched.await(5, TimeUnit.SECONDS), "Queued call should be dispatched once the capacity " +
+                    "of the lost call is freed.");
+            assertTrue(queuedTask.queued);
+            assertEquals(getStats(scheduler, TENANT_A).getExpiredCalls(), 1);
+
+            // A late completion of the lost call should not free the capacity of the other call.
+            lostTask.release.run();
+            assertEquals(scheduler.getInFlightCalls(), 1);
+            assertEquals(getStats(scheduler, TENANT_A).getExpiredCalls(), 1);
+            queuedTask.release.run();
+            assertEquals(scheduler.getInFlightCalls(), 0);
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testIdleBulkheadsAreRemovedUnlessWeighted() {
+
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put(TENANT_A, 2);
+        OutboundScheduler scheduler = createScheduler(10, 1, 10, 0, weights);
+        RecordingTask tenantATask = new RecordingTask(TENANT_A, null);
+        RecordingTask tenantBTask = new RecordingTask(TENANT_B, null);
+        RecordingTask queuedTenantBTask = new RecordingTask(TENANT_B, null);
+        scheduler.submit(TENANT_A, tenantATask);
+        scheduler.submit(TENANT_B, tenantBTask);
+        scheduler.submit(TENANT_B, queuedTenantBTask);
+        assertEquals(scheduler.getTenantStats().size(), 2);
+
+        tenantATask.release.run();
+        tenantBTask.release.run();
+        assertEquals(getStats(scheduler, TENANT_B).getQueuedCalls(), 0, "Queued call should be dispatched.");
+        queuedTenantBTask.release.run();
+
+        assertEquals(scheduler.getTenantStats().size(), 1, "Only the bulkhead of the weighted tenant should remain.");
+        assertEquals(getStats(scheduler, TENANT_A).getDispatchedCalls(), 1);
+    }
+
+    @Test
+    public void testFailedCallReleasesCapacityAndReturnsFailOutcome() throws FrameworkException {
+
+        OutboundScheduler scheduler = createScheduler(10, 1, 10, 0, Collections.emptyMap());
+        AuthenticationContext context = mock(AuthenticationContext.class);
+        when(context.getTenantDomain()).thenReturn(TENANT_A);
+        AsyncReturn asyncReturn = mock(AsyncReturn.class);
+
+        scheduler.execute(context, asyncReturn, (callContext, callReturn) -> {
+            throw new FrameworkException("Error while calling the endpoint.");
+        });
+
+        verify(asyncReturn, times(1)).accept(eq(context), anyMap(), eq(Constants.OUTCOME_FAIL));
+        assertEquals(scheduler.getInFlightCalls(), 0);
+
+        scheduler.execute(context, asyncReturn, (callContext, callReturn) ->
+                callReturn.accept(callContext, Collections.emptyMap(), Constants.OUTCOME_SUCCESS));
+        verify(asyncReturn, times(1)).accept(any(), anyMap(), eq(Constants.OUTCOME_SUCCESS));
+        assertEquals(scheduler.getInFlightCalls(), 0);
+    }
+
+    private OutboundScheduler createScheduler(int maxConcurrentCalls, int tenantMaxConcurrentCalls,
+                                              int tenantMaxQueueSize, long maxQueueTime,
+                                              Map<String, Integer> weights) {
+
+        return new OutboundScheduler(true, maxConcurrentCalls, tenantMaxConcurrentCalls, tenantMaxQueueSize,
+                maxQueueTime, 0, weights, Runnable::run, null);
+    }
+
+    private TenantSchedulerStats getStats(OutboundScheduler scheduler, String tenantDomain) {
+
+        return scheduler.getTenantStats().stream()
+                .filter(stats -> tenantDomain.equals(stats.getTenantDomain()))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+    }
+
+    private static class RecordingTask implements OutboundScheduler.ScheduledTask {
+
+        private final String name;
+        private final List<String> dispatchOrder;
+        private volatile boolean started;
+        private volatile boolean queued;
+        private volatile boolean released;
+        private volatile Runnable release;
+        private volatile OutboundScheduler.RejectionReason rejectionReason;
+
+        RecordingTask(String name, List<String> dispatchOrder) {
+
+            this.name = name;
+            this.dispatchOrder = dispatchOrder;
+        }
+
+        @Override
+        public void run(Runnable release, boolean queued) {
+
+            this.started = true;
+            this.queued = queued;
+            this.release = () -> {
+                released = true;
+                release.run();
+            };
+            if (dispatchOrder != null) {
+                dispatchOrder.add(name);
+            }
+        }
+
+        @Override
+        public void reject(OutboundScheduler.RejectionReason reason) {
+
+            this.rejectionReason = reason;
+        }
+    }
+}
@@ -34,6 +34,8 @@ import org.json.JSONObject;
 import org.wso2.carbon.identity.application.authentication.framework.AsyncProcess;
 import org.wso2.carbon.identity.application.authentication.framework.config.model.graph.JsGraphBuilder;
 import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
+import org.wso2.carbon.identity.conditional.auth.functions.common.scheduler.OutboundCall;
+import org.wso2.carbon.identity.conditional.auth.functions.common.scheduler.OutboundScheduler;
 import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
 import org.wso2.carbon.identity.conditional.auth.functions.elk.util.ElasticConfigProvider;
 import org.wso2.carbon.identity.event.IdentityEventException;
@@ -71,7 +73,7 @@ public class CallElasticFunctionImpl extends AbstractElasticHelper implements Ca
     public void callElastic(Map<String, String> params, Map<String, Object> eventHandlers) {
 
         Map<String, String> paramsMap = new HashMap<>(params);
-        AsyncProcess asyncProcess = new AsyncProcess((authenticationContext, asyncReturn) -> {
+        OutboundCall outboundCall = (authenticationContext, asyncReturn) -> {
 
             try {
                 String tenantDomain = authenticationContext.getTenantDomain();
@@ -197,7 +199,9 @@ public class CallElasticFunctionImpl extends AbstractElasticHelper implements Ca
                 asyncReturn.accept(authenticationContext, Collections.emptyMap(), OUTCOME_FAIL);
             }
 
-        });
+        };
+        AsyncProcess asyncProcess = new AsyncProcess((context, asyncReturn) ->
+                OutboundScheduler.getInstance().execute(context, asyncReturn, outboundCall));
         JsGraphBuilder.addLongWaitProcess(asyncProcess, eventHandlers);
     }
 }
@@ -23,15 +23,10 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLContexts;
-import org.apache.http.conn.ssl.X509HostnameVerifier;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
-import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
-import org.apache.http.impl.nio.client.HttpAsyncClients;
-import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
-import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
-import org.apache.http.nio.reactor.ConnectingIOReactor;
-import org.apache.http.nio.reactor.IOReactorException;
 import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
+import org.wso2.carbon.identity.conditional.auth.functions.common.http.OutboundClientSettings;
+import org.wso2.carbon.identity.conditional.auth.functions.common.http.OutboundHttpEngine;
 import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
 import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
 import org.wso2.carbon.identity.conditional.auth.functions.elk.internal.ElasticFunctionsServiceHolder;
@@ -39,21 +34,22 @@ import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.event.IdentityEventException;
 
-import javax.net.ssl.SSLContext;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
 
 /**
- * Class to retrieve the HTTP Clients.
+ * Class to retrieve the HTTP Clients. The clients are managed by the shared {@link OutboundHttpEngine}.
  */
-public class HttpClientManager {
+public class HttpClientManager implements OutboundClientSettings {
 
     private static final Log LOG = LogFactory.getLog(HttpClientManager.class);
 
-    private static HttpClientManager instance = new HttpClientManager();
+    private static final String MODULE_NAME = "elk";
+    private static final int DEFAULT_MAX_CONNECTIONS = 20;
 
-    private static Map<Integer, CloseableHttpAsyncClient> clientMap = new HashMap<>();
+    private static HttpClientManager instance = new HttpClientManager();
 
     public static HttpClientManager getInstance() {
 
@@ -73,23 +69,11 @@ public class HttpClientManager {
     public CloseableHttpAsyncClient getClient(String tenantDomain) throws FrameworkException {
 
         int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
-        CloseableHttpAsyncClient client = clientMap.get(tenantId);
-
-        if (client == null) {
-            PoolingNHttpClientConnectionManager poolingHttpClientConnectionManager = createPoolingConnectionManager();
-            RequestConfig config = createRequestConfig(tenantDomain);
-            HttpAsyncClientBuilder httpClientBuilder = HttpAsyncClients.custom().setDefaultRequestConfig(config);
-            addSslContext(httpClientBuilder, tenantDomain);
-            httpClientBuilder.setConnectionManager(poolingHttpClientConnectionManager);
-            client = httpClientBuilder.build();
-            client.start();
-            clientMap.put(tenantId, client);
-        }
-
-        return client;
+        return OutboundHttpEngine.getInstance().getClient(MODULE_NAME, tenantId, tenantDomain, this);
     }
 
-    private RequestConfig createRequestConfig(String tenantDomain) {
+    @Override
+    public RequestConfig getRequestConfig(String tenantDomain) {
 
         int defaultTimeout = 5000;
         String connectionTimeoutString = null;
@@ -149,73 +133,60 @@ public class HttpClientManager {
                 .build();
     }
 
-    private PoolingNHttpClientConnectionManager createPoolingConnectionManager() throws FrameworkException {
+    @Override
+    public int getMaxConnections() {
 
-        String maxConnectionsString = IdentityUtil.getProperty(Constants.CONNECTION_POOL_MAX_CONNECTIONS);
-        String maxConnectionsPerRouteString = IdentityUtil.getProperty(Constants
-                .CONNECTION_POOL_MAX_CONNECTIONS_PER_ROUTE);
-        int defaultMaxConnections = 20;
-        int maxConnections = defaultMaxConnections;
-        int maxConnectionsPerRoute = defaultMaxConnections;
         try {
-            maxConnections = Integer.parseInt(maxConnectionsString);
+            return Integer.parseInt(IdentityUtil.getProperty(Constants.CONNECTION_POOL_MAX_CONNECTIONS));
         } catch (NumberFormatException e) {
             // Ignore. Default value is used.
         }
+        return DEFAULT_MAX_CONNECTIONS;
+    }
+
+    @Override
+    public int getMaxConnectionsPerRoute() {
+
         try {
-            maxConnectionsPerRoute = Integer.parseInt(maxConnectionsPerRouteString);
+            return Integer.parseInt(IdentityUtil.getProperty(Constants.CONNECTION_POOL_MAX_CONNECTIONS_PER_ROUTE));
         } catch (NumberFormatException e) {
             // Ignore. Default value is used.
         }
-
-        ConnectingIOReactor ioReactor;
-        try {
-            ioReactor = new DefaultConnectingIOReactor();
-        } catch (IOReactorException e) {
-            throw new FrameworkException("Error while creating ConnectingIOReactor", e);
-        }
-        PoolingNHttpClientConnectionManager poolingHttpClientConnectionManager = new
-                PoolingNHttpClientConnectionManager(ioReactor);
-        // Increase max total connection to 50.
-        poolingHttpClientConnectionManager.setMaxTotal(maxConnections);
-        // Increase default max connection per route to 50.
-        poolingHttpClientConnectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
-        return poolingHttpClientConnectionManager;
+        return DEFAULT_MAX_CONNECTIONS;
     }
 
     public void closeClient(int tenantId) throws IOException {
 
-        CloseableHttpAsyncClient client = clientMap.get(tenantId);
-
-        if (client != null) {
-            clientMap.remove(tenantId);
-            client.close();
-        }
+        OutboundHttpEngine.getInstance().closeClient(MODULE_NAME, tenantId);
     }
 
-    private void addSslContext(HttpAsyncClientBuilder builder, String tenantDomain) {
+    @Override
+    public SSLContext getSSLContext(String tenantDomain) {
 
         try {
-            SSLContext sslContext = SSLContexts.custom()
+            return SSLContexts.custom()
                     .loadTrustMaterial(ElasticFunctionsServiceHolder.getInstance().getTrustStore())
                     .build();
-
-            String hostnameVerifierConfig = CommonUtils.getConnectorConfig(ElasticAnalyticsEngineConfigImpl
-                    .HOSTNAME_VERIFIER, tenantDomain);
-            X509HostnameVerifier hostnameVerifier;
-            if (ElasticAnalyticsEngineConfigImpl.HOSTNAME_VERIFIER_STRICT.equalsIgnoreCase(hostnameVerifierConfig)) {
-                hostnameVerifier = SSLConnectionSocketFactory.STRICT_HOSTNAME_VERIFIER;
-            } else if (ElasticAnalyticsEngineConfigImpl.HOSTNAME_VERIFIER_ALLOW_ALL.equalsIgnoreCase(hostnameVerifierConfig)) {
-                hostnameVerifier = SSLConnectionSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER;
-            } else {
-                hostnameVerifier = SSLConnectionSocketFactory.STRICT_HOSTNAME_VERIFIER;
-            }
-
-            builder.setSSLContext(sslContext);
-            builder.setHostnameVerifier(hostnameVerifier);
         } catch (Exception e) {
             LOG.error("Error while creating ssl context for analytics endpoint invocation in tenant domain: " +
                     tenantDomain, e);
         }
+        return SSLContexts.createDefault();
+    }
+
+    @Override
+    public HostnameVerifier getHostnameVerifier(String tenantDomain) {
+
+        String hostnameVerifierConfig = null;
+        try {
+            hostnameVerifierConfig = CommonUtils.getConnectorConfig(ElasticAnalyticsEngineConfigImpl.HOSTNAME_VERIFIER,
+                    tenantDomain);
+        } catch (IdentityEventException e) {
+            // Ignore. If there was error while getting the property, continue with default value.
+        }
+        if (ElasticAnalyticsEngineConfigImpl.HOSTNAME_VERIFIER_ALLOW_ALL.equalsIgnoreCase(hostnameVerifierConfig)) {
+            return SSLConnectionSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER;
+        }
+        return SSLConnectionSocketFactory.STRICT_HOSTNAME_VERIFIER;
     }
 }
@@ -18,38 +18,85 @@
 
 package org.wso2.carbon.identity.conditional.auth.functions.http;
 
+import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.http.ContentTooLongException;
 import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpExecutionAware;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.conn.ConnectTimeoutException;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.util.EntityUtils;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import org.wso2.carbon.identity.application.authentication.framework.AsyncProcess;
+import org.wso2.carbon.identity.application.authentication.framework.AsyncReturn;
 import org.wso2.carbon.identity.application.authentication.framework.config.model.graph.JsGraphBuilder;
-import org.wso2.carbon.identity.central.log.mgt.utils.LoggerUtils;
+import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
+import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
+import org.wso2.carbon.identity.conditional.auth.functions.common.limiter.AdaptiveConcurrencyLimiter;
+import org.wso2.carbon.identity.conditional.auth.functions.common.limiter.ConcurrencyLimiterRegistry;
+import org.wso2.carbon.identity.conditional.auth.functions.common.logging.LogTemplate;
+import org.wso2.carbon.identity.conditional.auth.functions.common.logging.OutboundLogger;
+import org.wso2.carbon.identity.conditional.auth.functions.common.model.JsUtilsProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.common.retry.RetryPolicy;
+import org.wso2.carbon.identity.conditional.auth.functions.common.scheduler.OutboundCall;
+import org.wso2.carbon.identity.conditional.auth.functions.common.scheduler.OutboundScheduler;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
 import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
 import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
+import org.wso2.carbon.identity.conditional.auth.functions.http.cache.CachedResponse;
+import org.wso2.carbon.identity.conditional.auth.functions.http.cache.HTTPResponseCache;
+import org.wso2.carbon.identity.conditional.auth.functions.http.circuitbreaker.CircuitBreaker;
+import org.wso2.carbon.identity.conditional.auth.functions.http.circuitbreaker.CircuitBreakerRegistry;
+import org.wso2.carbon.identity.conditional.auth.functions.http.compression.HTTPCompressionHandler;
+import org.wso2.carbon.identity.conditional.auth.functions.http.hedging.HedgingPolicy;
+import org.wso2.carbon.identity.conditional.auth.functions.http.metrics.ByteCountingEntity;
+import org.wso2.carbon.identity.conditional.auth.functions.http.metrics.EndpointMetrics;
+import org.wso2.carbon.identity.conditional.auth.functions.http.metrics.HTTPFunctionMetrics;
+import org.wso2.carbon.identity.conditional.auth.functions.http.profile.EndpointProfile;
+import org.wso2.carbon.identity.conditional.auth.functions.http.profile.EndpointProfileRegistry;
+import org.wso2.carbon.identity.conditional.auth.functions.http.response.HTTPResponseDecoder;
+import org.wso2.carbon.identity.conditional.auth.functions.http.transport.HTTPTransport;
+import org.wso2.carbon.identity.conditional.auth.functions.http.transport.HTTPTransportRegistry;
 import org.wso2.carbon.identity.conditional.auth.functions.http.util.AuthConfig;
 import org.wso2.carbon.identity.conditional.auth.functions.http.util.AuthConfigFactory;
 import org.wso2.carbon.identity.conditional.auth.functions.http.util.AuthConfigModel;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.HTTPRequestOptions;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.HttpUtil;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.PayloadSerializer;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.RequestCoalescer;
 import org.wso2.carbon.utils.DiagnosticLog;
 
 import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.CharacterCodingException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.zip.ZipException;
 
 import static org.apache.http.HttpHeaders.ACCEPT;
 import static org.wso2.carbon.identity.conditional.auth.functions.http.util.HttpUtil.getInvokeApiActionId;
@@ -60,28 +107,69 @@ import static org.wso2.carbon.identity.conditional.auth.functions.http.util.Http
 public abstract class AbstractHTTPFunction {
 
     private static final Log LOG = LogFactory.getLog(AbstractHTTPFunction.class);
+    private static final OutboundLogger OUTBOUND_LOG = new OutboundLogger(AbstractHTTPFunction.class);
+    private static final LogTemplate SUCCESS_LOG = LogTemplate.of(
+            "Successfully called the external api. Status code: {}. Url: {}");
+    private static final LogTemplate NOT_MODIFIED_LOG = LogTemplate.of(
+            "Cached response of the external api is not modified. Url: {}");
+    private static final LogTemplate REDIRECTION_LOG = LogTemplate.of(
+            "External api invocation returned a redirection. Status code: {}. Url: {}");
+    private static final LogTemplate CLIENT_ERROR_LOG = LogTemplate.of(
+            "External api invocation returned a client error. Status code: {}. Url: {}");
+    private static final LogTemplate RETRY_LOG = LogTemplate.of("Retrying the request for endpoint: {}. Attempt: {}");
+    private static final LogTemplate SUCCESS_RESULT = LogTemplate.of(
+            "Successfully called the external api. Status code: {}");
+    private static final LogTemplate REDIRECTION_RESULT = LogTemplate.of(
+            "External api invocation returned a redirection. Status code: {}");
+    private static final LogTemplate CLIENT_ERROR_RESULT = LogTemplate.of(
+            "External api invocation returned a client error. Status code: {}");
+    private static final LogTemplate UNKNOWN_RESPONSE_RESULT = LogTemplate.of(
+            "Received unknown response from external API call. Status code: {}");
+    private static final LogTemplate CIRCUIT_OPEN_RESULT = LogTemplate.of(
+            "Circuit breaker of the external api is open. Request is not sent.");
+    private static final LogTemplate CONCURRENCY_LIMIT_RESULT = LogTemplate.of(
+            "Concurrency limit of the external api is reached. Request is not sent.");
+    private static final LogTemplate INVALID_URL_RESULT = LogTemplate.of("Invalid Url for external API call.");
+    private static final LogTemplate TIMEOUT_RESULT = LogTemplate.of("Request for the external API timed out.");
+    private static final LogTemplate RESPONSE_TOO_LARGE_RESULT = LogTemplate.of(
+            "Response of the external API exceeds the maximum response size.");
+    private static final LogTemplate PARSE_ERROR_RESULT = LogTemplate.of(
+            "Failed to parse the response from the external API.");
+    private static final LogTemplate ERROR_RESULT = LogTemplate.of(
+            "Received an error while invoking the external API.");
     protected static final String TYPE_APPLICATION_JSON = "application/json";
     protected static final String TYPE_APPLICATION_FORM_URLENCODED = "application/x-www-form-urlencoded";
     protected static final String TYPE_TEXT_PLAIN = "text/plain";
-    private static final char DOMAIN_SEPARATOR = '.';
     private static final String RESPONSE = "response";
     private final int requestRetryCount;
+    private final int maxResponseSize;
     private final List<String> allowedDomains;
 
-    private CloseableHttpClient client;
+    private final HTTPTransportRegistry transportRegistry;
+    private final HTTPResponseCache responseCache;
+    private final RequestCoalescer requestCoalescer;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final ConcurrencyLimiterRegistry concurrencyLimiterRegistry;
+    private final RetryPolicy retryPolicy;
+    private final HTTPCompressionHandler compressionHandler;
+    private final HedgingPolicy hedgingPolicy;
+    private final HTTPFunctionMetrics metrics;
 
     public AbstractHTTPFunction() {
 
         requestRetryCount = ConfigProvider.getInstance().
                 getRequestRetryCount();
-        RequestConfig config = RequestConfig.custom()
-                .setConnectTimeout(ConfigProvider.getInstance().getConnectionTimeout())
-                .setConnectionRequestTimeout(ConfigProvider.getInstance().getConnectionRequestTimeout())
-                .setSocketTimeout(ConfigProvider.getInstance().getReadTimeout())
-                .setRedirectsEnabled(false)
-                .setRelativeRedirectsAllowed(false)
-                .build();
-        client = HttpClientBuilder.create().setDefaultRequestConfig(config).build();
+        maxResponseSize = ConfigProvider.getInstance().getHttpFunctionMaxResponseSize();
+        // Clients and their connection pools are shared by all the http functions.
+        transportRegistry = HTTPTransportRegistry.getInstance();
+        responseCache = HTTPResponseCache.getInstance();
+        requestCoalescer = RequestCoalescer.getInstance();
+        circuitBreakerRegistry = CircuitBreakerRegistry.getInstance();
+        concurrencyLimiterRegistry = ConcurrencyLimiterRegistry.getInstance();
+        retryPolicy = RetryPolicy.getInstance();
+        compressionHandler = HTTPCompressionHandler.getInstance();
+        hedgingPolicy = HedgingPolicy.getInstance();
+        metrics = HTTPFunctionMetrics.getInstance();
         allowedDomains = ConfigProvider.getInstance().getAllowedDomainsForHttpFunctions();
     }
 
@@ -97,80 +185,405 @@ public abstract class AbstractHTTPFunction {
     protected void executeHttpMethod(HttpUriRequest clientRequest, Map<String, Object> eventHandlers,
                                      AuthConfigModel authConfigModel) {
 
+        executeHttpMethod(clientRequest, eventHandlers, authConfigModel, HTTPRequestOptions.defaults());
+    }
+
+    protected void executeHttpMethod(HttpUriRequest clientRequest, Map<String, Object> eventHandlers,
+                                     AuthConfigModel authConfigModel, HTTPRequestOptions options) {
+
+        executeHttpMethod(clientRequest, eventHandlers, cloneAuthConfigModel(authConfigModel), null, options);
+    }
+
+    /**
+     * Execute the request to the endpoint of the given profile, with the credentials and timeouts of the profile.
+     *
+     * @param clientRequest Request with the url resolved by the profile.
+     * @param eventHandlers Event handlers of the call.
+     * @param profile       Endpoint profile.
+     * @param options       Options of the call.
+     */
+    protected void executeHttpMethod(HttpUriRequest clientRequest, Map<String, Object> eventHandlers,
+                                     EndpointProfile profile, HTTPRequestOptions options) {
+
+        profile.applyRequestConfig(clientRequest);
+        executeHttpMethod(clientRequest, eventHandlers, null, profile, options);
+    }
+
+    private void executeHttpMethod(HttpUriRequest clientRequest, Map<String, Object> eventHandlers,
+                                   AuthConfigModel authConfigModel, EndpointProfile profile,
+                                   HTTPRequestOptions options) {
+
         Map<String, Object> eventHandlersMap = new HashMap<>(eventHandlers);
-        AuthConfigModel authConfigModelClone =
-                authConfigModel == null ? null : new AuthConfigModel(authConfigModel.getType(),
-                        new HashMap<>(authConfigModel.getProperties()));
-        AsyncProcess asyncProcess = new AsyncProcess((context, asyncReturn) -> {
-            String outcome;
-            String endpointURL = null;
-
-            HttpUriRequest request;
-            try {
-                if (authConfigModelClone != null) {
-                    AuthConfig authConfig = AuthConfigFactory.getAuthConfig(authConfigModelClone, context, asyncReturn);
-                    request = authConfig.applyAuth(clientRequest, authConfigModelClone);
-                } else {
-                    request = clientRequest;
+        String endpointURL = clientRequest.getURI() != null ? clientRequest.getURI().toString() : null;
+        OutboundCall outboundCall = (context, asyncReturn) ->
+                sendRequest(clientRequest, authConfigModel, profile, options, context, asyncReturn,
+                        (outcome, json) -> acceptResult(context, asyncReturn, endpointURL, outcome, json));
+        AsyncProcess asyncProcess = new AsyncProcess((context, asyncReturn) ->
+                OutboundScheduler.getInstance().execute(context, asyncReturn, outboundCall));
+        JsGraphBuilder.addLongWaitProcess(asyncProcess, eventHandlersMap);
+    }
+
+    /**
+     * Get the endpoint profile referred by a script.
+     *
+     * @param name Name of the profile.
+     * @return Endpoint profile.
+     * @throws IllegalArgumentException If there is no valid profile with the name.
+     */
+    protected EndpointProfile getEndpointProfile(String name) {
+
+        EndpointProfile profile = EndpointProfileRegistry.getInstance().getProfile(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("Endpoint profile: " + name + " is not configured.");
+        }
+        return profile;
+    }
+
+    /**
+     * Copy the auth config model, so that the request does not see changes made to it after the call.
+     *
+     * @param authConfigModel AuthConfigModel or null.
+     * @return Copy of the AuthConfigModel or null.
+     */
+    protected AuthConfigModel cloneAuthConfigModel(AuthConfigModel authConfigModel) {
+
+        return authConfigModel == null ? null : new AuthConfigModel(authConfigModel.getType(),
+                new HashMap<>(authConfigModel.getProperties()));
+    }
+
+    /**
+     * Apply the authentication to the request and send it to the external api, unless its response can be served
+     * from the cache or taken from an identical request in flight. The outcome is handed to the given completion
+     * once it is decided, which may be on another thread.
+     *
+     * @param clientRequest   HttpUriRequest.
+     * @param authConfigModel Auth config of the request or null if the request is not authenticated.
+     * @param options         Options of the call.
+     * @param context         Authentication context.
+     * @param asyncReturn     AsyncReturn of the long wait process, used by the auth configs to fail the flow.
+     * @param completion      Consumer of the outcome and the response.
+     */
+    protected void sendRequest(HttpUriRequest clientRequest, AuthConfigModel authConfigModel,
+                               HTTPRequestOptions options, AuthenticationContext context, AsyncReturn asyncReturn,
+                               BiConsumer<String, JSONObject> completion) {
+
+        sendRequest(clientRequest, authConfigModel, null, options, context, asyncReturn, completion);
+    }
+
+    /**
+     * Send the request as {@link #sendRequest(HttpUriRequest, AuthConfigModel, HTTPRequestOptions,
+     * AuthenticationContext, AsyncReturn, BiConsumer)} does. If an endpoint profile is given, the credentials of
+     * the profile are applied instead of the auth config, and the domain check is skipped as the url of the
+     * profile is validated when it is compiled.
+     *
+     * @param clientRequest   HttpUriRequest.
+     * @param authConfigModel Auth config of the request or null if the request is not authenticated.
+     * @param profile         Endpoint profile of the request or null.
+     * @param options         Options of the call.
+     * @param context         Authentication context.
+     * @param asyncReturn     AsyncReturn of the long wait process, used by the auth configs to fail the flow.
+     * @param completion      Consumer of the outcome and the response.
+     */
+    protected void sendRequest(HttpUriRequest clientRequest, AuthConfigModel authConfigModel,
+                               EndpointProfile profile, HTTPRequestOptions options, AuthenticationContext context,
+                               AsyncReturn asyncReturn, BiConsumer<String, JSONObject> completion) {
+
+        if (profile != null && !profile.isAllowedFor(context.getTenantDomain())) {
+            LOG.error("Endpoint profile: " + profile.getName() + " is not allowed for the tenant: " +
+                    context.getTenantDomain());
+            completion.accept(Constants.OUTCOME_FAIL, null);
+            return;
+        }
+        if (isNonBlocking(clientRequest.getURI())) {
+            // Credentials obtained with an outbound call, such as client credential tokens, are obtained without
+            // blocking the calling thread either, and the request is sent once they are applied.
+            applyAuth(clientRequest, authConfigModel, profile, context, asyncReturn, (request, error) -> {
+                if (error != null) {
+                    LOG.error("Error while applying authentication to the request.", error);
+                    completion.accept(Constants.OUTCOME_FAIL, null);
+                    return;
                 }
+                sendAuthenticatedRequest(request, profile, options, context, completion);
+            });
+            return;
+        }
+
+        HttpUriRequest request;
+        try {
+            if (profile != null) {
+                request = profile.applyAuth(clientRequest, context, asyncReturn);
+            } else if (authConfigModel != null) {
+                AuthConfig authConfig = AuthConfigFactory.getAuthConfig(authConfigModel, context, asyncReturn);
+                request = authConfig.applyAuth(clientRequest, authConfigModel);
+            } else {
+                request = clientRequest;
+            }
+        } catch (Exception e) {
+            LOG.error("Error while applying authentication to the request.", e);
+            completion.accept(Constants.OUTCOME_FAIL, null);
+            return;
+        }
+        sendAuthenticatedRequest(request, profile, options, context, completion);
+    }
+
+    /**
+     * Apply the authentication to a request sent with a non-blocking transport, see
+     * {@link AuthConfig#applyAuth(HttpUriRequest, AuthConfigModel, BiConsumer)}.
+     *
+     * @param clientRequest   HttpUriRequest.
+     * @param authConfigModel Auth config of the request or null if the request is not authenticated.
+     * @param profile         Endpoint profile of the request or null.
+     * @param context         Authentication context.
+     * @param asyncReturn     AsyncReturn of the long wait process.
+     * @param authCompletion  Consumer of the authenticated request, or of the error.
+     */
+    private void applyAuth(HttpUriRequest clientRequest, AuthConfigModel authConfigModel, EndpointProfile profile,
+                           AuthenticationContext context, AsyncReturn asyncReturn,
+                           BiConsumer<HttpUriRequest, Exception> authCompletion) {
+
+        if (profile != null) {
+            profile.applyAuth(clientRequest, context, asyncReturn, authCompletion);
+            return;
+        }
+        if (authConfigModel == null) {
+            authCompletion.accept(clientRequest, null);
+            return;
+        }
+        AuthConfig authConfig;
+        try {
+            authConfig = AuthConfigFactory.getAuthConfig(authConfigModel, context, asyncReturn);
+        } catch (RuntimeException e) {
+            authCompletion.accept(null, e);
+            return;
+        }
+        authConfig.applyAuth(clientRequest, authConfigModel, authCompletion);
+    }
+
+    /**
+     * Send the request once the authentication is applied to it, unless its response can be served from the cache
+     * or taken from an identical request in flight.
+     *
+     * @param request    Authenticated HttpUriRequest.
+     * @param profile    Endpoint profile of the request or null.
+     * @param options    Options of the call.
+     * @param context    Authentication context.
+     * @param completion Consumer of the outcome and the response.
+     */
+    private void sendAuthenticatedRequest(HttpUriRequest request, EndpointProfile profile,
+                                          HTTPRequestOptions options, AuthenticationContext context,
+                                          BiConsumer<String, JSONObject> completion) {
+
+        try {
+            String endpointURL = request.getURI() != null ? request.getURI().toString() : null;
 
-                if (request.getURI() != null) {
-                    endpointURL = request.getURI().toString();
+            if (profile == null && !HttpUtil.isAllowedDomain(request.getURI(), allowedDomains)) {
+                LOG.error("Request URL does not match with the allowed domain list. Request Url: " +
+                        endpointURL);
+                completion.accept(Constants.OUTCOME_FAIL, null);
+                return;
+            }
+
+            // Fingerprint is taken before conditional headers are added for revalidation.
+            String fingerprint = responseCache.isEnabled() || requestCoalescer.isEnabled() ?
+                    HttpUtil.getRequestFingerprint(request) : null;
+            if (fingerprint != null && options.getProjection() != null) {
+                // Differently projected responses of the same request are not interchangeable.
+                fingerprint = fingerprint + "#" + options.getProjection().getKey();
+            }
+            ResponseCacheState cacheState = getResponseCacheState(request, fingerprint,
+                    context.getTenantDomain(), options);
+            JSONObject cachedJson = cacheState != null && cacheState.cachedResponse != null &&
+                    cacheState.cachedResponse.isFresh() ? parseCachedResponse(cacheState.cachedResponse) : null;
+            if (cachedJson != null) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Serving the response of the external api from the cache. Url: " + endpointURL);
                 }
+                completion.accept(Constants.OUTCOME_SUCCESS, cachedJson);
+                return;
+            }
 
-                if (!isValidRequestDomain(request.getURI())) {
-                    LOG.error("Request URL does not match with the allowed domain list. Request Url: " +
-                            endpointURL);
-                    asyncReturn.accept(context, Collections.emptyMap(), Constants.OUTCOME_FAIL);
-                } else {
-                    Pair<RetryDecision, Pair<String, JSONObject>> result = executeRequest(request, endpointURL);
-                    if (result.getLeft().shouldRetry()) {
-                        LOG.info("Failed to invoke the endpoint. Url: " + endpointURL + ". Retrying the request.");
-                        result = executeRequestWithRetries(request, endpointURL, requestRetryCount);
+            HttpUriRequest dispatchedRequest = request;
+            BiConsumer<String, JSONObject> requestCompletion;
+            if (requestCoalescer.isEnabled() && options.isCoalescingEnabled() &&
+                    HttpGet.METHOD_NAME.equals(request.getMethod())) {
+                String coalescingKey = context.getTenantDomain() + ":" + fingerprint;
+                CompletableFuture<Pair<String, JSONObject>> leader = new CompletableFuture<>();
+                CompletableFuture<Pair<String, JSONObject>> inFlightRequest =
+                        requestCoalescer.join(coalescingKey, leader);
+                if (inFlightRequest != null) {
+                    // An identical request is in flight. Its outcome is handed to this flow once available.
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Joined an identical in flight request to the external api. Url: " + endpointURL);
                     }
-                    outcome = result.getRight().getLeft();
-                    JSONObject json = result.getRight().getRight();
-                    asyncReturn.accept(context, json != null ? json : Collections.emptyMap(), outcome);
+                    requestCoalescer.follow(inFlightRequest, getRequestTimeout(request), completion);
+                    return;
                 }
-            } catch (Exception e) {
-                LOG.error("Error while applying authentication to the request.", e);
-                asyncReturn.accept(context, Collections.emptyMap(), Constants.OUTCOME_FAIL);
+                // The flows which join the request depend on its response, hence a copy is sent so that aborting the
+                // request of this flow does not fail them.
+                dispatchedRequest = copyGetRequest(request);
+                requestCompletion = (outcome, json) -> {
+                    requestCoalescer.complete(coalescingKey, leader, outcome, json);
+                    completion.accept(outcome, json);
+                };
+            } else {
+                requestCompletion = completion;
             }
-        });
-        JsGraphBuilder.addLongWaitProcess(asyncProcess, eventHandlersMap);
+
+            try {
+                // Applied after the fingerprint is taken, as it does not change the meaning of the request.
+                compressionHandler.prepareRequest(dispatchedRequest);
+                dispatchRequest(dispatchedRequest, endpointURL, cacheState, options, requestCompletion);
+            } catch (RuntimeException e) {
+                LOG.error("Error while invoking the external api. Url: " + endpointURL, e);
+                requestCompletion.accept(Constants.OUTCOME_FAIL, null);
+            }
+        } catch (Exception e) {
+            LOG.error("Error while sending the request to the external api.", e);
+            completion.accept(Constants.OUTCOME_FAIL, null);
+        }
     }
 
     /**
-     * Execute the request with retries.
+     * Copy the GET request with its headers and config, so that it can be sent independent of the original one.
+     *
+     * @param request HttpUriRequest.
+     * @return Copy of the request.
+     */
+    private static HttpGet copyGetRequest(HttpUriRequest request) {
+
+        HttpGet copy = new HttpGet(request.getURI());
+        copy.setHeaders(request.getAllHeaders());
+        if (request instanceof Configurable) {
+            copy.setConfig(((Configurable) request).getConfig());
+        }
+        return copy;
+    }
+
+    /**
+     * Get the upper bound of the time a request can take, including its retries and their backoff.
+     *
+     * @param request HttpUriRequest.
+     * @return Request timeout in milliseconds.
+     */
+    private long getRequestTimeout(HttpUriRequest request) {
+
+        ConfigProvider configProvider = ConfigProvider.getInstance();
+        RequestConfig config = request instanceof Configurable ? ((Configurable) request).getConfig() : null;
+        int connectionRequestTimeout = config != null && config.getConnectionRequestTimeout() > 0 ?
+                config.getConnectionRequestTimeout() : configProvider.getConnectionRequestTimeout();
+        int connectTimeout = config != null && config.getConnectTimeout() > 0 ?
+                config.getConnectTimeout() : configProvider.getConnectionTimeout();
+        int readTimeout = config != null && config.getSocketTimeout() > 0 ?
+                config.getSocketTimeout() : configProvider.getReadTimeout();
+        return (long) (connectionRequestTimeout + connectTimeout + readTimeout) * (requestRetryCount + 1) +
+                (long) configProvider.getOutboundRetryMaxDelay() * requestRetryCount;
+    }
+
+    /**
+     * Whether the request to the given url is sent without blocking the calling thread.
+     *
+     * @param uri Url of the request.
+     * @return True if the transport of the endpoint is non-blocking.
+     */
+    protected boolean isNonBlocking(URI uri) {
+
+        return transportRegistry.getTransport(uri).isNonBlocking();
+    }
+
+    /**
+     * Send the request to the external api with the transport of the endpoint, without blocking if the transport
+     * allows it, and hand the outcome to the given completion once it is decided.
      *
      * @param request     HttpUriRequest.
      * @param endpointURL Endpoint URL.
-     * @param maxRetries  Maximum number of retries.
+     * @param cacheState  Response cache state of the request or null if the response is not cached.
+     * @param options     Options of the call.
+     * @param completion  Consumer of the outcome and the response.
+     */
+    private void dispatchRequest(HttpUriRequest request, String endpointURL, ResponseCacheState cacheState,
+                                 HTTPRequestOptions options, BiConsumer<String, JSONObject> completion) {
+
+        int maxRetries = getMaxRetries(request, options);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.getCircuitBreaker(request.getURI());
+        retryPolicy.onRequest(CommonUtils.getEndpointKey(request.getURI()));
+        HTTPTransport transport = transportRegistry.getTransport(request.getURI());
+        if (transport.isNonBlocking()) {
+            // The thread is released here; the outcome is handed back from the completion callback.
+            new NonBlockingRequestCallback(request, endpointURL, cacheState, circuitBreaker, transport, options,
+                    maxRetries, completion).execute();
+            return;
+        }
+        Pair<RetryDecision, Pair<String, JSONObject>> result = executeRequest(request, endpointURL, cacheState,
+                circuitBreaker, transport, options);
+        if (result.getLeft().shouldRetry() && maxRetries > 0) {
+            LOG.info("Failed to invoke the endpoint. Url: " + endpointURL + ". Retrying the request.");
+            result = executeRequestWithRetries(request, endpointURL, maxRetries, cacheState, circuitBreaker,
+                    transport, options, result.getRight().getLeft());
+        }
+        result = applyStaleIfError(result, endpointURL, cacheState);
+        completion.accept(result.getRight().getLeft(), result.getRight().getRight());
+    }
+
+    private void acceptResult(AuthenticationContext context, AsyncReturn asyncReturn, String endpointURL,
+                              String outcome, JSONObject json) {
+
+        try {
+            asyncReturn.accept(context, json != null ?
+                    JsUtilsProvider.getInstance().getJsUtils().toResponseView(json) : Collections.emptyMap(), outcome);
+        } catch (FrameworkException e) {
+            LOG.error("Error while proceeding after invoking the external api. Url: " + endpointURL, e);
+        }
+    }
+
+    /**
+     * Get the number of times the request can be retried. Requests with non-idempotent methods are retried only if
+     * the script opted in for the call.
+     *
+     * @param request HttpUriRequest.
+     * @param options Options of the call.
+     * @return Maximum number of retries.
+     */
+    private int getMaxRetries(HttpUriRequest request, HTTPRequestOptions options) {
+
+        Boolean retryEnabled = options.getRetryEnabled();
+        if (Boolean.FALSE.equals(retryEnabled) ||
+                !retryPolicy.isRetryable(request.getMethod(), Boolean.TRUE.equals(retryEnabled))) {
+            return 0;
+        }
+        return requestRetryCount;
+    }
+
+    /**
+     * Execute the request with retries. Each retry is delayed with backoff and sent only if it is within the retry
+     * budget of the endpoint.
+     *
+     * @param request        HttpUriRequest.
+     * @param endpointURL    Endpoint URL.
+     * @param maxRetries     Maximum number of retries.
+     * @param cacheState     Response cache state of the request or null if the response is not cached.
+     * @param circuitBreaker Circuit breaker of the endpoint or null if the circuit breaker is disabled.
+     * @param transport      Transport of the endpoint.
+     * @param options        Options of the call.
+     * @param lastOutcome    Outcome of the attempt which failed.
      * @return Pair of outcome and json.
      */
     private Pair<RetryDecision, Pair<String, JSONObject>> executeRequestWithRetries
-    (HttpUriRequest request, String endpointURL, int maxRetries) {
+    (HttpUriRequest request, String endpointURL, int maxRetries, ResponseCacheState cacheState,
+     CircuitBreaker circuitBreaker, HTTPTransport transport, HTTPRequestOptions options, String lastOutcome) {
 
         Pair<RetryDecision, Pair<String, JSONObject>> result;
-        String outcome = Constants.OUTCOME_FAIL;
+        String outcome = lastOutcome;
+        String endpoint = CommonUtils.getEndpointKey(request.getURI());
         int attempts = 0;
         RetryDecision isRetry = RetryDecision.NO_RETRY;
 
-        while (attempts < maxRetries) {
+        while (attempts < maxRetries && !request.isAborted()) {
             attempts++;
-            LOG.warn("Retrying the request for endpoint: " + endpointURL + ". Attempt: " + attempts);
-            if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                        DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                        getInvokeApiActionId(request));
-                diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.API, endpointURL)
-                        .configParam(Constants.LogConstants.ConfigKeys.MAX_REQUEST_ATTEMPTS, maxRetries)
-                        .resultMessage("Retrying the request for external api. Attempt: " + attempts)
-                        .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                        .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-            }
-            result = executeRequest(request, endpointURL);
+            if (!retryPolicy.tryAcquireRetry(endpoint) || !retryPolicy.awaitBackoff(attempts)) {
+                break;
+            }
+            logRetryAttempt(request, endpointURL, maxRetries, attempts);
+            result = executeRequest(request, endpointURL, cacheState, circuitBreaker, transport, options);
             isRetry = result.getLeft();
             if (!isRetry.shouldRetry()) {
                 return result;
@@ -180,212 +593,707 @@ public abstract class AbstractHTTPFunction {
         return Pair.of(isRetry, Pair.of(outcome, null));
     }
 
+    private void logRetryAttempt(HttpUriRequest request, String endpointURL, int maxRetries, int attempts) {
+
+        OUTBOUND_LOG.warn(RETRY_LOG, endpointURL, attempts);
+        metrics.recordRetry(request);
+        OUTBOUND_LOG.diagnostic(() -> {
+            DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
+                    DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
+                    getInvokeApiActionId(request));
+            diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.API, endpointURL)
+                    .configParam(Constants.LogConstants.ConfigKeys.MAX_REQUEST_ATTEMPTS, maxRetries)
+                    .resultMessage("Retrying the request for external api. Attempt: " + attempts)
+                    .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
+                    .resultStatus(DiagnosticLog.ResultStatus.FAILED);
+            return diagnosticLogBuilder;
+        });
+    }
+
+    /**
+     * Execute the request, unless it is aborted or the concurrency limiter or the circuit breaker of the endpoint
+     * rejects it.
+     *
+     * @param request        HttpUriRequest.
+     * @param endpointURL    Endpoint URL.
+     * @param cacheState     Response cache state of the request or null if the response is not cached.
+     * @param circuitBreaker Circuit breaker of the endpoint or null if the circuit breaker is disabled.
+     * @param transport      Transport of the endpoint.
+     * @param options        Options of the call.
+     * @return Pair of outcome and json.
+     */
+    private Pair<RetryDecision, Pair<String, JSONObject>> executeRequest(HttpUriRequest request, String endpointURL,
+                                                                         ResponseCacheState cacheState,
+                                                                         CircuitBreaker circuitBreaker,
+                                                                         HTTPTransport transport,
+                                                                         HTTPRequestOptions options) {
+
+        if (request.isAborted()) {
+            return abortedRequest(endpointURL);
+        }
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiterRegistry.getLimiter(
+                CommonUtils.getEndpointKey(request.getURI()));
+        if (limiter != null && !limiter.tryAcquire()) {
+            return rejectOverLimitRequest(request, endpointURL);
+        }
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            if (limiter != null) {
+                limiter.onIgnore();
+            }
+            return rejectRequest(request, endpointURL);
+        }
+        long startTime = System.nanoTime();
+        boolean endpointFailed = true;
+        boolean aborted = false;
+        try (CloseableHttpResponse response = transport.execute(request)) {
+            endpointFailed = isServerError(response);
+            return handleResponse(response, request, endpointURL, cacheState, options);
+        } catch (Exception e) {
+            if (request.isAborted()) {
+                aborted = true;
+                return abortedRequest(endpointURL);
+            }
+            // Only errors in reaching the endpoint count against it, not errors in handling its response.
+            endpointFailed &= isEndpointFailure(e);
+            return handleException(e, request, endpointURL);
+        } finally {
+            if (aborted) {
+                // The call was given up by the caller, so it tells nothing about the endpoint.
+                if (limiter != null) {
+                    limiter.onIgnore();
+                }
+            } else {
+                recordCallResult(request, circuitBreaker, limiter, endpointFailed, startTime);
+            }
+        }
+    }
+
+    private boolean isServerError(HttpResponse response) {
+
+        return response.getStatusLine().getStatusCode() >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
+
+    /**
+     * Check whether an error raised while invoking the endpoint is due to the endpoint. A response over the maximum
+     * size or one which cannot be decoded is rejected locally, so it does not count against the endpoint.
+     *
+     * @param e Exception raised while invoking the endpoint or reading the response.
+     * @return True if the error should be recorded as a failure of the endpoint.
+     */
+    private boolean isEndpointFailure(Exception e) {
+
+        return e instanceof IOException && !(e instanceof ContentTooLongException) &&
+                !(e instanceof CharacterCodingException) && !(e instanceof ZipException);
+    }
+
+    private void recordCallResult(HttpUriRequest request, CircuitBreaker circuitBreaker,
+                                  AdaptiveConcurrencyLimiter limiter, boolean endpointFailed, long startTime) {
+
+        long duration = System.nanoTime() - startTime;
+        metrics.recordTotalTime(request, duration);
+        if (circuitBreaker != null) {
+            circuitBreaker.onResult(endpointFailed, TimeUnit.NANOSECONDS.toMillis(duration));
+        }
+        if (limiter != null) {
+            if (endpointFailed) {
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(duration);
+            }
+        }
+    }
+
     /**
-     * Execute the request.
+     * Fail the request which was aborted by the caller, e.g. as the outcome of the fan out it belongs to is already
+     * decided. It is not retried.
+     *
+     * @param endpointURL Endpoint URL.
+     * @return Pair of retry decision, outcome and json.
+     */
+    private Pair<RetryDecision, Pair<String, JSONObject>> abortedRequest(String endpointURL) {
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Request to the external api was aborted. Url: " + endpointURL);
+        }
+        return Pair.of(RetryDecision.NO_RETRY, Pair.of(Constants.OUTCOME_FAIL, null));
+    }
+
+    /**
+     * Fail the request without sending it, as the circuit breaker of the endpoint is open.
      *
      * @param request     HttpUriRequest.
      * @param endpointURL Endpoint URL.
-     * @return Pair of outcome and json.
+     * @return Pair of retry decision, outcome and json.
      */
-    private Pair<RetryDecision, Pair<String, JSONObject>> executeRequest(HttpUriRequest request, String endpointURL) {
+    private Pair<RetryDecision, Pair<String, JSONObject>> rejectRequest(HttpUriRequest request,
+                                                                        String endpointURL) {
+
+        OUTBOUND_LOG.diagnostic(getInvokeApiActionId(request), Constants.LogConstants.InputKeys.API, endpointURL,
+                CIRCUIT_OPEN_RESULT, DiagnosticLog.ResultStatus.FAILED);
+        LOG.warn("Circuit breaker of the external api is open. Failing the request without sending it. Url: " +
+                endpointURL);
+        return Pair.of(RetryDecision.NO_RETRY, Pair.of(Constants.OUTCOME_FAIL, null));
+    }
+
+    /**
+     * Fail the request without sending it, as the concurrency limit of the endpoint is reached.
+     *
+     * @param request     HttpUriRequest.
+     * @param endpointURL Endpoint URL.
+     * @return Pair of retry decision, outcome and json.
+     */
+    private Pair<RetryDecision, Pair<String, JSONObject>> rejectOverLimitRequest(HttpUriRequest request,
+                                                                                 String endpointURL) {
+
+        OUTBOUND_LOG.diagnostic(getInvokeApiActionId(request), Constants.LogConstants.InputKeys.API, endpointURL,
+                CONCURRENCY_LIMIT_RESULT, DiagnosticLog.ResultStatus.FAILED);
+        LOG.warn("Concurrency limit of the external api is reached. Failing the request without sending it. Url: " +
+                endpointURL);
+        return Pair.of(RetryDecision.NO_RETRY, Pair.of(Constants.OUTCOME_FAIL, null));
+    }
+
+    /**
+     * Classify the response received from the endpoint and build the outcome.
+     *
+     * @param response    HttpResponse.
+     * @param request     HttpUriRequest.
+     * @param endpointURL Endpoint URL.
+     * @param cacheState  Response cache state of the request or null if the response is not cached.
+     * @param options     Options of the call.
+     * @return Pair of retry decision, outcome and json.
+     * @throws IOException    If an error occurred while reading the response or it exceeds the maximum size.
+     * @throws ParseException If an error occurred while parsing the response.
+     */
+    private Pair<RetryDecision, Pair<String, JSONObject>> handleResponse(HttpResponse response,
+                                                                         HttpUriRequest request,
+                                                                         String endpointURL,
+                                                                         ResponseCacheState cacheState,
+                                                                         HTTPRequestOptions options)
+            throws IOException, ParseException {
 
         JSONObject json = null;
+        String outcome;
+        int responseCode = response.getStatusLine().getStatusCode();
+        if (responseCode == HttpStatus.SC_NOT_MODIFIED && cacheState != null) {
+            json = parseCachedResponse(cacheState.cachedResponse);
+            if (json != null) {
+                responseCache.revalidated(cacheState.tenantDomain, cacheState.cacheKey, cacheState.cachedResponse,
+                        response, cacheState.ttl);
+                OUTBOUND_LOG.successInfo(NOT_MODIFIED_LOG, endpointURL);
+                metrics.recordOutcome(request, EndpointMetrics.Outcome.SUCCESS);
+                return Pair.of(RetryDecision.NO_RETRY, Pair.of(Constants.OUTCOME_SUCCESS, json));
+            }
+        }
+        if (responseCode >= 200 && responseCode < 300) {
+            if (response.getEntity() != null) {
+                ByteCountingEntity entity = new ByteCountingEntity(response.getEntity());
+                Header contentType = entity.getContentType();
+                // The body is decoded as it is read, so that an oversized response fails before being buffered.
+                if (contentType != null && contentType.getValue().contains(TYPE_TEXT_PLAIN)) {
+                    json = new JSONObject();
+                    json.put(RESPONSE, HTTPResponseDecoder.decodeString(entity, maxResponseSize));
+                } else {
+                    json = HTTPResponseDecoder.decodeJson(entity, maxResponseSize, options.getProjection());
+                }
+                metrics.recordResponseSize(request, entity.getByteCount());
+            }
+            if (cacheState != null && json != null) {
+                responseCache.put(cacheState.tenantDomain, cacheState.cacheKey, response, json.toJSONString(),
+                        cacheState.ttl);
+            }
+            OUTBOUND_LOG.diagnostic(getInvokeApiActionId(request), Constants.LogConstants.InputKeys.API, endpointURL,
+                    SUCCESS_RESULT, responseCode, DiagnosticLog.ResultStatus.SUCCESS);
+            OUTBOUND_LOG.successInfo(SUCCESS_LOG, responseCode, endpointURL);
+            metrics.recordOutcome(request, EndpointMetrics.Outcome.SUCCESS);
+            outcome = Constants.OUTCOME_SUCCESS;
+            return Pair.of(RetryDecision.NO_RETRY, Pair.of(outcome, json)); // Success, return immediately
+        } else if (responseCode >= 300 && responseCode < 400) {
+            OUTBOUND_LOG.diagnostic(getInvokeApiActionId(request), Constants.LogConstants.InputKeys.API, endpointURL,
+                    REDIRECTION_RESULT, responseCode, DiagnosticLog.ResultStatus.FAILED);
+            OUTBOUND_LOG.warn(REDIRECTION_LOG, responseCode, endpointURL);
+            metrics.recordOutcome(request, EndpointMetrics.Outcome.REDIRECT);
+            outcome = Constants.OUTCOME_FAIL;
+            return Pair.of(RetryDecision.NO_RETRY, Pair.of(outcome, null)); // Unauthorized, no retry
+        } else if (responseCode >= 400 && responseCode < 500) {
+            OUTBOUND_LOG.diagnostic(getInvokeApiActionId(request), Constants.LogConstants.InputKeys.API, endpointURL,
+                    CLIENT_ERROR_RESULT, responseCode, DiagnosticLog.ResultStatus.FAILED);
+            OUTBOUND_LOG.warn(CLIENT_ERROR_LOG, responseCode, endpointURL);
+            metrics.recordOutcome(request, EndpointMetrics.Outcome.CLIENT_ERROR);
+            outcome = Constants.OUTCOME_FAIL;
+            return Pair.of(RetryDecision.NO_RETRY, Pair.of(outcome, null)); // Unauthorized, no retry
+        } else {
+            OUTBOUND_LOG.diagnostic(getInvokeApiActionId(request), Constants.LogConstants.InputKeys.API, endpointURL,
+                    UNKNOWN_RESPONSE_RESULT, responseCode, DiagnosticLog.ResultStatus.FAILED);
+            LOG.error("Received unknown response from external API call. Status code: " +
+                    responseCode + ". Url: " + endpointURL);
+            metrics.recordOutcome(request, EndpointMetrics.Outcome.SERVER_ERROR);
+            outcome = Constants.OUTCOME_FAIL;
+            return Pair.of(RetryDecision.RETRY, Pair.of(outcome, null)); // Server error, retry if attempts left
+        }
+    }
+
+    /**
+     * Classify an error raised while invoking the endpoint and build the outcome.
+     *
+     * @param e           Exception raised while invoking the endpoint or reading the response.
+     * @param request     HttpUriRequest.
+     * @param endpointURL Endpoint URL.
+     * @return Pair of retry decision, outcome and json.
+     */
+    private Pair<RetryDecision, Pair<String, JSONObject>> handleException(Exception e, HttpUriRequest request,
+                                                                          String endpointURL) {
+
         String outcome;
         RetryDecision isRetry = RetryDecision.NO_RETRY;
+        // Log the error based on its type
+        if (e instanceof IllegalArgumentException) {
+            OUTBOUND_LOG.diagnostic(getInvokeApiActionId(request), Constants.LogConstants.InputKeys.API, endpointURL,
+                    INVALID_URL_RESULT, DiagnosticLog.ResultStatus.FAILED);
+            outcome = Constants.OUTCOME_FAIL;
+            LOG.error("Invalid Url: " + endpointURL, e);
+        } else if (e instanceof ConnectTimeoutException || e instanceof SocketTimeoutException ||
+                e instanceof HttpTimeoutException) {
+            OUTBOUND_LOG.diagnostic(getInvokeApiActionId(request), Constants.LogConstants.InputKeys.API, endpointURL,
+                    TIMEOUT_RESULT, DiagnosticLog.ResultStatus.FAILED);
+            isRetry = RetryDecision.RETRY; // Timeout, retry if attempts left
+            outcome = Constants.OUTCOME_TIMEOUT;
+            LOG.error("Error while waiting to connect to " + endpointURL, e);
+        } else if (e instanceof ContentTooLongException) {
+            OUTBOUND_LOG.diagnostic(getInvokeApiActionId(request), Constants.LogConstants.InputKeys.API, endpointURL,
+                    RESPONSE_TOO_LARGE_RESULT, DiagnosticLog.ResultStatus.FAILED);
+            outcome = Constants.OUTCOME_FAIL;
+            LOG.error("Response of the external api exceeds the maximum response size. Url: " + endpointURL + ". " +
+                    e.getMessage());
+        } else if (e instanceof IOException) {
+            outcome = Constants.OUTCOME_FAIL;
+            LOG.error("Error while calling endpoint. ", e);
+        } else if (e instanceof ParseException) {
+            OUTBOUND_LOG.diagnostic(getInvokeApiActionId(request), Constants.LogConstants.InputKeys.API, endpointURL,
+                    PARSE_ERROR_RESULT, DiagnosticLog.ResultStatus.FAILED);
+            outcome = Constants.OUTCOME_FAIL;
+            LOG.error("Error while parsing response. ", e);
+        } else {
+            OUTBOUND_LOG.diagnostic(getInvokeApiActionId(request), Constants.LogConstants.InputKeys.API, endpointURL,
+                    ERROR_RESULT, DiagnosticLog.ResultStatus.FAILED);
+            outcome = Constants.OUTCOME_FAIL;
+            LOG.error("Error while calling endpoint. ", e);
+        }
+        if (Constants.OUTCOME_TIMEOUT.equals(outcome)) {
+            metrics.recordOutcome(request, EndpointMetrics.Outcome.TIMEOUT);
+        } else if (e instanceof ParseException) {
+            metrics.recordOutcome(request, EndpointMetrics.Outcome.PARSE_ERROR);
+        } else {
+            metrics.recordOutcome(request, EndpointMetrics.Outcome.ERROR);
+        }
+        return Pair.of(isRetry, Pair.of(outcome, null));
+    }
 
-        try (CloseableHttpResponse response = client.execute(request)) {
-            int responseCode = response.getStatusLine().getStatusCode();
-            if (responseCode >= 200 && responseCode < 300) {
-                if (response.getEntity() != null) {
-                    Header contentType = response.getEntity().getContentType();
-                    String jsonString = EntityUtils.toString(response.getEntity());
-                    if (contentType != null && contentType.getValue().contains(TYPE_TEXT_PLAIN)) {
-                        json = new JSONObject();
-                        json.put(RESPONSE, jsonString);
-                    } else {
-                        JSONParser parser = new JSONParser();
-                        json = (JSONObject) parser.parse(jsonString);
-                    }
-                }
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getInvokeApiActionId(request));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.API, endpointURL)
-                            .resultMessage("Successfully called the external api. Status code: " + responseCode)
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.SUCCESS);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
-                LOG.info("Successfully called the external api. Status code: " + responseCode + ". Url: " +
-                        endpointURL);
-                outcome = Constants.OUTCOME_SUCCESS;
-                return Pair.of(RetryDecision.NO_RETRY, Pair.of(outcome, json)); // Success, return immediately
-            } else if (responseCode >= 300 && responseCode < 400) {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getInvokeApiActionId(request));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.API, endpointURL)
-                            .resultMessage("External api invocation returned a redirection. Status code: " +
-                                    responseCode)
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
-                LOG.warn("External api invocation returned a redirection. Status code: " +
-                        responseCode + ". Url: " + endpointURL);
-                outcome = Constants.OUTCOME_FAIL;
-                return Pair.of(RetryDecision.NO_RETRY, Pair.of(outcome, null)); // Unauthorized, no retry
-            } else if (responseCode >= 400 && responseCode < 500) {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getInvokeApiActionId(request));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.API, endpointURL)
-                            .resultMessage("External api invocation returned a client error. Status code: " +
-                                    responseCode)
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
+    /**
+     * Look up the response cache for the request. If a stale response is cached, the request is turned into a
+     * conditional request so that the origin can confirm the cached response instead of sending it again.
+     *
+     * @param request      HttpUriRequest.
+     * @param fingerprint  Fingerprint of the request.
+     * @param tenantDomain Tenant domain.
+     * @param options      Options of the call.
+     * @return Response cache state of the request or null if the response of the request is not cached.
+     */
+    private ResponseCacheState getResponseCacheState(HttpUriRequest request, String fingerprint,
+                                                     String tenantDomain, HTTPRequestOptions options) {
+
+        if (!responseCache.isEnabled() || !options.isCacheEnabled() ||
+                !HttpGet.METHOD_NAME.equals(request.getMethod())) {
+            return null;
+        }
+        String cacheKey = fingerprint;
+        CachedResponse cachedResponse = responseCache.get(tenantDomain, cacheKey);
+        if (cachedResponse != null && cachedResponse.isFresh()) {
+            responseCache.recordHit();
+        } else {
+            responseCache.recordMiss();
+            if (cachedResponse != null) {
+                if (cachedResponse.getEtag() != null) {
+                    request.setHeader(HttpHeaders.IF_NONE_MATCH, cachedResponse.getEtag());
                 }
-                LOG.warn("External api invocation returned a client error. Status code: " +
-                        responseCode + ". Url: " + endpointURL);
-                outcome = Constants.OUTCOME_FAIL;
-                return Pair.of(RetryDecision.NO_RETRY, Pair.of(outcome, null)); // Unauthorized, no retry
-            } else {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getInvokeApiActionId(request));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.API, endpointURL)
-                            .resultMessage("Received unknown response from external API call. Status code: " +
-                                    responseCode)
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
+                if (cachedResponse.getLastModified() != null) {
+                    request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cachedResponse.getLastModified());
                 }
-                LOG.error("Received unknown response from external API call. Status code: " +
-                        responseCode + ". Url: " + endpointURL);
-                outcome = Constants.OUTCOME_FAIL;
-                return Pair.of(RetryDecision.RETRY, Pair.of(outcome, null)); // Server error, retry if attempts left
             }
-        } catch (Exception e) {
-            // Log the error based on its type
-            if (e instanceof IllegalArgumentException) {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getInvokeApiActionId(request));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.API, endpointURL)
-                            .resultMessage("Invalid Url for external API call.")
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
-                outcome = Constants.OUTCOME_FAIL;
-                LOG.error("Invalid Url: " + endpointURL, e);
-            } else if (e instanceof ConnectTimeoutException || e instanceof SocketTimeoutException) {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getInvokeApiActionId(request));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.API, endpointURL)
-                            .resultMessage("Request for the external API timed out.")
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
-                isRetry = RetryDecision.RETRY; // Timeout, retry if attempts left
-                outcome = Constants.OUTCOME_TIMEOUT;
-                LOG.error("Error while waiting to connect to " + endpointURL, e);
-            } else if (e instanceof IOException) {
-                outcome = Constants.OUTCOME_FAIL;
-                LOG.error("Error while calling endpoint. ", e);
-            } else if (e instanceof ParseException) {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getInvokeApiActionId(request));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.API, endpointURL)
-                            .resultMessage("Failed to parse the response from the external API.")
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
-                outcome = Constants.OUTCOME_FAIL;
-                LOG.error("Error while parsing response. ", e);
-            } else {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getInvokeApiActionId(request));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.API, endpointURL)
-                            .resultMessage("Received an error while invoking the external API.")
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
+        }
+        return new ResponseCacheState(tenantDomain, cacheKey, cachedResponse, options.getCacheTtl());
+    }
+
+    /**
+     * Serve the cached response, even though it is stale, if the external api could not be invoked successfully
+     * and the cached response is within its stale-if-error window.
+     *
+     * @param result      Result of the invocation.
+     * @param endpointURL Endpoint URL.
+     * @param cacheState  Response cache state of the request or null if the response is not cached.
+     * @return Result to be returned to the authentication flow.
+     */
+    private Pair<RetryDecision, Pair<String, JSONObject>> applyStaleIfError(
+            Pair<RetryDecision, Pair<String, JSONObject>> result, String endpointURL, ResponseCacheState cacheState) {
+
+        if (cacheState == null || cacheState.cachedResponse == null ||
+                Constants.OUTCOME_SUCCESS.equals(result.getRight().getLeft()) ||
+                !cacheState.cachedResponse.isUsableOnError()) {
+            return result;
+        }
+        JSONObject json = parseCachedResponse(cacheState.cachedResponse);
+        if (json == null) {
+            return result;
+        }
+        responseCache.recordStaleHit();
+        LOG.warn("Failed to invoke the external api. Serving the stale cached response. Url: " + endpointURL);
+        return Pair.of(RetryDecision.NO_RETRY, Pair.of(Constants.OUTCOME_SUCCESS, json));
+    }
+
+    private JSONObject parseCachedResponse(CachedResponse cachedResponse) {
+
+        if (cachedResponse == null) {
+            return null;
+        }
+        try {
+            return (JSONObject) new JSONParser().parse(cachedResponse.getBody());
+        } catch (ParseException | ClassCastException e) {
+            LOG.error("Error while parsing the cached response.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Response cache lookup of a request, kept until the outcome of the request is decided.
+     */
+    private static class ResponseCacheState {
+
+        private final String tenantDomain;
+        private final String cacheKey;
+        private final CachedResponse cachedResponse;
+        private final long ttl;
+
+        ResponseCacheState(String tenantDomain, String cacheKey, CachedResponse cachedResponse, long ttl) {
+
+            this.tenantDomain = tenantDomain;
+            this.cacheKey = cacheKey;
+            this.cachedResponse = cachedResponse;
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * Completion callback used in the non-blocking mode. The response is classified with the same rules as the
+     * blocking mode and the request is re-issued from the callback while retries are left, so no thread waits on
+     * the endpoint in between. Hedgeable requests are sent a second time if the response is slow, see
+     * {@link HedgingPolicy}.
+     */
+    private class NonBlockingRequestCallback implements FutureCallback<HttpResponse> {
+
+        private final HttpUriRequest request;
+        private final String endpointURL;
+        private final ResponseCacheState cacheState;
+        private final CircuitBreaker circuitBreaker;
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final HTTPTransport transport;
+        private final HTTPRequestOptions options;
+        private final int maxRetries;
+        private final BiConsumer<String, JSONObject> completion;
+        private final String endpoint;
+        private final boolean hedgeable;
+        private final AtomicInteger attempts = new AtomicInteger(0);
+        private volatile long startTime;
+
+        NonBlockingRequestCallback(HttpUriRequest request, String endpointURL, ResponseCacheState cacheState,
+                                   CircuitBreaker circuitBreaker, HTTPTransport transport,
+                                   HTTPRequestOptions options, int maxRetries,
+                                   BiConsumer<String, JSONObject> completion) {
+
+            this.request = request;
+            this.endpointURL = endpointURL;
+            this.cacheState = cacheState;
+            this.circuitBreaker = circuitBreaker;
+            this.transport = transport;
+            this.options = options;
+            this.maxRetries = maxRetries;
+            this.completion = completion;
+            this.endpoint = CommonUtils.getEndpointKey(request.getURI());
+            this.limiter = concurrencyLimiterRegistry.getLimiter(endpoint);
+            this.hedgeable = hedgingPolicy.isHedgeable(request.getMethod(), options.getHedgingEnabled());
+        }
+
+        /**
+         * Send the request, unless it is aborted or the concurrency limiter or the circuit breaker of the endpoint
+         * rejects it.
+         */
+        void execute() {
+
+            if (request.isAborted()) {
+                complete(abortedRequest(endpointURL));
+                return;
+            }
+            if (limiter != null && !limiter.tryAcquire()) {
+                complete(rejectOverLimitRequest(request, endpointURL));
+                return;
+            }
+            if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+                if (limiter != null) {
+                    limiter.onIgnore();
                 }
-                outcome = Constants.OUTCOME_FAIL;
-                LOG.error("Error while calling endpoint. ", e);
+                complete(rejectRequest(request, endpointURL));
+                return;
+            }
+            startTime = System.nanoTime();
+            try {
+                new Attempt(hedgeable ? hedgingPolicy.onRequest(endpoint) : -1).start();
+            } catch (RuntimeException e) {
+                recordCallResult(request, circuitBreaker, limiter, true, startTime);
+                throw e;
             }
         }
-        // Return the outcome and json (which might be null if never successful)
-        return Pair.of(isRetry, Pair.of(outcome, json));
-    }
 
-    private boolean isValidRequestDomain(URI url) {
+        @Override
+        public void completed(HttpResponse response) {
 
-        if (url == null) {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Provided url for domain restriction checking is null");
+            recordCallResult(request, circuitBreaker, limiter, isServerError(response), startTime);
+            Pair<RetryDecision, Pair<String, JSONObject>> result;
+            try {
+                result = handleResponse(response, request, endpointURL, cacheState, options);
+            } catch (Exception e) {
+                result = handleException(e, request, endpointURL);
+            } finally {
+                EntityUtils.consumeQuietly(response.getEntity());
             }
-            return false;
+            onResult(result);
         }
 
-        if (allowedDomains.isEmpty()) {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("No domains configured for domain restriction. Allowing url by default. Url: "
-                        + url.toString());
+        @Override
+        public void failed(Exception e) {
+
+            if (request.isAborted()) {
+                // Cancelling the exchange of an aborted request may fail it instead, depending on the transport.
+                cancelled();
+                return;
             }
-            return true;
+            recordCallResult(request, circuitBreaker, limiter, isEndpointFailure(e), startTime);
+            onResult(handleException(e, request, endpointURL));
         }
 
-        String domain = getParentDomainFromUrl(url);
-        if (StringUtils.isEmpty(domain)) {
-            LOG.error("Unable to determine the domain of the url: " + url.toString());
-            return false;
+        @Override
+        public void cancelled() {
+
+            if (limiter != null) {
+                limiter.onIgnore();
+            }
+            if (request.isAborted()) {
+                abortedRequest(endpointURL);
+            } else {
+                LOG.error("Request to the external api was cancelled. Url: " + endpointURL);
+            }
+            completion.accept(Constants.OUTCOME_FAIL, null);
         }
 
-        if (allowedDomains.contains(domain)) {
-            return true;
+        private void onResult(Pair<RetryDecision, Pair<String, JSONObject>> result) {
+
+            if (result.getLeft().shouldRetry() && !request.isAborted()) {
+                int attempt = attempts.incrementAndGet();
+                if (attempt <= maxRetries && retryPolicy.tryAcquireRetry(endpoint)) {
+                    logRetryAttempt(request, endpointURL, maxRetries, attempt);
+                    Pair<RetryDecision, Pair<String, JSONObject>> failedResult = result;
+                    try {
+                        // The retry is sent from the scheduler once the backoff delay elapses.
+                        retryPolicy.scheduleRetry(attempt, () -> retry(failedResult));
+                        return;
+                    } catch (Exception e) {
+                        LOG.error("Error while retrying the request for endpoint: " + endpointURL, e);
+                    }
+                }
+            }
+            complete(result);
         }
 
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Domain: " + domain + " extracted from url: " + url.toString() + " is not available in the " +
-                    "allowed domain list: " + StringUtils.join(allowedDomains, ','));
+        private void retry(Pair<RetryDecision, Pair<String, JSONObject>> failedResult) {
+
+            try {
+                execute();
+            } catch (Exception e) {
+                LOG.error("Error while retrying the request for endpoint: " + endpointURL, e);
+                complete(failedResult);
+            }
         }
 
-        return false;
-    }
+        private void complete(Pair<RetryDecision, Pair<String, JSONObject>> result) {
+
+            result = applyStaleIfError(result, endpointURL, cacheState);
+            completion.accept(result.getRight().getLeft(), result.getRight().getRight());
+        }
 
-    private String getParentDomainFromUrl(URI url) {
+        /**
+         * Single attempt of the request, made of the original request and its hedged request if one is sent. The
+         * first response completes the attempt and the other request is cancelled. An error completes the attempt
+         * only once no other request of it is in flight.
+         */
+        private class Attempt {
 
-        String parentDomain = null;
-        String domain = url.getHost();
-        String[] domainArr;
-        if (domain != null) {
-            domainArr = StringUtils.split(domain, DOMAIN_SEPARATOR);
-            if (domainArr.length != 0) {
-                parentDomain = domainArr.length == 1 ? domainArr[0] : domainArr[domainArr.length - 2];
-                parentDomain = parentDomain.toLowerCase();
+            private final long hedgingDelay;
+            private final List<Future<?>> exchanges = new ArrayList<>(2);
+            private ScheduledFuture<?> hedgeTask;
+            private int pendingRequests;
+            private boolean decided;
+            private boolean hedgePermit;
+
+            /**
+             * @param hedgingDelay Time to wait for the response before hedging, or -1 to not hedge the request.
+             */
+            Attempt(long hedgingDelay) {
+
+                this.hedgingDelay = hedgingDelay;
             }
-        }
 
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Parent domain: " + parentDomain + " extracted from url: " + url.toString());
+            synchronized void start() {
+
+                send(request, false);
+                if (request instanceof HttpExecutionAware) {
+                    // Aborting the request cancels the exchanges of the attempt.
+                    ((HttpExecutionAware) request).setCancellable(this::cancel);
+                }
+                if (request.isAborted()) {
+                    // The request was aborted before the cancellable was set, hence it was not notified.
+                    cancel();
+                }
+                if (hedgingDelay >= 0 && !decided) {
+                    hedgeTask = hedgingPolicy.scheduleHedge(this::hedge, hedgingDelay);
+                }
+            }
+
+            private synchronized void hedge() {
+
+                // The hedge shares the circuit breaker permission of the original request, as only one result is
+                // recorded for the attempt, hence it is sent only while the breaker is closed.
+                if (decided || (circuitBreaker != null && circuitBreaker.getState() != CircuitBreaker.State.CLOSED)) {
+                    return;
+                }
+                // The hedge is another call in flight to the endpoint, so it needs a permit of its own.
+                if (limiter != null && !limiter.tryAcquire()) {
+                    return;
+                }
+                hedgePermit = limiter != null;
+                if (!hedgingPolicy.tryAcquireHedge(endpoint)) {
+                    releaseHedgePermit();
+                    return;
+                }
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Response of the external api is slow. Sending a hedged request. Url: " + endpointURL);
+                }
+                HttpGet hedgedRequest = copyGetRequest(request);
+                try {
+                    send(hedgedRequest, true);
+                } catch (RuntimeException e) {
+                    pendingRequests--;
+                    releaseHedgePermit();
+                    LOG.error("Error while sending the hedged request to the external api. Url: " + endpointURL, e);
+                }
+            }
+
+            /**
+             * Release the concurrency limiter permit of the hedged request without recording a result, as the result
+             * of the attempt is recorded against the permit of the original request.
+             */
+            private void releaseHedgePermit() {
+
+                if (hedgePermit) {
+                    hedgePermit = false;
+                    limiter.onIgnore();
+                }
+            }
+
+            private void send(HttpUriRequest attemptRequest, boolean hedged) {
+
+                pendingRequests++;
+                long sentTime = System.currentTimeMillis();
+                exchanges.add(transport.execute(attemptRequest, maxResponseSize, new FutureCallback<HttpResponse>() {
+
+                    @Override
+                    public void completed(HttpResponse response) {
+
+                        if (onResponse(hedged)) {
+                            hedgingPolicy.recordLatency(endpoint, System.currentTimeMillis() - sentTime);
+                            NonBlockingRequestCallback.this.completed(response);
+                        } else {
+                            EntityUtils.consumeQuietly(response.getEntity());
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+
+                        if (onError()) {
+                            NonBlockingRequestCallback.this.failed(e);
+                        }
+                    }
+
+                    @Override
+                    public void cancelled() {
+
+                        if (onError()) {
+                            NonBlockingRequestCallback.this.cancelled();
+                        }
+                    }
+                }));
+            }
+
+            private synchronized boolean onResponse(boolean hedged) {
+
+                if (decided) {
+                    return false;
+                }
+                decided = true;
+                releaseHedgePermit();
+                if (hedged) {
+                    hedgingPolicy.recordHedgeWin();
+                }
+                // Cancel the request which lost, it is the one still in flight.
+                if (hedgeTask != null) {
+                    hedgeTask.cancel(false);
+                }
+                for (Future<?> exchange : exchanges) {
+                    exchange.cancel(true);
+                }
+                return true;
+            }
+
+            /**
+             * Cancel the exchanges of the attempt, as the request was aborted. The attempt is completed from the
+             * cancellation callbacks of the exchanges.
+             *
+             * @return True if the attempt was not decided yet.
+             */
+            private synchronized boolean cancel() {
+
+                if (decided) {
+                    return false;
+                }
+                if (hedgeTask != null) {
+                    hedgeTask.cancel(false);
+                }
+                for (Future<?> exchange : exchanges) {
+                    exchange.cancel(true);
+                }
+                return true;
+            }
+
+            private synchronized boolean onError() {
+
+                if (decided || --pendingRequests > 0) {
+                    return false;
+                }
+                decided = true;
+                releaseHedgePermit();
+                if (hedgeTask != null) {
+                    hedgeTask.cancel(false);
+                }
+                return true;
+            }
         }
-        return parentDomain;
     }
 
     /**
@@ -419,6 +1327,29 @@ public abstract class AbstractHTTPFunction {
                 .forEach(entry -> request.setHeader(entry.getKey(), entry.getValue()));
     }
 
+    /**
+     * Set the payload to the request body in the format of the given content type.
+     *
+     * @param request     Request to set the body to.
+     * @param payloadData Payload data, nothing is set if empty.
+     * @param contentType Content type of the request.
+     */
+    protected void setPayload(HttpEntityEnclosingRequestBase request, Map<String, Object> payloadData,
+                              String contentType) {
+
+        if (MapUtils.isNotEmpty(payloadData)) {
+            /*
+            For the header "Content-Type : application/x-www-form-urlencoded" request body data is set as url encoded
+            form fields. For the other cases request body data is set as json.
+             */
+            if (TYPE_APPLICATION_FORM_URLENCODED.equals(contentType)) {
+                request.setEntity(PayloadSerializer.getInstance().toFormEntity(payloadData));
+            } else {
+                request.setEntity(PayloadSerializer.getInstance().toJsonEntity(payloadData));
+            }
+        }
+    }
+
     /**
      * Get AuthConfigModel from the map.
      *
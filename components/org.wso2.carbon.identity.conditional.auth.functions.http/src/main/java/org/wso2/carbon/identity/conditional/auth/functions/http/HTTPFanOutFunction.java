@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http;
+
+/**
+ * Function to call several http endpoints concurrently and join their responses.
+ */
+@FunctionalInterface
+public interface HTTPFanOutFunction {
+
+    /**
+     * Send the given requests concurrently and join their results into a single map keyed by the request name.
+     * E.g. httpFanOut([{name: "risk", url: "https://risk.example.com/score"}, {name: "geo", url: ..}],
+     * {mode: "all", timeout: 2000}, eventHandlers)
+     *
+     * @param requests Array of requests. Each request has a unique name, a url and optionally a method (GET or POST),
+     *                 headers, body, authConfig and options as in httpGet and httpPost. Instead of the url, a
+     *                 request may give the name of an endpoint profile and the path to call on it as profile and
+     *                 path, in which case the credentials of the profile are used.
+     * @param params   Parameters.
+     *      1. options          mode (all, any or quorum), quorum and timeout in milliseconds (optional).
+     *      2. eventHandlers    event handlers.
+     */
+    void httpFanOut(Object requests, Object... params);
+}
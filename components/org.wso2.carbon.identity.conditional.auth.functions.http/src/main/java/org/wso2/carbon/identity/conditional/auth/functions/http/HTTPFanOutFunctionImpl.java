@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.graalvm.polyglot.HostAccess;
+import org.json.simple.JSONObject;
+import org.wso2.carbon.identity.application.authentication.framework.AsyncProcess;
+import org.wso2.carbon.identity.application.authentication.framework.AsyncReturn;
+import org.wso2.carbon.identity.application.authentication.framework.config.model.graph.JsGraphBuilder;
+import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
+import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
+import org.wso2.carbon.identity.conditional.auth.functions.common.model.JsUtilsProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.common.scheduler.OutboundScheduler;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
+import org.wso2.carbon.identity.conditional.auth.functions.http.fanout.FanOutJoin;
+import org.wso2.carbon.identity.conditional.auth.functions.http.fanout.FanOutMode;
+import org.wso2.carbon.identity.conditional.auth.functions.http.profile.EndpointProfile;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.AuthConfigModel;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.HTTPRequestOptions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.apache.http.HttpHeaders.CONTENT_TYPE;
+
+/**
+ * Implementation of the {@link HTTPFanOutFunction}. The requests are sent concurrently through the same pipeline as
+ * httpGet and httpPost, hence the response cache, coalescing, circuit breakers and retries apply to each of them,
+ * and the flow waits for the slowest request needed to decide the outcome instead of the sum of all of them.
+ */
+public class HTTPFanOutFunctionImpl extends AbstractHTTPFunction implements HTTPFanOutFunction {
+
+    private static final Log LOG = LogFactory.getLog(HTTPFanOutFunctionImpl.class);
+
+    public static final String NAME = "name";
+    public static final String URL = "url";
+    public static final String PROFILE = "profile";
+    public static final String PATH = "path";
+    public static final String METHOD = "method";
+    public static final String HEADERS = "headers";
+    public static final String BODY = "body";
+    public static final String AUTH_CONFIG = "authConfig";
+    public static final String OPTIONS = "options";
+    public static final String MODE = "mode";
+    public static final String QUORUM = "quorum";
+    public static final String TIMEOUT = "timeout";
+
+    // Auth configs fail the flow through the async return on errors. A failed request must not end the fan out,
+    // as the error is also reported to the completion of the request.
+    private static final AsyncReturn REQUEST_RETURN = (context, data, outcome) -> {
+    };
+
+    private final int defaultTimeout;
+    private final int maxRequests;
+
+    public HTTPFanOutFunctionImpl() {
+
+        super();
+        defaultTimeout = ConfigProvider.getInstance().getHttpFunctionFanOutTimeout();
+        maxRequests = ConfigProvider.getInstance().getHttpFunctionFanOutMaxRequests();
+    }
+
+    private static class FanOutExecutorHolder {
+
+        static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-functions-fan-out-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Sends the requests of the endpoints whose transport blocks the calling thread. The queue is bounded, hence
+        // requests fail fast once a slow endpoint holds all the threads instead of piling up without limit.
+        static final ExecutorService EXECUTOR = createExecutor(ConfigProvider.getInstance()
+                .getHttpFunctionFanOutThreadPoolSize(), ConfigProvider.getInstance().getHttpFunctionFanOutQueueSize());
+
+        private static ExecutorService createExecutor(int poolSize, int queueSize) {
+
+            AtomicInteger threadCount = new AtomicInteger();
+            BlockingQueue<Runnable> queue = queueSize > 0 ? new LinkedBlockingQueue<>(queueSize) :
+                    new SynchronousQueue<>();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                    queue, runnable -> {
+                Thread thread = new Thread(runnable, "http-functions-fan-out-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    @Override
+    @HostAccess.Export
+    public void httpFanOut(Object requests, Object... params) {
+
+        Map<String, Object> eventHandlers;
+        Map<String, Object> fanOutOptions = Collections.emptyMap();
+
+        switch (params.length) {
+            case 1:
+                if (params[0] instanceof Map) {
+                    eventHandlers = (Map<String, Object>) params[0];
+                } else {
+                    throw new IllegalArgumentException("Invalid argument type. Expected eventHandlers " +
+                            "(Map<String, Object>).");
+                }
+                break;
+            case 2:
+                if ((params[0] == null || params[0] instanceof Map) && params[1] instanceof Map) {
+                    if (params[0] != null) {
+                        fanOutOptions = (Map<String, Object>) params[0];
+                    }
+                    eventHandlers = (Map<String, Object>) params[1];
+                } else {
+                    throw new IllegalArgumentException("Invalid argument types. Expected options " +
+                            "(Map<String, Object> or null) and eventHandlers (Map<String, Object>) respectively.");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid number of arguments. Expected 1 or 2, but got: " +
+                        params.length + ".");
+        }
+
+        List<FanOutRequest> fanOutRequests = getFanOutRequests(requests);
+        FanOutMode mode = fanOutOptions.get(MODE) != null ? FanOutMode.fromName(fanOutOptions.get(MODE).toString())
+                : FanOutMode.ALL;
+        int quorum = mode == FanOutMode.QUORUM ? (int) getNumberOption(fanOutOptions, QUORUM, -1) : 0;
+        long timeout = getNumberOption(fanOutOptions, TIMEOUT, defaultTimeout);
+        FanOutJoin join = new FanOutJoin(mode, fanOutRequests.size(), quorum);
+
+        // The fan out takes a single slot of the tenant in the outbound scheduler.
+        AsyncProcess asyncProcess = new AsyncProcess((context, asyncReturn) ->
+                OutboundScheduler.getInstance().execute(context, asyncReturn, (callContext, callReturn) ->
+                        execute(fanOutRequests, join, timeout, callContext, callReturn)));
+        JsGraphBuilder.addLongWaitProcess(asyncProcess, new HashMap<>(eventHandlers));
+    }
+
+    private void execute(List<FanOutRequest> fanOutRequests, FanOutJoin join, long timeout,
+                         AuthenticationContext context, AsyncReturn asyncReturn) {
+
+        ScheduledFuture<?> timeoutTask = FanOutExecutorHolder.SCHEDULER.schedule(() -> {
+            if (join.onTimeout()) {
+                LOG.warn("Http fan out timed out after " + timeout + " ms. Received " + join.getResults().size() +
+                        " of " + fanOutRequests.size() + " responses.");
+                abortPendingRequests(fanOutRequests);
+                acceptResult(context, asyncReturn, join);
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+
+        for (FanOutRequest fanOutRequest : fanOutRequests) {
+            if (fanOutRequest.request.isAborted()) {
+                // The outcome was decided by the requests sent earlier.
+                break;
+            }
+            BiConsumer<String, JSONObject> completion = (outcome, json) -> {
+                fanOutRequest.completed = true;
+                if (join.onResult(fanOutRequest.name, outcome, json)) {
+                    timeoutTask.cancel(false);
+                    abortPendingRequests(fanOutRequests);
+                    acceptResult(context, asyncReturn, join);
+                }
+            };
+            Runnable send = () -> {
+                if (!fanOutRequest.request.isAborted()) {
+                    sendRequest(fanOutRequest.request, cloneAuthConfigModel(fanOutRequest.authConfigModel),
+                            fanOutRequest.profile, fanOutRequest.options, context, REQUEST_RETURN, completion);
+                }
+            };
+            if (isNonBlocking(fanOutRequest.request.getURI())) {
+                send.run();
+                continue;
+            }
+            try {
+                fanOutRequest.sendTask = FanOutExecutorHolder.EXECUTOR.submit(send);
+            } catch (RejectedExecutionException e) {
+                LOG.error("Error while sending the fan out request: " + fanOutRequest.name, e);
+                completion.accept(Constants.OUTCOME_FAIL, null);
+            }
+        }
+    }
+
+    /**
+     * Abort the requests whose responses are no longer needed, as the outcome of the fan out is decided, so that
+     * they stop holding connections and fan out threads.
+     *
+     * @param fanOutRequests Requests of the fan out.
+     */
+    private void abortPendingRequests(List<FanOutRequest> fanOutRequests) {
+
+        for (FanOutRequest fanOutRequest : fanOutRequests) {
+            if (!fanOutRequest.completed) {
+                fanOutRequest.abort();
+            }
+        }
+    }
+
+    private void acceptResult(AuthenticationContext context, AsyncReturn asyncReturn, FanOutJoin join) {
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Http fan out completed with the outcome: " + join.getOutcome() + ".");
+        }
+        try {
+            asyncReturn.accept(context, JsUtilsProvider.getInstance().getJsUtils().toResponseView(join.getResults()),
+                    join.getOutcome());
+        } catch (FrameworkException e) {
+            LOG.error("Error while proceeding after the http fan out.", e);
+        }
+    }
+
+    private List<FanOutRequest> getFanOutRequests(Object requests) {
+
+        Collection<?> requestMaps;
+        if (requests instanceof Collection) {
+            requestMaps = (Collection<?>) requests;
+        } else if (requests instanceof Map) {
+            // Script arrays may be received as maps keyed by the index.
+            requestMaps = ((Map<?, ?>) requests).values();
+        } else {
+            throw new IllegalArgumentException("Invalid argument type. Expected requests (array of " +
+                    "Map<String, Object>).");
+        }
+        if (requestMaps.isEmpty() || requestMaps.size() > maxRequests) {
+            throw new IllegalArgumentException("Invalid number of requests: " + requestMaps.size() + ". Expected " +
+                    "1 to " + maxRequests + " requests.");
+        }
+        List<FanOutRequest> fanOutRequests = new ArrayList<>(requestMaps.size());
+        Set<String> names = new HashSet<>();
+        for (Object requestMap : requestMaps) {
+            if (!(requestMap instanceof Map)) {
+                throw new IllegalArgumentException("Invalid request type. Expected Map<String, Object>.");
+            }
+            FanOutRequest fanOutRequest = buildRequest((Map<String, Object>) requestMap);
+            if (!names.add(fanOutRequest.name)) {
+                throw new IllegalArgumentException("Duplicate request name: " + fanOutRequest.name + ".");
+            }
+            fanOutRequests.add(fanOutRequest);
+        }
+        return fanOutRequests;
+    }
+
+    private FanOutRequest buildRequest(Map<String, Object> requestMap) {
+
+        EndpointProfile profile = requestMap.get(PROFILE) instanceof String ?
+                getEndpointProfile((String) requestMap.get(PROFILE)) : null;
+        if (!(requestMap.get(NAME) instanceof String) ||
+                (profile == null && !(requestMap.get(URL) instanceof String))) {
+            throw new IllegalArgumentException("Invalid request. Expected name (String) and url (String) or " +
+                    "profile (String).");
+        }
+        if (profile != null && requestMap.get(PATH) != null && !(requestMap.get(PATH) instanceof String)) {
+            throw new IllegalArgumentException("Invalid path of the request. Expected a String.");
+        }
+        String name = (String) requestMap.get(NAME);
+        String url = profile != null ? profile.resolveUrl((String) requestMap.get(PATH)) :
+                (String) requestMap.get(URL);
+        String method = requestMap.get(METHOD) != null ? requestMap.get(METHOD).toString()
+                .toUpperCase(Locale.ENGLISH) : HttpGet.METHOD_NAME;
+        Map<String, String> headers = new HashMap<>();
+        if (requestMap.get(HEADERS) instanceof Map) {
+            headers.putAll(validateHeaders((Map<String, ?>) requestMap.get(HEADERS)));
+        }
+
+        HttpUriRequest request;
+        if (HttpGet.METHOD_NAME.equals(method)) {
+            request = new HttpGet(url);
+            setHeaders(request, headers);
+        } else if (HttpPost.METHOD_NAME.equals(method)) {
+            HttpPost post = new HttpPost(url);
+            headers.putIfAbsent(CONTENT_TYPE, TYPE_APPLICATION_JSON);
+            setHeaders(post, headers);
+            if (requestMap.get(BODY) instanceof Map) {
+                setPayload(post, (Map<String, Object>) requestMap.get(BODY), headers.get(CONTENT_TYPE));
+            }
+            request = post;
+        } else {
+            throw new IllegalArgumentException("Invalid method of the request: " + name + ". Expected GET or POST.");
+        }
+
+        if (profile != null) {
+            profile.applyRequestConfig(request);
+            HTTPRequestOptions options = requestMap.get(OPTIONS) instanceof Map ?
+                    HTTPRequestOptions.fromMap((Map<String, Object>) requestMap.get(OPTIONS),
+                            profile.getDefaultOptions()) : profile.getDefaultOptions();
+            return new FanOutRequest(name, request, null, profile, options);
+        }
+        AuthConfigModel authConfigModel = requestMap.get(AUTH_CONFIG) instanceof Map ?
+                getAuthConfigModel((Map<String, Object>) requestMap.get(AUTH_CONFIG)) : null;
+        HTTPRequestOptions options = requestMap.get(OPTIONS) instanceof Map ?
+                HTTPRequestOptions.fromMap((Map<String, Object>) requestMap.get(OPTIONS)) :
+                HTTPRequestOptions.defaults();
+        return new FanOutRequest(name, request, authConfigModel, null, options);
+    }
+
+    private long getNumberOption(Map<String, Object> options, String name, long defaultValue) {
+
+        Object value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Number) || ((Number) value).longValue() < 0) {
+            throw new IllegalArgumentException("Invalid value for the option: " + name + ". Expected a non " +
+                    "negative number.");
+        }
+        return ((Number) value).longValue();
+    }
+
+    /**
+     * Request of a fan out call.
+     */
+    private static class FanOutRequest {
+
+        private final String name;
+        private final HttpUriRequest request;
+        private final AuthConfigModel authConfigModel;
+        private final EndpointProfile profile;
+        private final HTTPRequestOptions options;
+        private volatile boolean completed;
+        private volatile Future<?> sendTask;
+
+        FanOutRequest(String name, HttpUriRequest request, AuthConfigModel authConfigModel,
+                      EndpointProfile profile, HTTPRequestOptions options) {
+
+            this.name = name;
+            this.request = request;
+            this.authConfigModel = authConfigModel;
+            this.profile = profile;
+            this.options = options;
+        }
+
+        void abort() {
+
+            request.abort();
+            Future<?> task = sendTask;
+            if (task != null) {
+                // Drops the request if it is still waiting for a thread.
+                task.cancel(false);
+            }
+        }
+    }
+}
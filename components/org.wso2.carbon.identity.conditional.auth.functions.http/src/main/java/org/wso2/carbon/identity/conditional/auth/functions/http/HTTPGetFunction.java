@@ -32,7 +32,13 @@ public interface HTTPGetFunction {
      * @param endpointURL Endpoint url.
      * @param params Parameters.
      *      1. headers          headers (optional).
-     *      2. eventHandlers    event handlers.
+     *      2. authConfig       auth config (optional, may be null when options are given).
+     *      3. options          per call options such as cache and cacheTtl (optional).
+     *      4. eventHandlers    event handlers.
+     *      If the first parameter is a string, the endpoint url is taken as the name of an endpoint profile
+     *      configured on the server and the string as the path appended to the base url of the profile. The
+     *      credentials, timeouts and default options of the profile apply, e.g.
+     *      httpGet('riskApi', '/score?user=' + id, headers (optional), options (optional), eventHandlers).
      */
     void httpGet(String endpointURL, Object... params);
 }
@@ -22,7 +22,9 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.client.methods.HttpGet;
 import org.graalvm.polyglot.HostAccess;
+import org.wso2.carbon.identity.conditional.auth.functions.http.profile.EndpointProfile;
 import org.wso2.carbon.identity.conditional.auth.functions.http.util.AuthConfigModel;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.HTTPRequestOptions;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -43,9 +45,15 @@ public class HTTPGetFunctionImpl extends AbstractHTTPFunction implements HTTPGet
     @HostAccess.Export
     public void httpGet(String endpointURL, Object... params) {
 
+        if (params.length > 0 && params[0] instanceof String) {
+            httpGetFromProfile(getEndpointProfile(endpointURL), (String) params[0], params);
+            return;
+        }
+
         Map<String, Object> eventHandlers;
         Map<String, String> headers = new HashMap<>();
         AuthConfigModel authConfig = null;
+        HTTPRequestOptions options = HTTPRequestOptions.defaults();
 
         switch (params.length) {
             case 1:
@@ -76,14 +84,75 @@ public class HTTPGetFunctionImpl extends AbstractHTTPFunction implements HTTPGet
                             " and eventHandlers (Map<String, Object>) respectively.");
                 }
                 break;
+            case 4:
+                if (params[0] instanceof Map && (params[1] == null || params[1] instanceof Map) &&
+                        params[2] instanceof Map && params[3] instanceof Map) {
+                    headers = validateHeaders((Map<String, ?>) params[0]);
+                    if (params[1] != null) {
+                        authConfig = getAuthConfigModel((Map<String, Object>) params[1]);
+                    }
+                    options = HTTPRequestOptions.fromMap((Map<String, Object>) params[2]);
+                    eventHandlers = (Map<String, Object>) params[3];
+                } else {
+                    throw new IllegalArgumentException("Invalid argument type. Expected " +
+                            "headers (Map<String, String>), authConfig (Map<String, String> or null), " +
+                            "options (Map<String, Object>) and eventHandlers (Map<String, Object>) respectively.");
+                }
+                break;
             default:
-                throw new IllegalArgumentException("Invalid number of arguments. Expected 1, 2 or 3, but got: " +
+                throw new IllegalArgumentException("Invalid number of arguments. Expected 1, 2, 3 or 4, but got: " +
                         params.length + ".");
         }
 
         HttpGet request = new HttpGet(endpointURL);
         setHeaders(request, headers);
 
-        executeHttpMethod(request, eventHandlers, authConfig);
+        executeHttpMethod(request, eventHandlers, authConfig, options);
+    }
+
+    private void httpGetFromProfile(EndpointProfile profile, String path, Object... params) {
+
+        Map<String, Object> eventHandlers;
+        Map<String, String> headers = new HashMap<>();
+        HTTPRequestOptions options = profile.getDefaultOptions();
+
+        switch (params.length) {
+            case 2:
+                if (params[1] instanceof Map) {
+                    eventHandlers = (Map<String, Object>) params[1];
+                } else {
+                    throw new IllegalArgumentException("Invalid argument type. Expected eventHandlers " +
+                            "(Map<String, Object>) after the path.");
+                }
+                break;
+            case 3:
+                if (params[1] instanceof Map && params[2] instanceof Map) {
+                    headers = validateHeaders((Map<String, ?>) params[1]);
+                    eventHandlers = (Map<String, Object>) params[2];
+                } else {
+                    throw new IllegalArgumentException("Invalid argument types. Expected headers " +
+                            "(Map<String, String>) and eventHandlers (Map<String, Object>) after the path.");
+                }
+                break;
+            case 4:
+                if (params[1] instanceof Map && params[2] instanceof Map && params[3] instanceof Map) {
+                    headers = validateHeaders((Map<String, ?>) params[1]);
+                    options = HTTPRequestOptions.fromMap((Map<String, Object>) params[2], options);
+                    eventHandlers = (Map<String, Object>) params[3];
+                } else {
+                    throw new IllegalArgumentException("Invalid argument types. Expected headers " +
+                            "(Map<String, String>), options (Map<String, Object>) and eventHandlers " +
+                            "(Map<String, Object>) after the path.");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid number of arguments for the endpoint profile: " +
+                        profile.getName() + ". Expected 2, 3 or 4, but got: " + params.length + ".");
+        }
+
+        HttpGet request = new HttpGet(profile.resolveUrl(path));
+        setHeaders(request, headers);
+
+        executeHttpMethod(request, eventHandlers, profile, options);
     }
 }
@@ -34,7 +34,12 @@ public interface HTTPPostFunction {
      * @param params parameters.
      *      1. payloadData      payload data.
      *      2. headers          headers (optional).
-     *      3. eventHandlers    event handlers.
+     *      3. authConfig       auth config (optional, may be null when options are given).
+     *      4. options          per call options (optional).
+     *      5. eventHandlers    event handlers.
+     *      If the first parameter is a string, the endpoint url is taken as the name of an endpoint profile
+     *      configured on the server and the string as the path appended to the base url of the profile, e.g.
+     *      httpPost('riskApi', '/events', payloadData, headers (optional), options (optional), eventHandlers).
      */
     void httpPost(String endpointURL, Object... params);
 }
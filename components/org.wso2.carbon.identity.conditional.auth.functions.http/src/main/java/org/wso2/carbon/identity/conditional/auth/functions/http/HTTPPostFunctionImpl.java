@@ -18,26 +18,18 @@
 
 package org.wso2.carbon.identity.conditional.auth.functions.http;
 
-import org.apache.commons.collections.MapUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.NameValuePair;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.message.BasicNameValuePair;
 import org.graalvm.polyglot.HostAccess;
-import org.json.simple.JSONObject;
+import org.wso2.carbon.identity.conditional.auth.functions.http.profile.EndpointProfile;
 import org.wso2.carbon.identity.conditional.auth.functions.http.util.AuthConfigModel;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.HTTPRequestOptions;
 
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import static org.apache.http.HttpHeaders.CONTENT_TYPE;
-import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils.getPayloadDataMap;
 
 /**
  * Implementation of the {@link HTTPPostFunction}
@@ -55,10 +47,16 @@ public class HTTPPostFunctionImpl extends AbstractHTTPFunction implements HTTPPo
     @HostAccess.Export
     public void httpPost(String endpointURL, Object... params) {
 
+        if (params.length > 0 && params[0] instanceof String) {
+            httpPostToProfile(getEndpointProfile(endpointURL), (String) params[0], params);
+            return;
+        }
+
         Map<String, Object> eventHandlers;
         Map<String, Object> payloadData = new HashMap<>();
         Map<String, String> headers = new HashMap<>();
         AuthConfigModel authConfig = null;
+        HTTPRequestOptions options = HTTPRequestOptions.defaults();
 
         switch (params.length) {
             case 1:
@@ -101,8 +99,26 @@ public class HTTPPostFunctionImpl extends AbstractHTTPFunction implements HTTPPo
                             " and eventHandlers (Map<String, Object>) respectively.");
                 }
                 break;
+            case 5:
+                if (params[0] instanceof Map && params[1] instanceof Map &&
+                        (params[2] == null || params[2] instanceof Map) && params[3] instanceof Map &&
+                        params[4] instanceof Map) {
+                    payloadData = (Map<String, Object>) params[0];
+                    headers = validateHeaders((Map<String, ?>) params[1]);
+                    if (params[2] != null) {
+                        authConfig = getAuthConfigModel((Map<String, Object>) params[2]);
+                    }
+                    options = HTTPRequestOptions.fromMap((Map<String, Object>) params[3]);
+                    eventHandlers = (Map<String, Object>) params[4];
+                }  else {
+                    throw new IllegalArgumentException("Invalid argument type. Expected payloadData " +
+                            "(Map<String, Object>), headers (Map<String, String>), authConfig (Map<String, String> " +
+                            "or null), options (Map<String, Object>) and eventHandlers (Map<String, Object>) " +
+                            "respectively.");
+                }
+                break;
             default:
-                throw new IllegalArgumentException("Invalid number of arguments. Expected 1, 2, 3, or 4. Found: "
+                throw new IllegalArgumentException("Invalid number of arguments. Expected 1, 2, 3, 4 or 5. Found: "
                         + params.length + ".");
         }
 
@@ -110,27 +126,63 @@ public class HTTPPostFunctionImpl extends AbstractHTTPFunction implements HTTPPo
         headers.putIfAbsent(CONTENT_TYPE, TYPE_APPLICATION_JSON);
         setHeaders(request, headers);
 
-        if (MapUtils.isNotEmpty(payloadData)) {
-
-            Map<String, Object> payloadDataMap = getPayloadDataMap(payloadData);
-            /*
-            For the header "Content-Type : application/x-www-form-urlencoded" request body data is set to
-            UrlEncodedFormEntity format. For the other cases request body data is set to StringEntity format.
-             */
-            if (TYPE_APPLICATION_FORM_URLENCODED.equals(headers.get(CONTENT_TYPE))) {
-                List<NameValuePair> entities = new ArrayList<>();
-                for (Map.Entry<String, Object> dataElements : payloadDataMap.entrySet()) {
-                    String value = (dataElements.getValue() != null) ? dataElements.getValue().toString() : null;
-                    entities.add(new BasicNameValuePair(dataElements.getKey(), value));
+        setPayload(request, payloadData, headers.get(CONTENT_TYPE));
+
+        executeHttpMethod(request, eventHandlers, authConfig, options);
+    }
+
+    private void httpPostToProfile(EndpointProfile profile, String path, Object... params) {
+
+        Map<String, Object> eventHandlers;
+        Map<String, Object> payloadData;
+        Map<String, String> headers = new HashMap<>();
+        HTTPRequestOptions options = profile.getDefaultOptions();
+
+        switch (params.length) {
+            case 3:
+                if (params[1] instanceof Map && params[2] instanceof Map) {
+                    payloadData = (Map<String, Object>) params[1];
+                    eventHandlers = (Map<String, Object>) params[2];
+                } else {
+                    throw new IllegalArgumentException("Invalid argument types. Expected payloadData and " +
+                            "eventHandlers (both of type Map<String, Object>) after the path.");
+                }
+                break;
+            case 4:
+                if (params[1] instanceof Map && params[2] instanceof Map && params[3] instanceof Map) {
+                    payloadData = (Map<String, Object>) params[1];
+                    headers = validateHeaders((Map<String, ?>) params[2]);
+                    eventHandlers = (Map<String, Object>) params[3];
+                } else {
+                    throw new IllegalArgumentException("Invalid argument types. Expected payloadData " +
+                            "(Map<String, Object>), headers (Map<String, String>) and eventHandlers " +
+                            "(Map<String, Object>) after the path.");
+                }
+                break;
+            case 5:
+                if (params[1] instanceof Map && params[2] instanceof Map && params[3] instanceof Map &&
+                        params[4] instanceof Map) {
+                    payloadData = (Map<String, Object>) params[1];
+                    headers = validateHeaders((Map<String, ?>) params[2]);
+                    options = HTTPRequestOptions.fromMap((Map<String, Object>) params[3], options);
+                    eventHandlers = (Map<String, Object>) params[4];
+                } else {
+                    throw new IllegalArgumentException("Invalid argument types. Expected payloadData " +
+                            "(Map<String, Object>), headers (Map<String, String>), options (Map<String, Object>) " +
+                            "and eventHandlers (Map<String, Object>) after the path.");
                 }
-                request.setEntity(new UrlEncodedFormEntity(entities, StandardCharsets.UTF_8));
-            } else {
-                JSONObject jsonObject = new JSONObject();
-                jsonObject.putAll(payloadDataMap);
-                request.setEntity(new StringEntity(jsonObject.toJSONString(), StandardCharsets.UTF_8));
-            }
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid number of arguments for the endpoint profile: " +
+                        profile.getName() + ". Expected 3, 4 or 5, but got: " + params.length + ".");
         }
 
-        executeHttpMethod(request, eventHandlers, authConfig);
+        HttpPost request = new HttpPost(profile.resolveUrl(path));
+        headers.putIfAbsent(CONTENT_TYPE, TYPE_APPLICATION_JSON);
+        setHeaders(request, headers);
+
+        setPayload(request, payloadData, headers.get(CONTENT_TYPE));
+
+        executeHttpMethod(request, eventHandlers, profile, options);
     }
 }
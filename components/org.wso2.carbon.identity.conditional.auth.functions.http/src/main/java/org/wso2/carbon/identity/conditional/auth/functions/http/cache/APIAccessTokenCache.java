@@ -20,9 +20,10 @@ package org.wso2.carbon.identity.conditional.auth.functions.http.cache;
 import org.wso2.carbon.identity.core.cache.BaseCache;
 
 /**
- * The cache implementation which stores the access tokens received from API.
+ * The cache implementation which stores the access tokens received from API along with their expiry.
+ * Entries are keyed by the token endpoint, consumer key and requested scopes.
  */
-public class APIAccessTokenCache extends BaseCache<String, String> {
+public class APIAccessTokenCache extends BaseCache<String, AccessTokenRecord> {
 
     private static final String ACCESS_TOKEN_CACHE_NAME = "APIAccessTokenCache";
 
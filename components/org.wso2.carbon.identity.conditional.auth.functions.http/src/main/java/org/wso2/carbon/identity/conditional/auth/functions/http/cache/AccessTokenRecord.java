@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.cache;
+
+import java.io.Serializable;
+
+/**
+ * Access token stored in the {@link APIAccessTokenCache} along with its absolute expiry time, so that the validity
+ * of a cached token can be decided without parsing it again.
+ */
+public class AccessTokenRecord implements Serializable {
+
+    private static final long serialVersionUID = -3152783612463517921L;
+
+    private final String accessToken;
+    private final long expiresAt;
+
+    /**
+     * @param accessToken Access token.
+     * @param expiresAt   Absolute expiry time of the token in epoch milliseconds.
+     */
+    public AccessTokenRecord(String accessToken, long expiresAt) {
+
+        this.accessToken = accessToken;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getAccessToken() {
+
+        return accessToken;
+    }
+
+    public long getExpiresAt() {
+
+        return expiresAt;
+    }
+
+    /**
+     * Check whether the token is expired or will expire within the given skew.
+     *
+     * @param skewMillis Safety margin in milliseconds applied before the actual expiry.
+     * @return True if the token should not be used anymore.
+     */
+    public boolean isExpired(long skewMillis) {
+
+        return System.currentTimeMillis() + skewMillis >= expiresAt;
+    }
+
+    @Override
+    public String toString() {
+
+        // Never expose the token itself through logs.
+        return "AccessTokenRecord{expiresAt=" + expiresAt + "}";
+    }
+}
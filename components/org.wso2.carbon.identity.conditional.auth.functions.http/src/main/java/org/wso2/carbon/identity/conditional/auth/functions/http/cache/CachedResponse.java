@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.cache;
+
+/**
+ * Response of an external api stored in the {@link HTTPResponseCache}.
+ */
+public class CachedResponse {
+
+    private final String body;
+    private final long expiresAt;
+    private final long staleIfErrorUntil;
+    private final String etag;
+    private final String lastModified;
+
+    /**
+     * @param body              Response body serialized as a json string.
+     * @param expiresAt         Time in epoch milliseconds until which the response is fresh.
+     * @param staleIfErrorUntil Time in epoch milliseconds until which the response can be served when the origin
+     *                          is failing.
+     * @param etag              ETag of the response, if any.
+     * @param lastModified      Last-Modified value of the response, if any.
+     */
+    public CachedResponse(String body, long expiresAt, long staleIfErrorUntil, String etag, String lastModified) {
+
+        this.body = body;
+        this.expiresAt = expiresAt;
+        this.staleIfErrorUntil = staleIfErrorUntil;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public String getBody() {
+
+        return body;
+    }
+
+    public long getExpiresAt() {
+
+        return expiresAt;
+    }
+
+    public String getEtag() {
+
+        return etag;
+    }
+
+    public String getLastModified() {
+
+        return lastModified;
+    }
+
+    /**
+     * Check whether the response can be served without contacting the origin.
+     *
+     * @return True if the response is fresh.
+     */
+    public boolean isFresh() {
+
+        return System.currentTimeMillis() < expiresAt;
+    }
+
+    /**
+     * Check whether the response can be served when the origin is failing.
+     *
+     * @return True if the response is within its stale-if-error window.
+     */
+    public boolean isUsableOnError() {
+
+        return System.currentTimeMillis() < staleIfErrorUntil;
+    }
+
+    /**
+     * Check whether the response can be revalidated with a conditional request.
+     *
+     * @return True if the response has an ETag or a Last-Modified value.
+     */
+    public boolean hasValidator() {
+
+        return etag != null || lastModified != null;
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.cache;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.utils.DateUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, tenant scoped cache of the responses received by the httpGet function.
+ * Freshness is decided from the Cache-Control and Expires headers of the response unless a ttl is given for the
+ * call. Responses marked no-store or private are never stored. Stale responses with an ETag or Last-Modified
+ * value are revalidated with a conditional request and may be served when the origin is failing, within the
+ * stale-if-error window.
+ */
+public class HTTPResponseCache {
+
+    private static final Log LOG = LogFactory.getLog(HTTPResponseCache.class);
+    private static final String NO_STORE = "no-store";
+    private static final String NO_CACHE = "no-cache";
+    private static final String PRIVATE = "private";
+    private static final String MAX_AGE = "max-age";
+    private static final String S_MAX_AGE = "s-maxage";
+    private static final String STALE_IF_ERROR = "stale-if-error";
+    private static final String VARY_ALL = "*";
+
+    private final boolean enabled;
+    private final int maxEntriesPerTenant;
+    private final long maxStaleIfError;
+    private final Map<String, Map<String, CachedResponse>> tenantCaches = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong revalidationCount = new AtomicLong();
+    private final AtomicLong staleHitCount = new AtomicLong();
+
+    private HTTPResponseCache() {
+
+        ConfigProvider configProvider = ConfigProvider.getInstance();
+        enabled = configProvider.isHttpFunctionResponseCacheEnabled();
+        maxEntriesPerTenant = configProvider.getHttpFunctionResponseCacheMaxEntries();
+        maxStaleIfError = configProvider.getHttpFunctionResponseCacheMaxStaleIfError();
+    }
+
+    private static class HTTPResponseCacheHolder {
+
+        static final HTTPResponseCache INSTANCE = new HTTPResponseCache();
+    }
+
+    public static HTTPResponseCache getInstance() {
+
+        return HTTPResponseCacheHolder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Get the cached response of the request.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param cacheKey     Cache key.
+     * @return Cached response or null if there is no entry for the request.
+     */
+    public CachedResponse get(String tenantDomain, String cacheKey) {
+
+        Map<String, CachedResponse> tenantCache = tenantCaches.get(tenantDomain);
+        return tenantCache != null ? tenantCache.get(cacheKey) : null;
+    }
+
+    /**
+     * Store the response if it is cacheable.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param cacheKey     Cache key.
+     * @param response     Response of the external api.
+     * @param body         Response body serialized as a json string.
+     * @param ttl          Time to live in milliseconds given for the call, or a negative value to derive the
+     *                     freshness from the response headers.
+     */
+    public void put(String tenantDomain, String cacheKey, HttpResponse response, String body, long ttl) {
+
+        CachedResponse cachedResponse = toCachedResponse(response, body, ttl);
+        if (cachedResponse == null) {
+            return;
+        }
+        tenantCaches.computeIfAbsent(tenantDomain, domain -> createTenantCache()).put(cacheKey, cachedResponse);
+    }
+
+    /**
+     * Refresh a cached response after the origin confirmed that it has not been modified.
+     *
+     * @param tenantDomain   Tenant domain.
+     * @param cacheKey       Cache key.
+     * @param cachedResponse Cached response which was revalidated.
+     * @param response       Not modified response of the external api.
+     * @param ttl            Time to live in milliseconds given for the call, or a negative value to derive the
+     *                       freshness from the response headers.
+     */
+    public void revalidated(String tenantDomain, String cacheKey, CachedResponse cachedResponse,
+                            HttpResponse response, long ttl) {
+
+        revalidationCount.incrementAndGet();
+        CachedResponse refreshed = toCachedResponse(response, cachedResponse.getBody(), ttl,
+                cachedResponse.getEtag(), cachedResponse.getLastModified());
+        Map<String, CachedResponse> tenantCache = tenantCaches.get(tenantDomain);
+        if (tenantCache == null) {
+            return;
+        }
+        if (refreshed != null) {
+            tenantCache.put(cacheKey, refreshed);
+        } else {
+            tenantCache.remove(cacheKey);
+        }
+    }
+
+    /**
+     * Remove all the cached responses of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void clear(String tenantDomain) {
+
+        tenantCaches.remove(tenantDomain);
+    }
+
+    public void recordHit() {
+
+        hitCount.incrementAndGet();
+    }
+
+    public void recordMiss() {
+
+        missCount.incrementAndGet();
+    }
+
+    public void recordStaleHit() {
+
+        staleHitCount.incrementAndGet();
+    }
+
+    public long getHitCount() {
+
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+
+        return evictionCount.get();
+    }
+
+    public long getRevalidationCount() {
+
+        return revalidationCount.get();
+    }
+
+    public long getStaleHitCount() {
+
+        return staleHitCount.get();
+    }
+
+    private Map<String, CachedResponse> createTenantCache() {
+
+        // Access ordered map so that the least recently used entry is evicted when the tenant limit is reached.
+        return Collections.synchronizedMap(new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 4785136423568135249L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+
+                if (size() > maxEntriesPerTenant) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    private CachedResponse toCachedResponse(HttpResponse response, String body, long ttl) {
+
+        return toCachedResponse(response, body, ttl, null, null);
+    }
+
+    private CachedResponse toCachedResponse(HttpResponse response, String body, long ttl, String previousEtag,
+                                            String previousLastModified) {
+
+        Header varyHeader = response.getFirstHeader(HttpHeaders.VARY);
+        if (varyHeader != null && VARY_ALL.equals(varyHeader.getValue().trim())) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        long staleIfError = -1;
+        boolean noCache = false;
+        for (Header header : response.getHeaders(HttpHeaders.CACHE_CONTROL)) {
+            for (HeaderElement element : header.getElements()) {
+                String name = element.getName().toLowerCase(Locale.ROOT);
+                if (NO_STORE.equals(name) || PRIVATE.equals(name)) {
+                    // Private responses are meant for a single user, hence must not be kept in a shared cache.
+                    return null;
+                } else if (NO_CACHE.equals(name)) {
+                    noCache = true;
+                } else if (MAX_AGE.equals(name)) {
+                    maxAge = parseDeltaSecondsAsMillis(element.getValue());
+                } else if (S_MAX_AGE.equals(name)) {
+                    sharedMaxAge = parseDeltaSecondsAsMillis(element.getValue());
+                } else if (STALE_IF_ERROR.equals(name)) {
+                    staleIfError = parseDeltaSecondsAsMillis(element.getValue());
+                }
+            }
+        }
+
+        long expiresAt;
+        if (ttl >= 0) {
+            expiresAt = now + ttl;
+        } else if (noCache) {
+            expiresAt = now;
+        } else if (sharedMaxAge >= 0 || maxAge >= 0) {
+            expiresAt = now + (sharedMaxAge >= 0 ? sharedMaxAge : maxAge) - getAge(response);
+        } else {
+            expiresAt = getExpiresHeaderTime(response);
+        }
+
+        String etag = getHeaderValue(response, HttpHeaders.ETAG, previousEtag);
+        String lastModified = getHeaderValue(response, HttpHeaders.LAST_MODIFIED, previousLastModified);
+        if (expiresAt <= now && etag == null && lastModified == null) {
+            // Neither fresh nor revalidatable, hence there is no use in storing it.
+            return null;
+        }
+        long staleIfErrorWindow = staleIfError >= 0 ? Math.min(staleIfError, maxStaleIfError) : maxStaleIfError;
+        return new CachedResponse(body, expiresAt, Math.max(expiresAt, now) + staleIfErrorWindow, etag,
+                lastModified);
+    }
+
+    private long getAge(HttpResponse response) {
+
+        Header ageHeader = response.getFirstHeader(HttpHeaders.AGE);
+        if (ageHeader == null) {
+            return 0;
+        }
+        return Math.max(parseDeltaSecondsAsMillis(ageHeader.getValue()), 0);
+    }
+
+    private long getExpiresHeaderTime(HttpResponse response) {
+
+        Header expiresHeader = response.getFirstHeader(HttpHeaders.EXPIRES);
+        if (expiresHeader == null) {
+            return -1;
+        }
+        Date expires = DateUtils.parseDate(expiresHeader.getValue());
+        if (expires == null) {
+            // Invalid dates such as "0" mean the response is already expired.
+            return -1;
+        }
+        Header dateHeader = response.getFirstHeader(HttpHeaders.DATE);
+        Date date = dateHeader != null ? DateUtils.parseDate(dateHeader.getValue()) : null;
+        // Use the lifetime given by the origin so that clock differences do not affect the freshness.
+        long lifetime = date != null ? expires.getTime() - date.getTime() :
+                expires.getTime() - System.currentTimeMillis();
+        return System.currentTimeMillis() + lifetime;
+    }
+
+    private String getHeaderValue(HttpResponse response, String headerName, String defaultValue) {
+
+        Header header = response.getFirstHeader(headerName);
+        return header != null && StringUtils.isNotBlank(header.getValue()) ? header.getValue() : defaultValue;
+    }
+
+    private long parseDeltaSecondsAsMillis(String value) {
+
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim().replace("\"", "")) * 1000;
+        } catch (NumberFormatException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Invalid delta seconds value in the response: " + value);
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.circuitbreaker;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker of an external endpoint, based on a count based sliding window of the most recent calls.
+ * <p>
+ * The breaker opens when the failure rate or the slow call rate of the window reaches its threshold. While open,
+ * calls are rejected without contacting the endpoint. Once the open state duration has elapsed, a limited number of
+ * probe calls are let through; the breaker closes if all of them succeed and opens again otherwise.
+ */
+public class CircuitBreaker {
+
+    private static final Log LOG = LogFactory.getLog(CircuitBreaker.class);
+
+    /**
+     * States of the circuit breaker.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallDurationThreshold;
+    private final int slowCallRateThreshold;
+    private final long openStateDuration;
+    private final int halfOpenProbeCalls;
+    private final LongSupplier clock;
+
+    // Outcomes of the calls in the sliding window, used as a ring buffer.
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int windowPosition;
+    private int recordedCalls;
+    private int failedCallCount;
+    private int slowCallCount;
+
+    private State state = State.CLOSED;
+    private long stateChangedAt;
+    private int permittedProbeCalls;
+    private int successfulProbeCalls;
+    private final AtomicLong rejectedCallCount = new AtomicLong();
+
+    /**
+     * @param name   Name of the circuit breaker, used in the logs.
+     * @param config Configuration of the circuit breaker.
+     */
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+
+        this(name, config, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(String name, CircuitBreakerConfig config, LongSupplier clock) {
+
+        this.name = name;
+        this.minimumCalls = Math.max(1, Math.min(config.getMinimumCalls(), config.getSlidingWindowSize()));
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.slowCallDurationThreshold = config.getSlowCallDurationThreshold();
+        this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+        this.openStateDuration = config.getOpenStateDuration();
+        this.halfOpenProbeCalls = Math.max(1, config.getHalfOpenProbeCalls());
+        this.clock = clock;
+        int windowSize = Math.max(1, config.getSlidingWindowSize());
+        this.failedCalls = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+    }
+
+    /**
+     * Check whether a call can be made to the endpoint. Each permitted call should be followed by a call to
+     * {@link #onResult(boolean, long)}.
+     *
+     * @return True if the call is permitted, false if it should fail fast.
+     */
+    public synchronized boolean tryAcquirePermission() {
+
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - stateChangedAt < openStateDuration) {
+                rejectedCallCount.incrementAndGet();
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (permittedProbeCalls >= halfOpenProbeCalls) {
+                if (clock.getAsLong() - stateChangedAt < openStateDuration) {
+                    rejectedCallCount.incrementAndGet();
+                    return false;
+                }
+                // Results of the earlier probe calls were never recorded, hence start probing again.
+                transitionTo(State.HALF_OPEN);
+            }
+            permittedProbeCalls++;
+        }
+        return true;
+    }
+
+    /**
+     * Record the result of a permitted call.
+     *
+     * @param failed   Whether the call failed due to the endpoint, i.e. a connection error, a timeout or a server
+     *                 error.
+     * @param duration Duration of the call in milliseconds.
+     */
+    public synchronized void onResult(boolean failed, long duration) {
+
+        boolean slow = duration >= slowCallDurationThreshold;
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                transitionTo(State.OPEN);
+            } else if (++successfulProbeCalls >= halfOpenProbeCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // Result of a call started before the breaker opened.
+            return;
+        }
+
+        if (recordedCalls == failedCalls.length) {
+            failedCallCount -= failedCalls[windowPosition] ? 1 : 0;
+            slowCallCount -= slowCalls[windowPosition] ? 1 : 0;
+        } else {
+            recordedCalls++;
+        }
+        failedCalls[windowPosition] = failed;
+        slowCalls[windowPosition] = slow;
+        failedCallCount += failed ? 1 : 0;
+        slowCallCount += slow ? 1 : 0;
+        windowPosition = (windowPosition + 1) % failedCalls.length;
+
+        if (recordedCalls >= minimumCalls && (getFailureRate() >= failureRateThreshold ||
+                getSlowCallRate() >= slowCallRateThreshold)) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    /**
+     * Get the current state. An open breaker whose open state duration has elapsed is reported as open until the
+     * next call is attempted.
+     *
+     * @return State of the circuit breaker.
+     */
+    public synchronized State getState() {
+
+        return state;
+    }
+
+    /**
+     * Get the failure rate of the calls in the sliding window.
+     *
+     * @return Failure rate as a percentage, or 0 if no calls are recorded.
+     */
+    public synchronized float getFailureRate() {
+
+        return recordedCalls == 0 ? 0 : failedCallCount * 100f / recordedCalls;
+    }
+
+    /**
+     * Get the slow call rate of the calls in the sliding window.
+     *
+     * @return Slow call rate as a percentage, or 0 if no calls are recorded.
+     */
+    public synchronized float getSlowCallRate() {
+
+        return recordedCalls == 0 ? 0 : slowCallCount * 100f / recordedCalls;
+    }
+
+    /**
+     * Get the number of calls rejected without contacting the endpoint.
+     *
+     * @return Rejected call count.
+     */
+    public long getRejectedCallCount() {
+
+        return rejectedCallCount.get();
+    }
+
+    private void transitionTo(State newState) {
+
+        State previousState = state;
+        state = newState;
+        stateChangedAt = clock.getAsLong();
+        if (newState == State.HALF_OPEN) {
+            permittedProbeCalls = 0;
+            successfulProbeCalls = 0;
+        } else if (newState == State.CLOSED) {
+            resetWindow();
+        }
+        if (previousState == newState) {
+            return;
+        }
+        if (newState == State.OPEN) {
+            LOG.warn("Circuit breaker of the endpoint: " + name + " changed from " + previousState + " to " +
+                    newState + ". Calls to the endpoint will fail fast for " + openStateDuration + " ms.");
+        } else {
+            LOG.info("Circuit breaker of the endpoint: " + name + " changed from " + previousState + " to " +
+                    newState + ".");
+        }
+    }
+
+    private void resetWindow() {
+
+        for (int i = 0; i < failedCalls.length; i++) {
+            failedCalls[i] = false;
+            slowCalls[i] = false;
+        }
+        windowPosition = 0;
+        recordedCalls = 0;
+        failedCallCount = 0;
+        slowCallCount = 0;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.circuitbreaker;
+
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+
+/**
+ * Thresholds of the {@link CircuitBreaker}.
+ */
+public class CircuitBreakerConfig {
+
+    private final int slidingWindowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallDurationThreshold;
+    private final int slowCallRateThreshold;
+    private final long openStateDuration;
+    private final int halfOpenProbeCalls;
+
+    /**
+     * @param slidingWindowSize         Number of the most recent calls used to compute the rates.
+     * @param minimumCalls              Number of calls to be recorded before the breaker can open.
+     * @param failureRateThreshold      Failure rate percentage at or above which the breaker opens.
+     * @param slowCallDurationThreshold Duration in milliseconds at or above which a call is considered slow.
+     * @param slowCallRateThreshold     Slow call rate percentage at or above which the breaker opens.
+     * @param openStateDuration         Time in milliseconds the breaker stays open before probe calls are allowed.
+     * @param halfOpenProbeCalls        Number of probe calls which should succeed for the breaker to close.
+     */
+    public CircuitBreakerConfig(int slidingWindowSize, int minimumCalls, int failureRateThreshold,
+                                long slowCallDurationThreshold, int slowCallRateThreshold, long openStateDuration,
+                                int halfOpenProbeCalls) {
+
+        this.slidingWindowSize = slidingWindowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallDurationThreshold = slowCallDurationThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openStateDuration = openStateDuration;
+        this.halfOpenProbeCalls = halfOpenProbeCalls;
+    }
+
+    /**
+     * Build the configuration from the http function settings of the identity configuration.
+     *
+     * @return CircuitBreakerConfig.
+     */
+    public static CircuitBreakerConfig fromConfigProvider() {
+
+        ConfigProvider configProvider = ConfigProvider.getInstance();
+        return new CircuitBreakerConfig(configProvider.getHttpFunctionCircuitBreakerSlidingWindowSize(),
+                configProvider.getHttpFunctionCircuitBreakerMinimumCalls(),
+                configProvider.getHttpFunctionCircuitBreakerFailureRateThreshold(),
+                configProvider.getHttpFunctionCircuitBreakerSlowCallDurationThreshold(),
+                configProvider.getHttpFunctionCircuitBreakerSlowCallRateThreshold(),
+                configProvider.getHttpFunctionCircuitBreakerOpenStateDuration(),
+                configProvider.getHttpFunctionCircuitBreakerHalfOpenProbeCalls());
+    }
+
+    public int getSlidingWindowSize() {
+
+        return slidingWindowSize;
+    }
+
+    public int getMinimumCalls() {
+
+        return minimumCalls;
+    }
+
+    public int getFailureRateThreshold() {
+
+        return failureRateThreshold;
+    }
+
+    public long getSlowCallDurationThreshold() {
+
+        return slowCallDurationThreshold;
+    }
+
+    public int getSlowCallRateThreshold() {
+
+        return slowCallRateThreshold;
+    }
+
+    public long getOpenStateDuration() {
+
+        return openStateDuration;
+    }
+
+    public int getHalfOpenProbeCalls() {
+
+        return halfOpenProbeCalls;
+    }
+}
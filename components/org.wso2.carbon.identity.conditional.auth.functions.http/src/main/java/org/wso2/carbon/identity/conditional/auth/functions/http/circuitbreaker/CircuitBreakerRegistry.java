@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.circuitbreaker;
+
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds a {@link CircuitBreaker} per endpoint host (scheme://host:port) called by the http functions.
+ */
+public class CircuitBreakerRegistry {
+
+    private final boolean enabled;
+    private final CircuitBreakerConfig config;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    private CircuitBreakerRegistry() {
+
+        enabled = ConfigProvider.getInstance().isHttpFunctionCircuitBreakerEnabled();
+        config = CircuitBreakerConfig.fromConfigProvider();
+    }
+
+    private static class CircuitBreakerRegistryHolder {
+
+        static final CircuitBreakerRegistry INSTANCE = new CircuitBreakerRegistry();
+    }
+
+    public static CircuitBreakerRegistry getInstance() {
+
+        return CircuitBreakerRegistryHolder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Get the circuit breaker of the endpoint host of the given url.
+     *
+     * @param uri Url of the request.
+     * @return Circuit breaker of the endpoint, or null if the circuit breaker is disabled or the url has no host.
+     */
+    public CircuitBreaker getCircuitBreaker(URI uri) {
+
+        if (!enabled || uri == null || uri.getHost() == null) {
+            return null;
+        }
+        return circuitBreakers.computeIfAbsent(CommonUtils.getEndpointKey(uri),
+                key -> new CircuitBreaker(key, config));
+    }
+
+    /**
+     * Get the states of the circuit breakers of all the endpoints called so far.
+     *
+     * @return Map of endpoint (scheme://host:port) to the state of its circuit breaker.
+     */
+    public Map<String, CircuitBreaker.State> getStates() {
+
+        Map<String, CircuitBreaker.State> states = new LinkedHashMap<>();
+        circuitBreakers.forEach((endpoint, circuitBreaker) -> states.put(endpoint, circuitBreaker.getState()));
+        return Collections.unmodifiableMap(states);
+    }
+}
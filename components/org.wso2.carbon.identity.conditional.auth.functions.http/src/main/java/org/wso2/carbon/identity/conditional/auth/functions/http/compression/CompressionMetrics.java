@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.compression;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Byte counts of the compressed requests sent and the compressed responses received by the http functions.
+ */
+public class CompressionMetrics {
+
+    private final AtomicLong compressedRequestCount = new AtomicLong();
+    private final AtomicLong requestBytesBeforeCompression = new AtomicLong();
+    private final AtomicLong requestBytesAfterCompression = new AtomicLong();
+    private final AtomicLong compressedResponseCount = new AtomicLong();
+    private final AtomicLong responseBytesReceived = new AtomicLong();
+    private final AtomicLong responseBytesDecompressed = new AtomicLong();
+
+    private CompressionMetrics() {
+
+    }
+
+    private static class CompressionMetricsHolder {
+
+        static final CompressionMetrics INSTANCE = new CompressionMetrics();
+    }
+
+    public static CompressionMetrics getInstance() {
+
+        return CompressionMetricsHolder.INSTANCE;
+    }
+
+    /**
+     * Record a request body compressed before it was sent.
+     *
+     * @param originalSize   Size of the body in bytes.
+     * @param compressedSize Size of the compressed body in bytes.
+     */
+    public void recordCompressedRequest(long originalSize, long compressedSize) {
+
+        compressedRequestCount.incrementAndGet();
+        requestBytesBeforeCompression.addAndGet(originalSize);
+        requestBytesAfterCompression.addAndGet(compressedSize);
+    }
+
+    /**
+     * Record a compressed response body which was decompressed while it was read.
+     *
+     * @param receivedSize     Size of the compressed body received in bytes.
+     * @param decompressedSize Size of the decompressed body in bytes.
+     */
+    public void recordCompressedResponse(long receivedSize, long decompressedSize) {
+
+        compressedResponseCount.incrementAndGet();
+        responseBytesReceived.addAndGet(receivedSize);
+        responseBytesDecompressed.addAndGet(decompressedSize);
+    }
+
+    public long getCompressedRequestCount() {
+
+        return compressedRequestCount.get();
+    }
+
+    public long getRequestBytesBeforeCompression() {
+
+        return requestBytesBeforeCompression.get();
+    }
+
+    public long getRequestBytesAfterCompression() {
+
+        return requestBytesAfterCompression.get();
+    }
+
+    public long getCompressedResponseCount() {
+
+        return compressedResponseCount.get();
+    }
+
+    public long getResponseBytesReceived() {
+
+        return responseBytesReceived.get();
+    }
+
+    public long getResponseBytesDecompressed() {
+
+        return responseBytesDecompressed.get();
+    }
+
+    /**
+     * Get the number of bytes not sent thanks to request compression.
+     *
+     * @return Saved request bytes.
+     */
+    public long getRequestBytesSaved() {
+
+        return requestBytesBeforeCompression.get() - requestBytesAfterCompression.get();
+    }
+
+    /**
+     * Get the number of bytes not received thanks to response compression.
+     *
+     * @return Saved response bytes.
+     */
+    public long getResponseBytesSaved() {
+
+        return responseBytesDecompressed.get() - responseBytesReceived.get();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.compression;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Applies the compression settings of the http functions to the outbound requests. When response compression is
+ * enabled, requests ask for gzip or deflate compressed responses. Request bodies above the size threshold are gzip
+ * compressed for the endpoints which are opted in. Compressed responses are decompressed while they are decoded, see
+ * {@link org.wso2.carbon.identity.conditional.auth.functions.http.response.HTTPResponseDecoder}.
+ */
+public class HTTPCompressionHandler {
+
+    private static final Log LOG = LogFactory.getLog(HTTPCompressionHandler.class);
+    public static final String ENCODING_GZIP = "gzip";
+    public static final String ENCODING_X_GZIP = "x-gzip";
+    public static final String ENCODING_DEFLATE = "deflate";
+    public static final String ENCODING_IDENTITY = "identity";
+    private static final String ACCEPTED_ENCODINGS = ENCODING_GZIP + ", " + ENCODING_DEFLATE;
+
+    private final boolean responseCompressionEnabled;
+    private final int requestCompressionMinSize;
+    private final Set<String> requestCompressionEndpoints = new HashSet<>();
+
+    private HTTPCompressionHandler() {
+
+        ConfigProvider configProvider = ConfigProvider.getInstance();
+        responseCompressionEnabled = configProvider.isHttpFunctionResponseCompressionEnabled();
+        requestCompressionMinSize = configProvider.getHttpFunctionRequestCompressionMinSize();
+        List<String> endpoints = configProvider.getHttpFunctionRequestCompressionEndpoints();
+        for (String endpoint : endpoints) {
+            try {
+                requestCompressionEndpoints.add(CommonUtils.getEndpointKey(URI.create(endpoint.trim())));
+            } catch (IllegalArgumentException e) {
+                LOG.error("Invalid endpoint in request compression endpoints : " + endpoint, e);
+            }
+        }
+    }
+
+    private static class HTTPCompressionHandlerHolder {
+
+        static final HTTPCompressionHandler INSTANCE = new HTTPCompressionHandler();
+    }
+
+    public static HTTPCompressionHandler getInstance() {
+
+        return HTTPCompressionHandlerHolder.INSTANCE;
+    }
+
+    /**
+     * Apply the compression settings to the request before it is sent.
+     *
+     * @param request Request to the external api.
+     */
+    public void prepareRequest(HttpUriRequest request) {
+
+        if (responseCompressionEnabled && !request.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+            request.setHeader(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+        }
+        if (request instanceof HttpEntityEnclosingRequest && isRequestCompressionEnabled(request.getURI())) {
+            compressBody((HttpEntityEnclosingRequest) request, request.getURI());
+        }
+    }
+
+    /**
+     * Check whether request bodies sent to the endpoint of the given url are compressed.
+     *
+     * @param uri Url of the request.
+     * @return True if the endpoint is opted in for request compression.
+     */
+    public boolean isRequestCompressionEnabled(URI uri) {
+
+        return !requestCompressionEndpoints.isEmpty() &&
+                requestCompressionEndpoints.contains(CommonUtils.getEndpointKey(uri));
+    }
+
+    private void compressBody(HttpEntityEnclosingRequest request, URI uri) {
+
+        HttpEntity entity = request.getEntity();
+        // A body which is already encoded, or which cannot be read twice, is sent as it is.
+        if (entity == null || entity.getContentEncoding() != null || request.containsHeader(
+                HttpHeaders.CONTENT_ENCODING) || !entity.isRepeatable()) {
+            return;
+        }
+        long contentLength = entity.getContentLength();
+        if (contentLength >= 0 && contentLength < requestCompressionMinSize) {
+            return;
+        }
+        try {
+            byte[] body = EntityUtils.toByteArray(entity);
+            if (body == null || body.length < requestCompressionMinSize) {
+                return;
+            }
+            ByteArrayOutputStream compressedBody = new ByteArrayOutputStream(body.length / 2);
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressedBody)) {
+                gzipOutputStream.write(body);
+            }
+            if (compressedBody.size() >= body.length) {
+                // Incompressible content, e.g. already compressed or encrypted data.
+                return;
+            }
+            ByteArrayEntity compressedEntity = new ByteArrayEntity(compressedBody.toByteArray());
+            compressedEntity.setContentType(entity.getContentType());
+            compressedEntity.setContentEncoding(ENCODING_GZIP);
+            request.setEntity(compressedEntity);
+            CompressionMetrics.getInstance().recordCompressedRequest(body.length, compressedBody.size());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Compressed the request body from " + body.length + " to " + compressedBody.size() +
+                        " bytes. Url: " + uri);
+            }
+        } catch (IOException e) {
+            LOG.warn("Error while compressing the request body. Sending it uncompressed. Url: " + uri, e);
+        }
+    }
+}
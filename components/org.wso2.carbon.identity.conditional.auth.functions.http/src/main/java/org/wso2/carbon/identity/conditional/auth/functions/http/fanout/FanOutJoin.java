@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.fanout;
+
+import org.json.simple.JSONObject;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Joins the outcomes of the requests of a fan out call. The outcome of the call is decided by the first result which
+ * satisfies or rules out its completion mode, or by the overall timeout. Results received after that are ignored.
+ */
+public class FanOutJoin {
+
+    public static final String OUTCOME = "outcome";
+    public static final String RESPONSE = "response";
+
+    private final int requestCount;
+    private final int requiredSuccesses;
+    private final Map<String, Object> results = new LinkedHashMap<>();
+    private int successCount;
+    private int failureCount;
+    private String outcome;
+
+    /**
+     * @param mode         Completion mode.
+     * @param requestCount Number of requests of the call.
+     * @param quorum       Number of requests which should succeed in the quorum mode, ignored otherwise.
+     * @throws IllegalArgumentException If the quorum cannot be reached with the given number of requests.
+     */
+    public FanOutJoin(FanOutMode mode, int requestCount, int quorum) {
+
+        this.requestCount = requestCount;
+        switch (mode) {
+            case ALL:
+                requiredSuccesses = requestCount;
+                break;
+            case ANY:
+                requiredSuccesses = 1;
+                break;
+            default:
+                if (quorum < 1 || quorum > requestCount) {
+                    throw new IllegalArgumentException("Invalid quorum: " + quorum + ". Expected a value between 1 " +
+                            "and the number of requests: " + requestCount + ".");
+                }
+                requiredSuccesses = quorum;
+        }
+    }
+
+    /**
+     * Record the outcome of a request.
+     *
+     * @param name            Name of the request.
+     * @param requestOutcome  Outcome of the request.
+     * @param response        Response of the request or null.
+     * @return True if this result decided the outcome of the call.
+     */
+    public synchronized boolean onResult(String name, String requestOutcome, JSONObject response) {
+
+        if (outcome != null) {
+            return false;
+        }
+        JSONObject result = new JSONObject();
+        result.put(OUTCOME, requestOutcome);
+        result.put(RESPONSE, response != null ? response : new JSONObject());
+        results.put(name, result);
+        if (Constants.OUTCOME_SUCCESS.equals(requestOutcome)) {
+            successCount++;
+        } else {
+            failureCount++;
+        }
+        if (successCount >= requiredSuccesses) {
+            outcome = Constants.OUTCOME_SUCCESS;
+        } else if (requestCount - failureCount < requiredSuccesses) {
+            outcome = Constants.OUTCOME_FAIL;
+        }
+        return outcome != null;
+    }
+
+    /**
+     * Time out the call, unless its outcome is already decided.
+     *
+     * @return True if the call timed out.
+     */
+    public synchronized boolean onTimeout() {
+
+        if (outcome != null) {
+            return false;
+        }
+        outcome = Constants.OUTCOME_TIMEOUT;
+        return true;
+    }
+
+    /**
+     * Get the outcome of the call.
+     *
+     * @return Outcome or null if not decided yet.
+     */
+    public synchronized String getOutcome() {
+
+        return outcome;
+    }
+
+    /**
+     * Get the results received so far, keyed by the request name. Each result holds the outcome and the response of
+     * the request.
+     *
+     * @return Map of request name to result.
+     */
+    public synchronized Map<String, Object> getResults() {
+
+        return new LinkedHashMap<>(results);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.fanout;
+
+import java.util.Locale;
+
+/**
+ * Completion modes of the http fan out function.
+ */
+public enum FanOutMode {
+
+    /**
+     * Succeeds once all the requests succeed, fails as soon as any request fails.
+     */
+    ALL,
+    /**
+     * Succeeds as soon as any request succeeds, fails once all the requests fail.
+     */
+    ANY,
+    /**
+     * Succeeds as soon as the given number of requests succeed, fails once that number can no longer be reached.
+     */
+    QUORUM;
+
+    /**
+     * Get the mode of the given name.
+     *
+     * @param name Name of the mode, case insensitive.
+     * @return FanOutMode.
+     * @throws IllegalArgumentException If there is no mode of the given name.
+     */
+    public static FanOutMode fromName(String name) {
+
+        try {
+            return valueOf(name.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid fan out mode: " + name + ". Expected all, any or quorum.");
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.hedging;
+
+import org.wso2.carbon.identity.conditional.auth.functions.common.retry.RetryBudget;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hedging policy of the http functions. A GET request which has not completed within the hedging delay of its
+ * endpoint is sent a second time and the first response is used, which cuts the tail latency caused by a slow
+ * replica behind the endpoint.
+ * <p>
+ * The delay is either configured or derived from the 95th percentile latency observed for the endpoint, so that
+ * only the slowest requests are hedged. The hedges to each endpoint are capped by a budget, a {@link RetryBudget}
+ * with no allowance per second, so hedging cannot add more than the configured share of load to the endpoint.
+ */
+public class HedgingPolicy {
+
+    private static final double HEDGING_PERCENTILE = 0.95;
+    private static final int LATENCY_WINDOW_SIZE = 128;
+    // Latencies needed before the observed percentile is trusted.
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    private static final int BUDGET_MAX_TOKENS = 10;
+
+    private final boolean enabled;
+    private final long delay;
+    private final long minDelay;
+    private final int budgetRatio;
+    private final Map<String, LatencyWindow> latencyWindows = new ConcurrentHashMap<>();
+    private final Map<String, RetryBudget> hedgingBudgets = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong hedgeCount = new AtomicLong();
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    /**
+     * @param enabled     Whether requests are hedged unless the call opts out.
+     * @param delay       Fixed hedging delay in milliseconds, or 0 to use the observed latency of the endpoint.
+     * @param minDelay    Lower bound of the delay derived from the observed latency, in milliseconds.
+     * @param budgetRatio Percentage of the requests to an endpoint which may be hedged.
+     */
+    public HedgingPolicy(boolean enabled, long delay, long minDelay, int budgetRatio) {
+
+        this.enabled = enabled;
+        this.delay = Math.max(delay, 0);
+        this.minDelay = Math.max(minDelay, 0);
+        this.budgetRatio = budgetRatio;
+    }
+
+    private static class HedgingPolicyHolder {
+
+        static final HedgingPolicy INSTANCE = createFromConfig();
+    }
+
+    private static class HedgingSchedulerHolder {
+
+        static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-functions-hedging-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static HedgingPolicy getInstance() {
+
+        return HedgingPolicyHolder.INSTANCE;
+    }
+
+    private static HedgingPolicy createFromConfig() {
+
+        ConfigProvider configProvider = ConfigProvider.getInstance();
+        return new HedgingPolicy(configProvider.isHttpFunctionHedgingEnabled(),
+                configProvider.getHttpFunctionHedgingDelay(), configProvider.getHttpFunctionHedgingMinDelay(),
+                configProvider.getHttpFunctionHedgingBudgetRatio());
+    }
+
+    /**
+     * Check whether a request can be hedged. Only GET requests are hedged, as the request is sent twice.
+     *
+     * @param method     Http method of the request.
+     * @param hedgeOptIn Whether the call opted in or out of hedging, or null to use the configured default.
+     * @return True if the request can be hedged.
+     */
+    public boolean isHedgeable(String method, Boolean hedgeOptIn) {
+
+        return "GET".equals(method) && (hedgeOptIn != null ? hedgeOptIn : enabled);
+    }
+
+    /**
+     * Record a hedgeable request sent to the endpoint and get the time to wait for its response before hedging it.
+     *
+     * @param endpoint Endpoint key of the request.
+     * @return Hedging delay in milliseconds, or -1 if the request should not be hedged as too few latencies of the
+     * endpoint are observed.
+     */
+    public long onRequest(String endpoint) {
+
+        requestCount.incrementAndGet();
+        getHedgingBudget(endpoint).onRequest();
+        if (delay > 0) {
+            return delay;
+        }
+        LatencyWindow latencyWindow = latencyWindows.get(endpoint);
+        if (latencyWindow == null || latencyWindow.getRecordedCount() < MIN_LATENCY_SAMPLES) {
+            return -1;
+        }
+        return Math.max(minDelay, latencyWindow.getPercentileLatency());
+    }
+
+    /**
+     * Withdraw from the hedging budget of the endpoint for a hedged request.
+     *
+     * @param endpoint Endpoint key of the request.
+     * @return True if the hedged request can be sent.
+     */
+    public boolean tryAcquireHedge(String endpoint) {
+
+        if (!getHedgingBudget(endpoint).tryAcquireRetry()) {
+            return false;
+        }
+        hedgeCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Record the latency of a response of the endpoint.
+     *
+     * @param endpoint Endpoint key of the request.
+     * @param latency  Latency in milliseconds.
+     */
+    public void recordLatency(String endpoint, long latency) {
+
+        latencyWindows.computeIfAbsent(endpoint, key -> new LatencyWindow(LATENCY_WINDOW_SIZE, HEDGING_PERCENTILE))
+                .record(latency);
+    }
+
+    /**
+     * Record that the response of a hedged request arrived before the response of the original request.
+     */
+    public void recordHedgeWin() {
+
+        hedgeWinCount.incrementAndGet();
+    }
+
+    /**
+     * Schedule the hedged request of a request.
+     *
+     * @param hedge        Task sending the hedged request.
+     * @param hedgingDelay Delay in milliseconds.
+     * @return Future of the scheduled task, which is cancelled once the request completes.
+     */
+    public ScheduledFuture<?> scheduleHedge(Runnable hedge, long hedgingDelay) {
+
+        return HedgingSchedulerHolder.SCHEDULER.schedule(hedge, hedgingDelay, TimeUnit.MILLISECONDS);
+    }
+
+    public long getRequestCount() {
+
+        return requestCount.get();
+    }
+
+    public long getHedgeCount() {
+
+        return hedgeCount.get();
+    }
+
+    public long getHedgeWinCount() {
+
+        return hedgeWinCount.get();
+    }
+
+    /**
+     * Get the fraction of the hedgeable requests which were hedged.
+     *
+     * @return Hedge rate between 0 and 1.
+     */
+    public double getHedgeRate() {
+
+        long requests = requestCount.get();
+        return requests == 0 ? 0 : (double) hedgeCount.get() / requests;
+    }
+
+    /**
+     * Get the fraction of the hedged requests whose hedge responded first.
+     *
+     * @return Hedge win rate between 0 and 1.
+     */
+    public double getHedgeWinRate() {
+
+        long hedges = hedgeCount.get();
+        return hedges == 0 ? 0 : (double) hedgeWinCount.get() / hedges;
+    }
+
+    private RetryBudget getHedgingBudget(String endpoint) {
+
+        return hedgingBudgets.computeIfAbsent(endpoint, key -> new RetryBudget(budgetRatio, 0, BUDGET_MAX_TOKENS));
+    }
+}
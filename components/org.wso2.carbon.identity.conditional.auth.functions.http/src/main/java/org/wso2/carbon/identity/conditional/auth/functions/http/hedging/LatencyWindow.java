@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.hedging;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of the most recent responses of an endpoint, kept in a ring buffer. The tracked percentile is
+ * recomputed periodically rather than on every lookup, as it is read on every request.
+ */
+public class LatencyWindow {
+
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final long[] latencies;
+    private final double percentile;
+    private int position;
+    private int recordedCount;
+    private int recordsSinceRecompute;
+    private long percentileLatency = -1;
+
+    /**
+     * @param size       Number of latencies kept.
+     * @param percentile Tracked percentile, between 0 and 1.
+     */
+    public LatencyWindow(int size, double percentile) {
+
+        this.latencies = new long[Math.max(1, size)];
+        this.percentile = percentile;
+    }
+
+    /**
+     * Record the latency of a response.
+     *
+     * @param latency Latency in milliseconds.
+     */
+    public synchronized void record(long latency) {
+
+        latencies[position] = latency;
+        position = (position + 1) % latencies.length;
+        recordedCount = Math.min(recordedCount + 1, latencies.length);
+        if (++recordsSinceRecompute >= RECOMPUTE_INTERVAL || percentileLatency < 0) {
+            recordsSinceRecompute = 0;
+            long[] sortedLatencies = Arrays.copyOf(latencies, recordedCount);
+            Arrays.sort(sortedLatencies);
+            int index = (int) Math.ceil(percentile * recordedCount) - 1;
+            percentileLatency = sortedLatencies[Math.max(0, index)];
+        }
+    }
+
+    /**
+     * Get the number of latencies in the window.
+     *
+     * @return Recorded latency count, up to the size of the window.
+     */
+    public synchronized int getRecordedCount() {
+
+        return recordedCount;
+    }
+
+    /**
+     * Get the tracked percentile of the latencies in the window, as of the last recomputation.
+     *
+     * @return Latency in milliseconds, or -1 if no latency is recorded.
+     */
+    public synchronized long getPercentileLatency() {
+
+        return percentileLatency;
+    }
+}
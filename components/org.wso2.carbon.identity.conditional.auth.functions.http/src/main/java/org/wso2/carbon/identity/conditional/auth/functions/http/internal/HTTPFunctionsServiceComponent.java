@@ -20,6 +20,7 @@ package org.wso2.carbon.identity.conditional.auth.functions.http.internal;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.osgi.framework.BundleContext;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -29,13 +30,19 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.wso2.carbon.identity.application.authentication.framework.JsFunctionRegistry;
 import org.wso2.carbon.identity.conditional.auth.functions.http.GetCookieFunctionImpl;
+import org.wso2.carbon.identity.conditional.auth.functions.http.HTTPFanOutFunction;
+import org.wso2.carbon.identity.conditional.auth.functions.http.HTTPFanOutFunctionImpl;
 import org.wso2.carbon.identity.conditional.auth.functions.http.HTTPGetFunction;
 import org.wso2.carbon.identity.conditional.auth.functions.http.HTTPGetFunctionImpl;
 import org.wso2.carbon.identity.conditional.auth.functions.http.HTTPPostFunction;
 import org.wso2.carbon.identity.conditional.auth.functions.http.HTTPPostFunctionImpl;
 import org.wso2.carbon.identity.conditional.auth.functions.http.SetCookieFunctionImpl;
+import org.wso2.carbon.identity.conditional.auth.functions.http.listener.HTTPAxis2ConfigurationContextObserver;
+import org.wso2.carbon.identity.conditional.auth.functions.http.metrics.HTTPFunctionMetrics;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.HTTPClientManager;
 import org.wso2.carbon.identity.core.util.IdentityCoreInitializedEvent;
 import org.wso2.carbon.security.keystore.service.IdentityKeyStoreGenerator;
+import org.wso2.carbon.utils.Axis2ConfigurationContextObserver;
 
 /**
  * OSGi declarative services component which handle cookie related conditional auth functions.
@@ -51,6 +58,7 @@ public class HTTPFunctionsServiceComponent {
 
     public static final String FUNC_HTTP_POST = "httpPost";
     public static final String FUNC_HTTP_GET = "httpGet";
+    public static final String FUNC_HTTP_FAN_OUT = "httpFanOut";
     public static final String FUNC_SET_COOKIE = "setCookie";
     public static final String FUNC_GET_COOKIE_VALUE = "getCookieValue";
 
@@ -67,6 +75,15 @@ public class HTTPFunctionsServiceComponent {
 
         HTTPGetFunction httpGet = new HTTPGetFunctionImpl();
         jsFunctionRegistry.register(JsFunctionRegistry.Subsystem.SEQUENCE_HANDLER, FUNC_HTTP_GET, httpGet);
+
+        HTTPFanOutFunction httpFanOut = new HTTPFanOutFunctionImpl();
+        jsFunctionRegistry.register(JsFunctionRegistry.Subsystem.SEQUENCE_HANDLER, FUNC_HTTP_FAN_OUT, httpFanOut);
+
+        BundleContext bundleContext = ctxt.getBundleContext();
+        HTTPAxis2ConfigurationContextObserver observer = new HTTPAxis2ConfigurationContextObserver();
+        bundleContext.registerService(Axis2ConfigurationContextObserver.class.getName(), observer, null);
+
+        HTTPFunctionMetrics.getInstance().registerMBean();
     }
 
     @Deactivate
@@ -77,7 +94,10 @@ public class HTTPFunctionsServiceComponent {
             jsFunctionRegistry.deRegister(JsFunctionRegistry.Subsystem.SEQUENCE_HANDLER, FUNC_SET_COOKIE);
             jsFunctionRegistry.deRegister(JsFunctionRegistry.Subsystem.SEQUENCE_HANDLER, FUNC_GET_COOKIE_VALUE);
             jsFunctionRegistry.deRegister(JsFunctionRegistry.Subsystem.SEQUENCE_HANDLER, FUNC_HTTP_POST);
+            jsFunctionRegistry.deRegister(JsFunctionRegistry.Subsystem.SEQUENCE_HANDLER, FUNC_HTTP_FAN_OUT);
         }
+        HTTPFunctionMetrics.getInstance().unregisterMBean();
+        HTTPClientManager.getInstance().shutdown();
     }
 
     @Reference(
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.metrics;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Entity which counts the bytes read from its content, used to record the size of the responses read by the http
+ * functions without buffering them.
+ */
+public class ByteCountingEntity extends HttpEntityWrapper {
+
+    private long byteCount;
+
+    public ByteCountingEntity(HttpEntity wrappedEntity) {
+
+        super(wrappedEntity);
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+
+        return new FilterInputStream(super.getContent()) {
+
+            @Override
+            public int read() throws IOException {
+
+                int b = super.read();
+                if (b != -1) {
+                    byteCount++;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+
+                int count = super.read(buffer, offset, length);
+                if (count > 0) {
+                    byteCount += count;
+                }
+                return count;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+
+                long skipped = super.skip(n);
+                byteCount += skipped;
+                return skipped;
+            }
+        };
+    }
+
+    /**
+     * Get the number of bytes read from the content so far.
+     *
+     * @return Byte count.
+     */
+    public long getByteCount() {
+
+        return byteCount;
+    }
+}
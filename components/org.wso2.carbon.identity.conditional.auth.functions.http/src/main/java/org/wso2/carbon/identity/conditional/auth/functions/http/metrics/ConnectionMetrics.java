@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.metrics;
+
+/**
+ * Connection pool latencies of the http functions for an endpoint, in microseconds.
+ */
+public class ConnectionMetrics {
+
+    private final String endpoint;
+    private final Histogram connectionWait = new Histogram();
+    private final Histogram connect = new Histogram();
+
+    public ConnectionMetrics(String endpoint) {
+
+        this.endpoint = endpoint;
+    }
+
+    public void recordConnectionWait(long micros) {
+
+        connectionWait.record(micros);
+    }
+
+    public void recordConnect(long micros) {
+
+        connect.record(micros);
+    }
+
+    public ConnectionMetricsSnapshot snapshot() {
+
+        return new ConnectionMetricsSnapshot(endpoint, connectionWait.snapshot(), connect.snapshot());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.metrics;
+
+/**
+ * Snapshot of the {@link ConnectionMetrics} of an endpoint.
+ */
+public class ConnectionMetricsSnapshot {
+
+    private final String endpoint;
+    private final HistogramSnapshot connectionWait;
+    private final HistogramSnapshot connect;
+
+    public ConnectionMetricsSnapshot(String endpoint, HistogramSnapshot connectionWait, HistogramSnapshot connect) {
+
+        this.endpoint = endpoint;
+        this.connectionWait = connectionWait;
+        this.connect = connect;
+    }
+
+    public String getEndpoint() {
+
+        return endpoint;
+    }
+
+    /**
+     * Get the time waited to lease a connection from the pool, in microseconds. For the non-blocking client this
+     * includes the time to open a new connection, as the pool opens it before the lease completes.
+     *
+     * @return Connection wait time.
+     */
+    public HistogramSnapshot getConnectionWait() {
+
+        return connectionWait;
+    }
+
+    /**
+     * Get the time to open a new connection, including the TLS handshake, in microseconds. Only recorded for the
+     * blocking client.
+     *
+     * @return Connect time.
+     */
+    public HistogramSnapshot getConnect() {
+
+        return connect;
+    }
+
+    @Override
+    public String toString() {
+
+        return endpoint + " [wait(us)={" + connectionWait + "}, connect(us)={" + connect + "}]";
+    }
+}
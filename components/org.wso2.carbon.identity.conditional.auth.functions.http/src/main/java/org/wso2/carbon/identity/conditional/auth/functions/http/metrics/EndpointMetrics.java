@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies, response sizes and outcome counts of the calls made by the http functions to an endpoint with a method.
+ * Latencies are recorded in microseconds and response sizes in bytes.
+ */
+public class EndpointMetrics {
+
+    /**
+     * Outcomes of a call to an endpoint.
+     */
+    public enum Outcome {
+        SUCCESS,
+        REDIRECT,
+        CLIENT_ERROR,
+        SERVER_ERROR,
+        TIMEOUT,
+        PARSE_ERROR,
+        ERROR
+    }
+
+    private final String endpoint;
+    private final String method;
+    private final Histogram timeToFirstByte = new Histogram();
+    private final Histogram totalTime = new Histogram();
+    private final Histogram responseSize = new Histogram();
+    private final LongAdder[] outcomeCounts = new LongAdder[Outcome.values().length];
+    private final LongAdder retryCount = new LongAdder();
+
+    public EndpointMetrics(String endpoint, String method) {
+
+        this.endpoint = endpoint;
+        this.method = method;
+        for (int i = 0; i < outcomeCounts.length; i++) {
+            outcomeCounts[i] = new LongAdder();
+        }
+    }
+
+    public void recordTimeToFirstByte(long micros) {
+
+        timeToFirstByte.record(micros);
+    }
+
+    public void recordTotalTime(long micros) {
+
+        totalTime.record(micros);
+    }
+
+    public void recordResponseSize(long bytes) {
+
+        responseSize.record(bytes);
+    }
+
+    public void recordOutcome(Outcome outcome) {
+
+        outcomeCounts[outcome.ordinal()].increment();
+    }
+
+    public void recordRetry() {
+
+        retryCount.increment();
+    }
+
+    public EndpointMetricsSnapshot snapshot() {
+
+        return new EndpointMetricsSnapshot(endpoint, method, timeToFirstByte.snapshot(), totalTime.snapshot(),
+                responseSize.snapshot(), getOutcomeCount(Outcome.SUCCESS), getOutcomeCount(Outcome.REDIRECT),
+                getOutcomeCount(Outcome.CLIENT_ERROR), getOutcomeCount(Outcome.SERVER_ERROR),
+                getOutcomeCount(Outcome.TIMEOUT), getOutcomeCount(Outcome.PARSE_ERROR),
+                getOutcomeCount(Outcome.ERROR), retryCount.sum());
+    }
+
+    private long getOutcomeCount(Outcome outcome) {
+
+        return outcomeCounts[outcome.ordinal()].sum();
+    }
+}
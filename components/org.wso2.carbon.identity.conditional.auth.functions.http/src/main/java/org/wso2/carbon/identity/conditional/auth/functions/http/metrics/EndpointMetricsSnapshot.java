@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.metrics;
+
+/**
+ * Snapshot of the {@link EndpointMetrics} of an endpoint and method.
+ */
+public class EndpointMetricsSnapshot {
+
+    private final String endpoint;
+    private final String method;
+    private final HistogramSnapshot timeToFirstByte;
+    private final HistogramSnapshot totalTime;
+    private final HistogramSnapshot responseSize;
+    private final long successCount;
+    private final long redirectCount;
+    private final long clientErrorCount;
+    private final long serverErrorCount;
+    private final long timeoutCount;
+    private final long parseErrorCount;
+    private final long errorCount;
+    private final long retryCount;
+
+    public EndpointMetricsSnapshot(String endpoint, String method, HistogramSnapshot timeToFirstByte,
+                                   HistogramSnapshot totalTime, HistogramSnapshot responseSize, long successCount,
+                                   long redirectCount, long clientErrorCount, long serverErrorCount,
+                                   long timeoutCount, long parseErrorCount, long errorCount, long retryCount) {
+
+        this.endpoint = endpoint;
+        this.method = method;
+        this.timeToFirstByte = timeToFirstByte;
+        this.totalTime = totalTime;
+        this.responseSize = responseSize;
+        this.successCount = successCount;
+        this.redirectCount = redirectCount;
+        this.clientErrorCount = clientErrorCount;
+        this.serverErrorCount = serverErrorCount;
+        this.timeoutCount = timeoutCount;
+        this.parseErrorCount = parseErrorCount;
+        this.errorCount = errorCount;
+        this.retryCount = retryCount;
+    }
+
+    /**
+     * Get the endpoint, as scheme://host:port.
+     *
+     * @return Endpoint.
+     */
+    public String getEndpoint() {
+
+        return endpoint;
+    }
+
+    public String getMethod() {
+
+        return method;
+    }
+
+    /**
+     * Get the time from sending a request until its response headers are received, including hedged requests and
+     * retries, in microseconds.
+     *
+     * @return Time to first byte.
+     */
+    public HistogramSnapshot getTimeToFirstByte() {
+
+        return timeToFirstByte;
+    }
+
+    /**
+     * Get the time from sending a call until its response is received, including the wait for hedged requests, in
+     * microseconds. Each retry is counted as a call.
+     *
+     * @return Total time.
+     */
+    public HistogramSnapshot getTotalTime() {
+
+        return totalTime;
+    }
+
+    /**
+     * Get the size of the successful response bodies as received, i.e. before decompressing them, in bytes.
+     *
+     * @return Response size.
+     */
+    public HistogramSnapshot getResponseSize() {
+
+        return responseSize;
+    }
+
+    public long getSuccessCount() {
+
+        return successCount;
+    }
+
+    public long getRedirectCount() {
+
+        return redirectCount;
+    }
+
+    public long getClientErrorCount() {
+
+        return clientErrorCount;
+    }
+
+    public long getServerErrorCount() {
+
+        return serverErrorCount;
+    }
+
+    public long getTimeoutCount() {
+
+        return timeoutCount;
+    }
+
+    public long getParseErrorCount() {
+
+        return parseErrorCount;
+    }
+
+    /**
+     * Get the number of calls failed with an error other than a timeout or a parse error, e.g. a connection error
+     * or an oversized response.
+     *
+     * @return Error count.
+     */
+    public long getErrorCount() {
+
+        return errorCount;
+    }
+
+    public long getRetryCount() {
+
+        return retryCount;
+    }
+
+    @Override
+    public String toString() {
+
+        return method + " " + endpoint + " [success=" + successCount + ", redirect=" + redirectCount +
+                ", clientError=" + clientErrorCount + ", serverError=" + serverErrorCount + ", timeout=" +
+                timeoutCount + ", parseError=" + parseErrorCount + ", error=" + errorCount + ", retries=" +
+                retryCount + ", ttfb(us)={" + timeToFirstByte + "}, total(us)={" + totalTime + "}, size(bytes)={" +
+                responseSize + "}]";
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.metrics;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.http.hedging.HedgingPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per endpoint metrics of the calls made by the http functions. Metrics are recorded with lock free histograms and
+ * counters, and can be pulled with {@link #getEndpointMetrics()} and {@link #getConnectionMetrics()} or over JMX.
+ * <p>
+ * Endpoints are tracked as scheme://host:port, so that the number of tracked endpoints does not grow with the paths
+ * called by the scripts. Endpoints beyond {@link #MAX_ENDPOINTS} are not tracked.
+ */
+public class HTTPFunctionMetrics implements HTTPFunctionMetricsMXBean {
+
+    public static final String OBJECT_NAME = "org.wso2.carbon.identity.conditional.auth:type=HTTPFunctionMetrics";
+    static final int MAX_ENDPOINTS = 1000;
+
+    private final boolean enabled;
+    private final Map<String, EndpointMetrics> endpointMetrics = new ConcurrentHashMap<>();
+    private final Map<String, ConnectionMetrics> connectionMetrics = new ConcurrentHashMap<>();
+
+    private HTTPFunctionMetrics() {
+
+        this(ConfigProvider.getInstance().isHttpFunctionMetricsEnabled());
+    }
+
+    HTTPFunctionMetrics(boolean enabled) {
+
+        this.enabled = enabled;
+    }
+
+    private static class HTTPFunctionMetricsHolder {
+
+        static final HTTPFunctionMetrics INSTANCE = new HTTPFunctionMetrics();
+    }
+
+    public static HTTPFunctionMetrics getInstance() {
+
+        return HTTPFunctionMetricsHolder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Record the time from sending a request until its response headers are received.
+     *
+     * @param request Request to the endpoint.
+     * @param nanos   Time to first byte in nanoseconds.
+     */
+    public void recordTimeToFirstByte(HttpUriRequest request, long nanos) {
+
+        EndpointMetrics metrics = getEndpointMetrics(request);
+        if (metrics != null) {
+            metrics.recordTimeToFirstByte(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+    }
+
+    /**
+     * Record the time from sending a call until its response is received.
+     *
+     * @param request Request to the endpoint.
+     * @param nanos   Total time in nanoseconds.
+     */
+    public void recordTotalTime(HttpUriRequest request, long nanos) {
+
+        EndpointMetrics metrics = getEndpointMetrics(request);
+        if (metrics != null) {
+            metrics.recordTotalTime(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+    }
+
+    /**
+     * Record the size of a response body read from the endpoint.
+     *
+     * @param request Request to the endpoint.
+     * @param bytes   Size of the response body in bytes.
+     */
+    public void recordResponseSize(HttpUriRequest request, long bytes) {
+
+        EndpointMetrics metrics = getEndpointMetrics(request);
+        if (metrics != null) {
+            metrics.recordResponseSize(bytes);
+        }
+    }
+
+    /**
+     * Record the outcome of a call.
+     *
+     * @param request Request to the endpoint.
+     * @param outcome Outcome of the call.
+     */
+    public void recordOutcome(HttpUriRequest request, EndpointMetrics.Outcome outcome) {
+
+        EndpointMetrics metrics = getEndpointMetrics(request);
+        if (metrics != null) {
+            metrics.recordOutcome(outcome);
+        }
+    }
+
+    /**
+     * Record a retry of a call.
+     *
+     * @param request Request to the endpoint.
+     */
+    public void recordRetry(HttpUriRequest request) {
+
+        EndpointMetrics metrics = getEndpointMetrics(request);
+        if (metrics != null) {
+            metrics.recordRetry();
+        }
+    }
+
+    /**
+     * Record the time waited to lease a connection to the endpoint from the pool.
+     *
+     * @param endpoint Endpoint key, see {@link CommonUtils#getEndpointKey(java.net.URI)}.
+     * @param nanos    Wait time in nanoseconds.
+     */
+    public void recordConnectionWait(String endpoint, long nanos) {
+
+        ConnectionMetrics metrics = getConnectionMetrics(endpoint);
+        if (metrics != null) {
+            metrics.recordConnectionWait(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+    }
+
+    /**
+     * Record the time to open a new connection to the endpoint.
+     *
+     * @param endpoint Endpoint key, see {@link CommonUtils#getEndpointKey(java.net.URI)}.
+     * @param nanos    Connect time in nanoseconds.
+     */
+    public void recordConnect(String endpoint, long nanos) {
+
+        ConnectionMetrics metrics = getConnectionMetrics(endpoint);
+        if (metrics != null) {
+            metrics.recordConnect(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+    }
+
+    @Override
+    public List<EndpointMetricsSnapshot> getEndpointMetrics() {
+
+        List<EndpointMetricsSnapshot> snapshots = new ArrayList<>(endpointMetrics.size());
+        for (EndpointMetrics metrics : endpointMetrics.values()) {
+            snapshots.add(metrics.snapshot());
+        }
+        return snapshots;
+    }
+
+    @Override
+    public List<ConnectionMetricsSnapshot> getConnectionMetrics() {
+
+        List<ConnectionMetricsSnapshot> snapshots = new ArrayList<>(connectionMetrics.size());
+        for (ConnectionMetrics metrics : connectionMetrics.values()) {
+            snapshots.add(metrics.snapshot());
+        }
+        return snapshots;
+    }
+
+    @Override
+    public long getHedgeCount() {
+
+        return HedgingPolicy.getInstance().getHedgeCount();
+    }
+
+    @Override
+    public double getHedgeRate() {
+
+        return HedgingPolicy.getInstance().getHedgeRate();
+    }
+
+    @Override
+    public double getHedgeWinRate() {
+
+        return HedgingPolicy.getInstance().getHedgeWinRate();
+    }
+
+    @Override
+    public void reset() {
+
+        endpointMetrics.clear();
+        connectionMetrics.clear();
+    }
+
+    /**
+     * Register the metrics with the platform MBean server, unless metrics are disabled.
+     */
+    public void registerMBean() {
+
+        if (!enabled) {
+            return;
+        }
+        CommonUtils.registerMBean(this, OBJECT_NAME);
+    }
+
+    /**
+     * Unregister the metrics from the platform MBean server.
+     */
+    public void unregisterMBean() {
+
+        CommonUtils.unregisterMBean(OBJECT_NAME);
+    }
+
+    private EndpointMetrics getEndpointMetrics(HttpUriRequest request) {
+
+        if (!enabled) {
+            return null;
+        }
+        String endpoint = CommonUtils.getEndpointKey(request.getURI());
+        String method = request.getMethod();
+        return getOrCreate(endpointMetrics, method + " " + endpoint, key -> new EndpointMetrics(endpoint, method));
+    }
+
+    private ConnectionMetrics getConnectionMetrics(String endpoint) {
+
+        if (!enabled) {
+            return null;
+        }
+        return getOrCreate(connectionMetrics, endpoint, ConnectionMetrics::new);
+    }
+
+    private static <T> T getOrCreate(Map<String, T> metricsMap, String key, Function<String, T> factory) {
+
+        T metrics = metricsMap.get(key);
+        if (metrics != null || metricsMap.size() >= MAX_ENDPOINTS) {
+            return metrics;
+        }
+        return metricsMap.computeIfAbsent(key, factory);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.metrics;
+
+import java.util.List;
+
+/**
+ * Management interface of the {@link HTTPFunctionMetrics}, exposed over JMX.
+ */
+public interface HTTPFunctionMetricsMXBean {
+
+    /**
+     * Get the metrics of the calls of each endpoint and method.
+     *
+     * @return Endpoint metrics.
+     */
+    List<EndpointMetricsSnapshot> getEndpointMetrics();
+
+    /**
+     * Get the connection pool metrics of each endpoint.
+     *
+     * @return Connection metrics.
+     */
+    List<ConnectionMetricsSnapshot> getConnectionMetrics();
+
+    /**
+     * Get the number of hedged requests sent.
+     *
+     * @return Hedge count.
+     */
+    long getHedgeCount();
+
+    /**
+     * Get the fraction of the hedgeable requests which were hedged.
+     *
+     * @return Hedge rate between 0 and 1.
+     */
+    double getHedgeRate();
+
+    /**
+     * Get the fraction of the hedged requests whose hedge responded first.
+     *
+     * @return Hedge win rate between 0 and 1.
+     */
+    double getHedgeWinRate();
+
+    /**
+     * Discard the metrics recorded so far.
+     */
+    void reset();
+}
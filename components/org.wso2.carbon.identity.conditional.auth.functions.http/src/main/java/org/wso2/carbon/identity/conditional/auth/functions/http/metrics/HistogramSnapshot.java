@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.metrics;
+
+/**
+ * Summary of the values of a {@link Histogram}, in the unit of the recorded values.
+ */
+public class HistogramSnapshot {
+
+    private final long count;
+    private final double mean;
+    private final long max;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+
+    public HistogramSnapshot(long count, double mean, long max, long p50, long p90, long p99, long p999) {
+
+        this.count = count;
+        this.mean = mean;
+        this.max = max;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+    }
+
+    public long getCount() {
+
+        return count;
+    }
+
+    public double getMean() {
+
+        return mean;
+    }
+
+    public long getMax() {
+
+        return max;
+    }
+
+    public long getP50() {
+
+        return p50;
+    }
+
+    public long getP90() {
+
+        return p90;
+    }
+
+    public long getP99() {
+
+        return p99;
+    }
+
+    public long getP999() {
+
+        return p999;
+    }
+
+    @Override
+    public String toString() {
+
+        return "count=" + count + ", mean=" + String.format("%.1f", mean) + ", p50=" + p50 + ", p90=" + p90 +
+                ", p99=" + p99 + ", p999=" + p999 + ", max=" + max;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.metrics;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection manager of the blocking client which records the time waited to lease a connection and the time to
+ * open a new connection to each endpoint in the {@link HTTPFunctionMetrics}.
+ */
+public class MeteredConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final HTTPFunctionMetrics metrics;
+
+    public MeteredConnectionManager(HTTPFunctionMetrics metrics) {
+
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+
+        ConnectionRequest connectionRequest = super.requestConnection(route, state);
+        if (!metrics.isEnabled()) {
+            return connectionRequest;
+        }
+        return new ConnectionRequest() {
+
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit timeUnit) throws InterruptedException,
+                    ExecutionException, ConnectionPoolTimeoutException {
+
+                long requestedTime = System.nanoTime();
+                try {
+                    return connectionRequest.get(timeout, timeUnit);
+                } finally {
+                    metrics.recordConnectionWait(getEndpointKey(route), System.nanoTime() - requestedTime);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+
+                return connectionRequest.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void connect(HttpClientConnection managedConnection, HttpRoute route, int connectTimeout,
+                        HttpContext context) throws IOException {
+
+        long connectStartTime = System.nanoTime();
+        super.connect(managedConnection, route, connectTimeout, context);
+        metrics.recordConnect(getEndpointKey(route), System.nanoTime() - connectStartTime);
+    }
+
+    static String getEndpointKey(HttpRoute route) {
+
+        return CommonUtils.getEndpointKey(URI.create(route.getTargetHost().toURI()));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.metrics;
+
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection manager of the non-blocking client which records the time waited to lease a connection to each
+ * endpoint in the {@link HTTPFunctionMetrics}. The pool opens a new connection before completing the lease, hence
+ * the wait includes the time to connect when no pooled connection is available.
+ */
+public class MeteredNHttpConnectionManager extends PoolingNHttpClientConnectionManager {
+
+    private final HTTPFunctionMetrics metrics;
+
+    public MeteredNHttpConnectionManager(ConnectingIOReactor ioReactor, HTTPFunctionMetrics metrics) {
+
+        super(ioReactor);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Future<NHttpClientConnection> requestConnection(HttpRoute route, Object state, long connectTimeout,
+                                                           long leaseTimeout, TimeUnit timeUnit,
+                                                           FutureCallback<NHttpClientConnection> callback) {
+
+        if (!metrics.isEnabled()) {
+            return super.requestConnection(route, state, connectTimeout, leaseTimeout, timeUnit, callback);
+        }
+        long requestedTime = System.nanoTime();
+        return super.requestConnection(route, state, connectTimeout, leaseTimeout, timeUnit,
+                new FutureCallback<NHttpClientConnection>() {
+
+                    @Override
+                    public void completed(NHttpClientConnection connection) {
+
+                        recordWait();
+                        if (callback != null) {
+                            callback.completed(connection);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+
+                        recordWait();
+                        if (callback != null) {
+                            callback.failed(e);
+                        }
+                    }
+
+                    @Override
+                    public void cancelled() {
+
+                        if (callback != null) {
+                            callback.cancelled();
+                        }
+                    }
+
+                    private void recordWait() {
+
+                        metrics.recordConnectionWait(MeteredConnectionManager.getEndpointKey(route),
+                                System.nanoTime() - requestedTime);
+                    }
+                });
+    }
+}
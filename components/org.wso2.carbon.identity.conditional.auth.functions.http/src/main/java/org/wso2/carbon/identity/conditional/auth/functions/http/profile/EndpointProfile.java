@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.profile;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.message.BasicHeader;
+import org.wso2.carbon.identity.application.authentication.framework.AsyncReturn;
+import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.EndpointProfileAttributes;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.AuthConfig;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.AuthConfigFactory;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.AuthConfigModel;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.HTTPClientManager;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.HTTPRequestOptions;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.HttpUtil;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Named endpoint of the http functions configured on the server, which scripts refer to by its name instead of
+ * giving the url and the credentials of the endpoint. E.g. httpGet('riskApi', '/score?user=' + id, eventHandlers)
+ * <p>
+ * The profile is validated and compiled once: the base url is parsed and checked against the allowed domains, and
+ * static credentials are turned into the header sent with each request. Only the path is appended per call.
+ * A profile with credentials has to list the tenants allowed to use it, or * to allow all the tenants, so that the
+ * credentials of the operator are not given to every tenant by default.
+ */
+public class EndpointProfile {
+
+    private static final String AUTH_TYPE_BASIC = "basic";
+    private static final String AUTH_TYPE_BEARER = "bearer";
+    private static final String AUTH_TYPE_API_KEY = "apikey";
+    private static final String AUTH_TYPE_CLIENT_CREDENTIAL = "clientcredential";
+    private static final String DEFAULT_API_KEY_HEADER = "X-API-KEY";
+    private static final String CONSUMER_KEY = "consumerKey";
+    private static final String CONSUMER_SECRET = "consumerSecret";
+    private static final String TOKEN_ENDPOINT = "tokenEndpoint";
+    private static final String SCOPE = "scope";
+    private static final String ALL_TENANTS = "*";
+
+    private final String name;
+    private final String baseUrl;
+    private final URI baseUri;
+    private final Header authHeader;
+    private final AuthConfigModel authConfigModel;
+    private final RequestConfig requestConfig;
+    private final int maxConnections;
+    private final HTTPRequestOptions defaultOptions;
+    private final Set<String> tenants;
+
+    private EndpointProfile(String name, String baseUrl, URI baseUri, Header authHeader,
+                            AuthConfigModel authConfigModel, RequestConfig requestConfig, int maxConnections,
+                            HTTPRequestOptions defaultOptions, Set<String> tenants) {
+
+        this.name = name;
+        this.baseUrl = baseUrl;
+        this.baseUri = baseUri;
+        this.authHeader = authHeader;
+        this.authConfigModel = authConfigModel;
+        this.requestConfig = requestConfig;
+        this.maxConnections = maxConnections;
+        this.defaultOptions = defaultOptions;
+        this.tenants = tenants;
+    }
+
+    /**
+     * Validate and compile the profile from its configured attributes.
+     *
+     * @param name           Name of the profile.
+     * @param attributes     Attributes of the profile, see {@link EndpointProfileAttributes}.
+     * @param allowedDomains Allowed domains of the http functions.
+     * @return Compiled profile.
+     * @throws IllegalArgumentException If the profile is not valid.
+     */
+    static EndpointProfile compile(String name, Map<String, String> attributes, List<String> allowedDomains) {
+
+        String baseUrl = StringUtils.removeEnd(attributes.get(EndpointProfileAttributes.BASE_URL), "/");
+        if (StringUtils.isEmpty(baseUrl)) {
+            throw new IllegalArgumentException("Base url is not configured.");
+        }
+        URI baseUri;
+        try {
+            baseUri = new URI(baseUrl);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid base url: " + baseUrl, e);
+        }
+        if (!"http".equalsIgnoreCase(baseUri.getScheme()) && !"https".equalsIgnoreCase(baseUri.getScheme()) ||
+                baseUri.getHost() == null || baseUri.getRawQuery() != null || baseUri.getRawFragment() != null) {
+            throw new IllegalArgumentException("Base url should be an http or https url without a query or a " +
+                    "fragment: " + baseUrl);
+        }
+        if (!HttpUtil.isAllowedDomain(baseUri, allowedDomains)) {
+            throw new IllegalArgumentException("Base url does not match with the allowed domain list: " + baseUrl);
+        }
+
+        Header authHeader = null;
+        AuthConfigModel authConfigModel = null;
+        String authType = attributes.get(EndpointProfileAttributes.AUTH_TYPE);
+        if (StringUtils.isNotEmpty(authType)) {
+            switch (authType.toLowerCase()) {
+                case AUTH_TYPE_BASIC:
+                    String credentials = getRequiredAttribute(attributes, EndpointProfileAttributes.USERNAME) + ":" +
+                            getRequiredAttribute(attributes, EndpointProfileAttributes.PASSWORD);
+                    authHeader = new BasicHeader(HttpHeaders.AUTHORIZATION, "Basic " +
+                            Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+                    break;
+                case AUTH_TYPE_BEARER:
+                    authHeader = new BasicHeader(HttpHeaders.AUTHORIZATION, "Bearer " +
+                            getRequiredAttribute(attributes, EndpointProfileAttributes.TOKEN));
+                    break;
+                case AUTH_TYPE_API_KEY:
+                    authHeader = new BasicHeader(attributes.getOrDefault(EndpointProfileAttributes.HEADER_NAME,
+                            DEFAULT_API_KEY_HEADER), getRequiredAttribute(attributes,
+                            EndpointProfileAttributes.API_KEY));
+                    break;
+                case AUTH_TYPE_CLIENT_CREDENTIAL:
+                    // The token is obtained per call, as it expires and is cached per tenant.
+                    Map<String, Object> properties = new HashMap<>();
+                    properties.put(CONSUMER_KEY, getRequiredAttribute(attributes,
+                            EndpointProfileAttributes.CONSUMER_KEY));
+                    properties.put(CONSUMER_SECRET, getRequiredAttribute(attributes,
+                            EndpointProfileAttributes.CONSUMER_SECRET));
+                    properties.put(TOKEN_ENDPOINT, getRequiredAttribute(attributes,
+                            EndpointProfileAttributes.TOKEN_ENDPOINT));
+                    if (attributes.containsKey(EndpointProfileAttributes.SCOPE)) {
+                        properties.put(SCOPE, attributes.get(EndpointProfileAttributes.SCOPE));
+                    }
+                    authConfigModel = new AuthConfigModel(authType, Collections.unmodifiableMap(properties));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported authentication type: " + authType);
+            }
+        }
+
+        RequestConfig requestConfig = null;
+        int connectTimeout = getIntAttribute(attributes, EndpointProfileAttributes.CONNECT_TIMEOUT);
+        int readTimeout = getIntAttribute(attributes, EndpointProfileAttributes.READ_TIMEOUT);
+        if (connectTimeout > 0 || readTimeout > 0) {
+            ConfigProvider configProvider = ConfigProvider.getInstance();
+            requestConfig = HTTPClientManager.createRequestConfig(
+                    connectTimeout > 0 ? connectTimeout : configProvider.getConnectionTimeout(),
+                    readTimeout > 0 ? readTimeout : configProvider.getReadTimeout());
+        }
+
+        Map<String, Object> options = new HashMap<>();
+        if (attributes.containsKey(EndpointProfileAttributes.RETRY)) {
+            options.put(HTTPRequestOptions.RETRY, Boolean.parseBoolean(attributes.get(
+                    EndpointProfileAttributes.RETRY)));
+        }
+        int cacheTtl = getIntAttribute(attributes, EndpointProfileAttributes.CACHE_TTL);
+        if (cacheTtl >= 0) {
+            options.put(HTTPRequestOptions.CACHE_TTL, cacheTtl);
+        }
+
+        Set<String> tenants = new HashSet<>();
+        for (String tenant : StringUtils.split(attributes.getOrDefault(EndpointProfileAttributes.TENANTS, ""),
+                ',')) {
+            if (StringUtils.isNotBlank(tenant)) {
+                tenants.add(tenant.trim());
+            }
+        }
+        if (tenants.isEmpty() && (authHeader != null || authConfigModel != null)) {
+            throw new IllegalArgumentException(EndpointProfileAttributes.TENANTS + " should be configured for a " +
+                    "profile with credentials. Use " + ALL_TENANTS + " to allow all the tenants.");
+        }
+
+        return new EndpointProfile(name, baseUrl, baseUri, authHeader, authConfigModel, requestConfig,
+                Math.max(getIntAttribute(attributes, EndpointProfileAttributes.MAX_CONNECTIONS), 0),
+                HTTPRequestOptions.fromMap(options), Collections.unmodifiableSet(tenants));
+    }
+
+    private static String getRequiredAttribute(Map<String, String> attributes, String attribute) {
+
+        String value = attributes.get(attribute);
+        if (StringUtils.isEmpty(value)) {
+            throw new IllegalArgumentException(attribute + " is required for the authentication type: " +
+                    attributes.get(EndpointProfileAttributes.AUTH_TYPE));
+        }
+        return value;
+    }
+
+    private static int getIntAttribute(Map<String, String> attributes, String attribute) {
+
+        String value = attributes.get(attribute);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + attribute + ": " + value, e);
+        }
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    public URI getBaseUri() {
+
+        return baseUri;
+    }
+
+    /**
+     * Maximum number of pooled connections to the endpoint.
+     *
+     * @return Max connections, or 0 if the pool limits of the http functions apply.
+     */
+    public int getMaxConnections() {
+
+        return maxConnections;
+    }
+
+    /**
+     * Options applied to the calls of the profile, unless given for the call.
+     *
+     * @return Default options of the profile.
+     */
+    public HTTPRequestOptions getDefaultOptions() {
+
+        return defaultOptions;
+    }
+
+    /**
+     * Whether the given tenant can call the endpoint. A profile without credentials and without a tenant list, or
+     * with * in the tenant list, can be used by all tenants.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return True if the tenant can use the profile.
+     */
+    public boolean isAllowedFor(String tenantDomain) {
+
+        return tenants.isEmpty() || tenants.contains(ALL_TENANTS) || tenants.contains(tenantDomain);
+    }
+
+    /**
+     * Resolve the url of a call to the endpoint. The path is appended to the base url and the result is normalized,
+     * hence a call can never reach a host other than the one of the profile, or a path outside the base path.
+     *
+     * @param path Path and query of the call, starting with '/' or '?'. May be empty.
+     * @return Url of the call.
+     * @throws IllegalArgumentException If the path is not relative to the base url or leaves the base path.
+     */
+    public String resolveUrl(String path) {
+
+        if (StringUtils.isEmpty(path)) {
+            return baseUrl;
+        }
+        if (!(path.startsWith("/") || path.startsWith("?")) || path.startsWith("//")) {
+            throw new IllegalArgumentException("Invalid path: " + path + " for the endpoint profile: " + name +
+                    ". Expected a path starting with '/' or '?'.");
+        }
+        URI uri;
+        try {
+            uri = new URI(baseUrl + path).normalize();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid path: " + path + " for the endpoint profile: " + name, e);
+        }
+        if (!isWithinBasePath(uri)) {
+            throw new IllegalArgumentException("Invalid path: " + path + " for the endpoint profile: " + name +
+                    ". The path leaves the base path of the endpoint.");
+        }
+        return uri.toString();
+    }
+
+    private boolean isWithinBasePath(URI uri) {
+
+        if (!StringUtils.equals(uri.getRawAuthority(), baseUri.getRawAuthority())) {
+            return false;
+        }
+        // Decoded path, so that encoded dot segments are not let through to the endpoint either.
+        String resolvedPath = StringUtils.defaultString(uri.getPath());
+        for (String segment : resolvedPath.split("/")) {
+            if (".".equals(segment) || "..".equals(segment)) {
+                return false;
+            }
+        }
+        String basePath = StringUtils.defaultString(baseUri.getPath());
+        return resolvedPath.equals(basePath) || resolvedPath.startsWith(basePath + "/");
+    }
+
+    /**
+     * Apply the timeouts of the profile to the request, if any.
+     *
+     * @param request Request to the endpoint.
+     */
+    public void applyRequestConfig(HttpUriRequest request) {
+
+        if (requestConfig != null && request instanceof HttpRequestBase) {
+            ((HttpRequestBase) request).setConfig(requestConfig);
+        }
+    }
+
+    /**
+     * Apply the credentials of the profile to the request.
+     *
+     * @param request     Request to the endpoint.
+     * @param context     Authentication context.
+     * @param asyncReturn AsyncReturn of the long wait process, used to fail the flow if a token cannot be obtained.
+     * @return Authenticated request.
+     * @throws Exception If the credentials cannot be applied.
+     */
+    public HttpUriRequest applyAuth(HttpUriRequest request, AuthenticationContext context, AsyncReturn asyncReturn)
+            throws Exception {
+
+        if (authHeader != null) {
+            request.setHeader(authHeader);
+            return request;
+        }
+        if (authConfigModel != null) {
+            return AuthConfigFactory.getAuthConfig(authConfigModel, context, asyncReturn).applyAuth(request,
+                    authConfigModel);
+        }
+        return request;
+    }
+
+    /**
+     * Apply the credentials of the profile to a request sent without blocking the calling thread, see
+     * {@link AuthConfig#applyAuth(HttpUriRequest, AuthConfigModel, BiConsumer)}.
+     *
+     * @param request     Request to the endpoint.
+     * @param context     Authentication context.
+     * @param asyncReturn AsyncReturn of the long wait process.
+     * @param completion  Consumer of the authenticated request, or of the error if the credentials cannot be
+     *                    applied.
+     */
+    public void applyAuth(HttpUriRequest request, AuthenticationContext context, AsyncReturn asyncReturn,
+                          BiConsumer<HttpUriRequest, Exception> completion) {
+
+        if (authHeader != null) {
+            request.setHeader(authHeader);
+        } else if (authConfigModel != null) {
+            AuthConfigFactory.getAuthConfig(authConfigModel, context, asyncReturn).applyAuth(request,
+                    authConfigModel, completion);
+            return;
+        }
+        completion.accept(request, null);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.profile;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.HTTPClientManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the endpoint profiles of the http functions, compiled once from the configuration. Invalid profiles are
+ * logged and left out, so that scripts referring to them fail instead of calling a misconfigured endpoint.
+ */
+public class EndpointProfileRegistry {
+
+    private static final Log LOG = LogFactory.getLog(EndpointProfileRegistry.class);
+
+    private final Map<String, EndpointProfile> profiles;
+
+    private EndpointProfileRegistry() {
+
+        ConfigProvider configProvider = ConfigProvider.getInstance();
+        List<String> allowedDomains = configProvider.getAllowedDomainsForHttpFunctions();
+        Map<String, EndpointProfile> compiledProfiles = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> entry :
+                configProvider.getHttpFunctionEndpointProfiles().entrySet()) {
+            EndpointProfile profile;
+            try {
+                profile = EndpointProfile.compile(entry.getKey(), entry.getValue(), allowedDomains);
+            } catch (IllegalArgumentException e) {
+                LOG.error("Invalid endpoint profile: " + entry.getKey() + ". " + e.getMessage());
+                continue;
+            }
+            if (profile.getMaxConnections() > 0) {
+                HTTPClientManager.getInstance().setMaxConnections(profile.getBaseUri(), profile.getMaxConnections());
+            }
+            compiledProfiles.put(profile.getName(), profile);
+        }
+        profiles = Collections.unmodifiableMap(compiledProfiles);
+    }
+
+    private static class EndpointProfileRegistryHolder {
+
+        static final EndpointProfileRegistry INSTANCE = new EndpointProfileRegistry();
+    }
+
+    public static EndpointProfileRegistry getInstance() {
+
+        return EndpointProfileRegistryHolder.INSTANCE;
+    }
+
+    /**
+     * Get the endpoint profile of the given name.
+     *
+     * @param name Name of the profile.
+     * @return Endpoint profile or null if there is no valid profile with the name.
+     */
+    public EndpointProfile getProfile(String name) {
+
+        return profiles.get(name);
+    }
+}
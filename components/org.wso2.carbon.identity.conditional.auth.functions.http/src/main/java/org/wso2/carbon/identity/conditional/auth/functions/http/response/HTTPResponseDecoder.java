@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.response;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.ContentTooLongException;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.DeflateInputStream;
+import org.apache.http.entity.ContentType;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.wso2.carbon.identity.conditional.auth.functions.http.compression.CompressionMetrics;
+import org.wso2.carbon.identity.conditional.auth.functions.http.compression.HTTPCompressionHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decoder of the response bodies received by the http functions. The body is read as a stream and the decoding
+ * fails as soon as it exceeds the maximum response size, instead of buffering the whole body first. JSON bodies can
+ * be projected while parsing, so that only the selected parts of the document are materialized. Gzip and deflate
+ * encoded bodies are decompressed as they are read.
+ * <p>
+ * The content stream is not closed by the decoder. The caller releases the response, which discards the rest of an
+ * oversized body along with the connection instead of reading it to the end.
+ */
+public class HTTPResponseDecoder {
+
+    private HTTPResponseDecoder() {
+
+    }
+
+    /**
+     * Decode a JSON response body.
+     *
+     * @param entity          Response entity.
+     * @param maxResponseSize Maximum size of the body in bytes.
+     * @param projection      Parts of the document to be materialized, or null to materialize the whole document.
+     * @return Decoded JSON object.
+     * @throws ContentTooLongException If the body exceeds the maximum response size.
+     * @throws IOException             If an error occurred while reading the body.
+     * @throws ParseException          If the body is not valid JSON.
+     */
+    public static JSONObject decodeJson(HttpEntity entity, long maxResponseSize, JSONProjection projection)
+            throws IOException, ParseException {
+
+        ResponseBody body = openBody(entity, maxResponseSize);
+        Reader reader = new InputStreamReader(body.decodedStream, getCharset(entity, StandardCharsets.UTF_8));
+        JSONParser parser = new JSONParser();
+        Object json;
+        if (projection == null) {
+            json = parser.parse(reader);
+        } else {
+            ProjectingContentHandler contentHandler = new ProjectingContentHandler(projection);
+            parser.parse(reader, contentHandler);
+            json = contentHandler.getResult();
+        }
+        body.recordCompression();
+        return (JSONObject) json;
+    }
+
+    /**
+     * Decode a text response body.
+     *
+     * @param entity          Response entity.
+     * @param maxResponseSize Maximum size of the body in bytes.
+     * @return Body as a string.
+     * @throws ContentTooLongException If the body exceeds the maximum response size.
+     * @throws IOException             If an error occurred while reading the body.
+     */
+    public static String decodeString(HttpEntity entity, long maxResponseSize) throws IOException {
+
+        ResponseBody body = openBody(entity, maxResponseSize);
+        Reader reader = new InputStreamReader(body.decodedStream, getCharset(entity, StandardCharsets.ISO_8859_1));
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[4096];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            text.append(buffer, 0, read);
+        }
+        body.recordCompression();
+        return text.toString();
+    }
+
+    /**
+     * Open the content stream of the entity, decompressing it as it is read if the body is gzip or deflate encoded.
+     * The size limit applies to the decompressed body, so a small compressed body cannot expand beyond it.
+     */
+    private static ResponseBody openBody(HttpEntity entity, long maxResponseSize) throws IOException {
+
+        if (entity.getContentLength() > maxResponseSize) {
+            throw new ContentTooLongException("Response of " + entity.getContentLength() + " bytes exceeds the " +
+                    "maximum response size of " + maxResponseSize + " bytes.");
+        }
+        InputStream content = entity.getContent();
+        if (content == null) {
+            content = new ByteArrayInputStream(new byte[0]);
+        }
+        String contentEncoding = entity.getContentEncoding() != null ?
+                entity.getContentEncoding().getValue().trim().toLowerCase(Locale.ROOT) : null;
+        if (StringUtils.isEmpty(contentEncoding) || HTTPCompressionHandler.ENCODING_IDENTITY.equals(
+                contentEncoding)) {
+            return new ResponseBody(null, new SizeLimitedInputStream(content, maxResponseSize));
+        }
+        // Only counts the bytes received, the limit is enforced on the decompressed body.
+        SizeLimitedInputStream receivedStream = new SizeLimitedInputStream(content, Long.MAX_VALUE);
+        InputStream decompressedStream;
+        if (HTTPCompressionHandler.ENCODING_GZIP.equals(contentEncoding) ||
+                HTTPCompressionHandler.ENCODING_X_GZIP.equals(contentEncoding)) {
+            decompressedStream = new GZIPInputStream(receivedStream);
+        } else if (HTTPCompressionHandler.ENCODING_DEFLATE.equals(contentEncoding)) {
+            // Handles both the zlib wrapped and the raw deflate formats sent by servers.
+            decompressedStream = new DeflateInputStream(receivedStream);
+        } else {
+            throw new IOException("Unsupported content encoding of the response: " + contentEncoding);
+        }
+        return new ResponseBody(receivedStream, new SizeLimitedInputStream(decompressedStream, maxResponseSize));
+    }
+
+    private static Charset getCharset(HttpEntity entity, Charset defaultCharset) {
+
+        try {
+            ContentType contentType = ContentType.get(entity);
+            if (contentType == null) {
+                return defaultCharset;
+            }
+            Charset charset = contentType.getCharset();
+            if (charset == null) {
+                ContentType defaultContentType = ContentType.getByMimeType(contentType.getMimeType());
+                charset = defaultContentType != null ? defaultContentType.getCharset() : null;
+            }
+            return charset != null ? charset : defaultCharset;
+        } catch (UnsupportedCharsetException | org.apache.http.ParseException e) {
+            return defaultCharset;
+        }
+    }
+
+    /**
+     * Content stream of a response body being decoded.
+     */
+    private static class ResponseBody {
+
+        private final SizeLimitedInputStream receivedStream;
+        private final SizeLimitedInputStream decodedStream;
+
+        ResponseBody(SizeLimitedInputStream receivedStream, SizeLimitedInputStream decodedStream) {
+
+            this.receivedStream = receivedStream;
+            this.decodedStream = decodedStream;
+        }
+
+        void recordCompression() {
+
+            if (receivedStream != null) {
+                CompressionMetrics.getInstance().recordCompressedResponse(receivedStream.getReadSize(),
+                        decodedStream.getReadSize());
+            }
+        }
+    }
+
+    /**
+     * Input stream which fails once more than the given number of bytes are read from it.
+     */
+    static class SizeLimitedInputStream extends FilterInputStream {
+
+        private final long maxSize;
+        private long readSize;
+
+        SizeLimitedInputStream(InputStream in, long maxSize) {
+
+            super(in);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            int value = super.read();
+            if (value != -1) {
+                count(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long length) throws IOException {
+
+            long skipped = super.skip(length);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+
+            return false;
+        }
+
+        long getReadSize() {
+
+            return readSize;
+        }
+
+        private void count(long size) throws ContentTooLongException {
+
+            readSize += size;
+            if (readSize > maxSize) {
+                throw new ContentTooLongException("Response exceeds the maximum response size of " + maxSize +
+                        " bytes.");
+            }
+        }
+    }
+
+    /**
+     * Content handler which builds only the parts of the document selected by a projection. The values which are
+     * not selected are parsed and dropped right away. Array elements before a selected element are kept as nulls,
+     * so that the selected element stays at the index given in the pointer.
+     */
+    static class ProjectingContentHandler implements ContentHandler {
+
+        private final JSONProjection projection;
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private final List<String> path = new ArrayList<>();
+        private Object result;
+
+        ProjectingContentHandler(JSONProjection projection) {
+
+            this.projection = projection;
+        }
+
+        Object getResult() {
+
+            return result;
+        }
+
+        @Override
+        public void startJSON() {
+
+            frames.clear();
+            path.clear();
+            result = null;
+        }
+
+        @Override
+        public void endJSON() {
+
+        }
+
+        @Override
+        public boolean startObject() {
+
+            startContainer(new JSONObject());
+            return true;
+        }
+
+        @Override
+        public boolean endObject() {
+
+            endContainer();
+            return true;
+        }
+
+        @Override
+        public boolean startObjectEntry(String key) {
+
+            frames.peek().key = key;
+            return true;
+        }
+
+        @Override
+        public boolean endObjectEntry() {
+
+            return true;
+        }
+
+        @Override
+        public boolean startArray() {
+
+            startContainer(new JSONArray());
+            return true;
+        }
+
+        @Override
+        public boolean endArray() {
+
+            endContainer();
+            return true;
+        }
+
+        @Override
+        public boolean primitive(Object value) {
+
+            Frame parent = frames.peek();
+            boolean pathTokenAdded = enterChild(parent);
+            JSONProjection.Selection selection = selectChild(parent);
+            if (pathTokenAdded) {
+                path.remove(path.size() - 1);
+            }
+            if (selection == JSONProjection.Selection.SELECTED) {
+                attach(parent, value);
+            }
+            return true;
+        }
+
+        private void startContainer(Object container) {
+
+            Frame parent = frames.peek();
+            boolean pathTokenAdded = enterChild(parent);
+            JSONProjection.Selection selection = selectChild(parent);
+            frames.push(new Frame(selection, selection == JSONProjection.Selection.SKIPPED ? null : container,
+                    pathTokenAdded));
+        }
+
+        private void endContainer() {
+
+            Frame frame = frames.pop();
+            if (frame.pathTokenAdded) {
+                path.remove(path.size() - 1);
+            }
+            Frame parent = frames.peek();
+            boolean attach = frame.selection == JSONProjection.Selection.SELECTED ||
+                    (frame.selection == JSONProjection.Selection.ON_PATH && (parent == null || !isEmpty(frame)));
+            if (attach) {
+                attach(parent, frame.container);
+            }
+        }
+
+        /**
+         * Move to the next child of the given parent, adding its reference token to the path if the selection of
+         * the child depends on it.
+         */
+        private boolean enterChild(Frame parent) {
+
+            if (parent == null) {
+                return false;
+            }
+            String token = parent.container instanceof JSONArray ? String.valueOf(parent.nextIndex) : parent.key;
+            parent.nextIndex++;
+            if (parent.selection != JSONProjection.Selection.ON_PATH) {
+                return false;
+            }
+            path.add(token);
+            return true;
+        }
+
+        private JSONProjection.Selection selectChild(Frame parent) {
+
+            if (parent == null || parent.selection == JSONProjection.Selection.ON_PATH) {
+                return projection.select(path);
+            }
+            return parent.selection;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void attach(Frame parent, Object value) {
+
+            if (parent == null) {
+                result = value;
+            } else if (parent.container instanceof JSONObject) {
+                ((JSONObject) parent.container).put(parent.key, value);
+            } else {
+                JSONArray array = (JSONArray) parent.container;
+                while (array.size() < parent.nextIndex - 1) {
+                    array.add(null);
+                }
+                array.add(value);
+            }
+        }
+
+        private boolean isEmpty(Frame frame) {
+
+            return frame.container instanceof JSONObject ? ((JSONObject) frame.container).isEmpty() :
+                    ((JSONArray) frame.container).isEmpty();
+        }
+    }
+
+    /**
+     * Object or array being parsed by the projecting content handler.
+     */
+    private static class Frame {
+
+        private final JSONProjection.Selection selection;
+        private final Object container;
+        private final boolean pathTokenAdded;
+        private String key;
+        private int nextIndex;
+
+        Frame(JSONProjection.Selection selection, Object container, boolean pathTokenAdded) {
+
+            this.selection = selection;
+            this.container = container;
+            this.pathTokenAdded = pathTokenAdded;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Set of JSON pointers (RFC 6901) selecting the parts of a response to be materialized for the adaptive script.
+ * E.g. httpGet(url, headers, null, {fields: ["/user/riskScore", "/groups"]}, eventHandlers)
+ */
+public class JSONProjection {
+
+    private final List<List<String>> pointers;
+    private final String key;
+
+    private JSONProjection(List<List<String>> pointers, String key) {
+
+        this.pointers = pointers;
+        this.key = key;
+    }
+
+    /**
+     * Build the projection from the given JSON pointers.
+     *
+     * @param pointers JSON pointers such as "/user/roles/0". An empty pointer selects the whole document.
+     * @return JSONProjection.
+     * @throws IllegalArgumentException If a pointer is invalid.
+     */
+    public static JSONProjection of(List<String> pointers) {
+
+        List<List<String>> parsedPointers = new ArrayList<>(pointers.size());
+        for (String pointer : pointers) {
+            parsedPointers.add(parsePointer(pointer));
+        }
+        return new JSONProjection(Collections.unmodifiableList(parsedPointers), String.join(",", pointers));
+    }
+
+    private static List<String> parsePointer(String pointer) {
+
+        if (pointer == null || (!pointer.isEmpty() && pointer.charAt(0) != '/')) {
+            throw new IllegalArgumentException("Invalid JSON pointer: " + pointer + ". Expected a pointer such as " +
+                    "/user/name.");
+        }
+        if (pointer.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    /**
+     * Decide how the value at the given path is treated.
+     *
+     * @param path Reference tokens leading to the value from the root of the document.
+     * @return Selection of the value.
+     */
+    Selection select(List<String> path) {
+
+        Selection selection = Selection.SKIPPED;
+        for (List<String> pointer : pointers) {
+            if (isPrefix(pointer, path)) {
+                return Selection.SELECTED;
+            }
+            if (isPrefix(path, pointer)) {
+                selection = Selection.ON_PATH;
+            }
+        }
+        return selection;
+    }
+
+    private static boolean isPrefix(List<String> prefix, List<String> path) {
+
+        if (prefix.size() > path.size()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.size(); i++) {
+            if (!prefix.get(i).equals(path.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get a stable representation of the projection, used to tell apart the responses of the same request
+     * projected differently.
+     *
+     * @return Projection key.
+     */
+    public String getKey() {
+
+        return key;
+    }
+
+    /**
+     * How a value of the response is treated by the projection.
+     */
+    enum Selection {
+
+        // The value is selected by a pointer and is materialized with all its descendants.
+        SELECTED,
+        // The value is not selected, but some of its descendants may be.
+        ON_PATH,
+        // Neither the value nor its descendants are selected.
+        SKIPPED
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.response;
+
+import org.apache.http.ContentTooLongException;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.ContentBufferEntity;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.nio.util.HeapByteBufferAllocator;
+import org.apache.http.nio.util.SimpleInputBuffer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+
+/**
+ * Response consumer of the non-blocking client which buffers the response body in memory, like the default consumer,
+ * but fails the request once the body exceeds the maximum response size. The body of an oversized response is never
+ * accumulated in the heap.
+ */
+public class SizeLimitedResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    private final long maxResponseSize;
+    private final Runnable responseListener;
+    private volatile HttpResponse response;
+    private volatile SimpleInputBuffer buffer;
+    private long receivedSize;
+
+    /**
+     * @param maxResponseSize Maximum size of the response body in bytes.
+     */
+    public SizeLimitedResponseConsumer(long maxResponseSize) {
+
+        this(maxResponseSize, null);
+    }
+
+    /**
+     * @param maxResponseSize  Maximum size of the response body in bytes.
+     * @param responseListener Listener called once the response headers are received, or null.
+     */
+    public SizeLimitedResponseConsumer(long maxResponseSize, Runnable responseListener) {
+
+        this.maxResponseSize = maxResponseSize;
+        this.responseListener = responseListener;
+    }
+
+    @Override
+    protected void onResponseReceived(HttpResponse response) {
+
+        this.response = response;
+        if (responseListener != null) {
+            responseListener.run();
+        }
+    }
+
+    @Override
+    protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) throws IOException {
+
+        long contentLength = entity.getContentLength();
+        if (contentLength > maxResponseSize) {
+            throw new ContentTooLongException("Response of " + contentLength + " bytes exceeds the maximum " +
+                    "response size of " + maxResponseSize + " bytes.");
+        }
+        int initialSize = contentLength < 0 ? DEFAULT_BUFFER_SIZE : (int) Math.max(contentLength, 1);
+        buffer = new SimpleInputBuffer(initialSize, new HeapByteBufferAllocator());
+        response.setEntity(new ContentBufferEntity(entity, buffer));
+    }
+
+    @Override
+    protected void onContentReceived(ContentDecoder decoder, IOControl ioControl) throws IOException {
+
+        receivedSize += buffer.consumeContent(decoder);
+        if (receivedSize > maxResponseSize) {
+            throw new ContentTooLongException("Response exceeds the maximum response size of " + maxResponseSize +
+                    " bytes.");
+        }
+    }
+
+    @Override
+    protected HttpResponse buildResult(HttpContext context) {
+
+        return response;
+    }
+
+    @Override
+    protected void releaseResources() {
+
+        response = null;
+        buffer = null;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.transport;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.wso2.carbon.identity.conditional.auth.functions.http.metrics.HTTPFunctionMetrics;
+import org.wso2.carbon.identity.conditional.auth.functions.http.response.SizeLimitedResponseConsumer;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+
+/**
+ * HTTP/1.1 transport based on the pooled Apache clients of {@link
+ * org.wso2.carbon.identity.conditional.auth.functions.http.util.HTTPClientManager}. The non-blocking client is used
+ * when non-blocking IO is enabled for the http functions.
+ */
+public class ApacheHTTPTransport implements HTTPTransport {
+
+    public static final String NAME = "http1";
+
+    private final CloseableHttpClient client;
+    private final CloseableHttpAsyncClient asyncClient;
+    private final HTTPFunctionMetrics metrics = HTTPFunctionMetrics.getInstance();
+
+    /**
+     * @param client      Blocking client.
+     * @param asyncClient Non-blocking client, or null if non-blocking IO is not enabled.
+     */
+    public ApacheHTTPTransport(CloseableHttpClient client, CloseableHttpAsyncClient asyncClient) {
+
+        this.client = client;
+        this.asyncClient = asyncClient;
+    }
+
+    @Override
+    public String getName() {
+
+        return NAME;
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+
+        return asyncClient != null;
+    }
+
+    @Override
+    public CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+
+        long sentTime = System.nanoTime();
+        CloseableHttpResponse response = client.execute(request);
+        metrics.recordTimeToFirstByte(request, System.nanoTime() - sentTime);
+        return response;
+    }
+
+    @Override
+    public Future<?> execute(HttpUriRequest request, long maxResponseSize, FutureCallback<HttpResponse> callback) {
+
+        // The body is buffered by a consumer which fails the request once the body exceeds the limit.
+        long sentTime = System.nanoTime();
+        return asyncClient.execute(HttpAsyncMethods.create(request), new SizeLimitedResponseConsumer(maxResponseSize,
+                () -> metrics.recordTimeToFirstByte(request, System.nanoTime() - sentTime)), callback);
+    }
+}
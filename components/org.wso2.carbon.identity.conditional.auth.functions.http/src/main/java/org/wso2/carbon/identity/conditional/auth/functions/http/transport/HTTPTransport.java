@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.transport;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+
+/**
+ * Transport used by the http functions to send requests to external apis. Requests and responses are represented
+ * with the Apache HttpCore model regardless of the client behind the transport, so that response handling, caching
+ * and retries work the same for every transport.
+ * <p>
+ * Transports are selected per endpoint through {@link HTTPTransportRegistry}.
+ */
+public interface HTTPTransport {
+
+    /**
+     * Get the name used to select the transport in the configuration.
+     *
+     * @return Transport name.
+     */
+    String getName();
+
+    /**
+     * Whether the transport can send requests without blocking the calling thread. If true,
+     * {@link #execute(HttpUriRequest, long, FutureCallback)} is used, otherwise {@link #execute(HttpUriRequest)}.
+     *
+     * @return True if the transport is non-blocking.
+     */
+    boolean isNonBlocking();
+
+    /**
+     * Send the request and wait for the response. The response body is read by the caller, which closes the
+     * response afterwards.
+     *
+     * @param request Request to the external api.
+     * @return Response of the external api.
+     * @throws IOException If the request could not be sent or the response could not be received.
+     */
+    CloseableHttpResponse execute(HttpUriRequest request) throws IOException;
+
+    /**
+     * Send the request without blocking the calling thread. The response body is buffered before the callback is
+     * completed, and the request fails if the body exceeds the given size.
+     *
+     * @param request         Request to the external api.
+     * @param maxResponseSize Maximum size of the response body in bytes.
+     * @param callback        Callback completed with the response or failed with the error.
+     * @return Future of the exchange, which can be cancelled to abort the request.
+     */
+    Future<?> execute(HttpUriRequest request, long maxResponseSize, FutureCallback<HttpResponse> callback);
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.transport;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.HTTPClientManager;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the transports of the http functions, which selects the transport of each endpoint.
+ * <p>
+ * The HTTP/1.1 transport is used unless another transport is configured as the default or for the endpoint, e.g.
+ * <pre>
+ * [AdaptiveAuth.HTTPFunctions.Transport]
+ * Default = "http1"
+ * Endpoint = ["https://risk.example.com=http2"]
+ * </pre>
+ * Further transports can be registered with {@link #registerTransport(HTTPTransport)}.
+ */
+public class HTTPTransportRegistry {
+
+    private static final Log LOG = LogFactory.getLog(HTTPTransportRegistry.class);
+
+    private final Map<String, HTTPTransport> transports = new ConcurrentHashMap<>();
+    private final Map<String, String> endpointTransports = new HashMap<>();
+    private final String defaultTransport;
+
+    private HTTPTransportRegistry() {
+
+        this(ConfigProvider.getInstance());
+    }
+
+    private HTTPTransportRegistry(ConfigProvider configProvider) {
+
+        this(configProvider.getHttpFunctionDefaultTransport(), configProvider.getHttpFunctionEndpointTransports());
+        HTTPClientManager clientManager = HTTPClientManager.getInstance();
+        registerTransport(new ApacheHTTPTransport(clientManager.getHttpClient(),
+                clientManager.getAsyncHttpClient()));
+        // The HTTP/2 client is only created if some endpoint uses it.
+        if (isUsed(JdkHTTP2Transport.NAME)) {
+            registerTransport(new JdkHTTP2Transport(configProvider.getConnectionTimeout(),
+                    configProvider.getReadTimeout()));
+        }
+    }
+
+    /**
+     * @param defaultTransport   Name of the default transport, or blank to use the HTTP/1.1 transport.
+     * @param endpointTransports Name of the transport of each endpoint, keyed by the url of the endpoint.
+     */
+    HTTPTransportRegistry(String defaultTransport, Map<String, String> endpointTransports) {
+
+        this.defaultTransport = StringUtils.isNotBlank(defaultTransport) ? defaultTransport.trim() :
+                ApacheHTTPTransport.NAME;
+        for (Map.Entry<String, String> endpointTransport : endpointTransports.entrySet()) {
+            try {
+                this.endpointTransports.put(CommonUtils.getEndpointKey(URI.create(endpointTransport.getKey())),
+                        endpointTransport.getValue());
+            } catch (IllegalArgumentException e) {
+                LOG.error("Invalid endpoint in transport configuration : " + endpointTransport.getKey(), e);
+            }
+        }
+    }
+
+    private static class HTTPTransportRegistryHolder {
+
+        static final HTTPTransportRegistry INSTANCE = new HTTPTransportRegistry();
+    }
+
+    public static HTTPTransportRegistry getInstance() {
+
+        return HTTPTransportRegistryHolder.INSTANCE;
+    }
+
+    /**
+     * Register a transport, replacing the transport registered with the same name.
+     *
+     * @param transport Transport to be registered.
+     */
+    public void registerTransport(HTTPTransport transport) {
+
+        transports.put(transport.getName(), transport);
+    }
+
+    /**
+     * Get the transport of the endpoint of the given url.
+     *
+     * @param uri Url of the request.
+     * @return Transport configured for the endpoint, the default transport, or the HTTP/1.1 transport if the
+     * configured transport is not registered.
+     */
+    public HTTPTransport getTransport(URI uri) {
+
+        String transportName = endpointTransports.isEmpty() ? defaultTransport :
+                endpointTransports.getOrDefault(CommonUtils.getEndpointKey(uri), defaultTransport);
+        HTTPTransport transport = transports.get(transportName);
+        if (transport == null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Transport: " + transportName + " is not registered. Using the " +
+                        ApacheHTTPTransport.NAME + " transport for: " + uri);
+            }
+            return transports.get(ApacheHTTPTransport.NAME);
+        }
+        return transport;
+    }
+
+    /**
+     * Check whether the transport is the default transport or the transport of some endpoint.
+     *
+     * @param transportName Transport name.
+     * @return True if some endpoint uses the transport.
+     */
+    boolean isUsed(String transportName) {
+
+        return transportName.equals(defaultTransport) || endpointTransports.containsValue(transportName);
+    }
+}
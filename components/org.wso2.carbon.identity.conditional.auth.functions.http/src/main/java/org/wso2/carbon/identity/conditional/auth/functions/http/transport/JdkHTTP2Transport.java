@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.transport;
+
+import org.apache.http.ContentTooLongException;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.util.EntityUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.http.metrics.HTTPFunctionMetrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+
+/**
+ * Transport based on the JDK http client, which negotiates HTTP/2 with the endpoints that support it. Concurrent
+ * requests to such an endpoint are multiplexed over a single connection instead of each taking a pooled connection.
+ * Endpoints which do not support HTTP/2 are served over HTTP/1.1.
+ */
+public class JdkHTTP2Transport implements HTTPTransport {
+
+    public static final String NAME = "http2";
+    private static final ProtocolVersion HTTP_2 = new ProtocolVersion("HTTP", 2, 0);
+    // Headers managed by the JDK client, which it does not allow to be set on a request.
+    private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(Arrays.asList("connection",
+            "content-length", "expect", "host", "upgrade", "keep-alive", "proxy-connection", "transfer-encoding",
+            "te"));
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final HTTPFunctionMetrics metrics = HTTPFunctionMetrics.getInstance();
+
+    /**
+     * @param connectTimeout Connect timeout in milliseconds.
+     * @param requestTimeout Time to wait for the response headers in milliseconds.
+     */
+    public JdkHTTP2Transport(int connectTimeout, int requestTimeout) {
+
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeout))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build(), Duration.ofMillis(requestTimeout));
+    }
+
+    JdkHTTP2Transport(HttpClient client, Duration requestTimeout) {
+
+        this.client = client;
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public String getName() {
+
+        return NAME;
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+
+        return true;
+    }
+
+    @Override
+    public CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+
+        java.net.http.HttpResponse<InputStream> response;
+        HttpRequest jdkRequest = toJdkRequest(request);
+        long sentTime = System.nanoTime();
+        try {
+            response = client.send(jdkRequest, BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response of: " + request.getURI());
+        }
+        metrics.recordTimeToFirstByte(request, System.nanoTime() - sentTime);
+        JdkHttpResponse httpResponse = new JdkHttpResponse(response);
+        if (canHaveBody(request, response.statusCode())) {
+            httpResponse.setEntity(populateEntity(new InputStreamEntity(response.body(),
+                    response.headers().firstValueAsLong(HttpHeaders.CONTENT_LENGTH).orElse(-1)), response));
+        }
+        return httpResponse;
+    }
+
+    @Override
+    public Future<?> execute(HttpUriRequest request, long maxResponseSize, FutureCallback<HttpResponse> callback) {
+
+        HttpRequest jdkRequest;
+        try {
+            jdkRequest = toJdkRequest(request);
+        } catch (IOException e) {
+            callback.failed(e);
+            return CompletableFuture.failedFuture(e);
+        }
+        long sentTime = System.nanoTime();
+        // Cancelling the future of the exchange itself aborts the request, hence it is returned to the caller.
+        CompletableFuture<java.net.http.HttpResponse<byte[]>> exchange = client.sendAsync(jdkRequest,
+                responseInfo -> {
+                    // The body handler is called once the response headers are received.
+                    metrics.recordTimeToFirstByte(request, System.nanoTime() - sentTime);
+                    return new SizeLimitedBodySubscriber(maxResponseSize);
+                });
+        exchange.whenComplete((response, error) -> {
+            if (error != null) {
+                callback.failed(unwrap(error));
+                return;
+            }
+            BasicHttpResponse httpResponse = new BasicHttpResponse(toStatusLine(response));
+            copyHeaders(response, httpResponse);
+            if (canHaveBody(request, response.statusCode())) {
+                httpResponse.setEntity(populateEntity(new ByteArrayEntity(response.body()), response));
+            }
+            callback.completed(httpResponse);
+        });
+        return exchange;
+    }
+
+    private HttpRequest toJdkRequest(HttpUriRequest request) throws IOException {
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getURI()).timeout(getRequestTimeout(request));
+        for (Header header : request.getAllHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                builder.header(header.getName(), header.getValue());
+            }
+        }
+        HttpRequest.BodyPublisher bodyPublisher = HttpRequest.BodyPublishers.noBody();
+        if (request instanceof HttpEntityEnclosingRequest) {
+            HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            byte[] body = entity != null ? EntityUtils.toByteArray(entity) : null;
+            if (body != null) {
+                bodyPublisher = HttpRequest.BodyPublishers.ofByteArray(body);
+                // The Apache clients add these headers from the entity, hence the same is done here.
+                if (entity.getContentType() != null && !request.containsHeader(HttpHeaders.CONTENT_TYPE)) {
+                    builder.header(HttpHeaders.CONTENT_TYPE, entity.getContentType().getValue());
+                }
+                if (entity.getContentEncoding() != null && !request.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+                    builder.header(HttpHeaders.CONTENT_ENCODING, entity.getContentEncoding().getValue());
+                }
+            }
+        }
+        return builder.method(request.getMethod(), bodyPublisher).build();
+    }
+
+    private Duration getRequestTimeout(HttpUriRequest request) {
+
+        // Requests of endpoint profiles may carry their own read timeout.
+        if (request instanceof Configurable) {
+            RequestConfig config = ((Configurable) request).getConfig();
+            if (config != null && config.getSocketTimeout() > 0) {
+                return Duration.ofMillis(config.getSocketTimeout());
+            }
+        }
+        return requestTimeout;
+    }
+
+    private static BasicStatusLine toStatusLine(java.net.http.HttpResponse<?> response) {
+
+        ProtocolVersion version = response.version() == HttpClient.Version.HTTP_2 ? HTTP_2 : HttpVersion.HTTP_1_1;
+        return new BasicStatusLine(version, response.statusCode(), null);
+    }
+
+    private static void copyHeaders(java.net.http.HttpResponse<?> response, HttpResponse httpResponse) {
+
+        response.headers().map().forEach((name, values) -> {
+            // Pseudo headers of HTTP/2 are not headers of the response.
+            if (!name.startsWith(":")) {
+                values.forEach(value -> httpResponse.addHeader(name, value));
+            }
+        });
+    }
+
+    private static HttpEntity populateEntity(AbstractHttpEntity entity, java.net.http.HttpResponse<?> response) {
+
+        response.headers().firstValue(HttpHeaders.CONTENT_TYPE).ifPresent(entity::setContentType);
+        response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).ifPresent(entity::setContentEncoding);
+        return entity;
+    }
+
+    private static boolean canHaveBody(HttpUriRequest request, int statusCode) {
+
+        return !HttpHead.METHOD_NAME.equals(request.getMethod()) && statusCode >= HttpStatus.SC_OK &&
+                statusCode != HttpStatus.SC_NO_CONTENT && statusCode != HttpStatus.SC_NOT_MODIFIED;
+    }
+
+    private static Exception unwrap(Throwable error) {
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof Exception ? (Exception) cause : new IOException(cause);
+    }
+
+    /**
+     * Response of the blocking mode, which releases the body stream when closed.
+     */
+    private static class JdkHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+        private final InputStream body;
+
+        JdkHttpResponse(java.net.http.HttpResponse<InputStream> response) {
+
+            super(toStatusLine(response));
+            this.body = response.body();
+            copyHeaders(response, this);
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            body.close();
+        }
+    }
+
+    /**
+     * Body subscriber which buffers the response body and fails once it exceeds the maximum response size.
+     */
+    private static class SizeLimitedBodySubscriber implements BodySubscriber<byte[]> {
+
+        private final BodySubscriber<byte[]> delegate = BodySubscribers.ofByteArray();
+        private final long maxResponseSize;
+        private Flow.Subscription subscription;
+        private long receivedSize;
+        private boolean failed;
+
+        SizeLimitedBodySubscriber(long maxResponseSize) {
+
+            this.maxResponseSize = maxResponseSize;
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+
+            this.subscription = subscription;
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+
+            if (failed) {
+                return;
+            }
+            for (ByteBuffer item : items) {
+                receivedSize += item.remaining();
+            }
+            if (receivedSize > maxResponseSize) {
+                failed = true;
+                subscription.cancel();
+                delegate.onError(new ContentTooLongException("Response exceeds the maximum response size of " +
+                        maxResponseSize + " bytes."));
+                return;
+            }
+            delegate.onNext(items);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+
+            if (!failed) {
+                delegate.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+
+            if (!failed) {
+                delegate.onComplete();
+            }
+        }
+    }
+}
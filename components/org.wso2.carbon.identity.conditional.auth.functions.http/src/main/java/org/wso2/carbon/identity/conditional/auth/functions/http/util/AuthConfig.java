@@ -19,6 +19,8 @@ package org.wso2.carbon.identity.conditional.auth.functions.http.util;
 
 import org.apache.http.client.methods.HttpUriRequest;
 
+import java.util.function.BiConsumer;
+
 /**
  * Interface for the authentication configurations.
  */
@@ -33,4 +35,27 @@ public interface AuthConfig {
      * @throws Exception
      */
     HttpUriRequest applyAuth(HttpUriRequest request, AuthConfigModel authConfigModel) throws Exception;
+
+    /**
+     * Apply the authentication configurations to a request sent without blocking the calling thread. Configurations
+     * which call out to obtain the credentials override this, so that they do not block the calling thread either.
+     * By default the configurations are applied on the calling thread.
+     *
+     * @param request          HttpUriRequest
+     * @param authConfigModel  Authentication configuration model
+     * @param completion       Consumer of the authenticated request, or of the error if the configurations cannot be
+     *                         applied. It may be invoked on another thread.
+     */
+    default void applyAuth(HttpUriRequest request, AuthConfigModel authConfigModel,
+                           BiConsumer<HttpUriRequest, Exception> completion) {
+
+        HttpUriRequest authenticatedRequest;
+        try {
+            authenticatedRequest = applyAuth(request, authConfigModel);
+        } catch (Exception e) {
+            completion.accept(null, e);
+            return;
+        }
+        completion.accept(authenticatedRequest, null);
+    }
 }
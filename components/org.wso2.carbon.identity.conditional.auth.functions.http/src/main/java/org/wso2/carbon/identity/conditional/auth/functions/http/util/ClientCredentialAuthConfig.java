@@ -25,38 +25,51 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.client.config.RequestConfig;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.util.EntityUtils;
 import org.wso2.carbon.identity.application.authentication.framework.AsyncReturn;
 import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
 import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
-import org.wso2.carbon.identity.central.log.mgt.utils.LoggerUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.logging.LogTemplate;
+import org.wso2.carbon.identity.conditional.auth.functions.common.logging.OutboundLogger;
+import org.wso2.carbon.identity.conditional.auth.functions.common.retry.RetryPolicy;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
 import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
 import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
 import org.wso2.carbon.identity.conditional.auth.functions.http.cache.APIAccessTokenCache;
+import org.wso2.carbon.identity.conditional.auth.functions.http.cache.AccessTokenRecord;
 import org.wso2.carbon.utils.DiagnosticLog;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.net.SocketTimeoutException;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.apache.http.HttpHeaders.ACCEPT;
 import static org.apache.http.HttpHeaders.CONTENT_TYPE;
@@ -71,6 +84,28 @@ import static org.wso2.carbon.identity.conditional.auth.functions.http.util.Http
 public class ClientCredentialAuthConfig implements AuthConfig {
 
     private static final Log LOG = LogFactory.getLog(ClientCredentialAuthConfig.class);
+    private static final OutboundLogger OUTBOUND_LOG = new OutboundLogger(ClientCredentialAuthConfig.class);
+    private static final LogTemplate TOKEN_REQUEST_LOG =
+            LogTemplate.of("Attempting initial access token request for session data key: {}");
+    private static final LogTemplate TOKEN_RECEIVED_LOG =
+            LogTemplate.of("Received access token from the token endpoint. Session data key: {}");
+    private static final LogTemplate RETRY_LOG =
+            LogTemplate.of("Retrying token request for session data key: {}. Attempt: {}");
+    private static final LogTemplate TOKEN_FAILURE_RESULT =
+            LogTemplate.of("Failed to retrieve access token for the provided token endpoint.");
+    private static final LogTemplate RETRY_RESULT =
+            LogTemplate.of("Retrying token request for the provided token endpoint. Attempt: {}.");
+    private static final LogTemplate SUCCESS_RESULT = LogTemplate.of("Received access token from the token endpoint.");
+    private static final LogTemplate REDIRECTION_RESULT =
+            LogTemplate.of("Token endpoint returned a redirection. Status code: {}");
+    private static final LogTemplate CLIENT_ERROR_RESULT =
+            LogTemplate.of("Token endpoint returned a client error. Status code: {}");
+    private static final LogTemplate UNKNOWN_RESPONSE_RESULT =
+            LogTemplate.of("Received unknown response from token endpoint. Status code: {}");
+    private static final LogTemplate INVALID_URL_RESULT = LogTemplate.of("Invalid Url for token endpoint.");
+    private static final LogTemplate TIMEOUT_RESULT = LogTemplate.of("Request for the token endpoint timed out.");
+    private static final LogTemplate ERROR_RESULT =
+            LogTemplate.of("Received an error while invoking the token endpoint.");
     private static final String TYPE_APPLICATION_JSON = "application/json";
     private static final String TYPE_FORM_DATA = "application/x-www-form-urlencoded";
     private static final String AUTHORIZATION = "Authorization";
@@ -82,9 +117,13 @@ public class ClientCredentialAuthConfig implements AuthConfig {
     private static final String TOKEN_ENDPOINT = "tokenEndpoint";
     private static final String SCOPES = "scope";
     private static final String ACCESS_TOKEN_KEY = "access_token";
+    private static final String EXPIRES_IN_KEY = "expires_in";
     private static final String JWT_EXP_CLAIM = "exp";
+    private static final String CACHE_KEY_SEPARATOR = "|";
     private static final String BEARER = "Bearer ";
     private static final String BASIC = "Basic ";
+    private static final Map<String, CompletableFuture<String>> IN_FLIGHT_TOKEN_REQUESTS =
+            new ConcurrentHashMap<>();
     private int maxRequestAttemptsForAPIEndpointTimeout;
     private APIAccessTokenCache apiAccessTokenCache;
     private String consumerKey;
@@ -156,35 +195,17 @@ public class ClientCredentialAuthConfig implements AuthConfig {
     public HttpUriRequest applyAuth(HttpUriRequest request, AuthConfigModel authConfigModel)
             throws FrameworkException {
 
-        setRequest(request);
-        maxRequestAttemptsForAPIEndpointTimeout = ConfigProvider.getInstance().
-                getRequestRetryCount();
-        this.apiAccessTokenCache = APIAccessTokenCache.getInstance();
-        Map<String, Object> properties = authConfigModel.getProperties();
-        validateRequiredProperties(properties);
-
-        setConsumerKey(properties.get(CONSUMER_KEY_VARIABLE_NAME).toString());
-        setConsumerSecret(properties.get(CONSUMER_SECRET_VARIABLE_NAME).toString());
-        setTokenEndpoint(properties.get(TOKEN_ENDPOINT).toString());
-        setScopes(properties.containsKey(SCOPES) ? properties.get(SCOPES).toString() : null);
+        try {
+            configure(request, authConfigModel);
+        } catch (FrameworkException e) {
+            asyncReturn.accept(authenticationContext, Collections.emptyMap(), OUTCOME_FAIL);
+            throw e;
+        }
 
         String accessToken = getAccessToken();
         if (accessToken == null) {
             asyncReturn.accept(authenticationContext, Collections.emptyMap(), OUTCOME_FAIL);
-            if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                        DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                        getRequestTokenActionId(getRequest()));
-                diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint())
-                        .inputParam(Constants.LogConstants.InputKeys.GRANT_TYPE, GRANT_TYPE_CLIENT_CREDENTIALS)
-                        .configParam(Constants.LogConstants.ConfigKeys.MAX_REQUEST_ATTEMPTS,
-                                maxRequestAttemptsForAPIEndpointTimeout)
-                        .resultMessage("Failed to retrieve access token for the provided token endpoint.")
-                        .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                        .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-            }
-            LOG.error("Failed to retrieve access token. Aborting request.");
+            logTokenFailure();
             throw new FrameworkException("Failed to retrieve access token.");
         }
         request.setHeader(AUTHORIZATION, BEARER + accessToken);
@@ -192,30 +213,91 @@ public class ClientCredentialAuthConfig implements AuthConfig {
     }
 
     /**
-     * Returns true if the given token appears to be a JWT (three Base64URL parts separated by dots).
+     * Apply the access token to the request without blocking the calling thread. If non-blocking IO is enabled for
+     * the http functions, the token request is sent with the shared non-blocking client and the request is handed
+     * to the completion from its callback. Otherwise the token is obtained on the calling thread.
      *
-     * @param token Token string to inspect
-     * @return true if the token looks like a JWT
+     * @param request         HttpUriRequest
+     * @param authConfigModel Authentication configuration model
+     * @param completion      Consumer of the authenticated request, or of the error if the token cannot be obtained
      */
-    private boolean isJWT(String token) {
+    @Override
+    public void applyAuth(HttpUriRequest request, AuthConfigModel authConfigModel,
+                          BiConsumer<HttpUriRequest, Exception> completion) {
+
+        CloseableHttpAsyncClient asyncClient = HTTPClientManager.getInstance().getAsyncHttpClient();
+        if (asyncClient == null) {
+            AuthConfig.super.applyAuth(request, authConfigModel, completion);
+            return;
+        }
+        try {
+            configure(request, authConfigModel);
+        } catch (FrameworkException e) {
+            completion.accept(null, e);
+            return;
+        }
+
+        String accessToken = getAccessTokenFromCache();
+        if (accessToken != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Unexpired access token available in cache.");
+            }
+            request.setHeader(AUTHORIZATION, BEARER + accessToken);
+            completion.accept(request, null);
+            return;
+        }
 
-        return token.split("\\.").length == 3;
+        String tokenRequestKey = authenticationContext.getTenantDomain() + CACHE_KEY_SEPARATOR + getCacheKey();
+        requestAccessTokenOnce(tokenRequestKey, tokenCompletion -> {
+            // The token may have been cached by a request which completed after the cache lookup above.
+            String cachedAccessToken = getAccessTokenFromCache();
+            if (cachedAccessToken != null) {
+                tokenCompletion.accept(cachedAccessToken);
+            } else {
+                fetchAccessToken(asyncClient, 0, tokenCompletion);
+            }
+        }, getInFlightTokenRequestTimeout(), token -> {
+            if (token == null) {
+                logTokenFailure();
+                completion.accept(null, new FrameworkException("Failed to retrieve access token."));
+                return;
+            }
+            request.setHeader(AUTHORIZATION, BEARER + token);
+            completion.accept(request, null);
+        });
     }
 
-    /**
-     * This method decodes access token and compare its expiry time with the current time to decide whether it's
-     * expired.
-     *
-     * @param accessToken Access token which needs to be evaluated
-     * @return A boolean value indicating whether the token is expired
-     * @throws ParseException {@link ParseException}
-     */
-    private boolean isTokenExpired(String accessToken) throws ParseException {
+    private void configure(HttpUriRequest request, AuthConfigModel authConfigModel) throws FrameworkException {
+
+        setRequest(request);
+        maxRequestAttemptsForAPIEndpointTimeout = ConfigProvider.getInstance().
+                getRequestRetryCount();
+        this.apiAccessTokenCache = APIAccessTokenCache.getInstance();
+        Map<String, Object> properties = authConfigModel.getProperties();
+        validateRequiredProperties(properties);
+
+        setConsumerKey(properties.get(CONSUMER_KEY_VARIABLE_NAME).toString());
+        setConsumerSecret(properties.get(CONSUMER_SECRET_VARIABLE_NAME).toString());
+        setTokenEndpoint(properties.get(TOKEN_ENDPOINT).toString());
+        setScopes(properties.containsKey(SCOPES) ? properties.get(SCOPES).toString() : null);
+    }
 
-        SignedJWT decodedToken = SignedJWT.parse(accessToken);
-        Date expiryDate = (Date) decodedToken.getJWTClaimsSet().getClaim(JWT_EXP_CLAIM);
-        LocalDateTime expiryTimestamp = LocalDateTime.ofInstant(expiryDate.toInstant(), ZoneId.systemDefault());
-        return LocalDateTime.now().isAfter(expiryTimestamp);
+    private void logTokenFailure() {
+
+        OUTBOUND_LOG.diagnostic(() -> {
+            DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
+                    DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
+                    getRequestTokenActionId(getRequest()));
+            diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint())
+                    .inputParam(Constants.LogConstants.InputKeys.GRANT_TYPE, GRANT_TYPE_CLIENT_CREDENTIALS)
+                    .configParam(Constants.LogConstants.ConfigKeys.MAX_REQUEST_ATTEMPTS,
+                            maxRequestAttemptsForAPIEndpointTimeout)
+                    .resultMessage(TOKEN_FAILURE_RESULT.format())
+                    .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
+                    .resultStatus(DiagnosticLog.ResultStatus.FAILED);
+            return diagnosticLogBuilder;
+        });
+        LOG.error("Failed to retrieve access token. Aborting request.");
     }
 
     /**
@@ -229,7 +311,6 @@ public class ClientCredentialAuthConfig implements AuthConfig {
         if (!properties.containsKey(CONSUMER_KEY_VARIABLE_NAME) ||
                 !properties.containsKey(CONSUMER_SECRET_VARIABLE_NAME) ||
                 !properties.containsKey(TOKEN_ENDPOINT)) {
-            asyncReturn.accept(authenticationContext, Collections.emptyMap(), OUTCOME_FAIL);
             LOG.error("Required properties not defined. Aborting token request.");
             throw new FrameworkException("Missing required properties.");
         }
@@ -242,37 +323,118 @@ public class ClientCredentialAuthConfig implements AuthConfig {
      * @throws FrameworkException {@link FrameworkException}
      */
     private String getAccessToken() throws FrameworkException {
-        String accessToken = apiAccessTokenCache.getValueFromCache(getConsumerKey(),
+
+        String accessToken = getAccessTokenFromCache();
+        if (accessToken != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Unexpired access token available in cache.");
+            }
+            return accessToken;
+        }
+
+        // Only one token request is sent per token endpoint, client and scopes. Concurrent callers wait for the
+        // result of the request in flight instead of sending their own.
+        String tokenRequestKey = authenticationContext.getTenantDomain() + CACHE_KEY_SEPARATOR + getCacheKey();
+        return requestAccessTokenOnce(tokenRequestKey, () -> {
+            // The token may have been cached by a request which completed after the cache lookup above.
+            String cachedAccessToken = getAccessTokenFromCache();
+            return cachedAccessToken != null ? cachedAccessToken : fetchAccessToken();
+        }, getInFlightTokenRequestTimeout());
+    }
+
+    /**
+     * Get an access token with the given requester, unless a token request with the same key is in flight, in which
+     * case the result of that request is awaited instead.
+     *
+     * @param tokenRequestKey Key of the token request.
+     * @param tokenRequester  Requester of the access token, returning null if the token could not be retrieved.
+     * @param waitTimeout     Maximum time to wait for a token request in flight in milliseconds.
+     * @return Access token or null if the token could not be retrieved.
+     */
+    static String requestAccessTokenOnce(String tokenRequestKey, Supplier<String> tokenRequester, long waitTimeout) {
+
+        CompletableFuture<String> tokenRequest = new CompletableFuture<>();
+        CompletableFuture<String> inFlightTokenRequest = IN_FLIGHT_TOKEN_REQUESTS.putIfAbsent(tokenRequestKey,
+                tokenRequest);
+        if (inFlightTokenRequest != null) {
+            return waitForInFlightTokenRequest(inFlightTokenRequest, waitTimeout);
+        }
+
+        try {
+            String accessToken = tokenRequester.get();
+            tokenRequest.complete(accessToken);
+            return accessToken;
+        } catch (RuntimeException e) {
+            tokenRequest.complete(null);
+            throw e;
+        } finally {
+            IN_FLIGHT_TOKEN_REQUESTS.remove(tokenRequestKey, tokenRequest);
+        }
+    }
+
+    /**
+     * Get an access token with the given non-blocking requester, unless a token request with the same key is in
+     * flight, in which case the result of that request is handed to the completion once available.
+     *
+     * @param tokenRequestKey Key of the token request.
+     * @param tokenRequester  Requester of the access token, handing null to its completion if the token could not be
+     *                        retrieved.
+     * @param waitTimeout     Maximum time to wait for a token request in flight in milliseconds.
+     * @param completion      Consumer of the access token, or of null if the token could not be retrieved.
+     */
+    static void requestAccessTokenOnce(String tokenRequestKey, Consumer<Consumer<String>> tokenRequester,
+                                       long waitTimeout, Consumer<String> completion) {
+
+        CompletableFuture<String> tokenRequest = new CompletableFuture<>();
+        CompletableFuture<String> inFlightTokenRequest = IN_FLIGHT_TOKEN_REQUESTS.putIfAbsent(tokenRequestKey,
+                tokenRequest);
+        if (inFlightTokenRequest != null) {
+            followInFlightTokenRequest(inFlightTokenRequest, waitTimeout, completion);
+            return;
+        }
+
+        try {
+            tokenRequester.accept(accessToken -> {
+                // Removed first, so that callers arriving after this point request a token again if this one failed.
+                IN_FLIGHT_TOKEN_REQUESTS.remove(tokenRequestKey, tokenRequest);
+                tokenRequest.complete(accessToken);
+                completion.accept(accessToken);
+            });
+        } catch (RuntimeException e) {
+            IN_FLIGHT_TOKEN_REQUESTS.remove(tokenRequestKey, tokenRequest);
+            tokenRequest.complete(null);
+            throw e;
+        }
+    }
+
+    private String getAccessTokenFromCache() {
+
+        AccessTokenRecord accessTokenRecord = apiAccessTokenCache.getValueFromCache(getCacheKey(),
                 authenticationContext.getTenantDomain());
+        if (accessTokenRecord != null && StringUtils.isNotEmpty(accessTokenRecord.getAccessToken()) &&
+                !accessTokenRecord.isExpired(ConfigProvider.getInstance().getHttpFunctionAccessTokenExpirySkew())) {
+            return accessTokenRecord.getAccessToken();
+        }
+        return null;
+    }
+
+    /**
+     * Request a new access token from the token endpoint, retrying if the endpoint is unavailable.
+     *
+     * @return Access token or null if the token could not be retrieved.
+     */
+    private String fetchAccessToken() {
+
         try {
-            if (StringUtils.isNotEmpty(accessToken) && isJWT(accessToken) && !isTokenExpired(accessToken)) {
-                LOG.debug("Unexpired access token available in cache.");
-                return accessToken;
+            // Attempt the first request for an access token
+            OUTBOUND_LOG.info(TOKEN_REQUEST_LOG, authenticationContext.getContextIdentifier());
+            RetryPolicy.getInstance().onRequest(getTokenEndpointKey());
+            Pair<RetryDecision, String> retryDecision = requestAccessToken();
+            if (retryDecision.getLeft().shouldRetry()) {
+                return attemptAccessTokenRequest(maxRequestAttemptsForAPIEndpointTimeout);
             } else {
-                // Attempt the first request for an access token
-                LOG.info("Attempting initial access token request for session data key: " +
-                        authenticationContext.getContextIdentifier());
-                Pair<RetryDecision, String> retryDecision = requestAccessToken();
-                if (retryDecision.getLeft().shouldRetry()) {
-                    return attemptAccessTokenRequest(maxRequestAttemptsForAPIEndpointTimeout);
-                } else {
-                    return retryDecision.getRight();
-                }
-            }
-        } catch (ParseException e) {
-            LOG.error("Error parsing token expiry.", e);
-            if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                        DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                        getRequestTokenActionId(getRequest()));
-                diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint())
-                        .resultMessage("Failed to parse token expiry.")
-                        .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                        .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
+                return retryDecision.getRight();
             }
-            LOG.error("Error parsing token expiry.", e);
-            asyncReturn.accept(authenticationContext, Collections.emptyMap(), OUTCOME_FAIL);
         } catch (IOException e) {
             LOG.error("Error while calling token endpoint. ", e);
         }
@@ -280,7 +442,220 @@ public class ClientCredentialAuthConfig implements AuthConfig {
     }
 
     /**
-     * This method is used to attempt the access token request from the token endpoint.
+     * Get the maximum time to wait for a token request in flight, which is the time a single token call can take.
+     * Callers do not wait for the retries of the token request in flight, so that their logins are not held for
+     * the whole retry budget of the token endpoint.
+     *
+     * @return Timeout in milliseconds.
+     */
+    private long getInFlightTokenRequestTimeout() {
+
+        ConfigProvider configProvider = ConfigProvider.getInstance();
+        return (long) configProvider.getConnectionRequestTimeout() + configProvider.getConnectionTimeout() +
+                configProvider.getReadTimeout();
+    }
+
+    /**
+     * Wait for the result of a token request sent by a concurrent caller.
+     *
+     * @param inFlightTokenRequest Token request in flight.
+     * @param waitTimeout          Maximum time to wait in milliseconds.
+     * @return Access token or null if the token request failed or did not complete in time.
+     */
+    private static String waitForInFlightTokenRequest(CompletableFuture<String> inFlightTokenRequest,
+                                                      long waitTimeout) {
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Waiting for the in flight access token request.");
+        }
+        try {
+            return inFlightTokenRequest.get(waitTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while waiting for the access token request.", e);
+        } catch (ExecutionException e) {
+            LOG.error("Error while waiting for the access token request.", e);
+        } catch (TimeoutException e) {
+            LOG.error("Timed out after " + waitTimeout + " ms while waiting for the in flight access token request.");
+        }
+        return null;
+    }
+
+    /**
+     * Hand the result of a token request sent by a concurrent caller to the completion once available, without
+     * blocking the calling thread.
+     *
+     * @param inFlightTokenRequest Token request in flight.
+     * @param waitTimeout          Maximum time to wait in milliseconds.
+     * @param completion           Consumer of the access token, or of null if the token request failed or did not
+     *                             complete in time.
+     */
+    private static void followInFlightTokenRequest(CompletableFuture<String> inFlightTokenRequest, long waitTimeout,
+                                                   Consumer<String> completion) {
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Waiting for the in flight access token request.");
+        }
+        // The timeout is applied to a copy, so that it does not complete the token request seen by the other callers.
+        inFlightTokenRequest.copy().orTimeout(waitTimeout, TimeUnit.MILLISECONDS).whenComplete((accessToken, error) -> {
+            if (error != null) {
+                LOG.error("Timed out after " + waitTimeout + " ms while waiting for the in flight access token " +
+                        "request.");
+                completion.accept(null);
+                return;
+            }
+            completion.accept(accessToken);
+        });
+    }
+
+    private String getTokenEndpointKey() {
+
+        try {
+            return CommonUtils.getEndpointKey(URI.create(tokenEndpoint));
+        } catch (IllegalArgumentException e) {
+            return tokenEndpoint;
+        }
+    }
+
+    /**
+     * Build the cache key of the access token. Tokens issued by different token endpoints or for different scopes
+     * to the same client are cached separately.
+     *
+     * @return Cache key.
+     */
+    private String getCacheKey() {
+
+        String normalizedScopes = "";
+        if (StringUtils.isNotBlank(getScopes())) {
+            String[] scopeList = getScopes().trim().split("\\s+");
+            Arrays.sort(scopeList);
+            normalizedScopes = String.join(" ", scopeList);
+        }
+        return getTokenEndpoint() + CACHE_KEY_SEPARATOR + getConsumerKey() + CACHE_KEY_SEPARATOR + normalizedScopes;
+    }
+
+    /**
+     * Resolve the absolute expiry time of the token from the expires_in value of the token response. If it is not
+     * available and the token is a JWT, the exp claim of the token is used.
+     *
+     * @param accessToken Access token.
+     * @param expiresIn   expires_in value of the token response in seconds.
+     * @return Expiry time in epoch milliseconds or -1 if the expiry cannot be resolved.
+     */
+    static long resolveExpiryTime(String accessToken, String expiresIn) {
+
+        if (StringUtils.isNotBlank(expiresIn)) {
+            try {
+                return System.currentTimeMillis() + (long) (Double.parseDouble(expiresIn.trim()) * 1000);
+            } catch (NumberFormatException e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Invalid expires_in value in the token response: " + expiresIn);
+                }
+            }
+        }
+        if (accessToken.split("\\.").length == 3) {
+            try {
+                Date expiryDate = (Date) SignedJWT.parse(accessToken).getJWTClaimsSet().getClaim(JWT_EXP_CLAIM);
+                if (expiryDate != null) {
+                    return expiryDate.getTime();
+                }
+            } catch (ParseException | ClassCastException e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Error parsing token expiry.", e);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Request a new access token from the token endpoint with the non-blocking client, retrying if the endpoint is
+     * unavailable. Retries are sent from the callbacks of the client after the backoff delay, within the retry
+     * budget of the token endpoint, as in {@link #attemptAccessTokenRequest(int)}.
+     *
+     * @param asyncClient Non-blocking client.
+     * @param attempt     Retry attempt, 0 for the first request.
+     * @param completion  Consumer of the access token, or of null if the token could not be retrieved.
+     */
+    private void fetchAccessToken(CloseableHttpAsyncClient asyncClient, int attempt, Consumer<String> completion) {
+
+        if (attempt == 0) {
+            OUTBOUND_LOG.info(TOKEN_REQUEST_LOG, authenticationContext.getContextIdentifier());
+            RetryPolicy.getInstance().onRequest(getTokenEndpointKey());
+            sendAccessTokenRequest(asyncClient, attempt, completion);
+            return;
+        }
+        if (!RetryPolicy.getInstance().tryAcquireRetry(getTokenEndpointKey())) {
+            completion.accept(null);
+            return;
+        }
+        RetryPolicy.getInstance().scheduleRetry(attempt, () -> {
+            OUTBOUND_LOG.info(RETRY_LOG, authenticationContext.getContextIdentifier(), attempt);
+            sendAccessTokenRequest(asyncClient, attempt, completion);
+        });
+    }
+
+    private void sendAccessTokenRequest(CloseableHttpAsyncClient asyncClient, int attempt,
+                                        Consumer<String> completion) {
+
+        HttpPost request;
+        try {
+            request = createAccessTokenRequest();
+        } catch (IOException | IllegalArgumentException e) {
+            onAccessTokenResult(asyncClient, attempt, handleAccessTokenError(e), completion);
+            return;
+        }
+        try {
+            asyncClient.execute(request, new FutureCallback<HttpResponse>() {
+
+                @Override
+                public void completed(HttpResponse response) {
+
+                    Pair<RetryDecision, String> retryDecision;
+                    try {
+                        retryDecision = handleAccessTokenResponse(response);
+                    } catch (Exception e) {
+                        retryDecision = handleAccessTokenError(e);
+                    }
+                    onAccessTokenResult(asyncClient, attempt, retryDecision, completion);
+                }
+
+                @Override
+                public void failed(Exception e) {
+
+                    onAccessTokenResult(asyncClient, attempt, handleAccessTokenError(e), completion);
+                }
+
+                @Override
+                public void cancelled() {
+
+                    LOG.warn("Token request was cancelled. Url: " + tokenEndpoint);
+                    completion.accept(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            // E.g. the client is shut down.
+            onAccessTokenResult(asyncClient, attempt, handleAccessTokenError(e), completion);
+        }
+    }
+
+    private void onAccessTokenResult(CloseableHttpAsyncClient asyncClient, int attempt,
+                                     Pair<RetryDecision, String> retryDecision, Consumer<String> completion) {
+
+        if (!retryDecision.getLeft().shouldRetry()) {
+            completion.accept(retryDecision.getRight());
+        } else if (attempt < maxRequestAttemptsForAPIEndpointTimeout) {
+            fetchAccessToken(asyncClient, attempt + 1, completion);
+        } else {
+            LOG.warn("Maximum token request attempts reached.");
+            completion.accept(null);
+        }
+    }
+
+    /**
+     * This method is used to attempt the access token request from the token endpoint. Token requests are retried
+     * even though they are POST requests, as requesting a new token has no side effects other than issuing it, but
+     * each retry is delayed with backoff and sent only if it is within the retry budget of the token endpoint.
      *
      * @param maxAttempts Maximum number of attempts to request the access token
      * @return Access token
@@ -288,26 +663,29 @@ public class ClientCredentialAuthConfig implements AuthConfig {
     private String attemptAccessTokenRequest(int maxAttempts) {
 
         int attemptCount = 0;
+        RetryPolicy retryPolicy = RetryPolicy.getInstance();
 
         while (attemptCount < maxAttempts) {
 
+            if (!retryPolicy.tryAcquireRetry(getTokenEndpointKey()) ||
+                    !retryPolicy.awaitBackoff(attemptCount + 1)) {
+                break;
+            }
             try {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
+                int attempt = attemptCount;
+                OUTBOUND_LOG.diagnostic(() -> {
                     DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
                             DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
                             getRequestTokenActionId(getRequest()));
                     diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint())
                             .inputParam(Constants.LogConstants.InputKeys.GRANT_TYPE, GRANT_TYPE_CLIENT_CREDENTIALS)
                             .configParam(Constants.LogConstants.ConfigKeys.MAX_REQUEST_ATTEMPTS, maxAttempts)
-                            .resultMessage("Retrying token request for the provided token endpoint. Attempt: " +
-                                    attemptCount + ".")
+                            .resultMessage(RETRY_RESULT.format(attempt))
                             .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
                             .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    attemptCount++;
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
-                LOG.info("Retrying token request for session data key: " +
-                        this.authenticationContext.getContextIdentifier() + ". Attempt: " + attemptCount);
+                    return diagnosticLogBuilder;
+                });
+                OUTBOUND_LOG.info(RETRY_LOG, this.authenticationContext.getContextIdentifier(), attempt);
                 Pair<RetryDecision, String> retryDecision = requestAccessToken();
                 if (!retryDecision.getLeft().shouldRetry()) {
                     return retryDecision.getRight();
@@ -330,7 +708,19 @@ public class ClientCredentialAuthConfig implements AuthConfig {
      */
     private Pair<RetryDecision, String> requestAccessToken() throws IOException {
 
-        RetryDecision isRetry = RetryDecision.NO_RETRY;
+        HttpPost request = createAccessTokenRequest();
+
+        // The shared pooled client is used so that token requests reuse established connections.
+        CloseableHttpClient client = HTTPClientManager.getInstance().getHttpClient();
+        try (CloseableHttpResponse response = client.execute(request)) {
+            return handleAccessTokenResponse(response);
+        } catch (Exception e) {
+            return handleAccessTokenError(e);
+        }
+    }
+
+    private HttpPost createAccessTokenRequest() throws IOException {
+
         HttpPost request = new HttpPost(tokenEndpoint);
         request.setHeader(ACCEPT, TYPE_APPLICATION_JSON);
         request.setHeader(CONTENT_TYPE, TYPE_FORM_DATA);
@@ -345,107 +735,60 @@ public class ClientCredentialAuthConfig implements AuthConfig {
             bodyParams.add(new BasicNameValuePair(SCOPES, getScopes()));
         }
         request.setEntity(new UrlEncodedFormEntity(bodyParams));
+        return request;
+    }
 
-        RequestConfig config = RequestConfig.custom()
-                .setConnectTimeout(ConfigProvider.getInstance().getConnectionTimeout())
-                .setConnectionRequestTimeout(ConfigProvider.getInstance().getConnectionRequestTimeout())
-                .setSocketTimeout(ConfigProvider.getInstance().getReadTimeout())
-                .setRedirectsEnabled(false)
-                .setRelativeRedirectsAllowed(false)
-                .build();
-
-        try (CloseableHttpClient client = HttpClientBuilder.create().setDefaultRequestConfig(config).build();
-             CloseableHttpResponse response = client.execute(request)) {
-
-            int responseCode = response.getStatusLine().getStatusCode();
-            if (responseCode >= 200 && responseCode < 300) {
-                return processSuccessfulResponse(response);
-            } else if (responseCode >= 300 && responseCode < 400) {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getRequestTokenActionId(getRequest()));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint())
-                            .resultMessage("Token endpoint returned a redirection. Status code: " + responseCode)
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
-                LOG.warn("Token endpoint returned a redirection. Status code: " + responseCode + ". Url: " +
-                        tokenEndpoint);
-                return Pair.of(RetryDecision.NO_RETRY, null);
-            } else if (responseCode >= 400 && responseCode < 500) {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getRequestTokenActionId(getRequest()));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint())
-                            .resultMessage("Token endpoint returned a client error. Status code: " + responseCode)
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
-                LOG.warn("Token endpoint returned a client error. Status code: " + responseCode + ". Url: " +
-                        tokenEndpoint);
-                return Pair.of(RetryDecision.NO_RETRY, null);
-            } else {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getRequestTokenActionId(getRequest()));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint())
-                            .resultMessage("Received unknown response from token endpoint. Status code: " +
-                                    responseCode)
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
-                LOG.error("Received unknown response from token endpoint. Status code: " + responseCode + ". Url: " +
-                        tokenEndpoint);
-                return Pair.of(RetryDecision.RETRY, null); // Server error, retry if attempts left
-            }
-        } catch (Exception e) {
-            // Log the error based on its type
-            if (e instanceof IllegalArgumentException) {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getRequestTokenActionId(getRequest()));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint())
-                            .resultMessage("Invalid Url for token endpoint.")
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
-                LOG.error("Invalid Url: " + tokenEndpoint, e);
-            } else if (e instanceof SocketTimeoutException || e instanceof ConnectTimeoutException) {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getRequestTokenActionId(getRequest()));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint())
-                            .resultMessage("Request for the token endpoint timed out.")
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
-                isRetry = RetryDecision.RETRY; // Timeout, retry if attempts left
-                LOG.error("Error while waiting to connect to " + tokenEndpoint, e);
-            } else if (e instanceof IOException) {
-                LOG.error("Error while calling token endpoint. ", e);
-            } else {
-                if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                    DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                            DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                            getRequestTokenActionId(getRequest()));
-                    diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint())
-                            .resultMessage("Received an error while invoking the token endpoint.")
-                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
-                LOG.error("Error while calling token endpoint. ", e);
-            }
+    private Pair<RetryDecision, String> handleAccessTokenResponse(HttpResponse response) throws IOException {
+
+        int responseCode = response.getStatusLine().getStatusCode();
+        if (responseCode >= 200 && responseCode < 300) {
+            return processSuccessfulResponse(response);
+        } else if (responseCode >= 300 && responseCode < 400) {
+            OUTBOUND_LOG.diagnostic(getRequestTokenActionId(getRequest()),
+                    Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint(), REDIRECTION_RESULT,
+                    responseCode, DiagnosticLog.ResultStatus.FAILED);
+            LOG.warn("Token endpoint returned a redirection. Status code: " + responseCode + ". Url: " +
+                    tokenEndpoint);
+            return Pair.of(RetryDecision.NO_RETRY, null);
+        } else if (responseCode >= 400 && responseCode < 500) {
+            OUTBOUND_LOG.diagnostic(getRequestTokenActionId(getRequest()),
+                    Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint(), CLIENT_ERROR_RESULT,
+                    responseCode, DiagnosticLog.ResultStatus.FAILED);
+            LOG.warn("Token endpoint returned a client error. Status code: " + responseCode + ". Url: " +
+                    tokenEndpoint);
+            return Pair.of(RetryDecision.NO_RETRY, null);
+        } else {
+            OUTBOUND_LOG.diagnostic(getRequestTokenActionId(getRequest()),
+                    Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint(), UNKNOWN_RESPONSE_RESULT,
+                    responseCode, DiagnosticLog.ResultStatus.FAILED);
+            LOG.error("Received unknown response from token endpoint. Status code: " + responseCode + ". Url: " +
+                    tokenEndpoint);
+            return Pair.of(RetryDecision.RETRY, null); // Server error, retry if attempts left
+        }
+    }
+
+    private Pair<RetryDecision, String> handleAccessTokenError(Exception e) {
+
+        RetryDecision isRetry = RetryDecision.NO_RETRY;
+        // Log the error based on its type
+        if (e instanceof IllegalArgumentException) {
+            OUTBOUND_LOG.diagnostic(getRequestTokenActionId(getRequest()),
+                    Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint(), INVALID_URL_RESULT,
+                    DiagnosticLog.ResultStatus.FAILED);
+            LOG.error("Invalid Url: " + tokenEndpoint, e);
+        } else if (e instanceof SocketTimeoutException || e instanceof ConnectTimeoutException) {
+            OUTBOUND_LOG.diagnostic(getRequestTokenActionId(getRequest()),
+                    Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint(), TIMEOUT_RESULT,
+                    DiagnosticLog.ResultStatus.FAILED);
+            isRetry = RetryDecision.RETRY; // Timeout, retry if attempts left
+            LOG.error("Error while waiting to connect to " + tokenEndpoint, e);
+        } else if (e instanceof IOException) {
+            LOG.error("Error while calling token endpoint. ", e);
+        } else {
+            OUTBOUND_LOG.diagnostic(getRequestTokenActionId(getRequest()),
+                    Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint(), ERROR_RESULT,
+                    DiagnosticLog.ResultStatus.FAILED);
+            LOG.error("Error while calling token endpoint. ", e);
         }
         return Pair.of(isRetry, null);
     }
@@ -453,11 +796,11 @@ public class ClientCredentialAuthConfig implements AuthConfig {
     /**
      * This method is used to process the successful response from the token endpoint.
      *
-     * @param response {@link CloseableHttpResponse}
+     * @param response {@link HttpResponse}
      * @return Access token
      * @throws IOException {@link IOException}
      */
-    private Pair<RetryDecision, String> processSuccessfulResponse(CloseableHttpResponse response) throws IOException {
+    private Pair<RetryDecision, String> processSuccessfulResponse(HttpResponse response) throws IOException {
 
         Type responseBodyType = new TypeToken<Map<String, String>>(){}.getType();
         Map<String, String> responseBody = GSON.fromJson(EntityUtils.toString(response.getEntity()), responseBodyType);
@@ -465,20 +808,17 @@ public class ClientCredentialAuthConfig implements AuthConfig {
 
         if (accessToken != null) {
 
-            if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = new
-                        DiagnosticLog.DiagnosticLogBuilder(Constants.LogConstants.ADAPTIVE_AUTH_SERVICE,
-                        getRequestTokenActionId(getRequest()));
-                diagnosticLogBuilder.inputParam(Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint())
-                        .resultMessage("Received access token from the token endpoint.")
-                        .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                        .resultStatus(DiagnosticLog.ResultStatus.SUCCESS);
-                LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
+            OUTBOUND_LOG.diagnostic(getRequestTokenActionId(getRequest()),
+                    Constants.LogConstants.InputKeys.TOKEN_ENDPOINT, getTokenEndpoint(), SUCCESS_RESULT,
+                    DiagnosticLog.ResultStatus.SUCCESS);
+            OUTBOUND_LOG.successInfo(TOKEN_RECEIVED_LOG, authenticationContext.getContextIdentifier());
+            long expiresAt = resolveExpiryTime(accessToken, responseBody.get(EXPIRES_IN_KEY));
+            if (expiresAt > 0) {
+                apiAccessTokenCache.addToCache(getCacheKey(), new AccessTokenRecord(accessToken, expiresAt),
+                        this.authenticationContext.getTenantDomain());
+            } else if (LOG.isDebugEnabled()) {
+                LOG.debug("Expiry of the access token cannot be resolved. Token will not be cached.");
             }
-            LOG.info("Received access token from the token endpoint. Session data key: " +
-                    authenticationContext.getContextIdentifier());
-            apiAccessTokenCache.addToCache(getConsumerKey(), accessToken,
-                    this.authenticationContext.getTenantDomain());
             return Pair.of(RetryDecision.NO_RETRY, accessToken);
         }
         LOG.error("Token response does not contain an access token. Session data key: " +
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.http.metrics.HTTPFunctionMetrics;
+import org.wso2.carbon.identity.conditional.auth.functions.http.metrics.MeteredConnectionManager;
+import org.wso2.carbon.identity.conditional.auth.functions.http.metrics.MeteredNHttpConnectionManager;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the connection pools and the http clients shared by all the http functions.
+ * Pool limits, per route overrides, keep alive and idle eviction are read from {@link ConfigProvider}.
+ */
+public class HTTPClientManager {
+
+    private static final Log LOG = LogFactory.getLog(HTTPClientManager.class);
+    private static final String SCHEME_HTTPS = "https";
+    private static final int DEFAULT_HTTPS_PORT = 443;
+    private static final int DEFAULT_HTTP_PORT = 80;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private PoolingNHttpClientConnectionManager asyncConnectionManager;
+    private CloseableHttpAsyncClient asyncHttpClient;
+    private final ScheduledExecutorService evictionExecutor;
+
+    private HTTPClientManager() {
+
+        ConfigProvider configProvider = ConfigProvider.getInstance();
+        RequestConfig config = createRequestConfig(configProvider.getConnectionTimeout(),
+                configProvider.getReadTimeout());
+        ConnectionKeepAliveStrategy keepAliveStrategy = createKeepAliveStrategy(configProvider.
+                getHttpFunctionPoolKeepAlive());
+
+        HTTPFunctionMetrics metrics = HTTPFunctionMetrics.getInstance();
+        connectionManager = new MeteredConnectionManager(metrics);
+        connectionManager.setMaxTotal(configProvider.getHttpFunctionPoolMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(configProvider.getHttpFunctionPoolMaxPerRoute());
+        // Compression is handled by the http functions for both clients, see HTTPCompressionHandler.
+        httpClient = HttpClientBuilder.create()
+                .setDefaultRequestConfig(config)
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .disableContentCompression()
+                .build();
+
+        if (configProvider.isHttpFunctionNonBlockingIOEnabled()) {
+            try {
+                asyncConnectionManager = new MeteredNHttpConnectionManager(new DefaultConnectingIOReactor(), metrics);
+                asyncConnectionManager.setMaxTotal(configProvider.getHttpFunctionPoolMaxTotal());
+                asyncConnectionManager.setDefaultMaxPerRoute(configProvider.getHttpFunctionPoolMaxPerRoute());
+                asyncHttpClient = HttpAsyncClients.custom()
+                        .setDefaultRequestConfig(config)
+                        .setConnectionManager(asyncConnectionManager)
+                        .setKeepAliveStrategy(keepAliveStrategy)
+                        .build();
+                asyncHttpClient.start();
+            } catch (IOReactorException e) {
+                LOG.error("Error while creating the non-blocking client for http functions. Falling back to the " +
+                        "blocking client.", e);
+                asyncConnectionManager = null;
+                asyncHttpClient = null;
+            }
+        }
+        applyRouteLimits(configProvider.getHttpFunctionPoolRouteLimits(), connectionManager, asyncConnectionManager);
+
+        evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-functions-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int evictionInterval = configProvider.getHttpFunctionPoolEvictionInterval();
+        int idleTimeout = configProvider.getHttpFunctionPoolIdleTimeout();
+        evictionExecutor.scheduleWithFixedDelay(() -> evictConnections(idleTimeout), evictionInterval,
+                evictionInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private static class HTTPClientManagerHolder {
+
+        static final HTTPClientManager INSTANCE = new HTTPClientManager();
+    }
+
+    public static HTTPClientManager getInstance() {
+
+        return HTTPClientManagerHolder.INSTANCE;
+    }
+
+    /**
+     * Get the shared blocking client.
+     *
+     * @return Shared CloseableHttpClient.
+     */
+    public CloseableHttpClient getHttpClient() {
+
+        return httpClient;
+    }
+
+    /**
+     * Get the shared non-blocking client.
+     *
+     * @return Shared CloseableHttpAsyncClient or null if non-blocking IO is not enabled for http functions.
+     */
+    public CloseableHttpAsyncClient getAsyncHttpClient() {
+
+        return asyncHttpClient;
+    }
+
+    /**
+     * Get the statistics of the blocking connection pool.
+     *
+     * @return Leased, pending, available and max connection counts of the pool.
+     */
+    public PoolStats getPoolStats() {
+
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Get the statistics of the non-blocking connection pool.
+     *
+     * @return Leased, pending, available and max connection counts of the pool or null if non-blocking IO is not
+     * enabled for http functions.
+     */
+    public PoolStats getAsyncPoolStats() {
+
+        return asyncConnectionManager != null ? asyncConnectionManager.getTotalStats() : null;
+    }
+
+    /**
+     * Build the request config of the http functions with the given timeouts.
+     *
+     * @param connectTimeout Connect timeout in milliseconds.
+     * @param readTimeout    Socket read timeout in milliseconds.
+     * @return RequestConfig.
+     */
+    public static RequestConfig createRequestConfig(int connectTimeout, int readTimeout) {
+
+        return RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setConnectionRequestTimeout(ConfigProvider.getInstance().getConnectionRequestTimeout())
+                .setSocketTimeout(readTimeout)
+                .setRedirectsEnabled(false)
+                .setRelativeRedirectsAllowed(false)
+                .build();
+    }
+
+    /**
+     * Set the maximum number of pooled connections to the host of the given url.
+     *
+     * @param url            Url of the endpoint.
+     * @param maxConnections Max connections to the endpoint.
+     */
+    public void setMaxConnections(URI url, int maxConnections) {
+
+        applyRouteLimits(Collections.singletonMap(url.toString(), maxConnections), connectionManager,
+                asyncConnectionManager);
+    }
+
+    /**
+     * Close the shared clients and release the pooled connections.
+     */
+    public void shutdown() {
+
+        evictionExecutor.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            LOG.error("Error while closing the http functions client.", e);
+        }
+        if (asyncHttpClient != null) {
+            try {
+                asyncHttpClient.close();
+            } catch (IOException e) {
+                LOG.error("Error while closing the http functions non-blocking client.", e);
+            }
+        }
+    }
+
+    private void evictConnections(int idleTimeout) {
+
+        try {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+            if (asyncConnectionManager != null) {
+                asyncConnectionManager.closeExpiredConnections();
+                asyncConnectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Http functions connection pool stats: " + getPoolStats() +
+                        (asyncConnectionManager != null ? ", non-blocking pool stats: " + getAsyncPoolStats() : ""));
+            }
+        } catch (RuntimeException e) {
+            // Do not let a failure cancel the scheduled eviction.
+            LOG.error("Error while evicting idle connections of http functions.", e);
+        }
+    }
+
+    /**
+     * Apply the per route limits to the connection pools. Invalid routes are logged and skipped.
+     *
+     * @param routeLimits            Max connections of each route, keyed by url or host[:port].
+     * @param connectionManager      Blocking connection pool.
+     * @param asyncConnectionManager Non-blocking connection pool or null.
+     */
+    static void applyRouteLimits(Map<String, Integer> routeLimits,
+                                 PoolingHttpClientConnectionManager connectionManager,
+                                 PoolingNHttpClientConnectionManager asyncConnectionManager) {
+
+        for (Map.Entry<String, Integer> routeLimit : routeLimits.entrySet()) {
+            HttpRoute route;
+            try {
+                route = toRoute(routeLimit.getKey());
+            } catch (IllegalArgumentException e) {
+                LOG.error("Invalid route in connection pool route limits : " + routeLimit.getKey(), e);
+                continue;
+            }
+            connectionManager.setMaxPerRoute(route, routeLimit.getValue());
+            if (asyncConnectionManager != null) {
+                asyncConnectionManager.setMaxPerRoute(route, routeLimit.getValue());
+            }
+        }
+    }
+
+    static HttpRoute toRoute(String routeString) {
+
+        URI uri = URI.create(routeString.contains("://") ? routeString : SCHEME_HTTPS + "://" + routeString);
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("Host is not defined in the route: " + routeString);
+        }
+        boolean secure = SCHEME_HTTPS.equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : (secure ? DEFAULT_HTTPS_PORT : DEFAULT_HTTP_PORT);
+        // Routes are matched the same way the default route planner builds them for a direct connection.
+        return new HttpRoute(new HttpHost(uri.getHost(), port, uri.getScheme()), null, secure);
+    }
+
+    static ConnectionKeepAliveStrategy createKeepAliveStrategy(long defaultKeepAlive) {
+
+        return (response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            // Honour the keep alive advertised by the server, otherwise do not hold the connection indefinitely.
+            return keepAlive > 0 ? keepAlive : defaultKeepAlive;
+        };
+    }
+}
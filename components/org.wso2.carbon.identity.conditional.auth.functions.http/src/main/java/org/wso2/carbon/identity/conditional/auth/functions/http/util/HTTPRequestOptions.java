@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.util;
+
+import org.wso2.carbon.identity.conditional.auth.functions.http.response.JSONProjection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per call options of the http functions given from the adaptive script.
+ * E.g. httpGet(url, headers, null, {cacheTtl: 300}, eventHandlers)
+ */
+public class HTTPRequestOptions {
+
+    public static final String CACHE = "cache";
+    public static final String CACHE_TTL = "cacheTtl";
+    public static final String COALESCE = "coalesce";
+    public static final String RETRY = "retry";
+    public static final String FIELDS = "fields";
+    public static final String HEDGE = "hedge";
+
+    private static final HTTPRequestOptions DEFAULT_OPTIONS = new HTTPRequestOptions();
+
+    private boolean cacheEnabled = true;
+    private long cacheTtl = -1;
+    private boolean coalescingEnabled = true;
+    private Boolean retryEnabled;
+    private Boolean hedgingEnabled;
+    private JSONProjection projection;
+
+    private HTTPRequestOptions() {
+
+    }
+
+    private HTTPRequestOptions(HTTPRequestOptions options) {
+
+        this.cacheEnabled = options.cacheEnabled;
+        this.cacheTtl = options.cacheTtl;
+        this.coalescingEnabled = options.coalescingEnabled;
+        this.retryEnabled = options.retryEnabled;
+        this.hedgingEnabled = options.hedgingEnabled;
+        this.projection = options.projection;
+    }
+
+    /**
+     * Get the options used when no options are given for the call.
+     *
+     * @return Default options.
+     */
+    public static HTTPRequestOptions defaults() {
+
+        return DEFAULT_OPTIONS;
+    }
+
+    /**
+     * Build the options from the map given from the adaptive script.
+     *
+     * @param options Options map.
+     * @return HTTPRequestOptions.
+     * @throws IllegalArgumentException If an option has an invalid value.
+     */
+    public static HTTPRequestOptions fromMap(Map<String, Object> options) {
+
+        return fromMap(options, DEFAULT_OPTIONS);
+    }
+
+    /**
+     * Build the options from the map given from the adaptive script, taking the options which are not given from
+     * the given defaults, e.g. the options of an endpoint profile.
+     *
+     * @param options  Options map.
+     * @param defaults Options used when not given in the map.
+     * @return HTTPRequestOptions.
+     * @throws IllegalArgumentException If an option has an invalid value.
+     */
+    public static HTTPRequestOptions fromMap(Map<String, Object> options, HTTPRequestOptions defaults) {
+
+        HTTPRequestOptions requestOptions = new HTTPRequestOptions(defaults);
+        if (options == null) {
+            return requestOptions;
+        }
+        requestOptions.cacheEnabled = getBooleanOption(options, CACHE, defaults.cacheEnabled);
+        requestOptions.coalescingEnabled = getBooleanOption(options, COALESCE, defaults.coalescingEnabled);
+        if (options.get(RETRY) != null) {
+            requestOptions.retryEnabled = getBooleanOption(options, RETRY, false);
+        }
+        if (options.get(HEDGE) != null) {
+            requestOptions.hedgingEnabled = getBooleanOption(options, HEDGE, false);
+        }
+        Object fields = options.get(FIELDS);
+        if (fields != null) {
+            requestOptions.projection = JSONProjection.of(getStringListOption(fields, FIELDS));
+        }
+        Object cacheTtl = options.get(CACHE_TTL);
+        if (cacheTtl != null) {
+            if (!(cacheTtl instanceof Number) || ((Number) cacheTtl).doubleValue() < 0) {
+                throw new IllegalArgumentException("Invalid value for the option: " + CACHE_TTL +
+                        ". Expected a non negative number of seconds.");
+            }
+            requestOptions.cacheTtl = (long) (((Number) cacheTtl).doubleValue() * 1000);
+        }
+        return requestOptions;
+    }
+
+    private static boolean getBooleanOption(Map<String, Object> options, String name, boolean defaultValue) {
+
+        Object value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Boolean)) {
+            throw new IllegalArgumentException("Invalid value for the option: " + name + ". Expected a boolean.");
+        }
+        return (Boolean) value;
+    }
+
+    private static List<String> getStringListOption(Object value, String name) {
+
+        Collection<?> values;
+        if (value instanceof String) {
+            values = Collections.singletonList(value);
+        } else if (value instanceof Collection) {
+            values = (Collection<?>) value;
+        } else if (value instanceof Map) {
+            // Script arrays may be received as maps keyed by the index.
+            values = ((Map<?, ?>) value).values();
+        } else {
+            throw new IllegalArgumentException("Invalid value for the option: " + name + ". Expected an array of " +
+                    "strings.");
+        }
+        List<String> strings = new ArrayList<>(values.size());
+        for (Object item : values) {
+            if (!(item instanceof String)) {
+                throw new IllegalArgumentException("Invalid value for the option: " + name + ". Expected an array " +
+                        "of strings.");
+            }
+            strings.add((String) item);
+        }
+        return strings;
+    }
+
+    /**
+     * Whether the response of the call can be served from or stored in the response cache.
+     *
+     * @return True if caching is allowed for the call.
+     */
+    public boolean isCacheEnabled() {
+
+        return cacheEnabled;
+    }
+
+    /**
+     * Time to live of the cached response given for the call.
+     *
+     * @return Time to live in milliseconds, or -1 if the freshness should be derived from the response headers.
+     */
+    public long getCacheTtl() {
+
+        return cacheTtl;
+    }
+
+    /**
+     * Whether the call can share the outcome of an identical call in flight.
+     *
+     * @return True if coalescing is allowed for the call.
+     */
+    public boolean isCoalescingEnabled() {
+
+        return coalescingEnabled;
+    }
+
+    /**
+     * Whether the call can be retried when the external api is unavailable. If not given, only idempotent requests
+     * are retried.
+     *
+     * @return True to retry the call even if it is not idempotent, false to never retry it, or null if not given.
+     */
+    public Boolean getRetryEnabled() {
+
+        return retryEnabled;
+    }
+
+    /**
+     * Whether a GET call can be hedged with a second request if its response is slow. If not given, the configured
+     * default is used.
+     *
+     * @return True to hedge the call, false to never hedge it, or null if not given.
+     */
+    public Boolean getHedgingEnabled() {
+
+        return hedgingEnabled;
+    }
+
+    /**
+     * Parts of the JSON response to be materialized for the script, given as JSON pointers.
+     *
+     * @return Projection of the response, or null if the whole response should be materialized.
+     */
+    public JSONProjection getProjection() {
+
+        return projection;
+    }
+}
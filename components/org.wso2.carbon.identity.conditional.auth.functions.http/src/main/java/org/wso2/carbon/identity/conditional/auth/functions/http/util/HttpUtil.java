@@ -17,14 +17,28 @@
  */
 package org.wso2.carbon.identity.conditional.auth.functions.http.util;
 
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
 import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
 
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
 /**
  * Utility class for HTTP related operations.
  */
 public class HttpUtil {
 
+    private static final Log LOG = LogFactory.getLog(HttpUtil.class);
+    private static final char DOMAIN_SEPARATOR = '.';
+
     /**
      * Get the invoke API Action ID based on the HTTP method.
      *
@@ -63,4 +77,87 @@ public class HttpUtil {
         }
         return requestToken;
     }
+
+    /**
+     * Get a canonical fingerprint of the request. The fingerprint covers the method, the url and all the request
+     * headers (in a case insensitive, order independent form) including the credentials, so requests sent with
+     * different credentials never share a fingerprint. The fingerprint is hashed so that no credential is retained.
+     *
+     * @param request HttpUriRequest
+     * @return Hex encoded SHA-256 fingerprint of the request.
+     */
+    public static String getRequestFingerprint(HttpUriRequest request) {
+
+        StringBuilder fingerprintBuilder = new StringBuilder(request.getMethod()).append(' ')
+                .append(request.getURI());
+        Header[] headers = request.getAllHeaders();
+        Arrays.sort(headers, Comparator.comparing((Header header) -> header.getName().toLowerCase(Locale.ROOT))
+                .thenComparing(Header::getValue));
+        for (Header header : headers) {
+            fingerprintBuilder.append('\n').append(header.getName().toLowerCase(Locale.ROOT)).append(':')
+                    .append(header.getValue());
+        }
+        return CommonUtils.sha256Hex(fingerprintBuilder.toString());
+    }
+
+    /**
+     * Check whether the domain of the url is in the allowed domain list of the http functions.
+     *
+     * @param url            Url of the request.
+     * @param allowedDomains Allowed domains, all the domains are allowed if empty.
+     * @return True if the request can be sent to the url.
+     */
+    public static boolean isAllowedDomain(URI url, List<String> allowedDomains) {
+
+        if (url == null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Provided url for domain restriction checking is null");
+            }
+            return false;
+        }
+
+        if (allowedDomains.isEmpty()) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("No domains configured for domain restriction. Allowing url by default. Url: "
+                        + url.toString());
+            }
+            return true;
+        }
+
+        String domain = getParentDomainFromUrl(url);
+        if (StringUtils.isEmpty(domain)) {
+            LOG.error("Unable to determine the domain of the url: " + url.toString());
+            return false;
+        }
+
+        if (allowedDomains.contains(domain)) {
+            return true;
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Domain: " + domain + " extracted from url: " + url.toString() + " is not available in the " +
+                    "allowed domain list: " + StringUtils.join(allowedDomains, ','));
+        }
+
+        return false;
+    }
+
+    private static String getParentDomainFromUrl(URI url) {
+
+        String parentDomain = null;
+        String domain = url.getHost();
+        String[] domainArr;
+        if (domain != null) {
+            domainArr = StringUtils.split(domain, DOMAIN_SEPARATOR);
+            if (domainArr.length != 0) {
+                parentDomain = domainArr.length == 1 ? domainArr[0] : domainArr[domainArr.length - 2];
+                parentDomain = parentDomain.toLowerCase();
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Parent domain: " + parentDomain + " extracted from url: " + url.toString());
+        }
+        return parentDomain;
+    }
 }
@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.util;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.json.simple.JSONAware;
+import org.wso2.carbon.identity.conditional.auth.functions.common.model.JsUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.model.JsUtilsProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.CommonUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes the payload given from the adaptive script into a request body in a single walk, writing UTF-8 bytes
+ * into a buffer reused by the thread instead of copying the payload into intermediate maps and strings.
+ * <p>
+ * The payload is serialized on the calling thread, as script objects must not be accessed from the threads which
+ * send the request later. The output is the same as of json-simple and UrlEncodedFormEntity, except that values
+ * of unknown types are written as json strings instead of their raw string.
+ */
+public class PayloadSerializer {
+
+    private static final int MAX_DEPTH = 64;
+    // Buffers grown beyond this size are not kept by the thread after the call.
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final ContentType JSON_CONTENT_TYPE = ContentType.create(ContentType.TEXT_PLAIN.getMimeType(),
+            StandardCharsets.UTF_8);
+    private static final ContentType FORM_CONTENT_TYPE = ContentType.create(
+            ContentType.APPLICATION_FORM_URLENCODED.getMimeType(), StandardCharsets.UTF_8);
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(Buffer::new);
+
+    private final JsUtils jsUtils;
+    private final int maxDepth;
+    private final int maxSize;
+
+    private PayloadSerializer() {
+
+        this(JsUtilsProvider.getInstance().getJsUtils(), MAX_DEPTH,
+                ConfigProvider.getInstance().getHttpFunctionMaxRequestPayloadSize());
+    }
+
+    PayloadSerializer(JsUtils jsUtils, int maxDepth, int maxSize) {
+
+        this.jsUtils = jsUtils;
+        this.maxDepth = maxDepth;
+        // A negative max size means the payload size is not limited.
+        this.maxSize = maxSize < 0 ? Integer.MAX_VALUE : maxSize;
+    }
+
+    private static class PayloadSerializerHolder {
+
+        static final PayloadSerializer INSTANCE = new PayloadSerializer();
+    }
+
+    public static PayloadSerializer getInstance() {
+
+        return PayloadSerializerHolder.INSTANCE;
+    }
+
+    /**
+     * Serialize the payload as a json object.
+     *
+     * @param payload Payload from the adaptive script.
+     * @return Request entity.
+     * @throws IllegalArgumentException If the payload is nested too deep or exceeds the maximum payload size.
+     */
+    public HttpEntity toJsonEntity(Map<String, Object> payload) {
+
+        Buffer buffer = acquireBuffer();
+        try {
+            writeObject(buffer, payload, 0);
+            return buffer.toEntity(JSON_CONTENT_TYPE);
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * Serialize the top level entries of the payload as url encoded form fields.
+     *
+     * @param payload Payload from the adaptive script.
+     * @return Request entity.
+     * @throws IllegalArgumentException If the payload exceeds the maximum payload size.
+     */
+    public HttpEntity toFormEntity(Map<String, Object> payload) {
+
+        Buffer buffer = acquireBuffer();
+        try {
+            boolean first = true;
+            for (Map.Entry<String, Object> entry : payload.entrySet()) {
+                if (!first) {
+                    buffer.write('&');
+                }
+                first = false;
+                writeFormEncoded(buffer, entry.getKey());
+                Object value = entry.getValue();
+                if (value != null) {
+                    buffer.write('=');
+                    writeFormEncoded(buffer, toFormValue(value));
+                }
+            }
+            return buffer.toEntity(FORM_CONTENT_TYPE);
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    private Buffer acquireBuffer() {
+
+        Buffer buffer = BUFFERS.get();
+        buffer.reset(maxSize);
+        return buffer;
+    }
+
+    private void releaseBuffer(Buffer buffer) {
+
+        if (buffer.bytes.length > MAX_RETAINED_BUFFER_SIZE) {
+            BUFFERS.remove();
+        }
+    }
+
+    private String toFormValue(Object value) {
+
+        if (value instanceof Map || jsUtils.isArray(value)) {
+            // Nested values are written as their string form, as they were before the payload was streamed.
+            return String.valueOf(CommonUtils.getPayloadDataMap(Collections.singletonMap("value", value))
+                    .get("value"));
+        }
+        return value.toString();
+    }
+
+    private void writeValue(Buffer buffer, Object value, int depth) {
+
+        if (value == null) {
+            buffer.writeAscii("null");
+        } else if (value instanceof String) {
+            writeString(buffer, (String) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            double doubleValue = ((Number) value).doubleValue();
+            buffer.writeAscii(Double.isNaN(doubleValue) || Double.isInfinite(doubleValue) ? "null" :
+                    value.toString());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            buffer.writeAscii(value.toString());
+        } else if (jsUtils.isArray(value)) {
+            writeArray(buffer, value instanceof List ? (List<Object>) value :
+                    ((Map<String, Object>) value).values(), depth + 1);
+        } else if (value instanceof Map) {
+            writeObject(buffer, (Map<String, Object>) value, depth + 1);
+        } else if (value instanceof JSONAware) {
+            buffer.writeUtf8(((JSONAware) value).toJSONString());
+        } else {
+            writeString(buffer, value.toString());
+        }
+    }
+
+    private void writeObject(Buffer buffer, Map<String, Object> map, int depth) {
+
+        checkDepth(depth);
+        buffer.write('{');
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (!first) {
+                buffer.write(',');
+            }
+            first = false;
+            writeString(buffer, String.valueOf(entry.getKey()));
+            buffer.write(':');
+            writeValue(buffer, entry.getValue(), depth);
+        }
+        buffer.write('}');
+    }
+
+    private void writeArray(Buffer buffer, Iterable<Object> values, int depth) {
+
+        checkDepth(depth);
+        buffer.write('[');
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                buffer.write(',');
+            }
+            first = false;
+            writeValue(buffer, value, depth);
+        }
+        buffer.write(']');
+    }
+
+    private void checkDepth(int depth) {
+
+        if (depth > maxDepth) {
+            throw new IllegalArgumentException("Request payload exceeds the maximum nesting depth of " + maxDepth +
+                    ".");
+        }
+    }
+
+    private static void writeString(Buffer buffer, String value) {
+
+        buffer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"':
+                    buffer.write('\\');
+                    buffer.write('"');
+                    break;
+                case '\\':
+                    buffer.write('\\');
+                    buffer.write('\\');
+                    break;
+                case '\b':
+                    buffer.write('\\');
+                    buffer.write('b');
+                    break;
+                case '\f':
+                    buffer.write('\\');
+                    buffer.write('f');
+                    break;
+                case '\n':
+                    buffer.write('\\');
+                    buffer.write('n');
+                    break;
+                case '\r':
+                    buffer.write('\\');
+                    buffer.write('r');
+                    break;
+                case '\t':
+                    buffer.write('\\');
+                    buffer.write('t');
+                    break;
+                case '/':
+                    buffer.write('\\');
+                    buffer.write('/');
+                    break;
+                default:
+                    // Same escapes as json-simple.
+                    if (ch <= '\u001F' || ch >= '\u007F' && ch <= '\u009F' || ch >= '\u2000' && ch <= '\u20FF') {
+                        buffer.write('\\');
+                        buffer.write('u');
+                        buffer.write(HEX[ch >> 12 & 0xF]);
+                        buffer.write(HEX[ch >> 8 & 0xF]);
+                        buffer.write(HEX[ch >> 4 & 0xF]);
+                        buffer.write(HEX[ch & 0xF]);
+                    } else {
+                        i = buffer.writeUtf8Char(value, i);
+                    }
+            }
+        }
+        buffer.write('"');
+    }
+
+    private static void writeFormEncoded(Buffer buffer, String value) {
+
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9' || ch == '-' ||
+                    ch == '_' || ch == '.' || ch == '*') {
+                buffer.write(ch);
+            } else if (ch == ' ') {
+                buffer.write('+');
+            } else {
+                byte[] encoded = buffer.scratch;
+                int length = encodeUtf8(value, i, encoded, 0);
+                if (length == 4) {
+                    i++;
+                }
+                for (int j = 0; j < length; j++) {
+                    buffer.write('%');
+                    buffer.write(HEX[encoded[j] >> 4 & 0xF]);
+                    buffer.write(HEX[encoded[j] & 0xF]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Encode the character at the given index as UTF-8, with the low surrogate if it starts a surrogate pair.
+     * Unpaired surrogates are replaced with '?' as the UTF-8 encoder of the JDK does.
+     *
+     * @return Number of bytes written to the output at the offset, which is 4 only if a surrogate pair was
+     * encoded.
+     */
+    private static int encodeUtf8(String value, int index, byte[] out, int offset) {
+
+        char ch = value.charAt(index);
+        if (ch < 0x80) {
+            out[offset] = (byte) ch;
+            return 1;
+        }
+        if (ch < 0x800) {
+            out[offset] = (byte) (0xC0 | ch >> 6);
+            out[offset + 1] = (byte) (0x80 | ch & 0x3F);
+            return 2;
+        }
+        if (Character.isHighSurrogate(ch) && index + 1 < value.length() &&
+                Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(ch, value.charAt(index + 1));
+            out[offset] = (byte) (0xF0 | codePoint >> 18);
+            out[offset + 1] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+            out[offset + 2] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+            out[offset + 3] = (byte) (0x80 | codePoint & 0x3F);
+            return 4;
+        }
+        if (Character.isSurrogate(ch)) {
+            out[offset] = '?';
+            return 1;
+        }
+        out[offset] = (byte) (0xE0 | ch >> 12);
+        out[offset + 1] = (byte) (0x80 | ch >> 6 & 0x3F);
+        out[offset + 2] = (byte) (0x80 | ch & 0x3F);
+        return 3;
+    }
+
+    /**
+     * Growable byte buffer bounded by the maximum payload size.
+     */
+    private static class Buffer {
+
+        private final byte[] scratch = new byte[4];
+        private byte[] bytes = new byte[1024];
+        private int count;
+        private int limit;
+
+        void reset(int limit) {
+
+            this.count = 0;
+            this.limit = limit;
+        }
+
+        void write(int b) {
+
+            ensureCapacity(1);
+            bytes[count++] = (byte) b;
+        }
+
+        void writeAscii(String value) {
+
+            ensureCapacity(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                bytes[count++] = (byte) value.charAt(i);
+            }
+        }
+
+        void writeUtf8(String value) {
+
+            for (int i = 0; i < value.length(); i++) {
+                i = writeUtf8Char(value, i);
+            }
+        }
+
+        /**
+         * Write the character at the given index as UTF-8.
+         *
+         * @return Index of the last character consumed, which is the next one if a surrogate pair was written.
+         */
+        int writeUtf8Char(String value, int index) {
+
+            char ch = value.charAt(index);
+            if (ch < 0x80) {
+                write(ch);
+                return index;
+            }
+            ensureCapacity(4);
+            int length = encodeUtf8(value, index, bytes, count);
+            count += length;
+            return length == 4 ? index + 1 : index;
+        }
+
+        HttpEntity toEntity(ContentType contentType) {
+
+            return new ByteArrayEntity(Arrays.copyOf(bytes, count), contentType);
+        }
+
+        private void ensureCapacity(int length) {
+
+            int required = count + length;
+            if (required > limit) {
+                throw new IllegalArgumentException("Request payload exceeds the maximum size of " + limit +
+                        " bytes.");
+            }
+            if (required > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.min(Math.max(bytes.length * 2, required), limit));
+            }
+        }
+    }
+}
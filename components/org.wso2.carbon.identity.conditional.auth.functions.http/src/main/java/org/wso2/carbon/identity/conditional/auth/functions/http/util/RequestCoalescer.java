@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.util;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Single flight layer for identical outbound requests of the http functions. The first caller of a request
+ * fingerprint (the leader) sends the request, while concurrent callers with the same fingerprint (the followers)
+ * wait for the outcome of the leader without sending a request of their own. A follower waits no longer than the
+ * leader request can take, and gets its own copy of the response.
+ */
+public class RequestCoalescer {
+
+    private static final Log LOG = LogFactory.getLog(RequestCoalescer.class);
+
+    private final boolean enabled;
+    private final Map<String, CompletableFuture<Pair<String, JSONObject>>> inFlightRequests =
+            new ConcurrentHashMap<>();
+    private final AtomicLong leaderCount = new AtomicLong();
+    private final AtomicLong followerCount = new AtomicLong();
+    private final AtomicLong followerTimeoutCount = new AtomicLong();
+
+    private RequestCoalescer() {
+
+        this(ConfigProvider.getInstance().isHttpFunctionRequestCoalescingEnabled());
+    }
+
+    RequestCoalescer(boolean enabled) {
+
+        this.enabled = enabled;
+    }
+
+    private static class RequestCoalescerHolder {
+
+        static final RequestCoalescer INSTANCE = new RequestCoalescer();
+    }
+
+    public static RequestCoalescer getInstance() {
+
+        return RequestCoalescerHolder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Join the in flight request of the given key or become its leader.
+     *
+     * @param key    Coalescing key of the request.
+     * @param leader Outcome holder to be registered if there is no request in flight for the key.
+     * @return Outcome of the request in flight which the caller should wait for, or null if the caller became the
+     * leader and should send the request.
+     */
+    public CompletableFuture<Pair<String, JSONObject>> join(String key,
+                                                            CompletableFuture<Pair<String, JSONObject>> leader) {
+
+        CompletableFuture<Pair<String, JSONObject>> inFlightRequest = inFlightRequests.putIfAbsent(key, leader);
+        if (inFlightRequest == null) {
+            leaderCount.incrementAndGet();
+        } else {
+            followerCount.incrementAndGet();
+        }
+        return inFlightRequest;
+    }
+
+    /**
+     * Publish the outcome of the leader to its followers.
+     *
+     * @param key     Coalescing key of the request.
+     * @param leader  Outcome holder registered by the leader.
+     * @param outcome Outcome of the request.
+     * @param json    Response of the request.
+     */
+    public void complete(String key, CompletableFuture<Pair<String, JSONObject>> leader, String outcome,
+                         JSONObject json) {
+
+        // Remove first, so that requests arriving after this point are sent again instead of getting this outcome.
+        inFlightRequests.remove(key, leader);
+        leader.complete(Pair.of(outcome, json));
+    }
+
+    /**
+     * Hand the outcome of the request in flight to a follower once it is available. The follower is failed if the
+     * outcome is not available within the given timeout, e.g. if the leader is stuck.
+     *
+     * @param inFlightRequest Outcome of the request in flight, as returned by {@link #join}.
+     * @param timeout         Maximum time to wait for the outcome in milliseconds.
+     * @param completion      Consumer of the outcome and a copy of the response.
+     */
+    public void follow(CompletableFuture<Pair<String, JSONObject>> inFlightRequest, long timeout,
+                       BiConsumer<String, JSONObject> completion) {
+
+        // The timeout is applied to a copy, so that it does not complete the outcome seen by the other followers.
+        inFlightRequest.copy().orTimeout(timeout, TimeUnit.MILLISECONDS).whenComplete((result, error) -> {
+            if (error != null) {
+                followerTimeoutCount.incrementAndGet();
+                LOG.warn("Timed out after " + timeout + " ms while waiting for an identical in flight request.");
+                completion.accept(Constants.OUTCOME_FAIL, null);
+                return;
+            }
+            completion.accept(result.getLeft(), result.getRight() != null ? copyOf(result.getRight()) : null);
+        });
+    }
+
+    public long getLeaderCount() {
+
+        return leaderCount.get();
+    }
+
+    public long getFollowerCount() {
+
+        return followerCount.get();
+    }
+
+    public long getFollowerTimeoutCount() {
+
+        return followerTimeoutCount.get();
+    }
+
+    public int getInFlightCount() {
+
+        return inFlightRequests.size();
+    }
+
+    /**
+     * Get the fraction of the requests which were served by a request of another caller.
+     *
+     * @return Coalescing ratio between 0 and 1.
+     */
+    public double getCoalescingRatio() {
+
+        long followers = followerCount.get();
+        long total = leaderCount.get() + followers;
+        return total == 0 ? 0 : (double) followers / total;
+    }
+
+    /**
+     * Deep copy a json response, so that the flows sharing a response cannot see each other's changes to it.
+     *
+     * @param json Json response.
+     * @return Copy of the response.
+     */
+    static JSONObject copyOf(JSONObject json) {
+
+        return (JSONObject) copyValue(json);
+    }
+
+    private static Object copyValue(Object value) {
+
+        if (value instanceof Map) {
+            JSONObject copy = new JSONObject();
+            for (Map.Entry<?, ?> field : ((Map<?, ?>) value).entrySet()) {
+                copy.put(field.getKey(), copyValue(field.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof List) {
+            JSONArray copy = new JSONArray();
+            for (Object element : (List<?>) value) {
+                copy.add(copyValue(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+}
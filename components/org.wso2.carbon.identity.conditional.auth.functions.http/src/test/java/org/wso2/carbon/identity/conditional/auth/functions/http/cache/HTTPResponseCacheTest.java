@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.cache;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.message.BasicHttpResponse;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.conditional.auth.functions.http.util.HttpUtil;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@WithCarbonHome
+public class HTTPResponseCacheTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String BODY = "{\"riskScore\":1}";
+
+    private final HTTPResponseCache responseCache = HTTPResponseCache.getInstance();
+
+    @AfterMethod
+    public void tearDown() {
+
+        responseCache.clear(TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testFreshResponseWithMaxAge() {
+
+        HttpResponse response = createResponse(HttpStatus.SC_OK);
+        response.addHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=60");
+        responseCache.put(TENANT_DOMAIN, "key", response, BODY, -1);
+
+        CachedResponse cachedResponse = responseCache.get(TENANT_DOMAIN, "key");
+        assertNotNull(cachedResponse);
+        assertTrue(cachedResponse.isFresh());
+        assertEquals(cachedResponse.getBody(), BODY);
+    }
+
+    @Test
+    public void testNoStoreResponseIsNotCached() {
+
+        HttpResponse response = createResponse(HttpStatus.SC_OK);
+        response.addHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        responseCache.put(TENANT_DOMAIN, "key", response, BODY, 60000);
+
+        assertNull(responseCache.get(TENANT_DOMAIN, "key"));
+    }
+
+    @Test
+    public void testPrivateResponseIsNotCached() {
+
+        HttpResponse response = createResponse(HttpStatus.SC_OK);
+        response.addHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=60");
+        responseCache.put(TENANT_DOMAIN, "key", response, BODY, 60000);
+
+        assertNull(responseCache.get(TENANT_DOMAIN, "key"));
+    }
+
+    @Test
+    public void testClearRemovesOnlyTheTenantResponses() {
+
+        HttpResponse response = createResponse(HttpStatus.SC_OK);
+        response.addHeader(HttpHeaders.CACHE_CONTROL, "max-age=60");
+        responseCache.put(TENANT_DOMAIN, "key", response, BODY, -1);
+        responseCache.put("abc.com", "key", response, BODY, -1);
+
+        responseCache.clear("abc.com");
+
+        assertNotNull(responseCache.get(TENANT_DOMAIN, "key"));
+        assertNull(responseCache.get("abc.com", "key"));
+    }
+
+    @Test
+    public void testResponseWithoutFreshnessOrValidatorIsNotCached() {
+
+        responseCache.put(TENANT_DOMAIN, "key", createResponse(HttpStatus.SC_OK), BODY, -1);
+
+        assertNull(responseCache.get(TENANT_DOMAIN, "key"));
+    }
+
+    @Test
+    public void testTtlOverride() {
+
+        responseCache.put(TENANT_DOMAIN, "key", createResponse(HttpStatus.SC_OK), BODY, 60000);
+
+        CachedResponse cachedResponse = responseCache.get(TENANT_DOMAIN, "key");
+        assertNotNull(cachedResponse);
+        assertTrue(cachedResponse.isFresh());
+    }
+
+    @Test
+    public void testRevalidation() {
+
+        HttpResponse response = createResponse(HttpStatus.SC_OK);
+        response.addHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.addHeader(HttpHeaders.ETAG, "\"v1\"");
+        responseCache.put(TENANT_DOMAIN, "key", response, BODY, -1);
+
+        CachedResponse cachedResponse = responseCache.get(TENANT_DOMAIN, "key");
+        assertNotNull(cachedResponse);
+        assertFalse(cachedResponse.isFresh());
+        assertTrue(cachedResponse.hasValidator());
+        assertTrue(cachedResponse.isUsableOnError());
+
+        HttpResponse notModified = createResponse(HttpStatus.SC_NOT_MODIFIED);
+        notModified.addHeader(HttpHeaders.CACHE_CONTROL, "max-age=60");
+        long revalidationCount = responseCache.getRevalidationCount();
+        responseCache.revalidated(TENANT_DOMAIN, "key", cachedResponse, notModified, -1);
+
+        CachedResponse revalidated = responseCache.get(TENANT_DOMAIN, "key");
+        assertTrue(revalidated.isFresh());
+        assertEquals(revalidated.getEtag(), "\"v1\"");
+        assertEquals(revalidated.getBody(), BODY);
+        assertEquals(responseCache.getRevalidationCount(), revalidationCount + 1);
+    }
+
+    @Test
+    public void testCacheKeyCoversHeaders() {
+
+        HttpGet request = new HttpGet("https://abc.com/risk");
+        request.setHeader(HttpHeaders.AUTHORIZATION, "Bearer token1");
+        String firstKey = HttpUtil.getRequestFingerprint(request);
+        request.setHeader(HttpHeaders.AUTHORIZATION, "Bearer token2");
+        String secondKey = HttpUtil.getRequestFingerprint(request);
+
+        assertNotEquals(firstKey, secondKey);
+        assertFalse(firstKey.contains("token1"));
+    }
+
+    private HttpResponse createResponse(int statusCode) {
+
+        return new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, null);
+    }
+}
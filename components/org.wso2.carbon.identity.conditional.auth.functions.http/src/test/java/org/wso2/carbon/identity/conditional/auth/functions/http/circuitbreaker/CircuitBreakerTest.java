@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.circuitbreaker;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class CircuitBreakerTest {
+
+    private static final long SLOW_CALL_DURATION = 1000;
+    private static final long OPEN_STATE_DURATION = 30000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeMethod
+    public void setUp() {
+
+        clock.set(0);
+        CircuitBreakerConfig config = new CircuitBreakerConfig(10, 5, 50, SLOW_CALL_DURATION, 80,
+                OPEN_STATE_DURATION, 2);
+        circuitBreaker = new CircuitBreaker("https://api.example.com:443", config, clock::get);
+    }
+
+    @Test
+    public void testStaysClosedBelowMinimumCalls() {
+
+        recordCalls(4, true, 10);
+
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.CLOSED);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void testOpensOnFailureRate() {
+
+        recordCalls(3, false, 10);
+        recordCalls(3, true, 10);
+
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.OPEN);
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertEquals(circuitBreaker.getRejectedCallCount(), 1);
+    }
+
+    @Test
+    public void testOpensOnSlowCallRate() {
+
+        recordCalls(5, false, SLOW_CALL_DURATION);
+
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void testOldCallsLeaveTheSlidingWindow() {
+
+        recordCalls(10, false, 10);
+        recordCalls(4, true, 10);
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.CLOSED);
+        assertEquals(circuitBreaker.getFailureRate(), 40f);
+
+        recordCalls(10, false, 10);
+        assertEquals(circuitBreaker.getFailureRate(), 0f);
+    }
+
+    @Test
+    public void testClosesAfterSuccessfulProbeCalls() {
+
+        recordCalls(5, true, 10);
+        clock.addAndGet(OPEN_STATE_DURATION);
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission(), "Only the configured probe calls should be permitted.");
+
+        circuitBreaker.onResult(false, 10);
+        circuitBreaker.onResult(false, 10);
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.CLOSED);
+        assertEquals(circuitBreaker.getFailureRate(), 0f);
+    }
+
+    @Test
+    public void testReopensOnFailedProbeCall() {
+
+        recordCalls(5, true, 10);
+        clock.addAndGet(OPEN_STATE_DURATION);
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onResult(true, 10);
+
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.OPEN);
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void testProbingRestartsWhenProbeResultsAreMissing() {
+
+        recordCalls(5, true, 10);
+        clock.addAndGet(OPEN_STATE_DURATION);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+
+        clock.addAndGet(OPEN_STATE_DURATION);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.HALF_OPEN);
+    }
+
+    private void recordCalls(int count, boolean failed, long duration) {
+
+        for (int i = 0; i < count; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onResult(failed, duration);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.fanout;
+
+import org.json.simple.JSONObject;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTCOME_FAIL;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTCOME_SUCCESS;
+import static org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.OUTCOME_TIMEOUT;
+
+public class FanOutJoinTest {
+
+    @Test
+    public void testAllModeSucceedsOnceAllRequestsSucceed() {
+
+        FanOutJoin join = new FanOutJoin(FanOutMode.ALL, 2, 0);
+
+        assertFalse(join.onResult("risk", OUTCOME_SUCCESS, response("score", 10)));
+        assertNull(join.getOutcome());
+        assertTrue(join.onResult("geo", OUTCOME_SUCCESS, response("country", "LK")));
+
+        assertEquals(join.getOutcome(), OUTCOME_SUCCESS);
+        Map<String, Object> results = join.getResults();
+        assertEquals(results.size(), 2);
+        JSONObject risk = (JSONObject) results.get("risk");
+        assertEquals(risk.get(FanOutJoin.OUTCOME), OUTCOME_SUCCESS);
+        assertEquals(((JSONObject) risk.get(FanOutJoin.RESPONSE)).get("score"), 10);
+    }
+
+    @Test
+    public void testAllModeFailsOnFirstFailure() {
+
+        FanOutJoin join = new FanOutJoin(FanOutMode.ALL, 3, 0);
+
+        assertTrue(join.onResult("risk", OUTCOME_TIMEOUT, null));
+
+        assertEquals(join.getOutcome(), OUTCOME_FAIL);
+        assertEquals(join.getResults().size(), 1);
+    }
+
+    @Test
+    public void testAnyModeSucceedsOnFirstSuccess() {
+
+        FanOutJoin join = new FanOutJoin(FanOutMode.ANY, 3, 0);
+
+        assertFalse(join.onResult("primary", OUTCOME_FAIL, null));
+        assertTrue(join.onResult("secondary", OUTCOME_SUCCESS, response("score", 5)));
+        assertFalse(join.onResult("tertiary", OUTCOME_SUCCESS, response("score", 7)));
+
+        assertEquals(join.getOutcome(), OUTCOME_SUCCESS);
+        assertFalse(join.getResults().containsKey("tertiary"));
+    }
+
+    @Test
+    public void testAnyModeFailsOnceAllRequestsFail() {
+
+        FanOutJoin join = new FanOutJoin(FanOutMode.ANY, 2, 0);
+
+        assertFalse(join.onResult("primary", OUTCOME_FAIL, null));
+        assertTrue(join.onResult("secondary", OUTCOME_FAIL, null));
+
+        assertEquals(join.getOutcome(), OUTCOME_FAIL);
+    }
+
+    @Test
+    public void testQuorumMode() {
+
+        FanOutJoin join = new FanOutJoin(FanOutMode.QUORUM, 3, 2);
+
+        assertFalse(join.onResult("a", OUTCOME_SUCCESS, null));
+        assertFalse(join.onResult("b", OUTCOME_FAIL, null));
+        assertTrue(join.onResult("c", OUTCOME_SUCCESS, null));
+
+        assertEquals(join.getOutcome(), OUTCOME_SUCCESS);
+    }
+
+    @Test
+    public void testQuorumModeFailsOnceQuorumIsUnreachable() {
+
+        FanOutJoin join = new FanOutJoin(FanOutMode.QUORUM, 3, 2);
+
+        assertFalse(join.onResult("a", OUTCOME_FAIL, null));
+        assertTrue(join.onResult("b", OUTCOME_FAIL, null));
+
+        assertEquals(join.getOutcome(), OUTCOME_FAIL);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidQuorum() {
+
+        new FanOutJoin(FanOutMode.QUORUM, 2, 3);
+    }
+
+    @Test
+    public void testTimeoutKeepsPartialResults() {
+
+        FanOutJoin join = new FanOutJoin(FanOutMode.ALL, 2, 0);
+        join.onResult("risk", OUTCOME_SUCCESS, response("score", 10));
+
+        assertTrue(join.onTimeout());
+        assertFalse(join.onResult("geo", OUTCOME_SUCCESS, response("country", "LK")));
+
+        assertEquals(join.getOutcome(), OUTCOME_TIMEOUT);
+        assertEquals(join.getResults().keySet().iterator().next(), "risk");
+        assertEquals(join.getResults().size(), 1);
+    }
+
+    @Test
+    public void testTimeoutAfterOutcomeIsIgnored() {
+
+        FanOutJoin join = new FanOutJoin(FanOutMode.ANY, 2, 0);
+        join.onResult("risk", OUTCOME_SUCCESS, null);
+
+        assertFalse(join.onTimeout());
+        assertEquals(join.getOutcome(), OUTCOME_SUCCESS);
+    }
+
+    @Test
+    public void testModeFromName() {
+
+        assertEquals(FanOutMode.fromName("Quorum"), FanOutMode.QUORUM);
+    }
+
+    private JSONObject response(String key, Object value) {
+
+        JSONObject json = new JSONObject();
+        json.put(key, value);
+        return json;
+    }
+}
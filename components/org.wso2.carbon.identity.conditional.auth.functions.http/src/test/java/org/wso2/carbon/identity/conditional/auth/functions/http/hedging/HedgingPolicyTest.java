@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.hedging;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class HedgingPolicyTest {
+
+    private static final String ENDPOINT = "https://fraud.example.com:443";
+
+    @Test
+    public void testOnlyGetRequestsAreHedgeable() {
+
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(true, 0, 20, 10);
+
+        assertTrue(hedgingPolicy.isHedgeable("GET", null));
+        assertFalse(hedgingPolicy.isHedgeable("POST", true));
+        assertFalse(hedgingPolicy.isHedgeable("GET", false));
+        assertTrue(new HedgingPolicy(false, 0, 20, 10).isHedgeable("GET", true));
+        assertFalse(new HedgingPolicy(false, 0, 20, 10).isHedgeable("GET", null));
+    }
+
+    @Test
+    public void testConfiguredDelay() {
+
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(true, 150, 20, 10);
+
+        assertEquals(hedgingPolicy.onRequest(ENDPOINT), 150);
+    }
+
+    @Test
+    public void testDelayFromObservedLatency() {
+
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(true, 0, 20, 10);
+        assertEquals(hedgingPolicy.onRequest(ENDPOINT), -1);
+
+        for (int i = 1; i <= 97; i++) {
+            hedgingPolicy.recordLatency(ENDPOINT, i);
+        }
+        // Nearest rank 95th percentile of 1..97.
+        assertEquals(hedgingPolicy.onRequest(ENDPOINT), 93);
+    }
+
+    @Test
+    public void testObservedDelayIsBoundedByMinDelay() {
+
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(true, 0, 20, 10);
+        for (int i = 0; i < 32; i++) {
+            hedgingPolicy.recordLatency(ENDPOINT, 5);
+        }
+
+        assertEquals(hedgingPolicy.onRequest(ENDPOINT), 20);
+    }
+
+    @Test
+    public void testHedgesAreCappedByBudget() {
+
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(true, 100, 20, 10);
+        for (int i = 0; i < 20; i++) {
+            hedgingPolicy.onRequest(ENDPOINT);
+        }
+
+        assertTrue(hedgingPolicy.tryAcquireHedge(ENDPOINT));
+        assertTrue(hedgingPolicy.tryAcquireHedge(ENDPOINT));
+        assertFalse(hedgingPolicy.tryAcquireHedge(ENDPOINT));
+
+        hedgingPolicy.recordHedgeWin();
+        assertEquals(hedgingPolicy.getHedgeCount(), 2);
+        assertEquals(hedgingPolicy.getHedgeRate(), 0.1, 0.0001);
+        assertEquals(hedgingPolicy.getHedgeWinRate(), 0.5, 0.0001);
+    }
+
+    @Test
+    public void testLatencyWindowKeepsRecentLatencies() {
+
+        LatencyWindow latencyWindow = new LatencyWindow(16, 0.5);
+        for (int i = 0; i < 16; i++) {
+            latencyWindow.record(1000);
+        }
+        for (int i = 0; i < 32; i++) {
+            latencyWindow.record(10);
+        }
+
+        assertEquals(latencyWindow.getRecordedCount(), 16);
+        assertEquals(latencyWindow.getPercentileLatency(), 10);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.metrics;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class HTTPFunctionMetricsTest {
+
+    @Test
+    public void testHistogramPercentiles() {
+
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertEquals(snapshot.getCount(), 1000);
+        assertEquals(snapshot.getMax(), 1000000);
+        assertEquals(snapshot.getMean(), 500500d);
+        assertWithinBucketError(snapshot.getP50(), 500000);
+        assertWithinBucketError(snapshot.getP90(), 900000);
+        assertWithinBucketError(snapshot.getP99(), 990000);
+    }
+
+    @Test
+    public void testHistogramBucketsCoverAllValues() {
+
+        for (long value = 0; value < 100000; value++) {
+            int index = Histogram.getBucketIndex(value);
+            assertTrue(value <= Histogram.getBucketUpperBound(index));
+            assertTrue(index == 0 || value > Histogram.getBucketUpperBound(index - 1));
+        }
+        assertEquals(Histogram.getBucketUpperBound(Histogram.getBucketIndex(Long.MAX_VALUE)), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testMetricsAreRecordedPerEndpointAndMethod() {
+
+        HTTPFunctionMetrics metrics = new HTTPFunctionMetrics(true);
+        HttpGet get = new HttpGet("https://risk.example.com/api/score?user=1");
+        metrics.recordOutcome(get, EndpointMetrics.Outcome.SUCCESS);
+        metrics.recordOutcome(new HttpGet("https://RISK.example.com:443/api/other"), EndpointMetrics.Outcome.TIMEOUT);
+        metrics.recordRetry(get);
+        metrics.recordTotalTime(get, TimeUnit.MILLISECONDS.toNanos(12));
+        metrics.recordResponseSize(get, 512);
+        metrics.recordOutcome(new HttpPost("https://risk.example.com/api/score"),
+                EndpointMetrics.Outcome.SERVER_ERROR);
+
+        List<EndpointMetricsSnapshot> snapshots = metrics.getEndpointMetrics();
+        assertEquals(snapshots.size(), 2);
+        EndpointMetricsSnapshot getSnapshot = findSnapshot(snapshots, "GET");
+        assertEquals(getSnapshot.getEndpoint(), "https://risk.example.com:443");
+        assertEquals(getSnapshot.getSuccessCount(), 1);
+        assertEquals(getSnapshot.getTimeoutCount(), 1);
+        assertEquals(getSnapshot.getRetryCount(), 1);
+        assertEquals(getSnapshot.getTotalTime().getMax(), 12000);
+        assertEquals(getSnapshot.getResponseSize().getMax(), 512);
+        assertEquals(findSnapshot(snapshots, "POST").getServerErrorCount(), 1);
+
+        metrics.recordConnectionWait("https://risk.example.com:443", TimeUnit.MILLISECONDS.toNanos(3));
+        assertEquals(metrics.getConnectionMetrics().get(0).getConnectionWait().getCount(), 1);
+
+        metrics.reset();
+        assertTrue(metrics.getEndpointMetrics().isEmpty());
+        assertTrue(metrics.getConnectionMetrics().isEmpty());
+    }
+
+    @Test
+    public void testNothingIsRecordedWhenDisabled() {
+
+        HTTPFunctionMetrics metrics = new HTTPFunctionMetrics(false);
+        metrics.recordOutcome(new HttpGet("https://risk.example.com/api/score"), EndpointMetrics.Outcome.SUCCESS);
+        metrics.recordConnect("https://risk.example.com:443", 1000);
+
+        assertTrue(metrics.getEndpointMetrics().isEmpty());
+        assertTrue(metrics.getConnectionMetrics().isEmpty());
+    }
+
+    private static void assertWithinBucketError(long actual, long expected) {
+
+        // Buckets are 1/16 of their power of two wide.
+        assertTrue(Math.abs(actual - expected) <= expected / 16, "Expected about " + expected + " but was " + actual);
+    }
+
+    private static EndpointMetricsSnapshot findSnapshot(List<EndpointMetricsSnapshot> snapshots, String method) {
+
+        return snapshots.stream().filter(snapshot -> method.equals(snapshot.getMethod())).findFirst()
+                .orElseThrow(AssertionError::new);
+    }
+}
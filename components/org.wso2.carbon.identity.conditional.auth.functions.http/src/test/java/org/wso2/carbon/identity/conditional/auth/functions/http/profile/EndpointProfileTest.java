@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.profile;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.HttpGet;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants.EndpointProfileAttributes;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class EndpointProfileTest {
+
+    private static final List<String> ALLOWED_DOMAINS = Collections.singletonList("example");
+
+    @Test
+    public void testCompileBasicAuthProfile() throws Exception {
+
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(EndpointProfileAttributes.BASE_URL, "https://risk.example.com/api/");
+        attributes.put(EndpointProfileAttributes.AUTH_TYPE, "basic");
+        attributes.put(EndpointProfileAttributes.USERNAME, "admin");
+        attributes.put(EndpointProfileAttributes.PASSWORD, "secret");
+        attributes.put(EndpointProfileAttributes.CACHE_TTL, "30");
+        attributes.put(EndpointProfileAttributes.TENANTS, "carbon.super");
+
+        EndpointProfile profile = EndpointProfile.compile("riskApi", attributes, ALLOWED_DOMAINS);
+        assertEquals(profile.resolveUrl("/score?user=alice"), "https://risk.example.com/api/score?user=alice");
+        assertEquals(profile.resolveUrl(null), "https://risk.example.com/api");
+        assertEquals(profile.getDefaultOptions().getCacheTtl(), 30000);
+
+        HttpGet request = new HttpGet(profile.resolveUrl("/score"));
+        profile.applyAuth(request, null, null);
+        assertEquals(request.getFirstHeader(HttpHeaders.AUTHORIZATION).getValue(), "Basic YWRtaW46c2VjcmV0");
+    }
+
+    @Test
+    public void testApiKeyProfile() throws Exception {
+
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(EndpointProfileAttributes.BASE_URL, "https://risk.example.com");
+        attributes.put(EndpointProfileAttributes.AUTH_TYPE, "apikey");
+        attributes.put(EndpointProfileAttributes.API_KEY, "key");
+        attributes.put(EndpointProfileAttributes.HEADER_NAME, "X-Risk-Key");
+        attributes.put(EndpointProfileAttributes.TENANTS, "*");
+
+        HttpGet request = new HttpGet("https://risk.example.com");
+        EndpointProfile.compile("riskApi", attributes, ALLOWED_DOMAINS).applyAuth(request, null, null);
+        assertEquals(request.getFirstHeader("X-Risk-Key").getValue(), "key");
+    }
+
+    @Test
+    public void testPathCannotLeaveTheEndpoint() {
+
+        EndpointProfile profile = EndpointProfile.compile("riskApi",
+                Collections.singletonMap(EndpointProfileAttributes.BASE_URL, "https://risk.example.com"),
+                ALLOWED_DOMAINS);
+
+        for (String path : Arrays.asList("@evil.com/score", "//evil.com/score", ".evil.com", "score")) {
+            try {
+                profile.resolveUrl(path);
+                throw new AssertionError("Path should be rejected: " + path);
+            } catch (IllegalArgumentException e) {
+                // Expected.
+            }
+        }
+    }
+
+    @Test
+    public void testPathCannotLeaveTheBasePath() {
+
+        EndpointProfile profile = EndpointProfile.compile("riskApi",
+                Collections.singletonMap(EndpointProfileAttributes.BASE_URL, "https://risk.example.com/api"),
+                ALLOWED_DOMAINS);
+
+        assertEquals(profile.resolveUrl("/v1/../score"), "https://risk.example.com/api/score");
+        assertEquals(profile.resolveUrl("/./score?user=alice"), "https://risk.example.com/api/score?user=alice");
+        for (String path : Arrays.asList("/../admin", "/v1/../../admin", "/%2e%2e/admin", "/..", "/../api-internal")) {
+            try {
+                profile.resolveUrl(path);
+                throw new AssertionError("Path should be rejected: " + path);
+            } catch (IllegalArgumentException e) {
+                // Expected.
+            }
+        }
+    }
+
+    @Test
+    public void testTenantRestriction() {
+
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(EndpointProfileAttributes.BASE_URL, "https://risk.example.com");
+        attributes.put(EndpointProfileAttributes.TENANTS, "carbon.super, wso2.com");
+
+        EndpointProfile profile = EndpointProfile.compile("riskApi", attributes, ALLOWED_DOMAINS);
+        assertTrue(profile.isAllowedFor("carbon.super"));
+        assertTrue(profile.isAllowedFor("wso2.com"));
+        assertFalse(profile.isAllowedFor("abc.com"));
+    }
+
+    @Test
+    public void testProfileForAllTenants() {
+
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(EndpointProfileAttributes.BASE_URL, "https://risk.example.com");
+        attributes.put(EndpointProfileAttributes.AUTH_TYPE, "bearer");
+        attributes.put(EndpointProfileAttributes.TOKEN, "token");
+        attributes.put(EndpointProfileAttributes.TENANTS, "*");
+
+        EndpointProfile profile = EndpointProfile.compile("riskApi", attributes, ALLOWED_DOMAINS);
+        assertTrue(profile.isAllowedFor("carbon.super"));
+        assertTrue(profile.isAllowedFor("abc.com"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testProfileWithCredentialsRequiresTenants() {
+
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(EndpointProfileAttributes.BASE_URL, "https://risk.example.com");
+        attributes.put(EndpointProfileAttributes.AUTH_TYPE, "bearer");
+        attributes.put(EndpointProfileAttributes.TOKEN, "token");
+
+        EndpointProfile.compile("riskApi", attributes, ALLOWED_DOMAINS);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testDisallowedDomainIsRejected() {
+
+        EndpointProfile.compile("riskApi",
+                Collections.singletonMap(EndpointProfileAttributes.BASE_URL, "https://risk.other.com"),
+                ALLOWED_DOMAINS);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMissingCredentialsAreRejected() {
+
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(EndpointProfileAttributes.BASE_URL, "https://risk.example.com");
+        attributes.put(EndpointProfileAttributes.AUTH_TYPE, "bearer");
+
+        EndpointProfile.compile("riskApi", attributes, ALLOWED_DOMAINS);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnsupportedAuthTypeIsRejected() {
+
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(EndpointProfileAttributes.BASE_URL, "https://risk.example.com");
+        attributes.put(EndpointProfileAttributes.AUTH_TYPE, "digest");
+
+        EndpointProfile.compile("riskApi", attributes, ALLOWED_DOMAINS);
+    }
+}
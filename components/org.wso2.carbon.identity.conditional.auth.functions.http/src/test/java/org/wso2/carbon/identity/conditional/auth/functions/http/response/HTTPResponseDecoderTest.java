@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.response;
+
+import org.apache.http.ContentTooLongException;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.zip.GZIPOutputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class HTTPResponseDecoderTest {
+
+    private static final String DOCUMENT = "{\"user\":{\"name\":\"alice\",\"riskScore\":42,\"address\":" +
+            "{\"city\":\"Colombo\"}},\"groups\":[\"admin\",\"dev\"],\"devices\":[{\"id\":\"d1\",\"trusted\":false}," +
+            "{\"id\":\"d2\",\"trusted\":true}],\"a/b\":{\"c~d\":1},\"padding\":\"xxxxxxxxxxxxxxxxxxxxxxxxxxxxxx\"}";
+    private static final long MAX_SIZE = 1024;
+
+    @Test
+    public void testDecodeWithoutProjection() throws Exception {
+
+        JSONObject json = HTTPResponseDecoder.decodeJson(jsonEntity(DOCUMENT), MAX_SIZE, null);
+
+        assertEquals(json.size(), 5);
+        assertEquals(((JSONObject) json.get("user")).get("name"), "alice");
+    }
+
+    @Test
+    public void testProjectionMaterializesOnlySelectedFields() throws Exception {
+
+        JSONObject json = HTTPResponseDecoder.decodeJson(jsonEntity(DOCUMENT), MAX_SIZE,
+                JSONProjection.of(Arrays.asList("/user/riskScore", "/groups")));
+
+        assertEquals(json.keySet(), new HashSet<>(Arrays.asList("user", "groups")));
+        JSONObject user = (JSONObject) json.get("user");
+        assertEquals(user.size(), 1);
+        assertEquals(user.get("riskScore"), 42L);
+        assertEquals(json.get("groups"), Arrays.asList("admin", "dev"));
+    }
+
+    @Test
+    public void testProjectionKeepsArrayIndexes() throws Exception {
+
+        JSONObject json = HTTPResponseDecoder.decodeJson(jsonEntity(DOCUMENT), MAX_SIZE,
+                JSONProjection.of(Collections.singletonList("/devices/1/trusted")));
+
+        JSONArray devices = (JSONArray) json.get("devices");
+        assertEquals(devices.size(), 2);
+        assertNull(devices.get(0));
+        assertEquals(((JSONObject) devices.get(1)).get("trusted"), true);
+        assertFalse(((JSONObject) devices.get(1)).containsKey("id"));
+    }
+
+    @Test
+    public void testProjectionWithEscapedAndMissingPointers() throws Exception {
+
+        JSONObject json = HTTPResponseDecoder.decodeJson(jsonEntity(DOCUMENT), MAX_SIZE,
+                JSONProjection.of(Arrays.asList("/a~1b/c~0d", "/user/missing", "/groups/0/name")));
+
+        assertEquals(json.size(), 1);
+        assertEquals(((JSONObject) json.get("a/b")).get("c~d"), 1L);
+    }
+
+    @Test
+    public void testEmptyPointerSelectsWholeDocument() throws Exception {
+
+        JSONObject json = HTTPResponseDecoder.decodeJson(jsonEntity(DOCUMENT), MAX_SIZE,
+                JSONProjection.of(Collections.singletonList("")));
+
+        assertEquals(json.size(), 5);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidPointer() {
+
+        JSONProjection.of(Collections.singletonList("user/name"));
+    }
+
+    @Test(expectedExceptions = ContentTooLongException.class)
+    public void testDeclaredLengthAboveLimit() throws Exception {
+
+        HTTPResponseDecoder.decodeJson(jsonEntity(DOCUMENT), 64, null);
+    }
+
+    @Test
+    public void testStreamedBodyAboveLimit() throws Exception {
+
+        byte[] body = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        // The length is not declared, hence the limit is enforced while the body is read.
+        HttpEntity entity = new InputStreamEntity(new ByteArrayInputStream(body), -1, ContentType.APPLICATION_JSON);
+        try {
+            HTTPResponseDecoder.decodeJson(entity, 64, null);
+            fail("Decoding should fail once the body exceeds the limit.");
+        } catch (ContentTooLongException e) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testDecodeString() throws Exception {
+
+        HttpEntity entity = new StringEntity("plain text", ContentType.TEXT_PLAIN);
+
+        assertEquals(HTTPResponseDecoder.decodeString(entity, MAX_SIZE), "plain text");
+    }
+
+    @Test
+    public void testDecodeGzipEncodedBody() throws Exception {
+
+        JSONObject json = HTTPResponseDecoder.decodeJson(gzipEntity(DOCUMENT), MAX_SIZE,
+                JSONProjection.of(Collections.singletonList("/user/name")));
+
+        assertEquals(((JSONObject) json.get("user")).get("name"), "alice");
+    }
+
+    @Test(expectedExceptions = ContentTooLongException.class)
+    public void testLimitAppliesToDecompressedBody() throws Exception {
+
+        StringBuilder body = new StringBuilder("{\"padding\":\"");
+        for (int i = 0; i < 4096; i++) {
+            body.append('x');
+        }
+        body.append("\"}");
+        HttpEntity entity = gzipEntity(body.toString());
+        assertTrue(entity.getContentLength() < MAX_SIZE, "Compressed body should be within the limit.");
+
+        HTTPResponseDecoder.decodeJson(entity, MAX_SIZE, null);
+    }
+
+    private HttpEntity gzipEntity(String body) throws IOException {
+
+        ByteArrayOutputStream compressedBody = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressedBody)) {
+            gzipOutputStream.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        ByteArrayEntity entity = new ByteArrayEntity(compressedBody.toByteArray(), ContentType.APPLICATION_JSON);
+        entity.setContentEncoding("gzip");
+        return entity;
+    }
+
+    private HttpEntity jsonEntity(String body) {
+
+        return new StringEntity(body, ContentType.APPLICATION_JSON);
+    }
+}
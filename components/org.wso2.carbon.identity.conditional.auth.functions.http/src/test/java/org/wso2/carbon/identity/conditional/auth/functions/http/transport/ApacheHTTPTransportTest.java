@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.transport;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.ContentTooLongException;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.util.EntityUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@WithCarbonHome
+public class ApacheHTTPTransportTest {
+
+    private static final String SCORE_RESPONSE = "{\"score\":10}";
+    private static final int MAX_RESPONSE_SIZE = 1024;
+
+    private HttpServer server;
+    private CloseableHttpClient client;
+    private CloseableHttpAsyncClient asyncClient;
+    private String baseUrl;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/score", exchange -> respond(exchange, SCORE_RESPONSE));
+        server.createContext("/large", exchange -> respond(exchange, "a".repeat(MAX_RESPONSE_SIZE * 4)));
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+        client = HttpClients.createDefault();
+        asyncClient = HttpAsyncClients.createDefault();
+        asyncClient.start();
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+
+        client.close();
+        asyncClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testTransportIsNonBlockingOnlyWithAsyncClient() {
+
+        assertFalse(new ApacheHTTPTransport(client, null).isNonBlocking());
+        assertTrue(new ApacheHTTPTransport(client, asyncClient).isNonBlocking());
+    }
+
+    @Test
+    public void testBlockingRequest() throws IOException {
+
+        try (CloseableHttpResponse response = new ApacheHTTPTransport(client, null)
+                .execute(new HttpGet(baseUrl + "/score"))) {
+            assertEquals(response.getStatusLine().getStatusCode(), 200);
+            assertEquals(EntityUtils.toString(response.getEntity()), SCORE_RESPONSE);
+        }
+    }
+
+    @Test
+    public void testNonBlockingRequest() throws Exception {
+
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        new ApacheHTTPTransport(client, asyncClient).execute(new HttpGet(baseUrl + "/score"), MAX_RESPONSE_SIZE,
+                toCallback(result));
+
+        HttpResponse response = result.get(5, TimeUnit.SECONDS);
+        assertEquals(response.getStatusLine().getStatusCode(), 200);
+        assertEquals(EntityUtils.toString(response.getEntity()), SCORE_RESPONSE);
+    }
+
+    @Test
+    public void testNonBlockingRequestFailsOnOversizedResponse() throws Exception {
+
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        new ApacheHTTPTransport(client, asyncClient).execute(new HttpGet(baseUrl + "/large"), MAX_RESPONSE_SIZE,
+                toCallback(result));
+
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            fail("Response over the maximum response size should fail the request.");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ContentTooLongException);
+        }
+    }
+
+    private static FutureCallback<HttpResponse> toCallback(CompletableFuture<HttpResponse> result) {
+
+        return new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed(HttpResponse response) {
+
+                result.complete(response);
+            }
+
+            @Override
+            public void failed(Exception e) {
+
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+
+                result.cancel(false);
+            }
+        };
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
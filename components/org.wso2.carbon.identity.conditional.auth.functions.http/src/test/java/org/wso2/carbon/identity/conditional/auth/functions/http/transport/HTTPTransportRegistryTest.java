@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.transport;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class HTTPTransportRegistryTest {
+
+    private static final HTTPTransport HTTP1 = new TestTransport(ApacheHTTPTransport.NAME);
+    private static final HTTPTransport HTTP2 = new TestTransport(JdkHTTP2Transport.NAME);
+
+    @Test
+    public void testHttp1IsTheDefaultTransport() {
+
+        HTTPTransportRegistry registry = createRegistry(null, Collections.emptyMap());
+
+        assertSame(registry.getTransport(URI.create("https://risk.example.com/score")), HTTP1);
+        assertFalse(registry.isUsed(JdkHTTP2Transport.NAME));
+    }
+
+    @Test
+    public void testTransportIsSelectedPerEndpoint() {
+
+        Map<String, String> endpointTransports = new LinkedHashMap<>();
+        endpointTransports.put("https://risk.example.com", JdkHTTP2Transport.NAME);
+        HTTPTransportRegistry registry = createRegistry(" ", endpointTransports);
+
+        // Endpoints are matched by scheme, host and port, regardless of the path and the default port.
+        assertSame(registry.getTransport(URI.create("https://RISK.example.com:443/api/score?user=1")), HTTP2);
+        assertSame(registry.getTransport(URI.create("http://risk.example.com/api/score")), HTTP1);
+        assertSame(registry.getTransport(URI.create("https://geo.example.com/api")), HTTP1);
+        assertTrue(registry.isUsed(JdkHTTP2Transport.NAME));
+    }
+
+    @Test
+    public void testConfiguredDefaultTransport() {
+
+        Map<String, String> endpointTransports = new LinkedHashMap<>();
+        endpointTransports.put("https://legacy.example.com", ApacheHTTPTransport.NAME);
+        HTTPTransportRegistry registry = createRegistry(JdkHTTP2Transport.NAME, endpointTransports);
+
+        assertSame(registry.getTransport(URI.create("https://risk.example.com/score")), HTTP2);
+        assertSame(registry.getTransport(URI.create("https://legacy.example.com/score")), HTTP1);
+    }
+
+    @Test
+    public void testUnregisteredTransportFallsBackToHttp1() {
+
+        HTTPTransportRegistry registry = new HTTPTransportRegistry("quic", Collections.emptyMap());
+        registry.registerTransport(HTTP1);
+
+        assertSame(registry.getTransport(URI.create("https://risk.example.com/score")), HTTP1);
+    }
+
+    @Test
+    public void testInvalidEndpointIsIgnored() {
+
+        Map<String, String> endpointTransports = new LinkedHashMap<>();
+        endpointTransports.put("https://risk example com", JdkHTTP2Transport.NAME);
+        HTTPTransportRegistry registry = createRegistry(null, endpointTransports);
+
+        assertSame(registry.getTransport(URI.create("https://risk.example.com/score")), HTTP1);
+    }
+
+    @Test
+    public void testRegisteredTransportReplacesTransportOfSameName() {
+
+        HTTPTransportRegistry registry = createRegistry(null, Collections.emptyMap());
+        HTTPTransport customTransport = new TestTransport(ApacheHTTPTransport.NAME);
+        registry.registerTransport(customTransport);
+
+        assertSame(registry.getTransport(URI.create("https://risk.example.com/score")), customTransport);
+    }
+
+    private static HTTPTransportRegistry createRegistry(String defaultTransport,
+                                                        Map<String, String> endpointTransports) {
+
+        HTTPTransportRegistry registry = new HTTPTransportRegistry(defaultTransport, endpointTransports);
+        registry.registerTransport(HTTP1);
+        registry.registerTransport(HTTP2);
+        return registry;
+    }
+
+    /**
+     * Transport which only has a name, as the registry never sends requests itself.
+     */
+    private static class TestTransport implements HTTPTransport {
+
+        private final String name;
+
+        TestTransport(String name) {
+
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+
+            return name;
+        }
+
+        @Override
+        public boolean isNonBlocking() {
+
+            return false;
+        }
+
+        @Override
+        public CloseableHttpResponse execute(HttpUriRequest request) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<?> execute(HttpUriRequest request, long maxResponseSize,
+                                 FutureCallback<HttpResponse> callback) {
+
+            throw new UnsupportedOperationException();
+        }
+    }
+}
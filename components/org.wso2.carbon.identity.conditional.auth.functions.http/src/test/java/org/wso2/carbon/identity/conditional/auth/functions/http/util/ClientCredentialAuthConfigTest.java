@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.util;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.conditional.auth.functions.http.cache.AccessTokenRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class ClientCredentialAuthConfigTest {
+
+    private static final String OPAQUE_TOKEN = "8f14e45f-ceea-467a-9af2-c2d2b6a1a2f3";
+    private static final long JWT_EXPIRY = 1900000000L;
+    private static final String TOKEN_REQUEST_KEY = "carbon.super|https://idp.example.com/token|client|";
+    private static final long WAIT_TIMEOUT = 5000;
+
+    @Test
+    public void testExpiryFromExpiresIn() {
+
+        long now = System.currentTimeMillis();
+        long expiresAt = ClientCredentialAuthConfig.resolveExpiryTime(OPAQUE_TOKEN, "3600");
+
+        assertTrue(expiresAt >= now + TimeUnit.HOURS.toMillis(1));
+        assertTrue(expiresAt <= System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+    }
+
+    @Test
+    public void testExpiresInIsPreferredOverJwtExpiry() {
+
+        long expiresAt = ClientCredentialAuthConfig.resolveExpiryTime(buildJwt(JWT_EXPIRY), "60");
+
+        assertTrue(expiresAt <= System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1));
+    }
+
+    @Test
+    public void testExpiryFromJwtExpClaim() {
+
+        assertEquals(ClientCredentialAuthConfig.resolveExpiryTime(buildJwt(JWT_EXPIRY), null),
+                TimeUnit.SECONDS.toMillis(JWT_EXPIRY));
+        assertEquals(ClientCredentialAuthConfig.resolveExpiryTime(buildJwt(JWT_EXPIRY), "never"),
+                TimeUnit.SECONDS.toMillis(JWT_EXPIRY));
+    }
+
+    @Test
+    public void testOpaqueTokenWithoutExpiryIsNotCached() {
+
+        assertEquals(ClientCredentialAuthConfig.resolveExpiryTime(OPAQUE_TOKEN, null), -1);
+        assertEquals(ClientCredentialAuthConfig.resolveExpiryTime(OPAQUE_TOKEN, " "), -1);
+        assertEquals(ClientCredentialAuthConfig.resolveExpiryTime("a.b.c", null), -1);
+    }
+
+    @Test
+    public void testTokenIsExpiredWithinSkew() {
+
+        AccessTokenRecord record = new AccessTokenRecord(OPAQUE_TOKEN,
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10));
+
+        assertFalse(record.isExpired(0));
+        assertTrue(record.isExpired(TimeUnit.SECONDS.toMillis(20)));
+        assertTrue(new AccessTokenRecord(OPAQUE_TOKEN, System.currentTimeMillis() - 1).isExpired(0));
+    }
+
+    @Test
+    public void testConcurrentTokenRequestsAreSentOnce() throws Exception {
+
+        AtomicInteger tokenRequests = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                ClientCredentialAuthConfig.requestAccessTokenOnce(TOKEN_REQUEST_KEY, () -> {
+                    tokenRequests.incrementAndGet();
+                    leaderStarted.countDown();
+                    await(releaseLeader);
+                    return OPAQUE_TOKEN;
+                }, WAIT_TIMEOUT));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        FutureTask<String> follower = startFollower(() -> {
+            tokenRequests.incrementAndGet();
+            return "unexpected";
+        });
+        releaseLeader.countDown();
+
+        assertEquals(leader.get(5, TimeUnit.SECONDS), OPAQUE_TOKEN);
+        assertEquals(follower.get(5, TimeUnit.SECONDS), OPAQUE_TOKEN);
+        assertEquals(tokenRequests.get(), 1);
+    }
+
+    @Test
+    public void testTokenIsRequestedAgainAfterRequestCompletes() {
+
+        AtomicInteger tokenRequests = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            ClientCredentialAuthConfig.requestAccessTokenOnce(TOKEN_REQUEST_KEY, () -> {
+                tokenRequests.incrementAndGet();
+                return OPAQUE_TOKEN;
+            }, WAIT_TIMEOUT);
+        }
+
+        assertEquals(tokenRequests.get(), 2);
+    }
+
+    @Test
+    public void testFollowerTimesOutWhenTokenRequestHangs() throws Exception {
+
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                ClientCredentialAuthConfig.requestAccessTokenOnce(TOKEN_REQUEST_KEY, () -> {
+                    leaderStarted.countDown();
+                    await(releaseLeader);
+                    return OPAQUE_TOKEN;
+                }, WAIT_TIMEOUT));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        try {
+            assertNull(ClientCredentialAuthConfig.requestAccessTokenOnce(TOKEN_REQUEST_KEY, () -> {
+                fail("Token request should not be sent while another one is in flight.");
+                return null;
+            }, 50));
+        } finally {
+            releaseLeader.countDown();
+        }
+        assertEquals(leader.get(5, TimeUnit.SECONDS), OPAQUE_TOKEN);
+    }
+
+    @Test
+    public void testFollowerGetsNullWhenTokenRequestFails() throws Exception {
+
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                ClientCredentialAuthConfig.requestAccessTokenOnce(TOKEN_REQUEST_KEY, () -> {
+                    leaderStarted.countDown();
+                    await(releaseLeader);
+                    throw new IllegalStateException("Token endpoint is not reachable.");
+                }, WAIT_TIMEOUT));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        FutureTask<String> follower = startFollower(() -> "unexpected");
+        releaseLeader.countDown();
+
+        assertNull(follower.get(5, TimeUnit.SECONDS));
+        assertTrue(leader.handle((token, error) -> error != null).get(5, TimeUnit.SECONDS));
+        assertEquals(ClientCredentialAuthConfig.requestAccessTokenOnce(TOKEN_REQUEST_KEY, () -> OPAQUE_TOKEN,
+                WAIT_TIMEOUT), OPAQUE_TOKEN);
+    }
+
+    @Test
+    public void testNonBlockingFollowersGetTokenFromCallback() throws Exception {
+
+        AtomicInteger tokenRequests = new AtomicInteger();
+        AtomicReference<Consumer<String>> leaderCompletion = new AtomicReference<>();
+        CompletableFuture<String> leader = new CompletableFuture<>();
+        ClientCredentialAuthConfig.requestAccessTokenOnce(TOKEN_REQUEST_KEY, tokenCompletion -> {
+            tokenRequests.incrementAndGet();
+            leaderCompletion.set(tokenCompletion);
+        }, WAIT_TIMEOUT, leader::complete);
+
+        CompletableFuture<String> follower = new CompletableFuture<>();
+        ClientCredentialAuthConfig.requestAccessTokenOnce(TOKEN_REQUEST_KEY, tokenCompletion -> {
+            tokenRequests.incrementAndGet();
+            tokenCompletion.accept("unexpected");
+        }, WAIT_TIMEOUT, follower::complete);
+        assertFalse(follower.isDone(), "Follower should not block or get a token before the leader completes.");
+
+        leaderCompletion.get().accept(OPAQUE_TOKEN);
+
+        assertEquals(leader.get(5, TimeUnit.SECONDS), OPAQUE_TOKEN);
+        assertEquals(follower.get(5, TimeUnit.SECONDS), OPAQUE_TOKEN);
+        assertEquals(tokenRequests.get(), 1);
+    }
+
+    @Test
+    public void testNonBlockingFollowerTimesOutWhenTokenRequestHangs() throws Exception {
+
+        AtomicReference<Consumer<String>> leaderCompletion = new AtomicReference<>();
+        ClientCredentialAuthConfig.requestAccessTokenOnce(TOKEN_REQUEST_KEY, leaderCompletion::set, WAIT_TIMEOUT,
+                token -> { });
+
+        CompletableFuture<String> follower = new CompletableFuture<>();
+        try {
+            ClientCredentialAuthConfig.requestAccessTokenOnce(TOKEN_REQUEST_KEY, tokenCompletion ->
+                    fail("Token request should not be sent while another one is in flight."), 50, follower::complete);
+            assertNull(follower.get(5, TimeUnit.SECONDS));
+        } finally {
+            leaderCompletion.get().accept(OPAQUE_TOKEN);
+        }
+    }
+
+    /**
+     * Start a token request on another thread and wait until it waits for the token request in flight.
+     */
+    private static FutureTask<String> startFollower(Supplier<String> tokenRequester) throws InterruptedException {
+
+        FutureTask<String> follower = new FutureTask<>(() ->
+                ClientCredentialAuthConfig.requestAccessTokenOnce(TOKEN_REQUEST_KEY, tokenRequester, WAIT_TIMEOUT));
+        Thread thread = new Thread(follower);
+        thread.start();
+        while (thread.isAlive() && thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(5);
+        }
+        return follower;
+    }
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String buildJwt(long expiry) {
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8)) + "." +
+                encoder.encodeToString(("{\"sub\":\"client\",\"exp\":" + expiry + "}")
+                        .getBytes(StandardCharsets.UTF_8)) + "." +
+                encoder.encodeToString("signature".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.util;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpVersion;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.testng.annotations.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class HTTPClientManagerTest {
+
+    @Test
+    public void testRouteOfHostDefaultsToHttps() {
+
+        HttpRoute route = HTTPClientManager.toRoute("risk.example.com");
+
+        assertEquals(route.getTargetHost(), new HttpHost("risk.example.com", 443, "https"));
+        assertTrue(route.isSecure());
+    }
+
+    @Test
+    public void testRouteOfUrl() {
+
+        HttpRoute route = HTTPClientManager.toRoute("http://risk.example.com/api/score");
+
+        assertEquals(route.getTargetHost(), new HttpHost("risk.example.com", 80, "http"));
+        assertFalse(route.isSecure());
+        assertEquals(HTTPClientManager.toRoute("https://risk.example.com:8443").getTargetHost().getPort(), 8443);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRouteWithoutHost() {
+
+        HTTPClientManager.toRoute("https://");
+    }
+
+    @Test
+    public void testRouteLimitsAreAppliedToPool() {
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setDefaultMaxPerRoute(5);
+        Map<String, Integer> routeLimits = new LinkedHashMap<>();
+        routeLimits.put("https://risk.example.com", 50);
+        routeLimits.put("http://", 1);
+        routeLimits.put("geo.example.com:8443", 20);
+
+        HTTPClientManager.applyRouteLimits(routeLimits, connectionManager, null);
+
+        assertEquals(connectionManager.getMaxPerRoute(HTTPClientManager.toRoute("risk.example.com")), 50);
+        assertEquals(connectionManager.getMaxPerRoute(HTTPClientManager.toRoute("https://geo.example.com:8443")),
+                20);
+        assertEquals(connectionManager.getMaxPerRoute(HTTPClientManager.toRoute("https://other.example.com")), 5);
+        connectionManager.close();
+    }
+
+    @Test
+    public void testKeepAliveOfServerIsHonoured() {
+
+        ConnectionKeepAliveStrategy keepAliveStrategy = HTTPClientManager.createKeepAliveStrategy(30000);
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setHeader("Keep-Alive", "timeout=5");
+
+        assertEquals(keepAliveStrategy.getKeepAliveDuration(response, new BasicHttpContext()), 5000);
+    }
+
+    @Test
+    public void testDefaultKeepAliveIsUsedIfServerDoesNotAdvertiseOne() {
+
+        ConnectionKeepAliveStrategy keepAliveStrategy = HTTPClientManager.createKeepAliveStrategy(30000);
+
+        assertEquals(keepAliveStrategy.getKeepAliveDuration(new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK"),
+                new BasicHttpContext()), 30000);
+    }
+}
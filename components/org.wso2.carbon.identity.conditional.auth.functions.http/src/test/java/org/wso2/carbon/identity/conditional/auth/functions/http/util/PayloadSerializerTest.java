@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.util;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.conditional.auth.functions.common.model.JsUtils;
+import org.wso2.carbon.identity.conditional.auth.functions.common.model.graaljs.JsGraalUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+
+public class PayloadSerializerTest {
+
+    private static final JsUtils JS_UTILS = new JsGraalUtils();
+
+    @Test
+    public void testJsonPayload() throws Exception {
+
+        Map<String, Object> address = new LinkedHashMap<>();
+        address.put("city", "Colombo");
+        address.put("zip", null);
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("user", "alice");
+        payload.put("age", 30);
+        payload.put("score", 0.5);
+        payload.put("invalid", Double.NaN);
+        payload.put("verified", true);
+        payload.put("roles", Arrays.asList("admin", Collections.singletonMap("id", 1L)));
+        payload.put("address", address);
+
+        HttpEntity entity = new PayloadSerializer(JS_UTILS, 64, 1024).toJsonEntity(payload);
+
+        assertEquals(EntityUtils.toString(entity), "{\"user\":\"alice\",\"age\":30,\"score\":0.5,\"invalid\":null," +
+                "\"verified\":true,\"roles\":[\"admin\",{\"id\":1}],\"address\":{\"city\":\"Colombo\",\"zip\":null}}");
+        assertEquals(entity.getContentType().getValue(), "text/plain; charset=UTF-8");
+    }
+
+    @Test
+    public void testJsonStringEscapes() throws Exception {
+
+        Map<String, Object> payload = Collections.singletonMap("value", "a\"b\\c/d\n\u0001\u2028\u00E9\uD83D\uDE00");
+
+        HttpEntity entity = new PayloadSerializer(JS_UTILS, 64, 1024).toJsonEntity(payload);
+
+        assertEquals(new String(EntityUtils.toByteArray(entity), StandardCharsets.UTF_8),
+                "{\"value\":\"a\\\"b\\\\c\\/d\\n\\u0001\\u2028\u00E9\uD83D\uDE00\"}");
+    }
+
+    @Test
+    public void testFormPayload() throws Exception {
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("grant_type", "client_credentials");
+        payload.put("scope", "read write");
+        payload.put("name", "\u00DCn\u00EFc\u00F6d\u00E9 & co=1 \uD83D\uDE00 ~!'()");
+        payload.put("flag", null);
+        List<NameValuePair> fields = new ArrayList<>();
+        fields.add(new BasicNameValuePair("grant_type", "client_credentials"));
+        fields.add(new BasicNameValuePair("scope", "read write"));
+        fields.add(new BasicNameValuePair("name", "\u00DCn\u00EFc\u00F6d\u00E9 & co=1 \uD83D\uDE00 ~!'()"));
+        fields.add(new BasicNameValuePair("flag", null));
+
+        HttpEntity entity = new PayloadSerializer(JS_UTILS, 64, 1024).toFormEntity(payload);
+
+        assertEquals(EntityUtils.toString(entity),
+                EntityUtils.toString(new UrlEncodedFormEntity(fields, StandardCharsets.UTF_8)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPayloadSizeLimit() {
+
+        char[] value = new char[1024];
+        Arrays.fill(value, 'a');
+
+        new PayloadSerializer(JS_UTILS, 64, 1024).toJsonEntity(Collections.singletonMap("value", new String(value)));
+    }
+
+    @Test
+    public void testNegativeMaxSizeDoesNotLimitPayload() throws Exception {
+
+        char[] value = new char[4096];
+        Arrays.fill(value, 'a');
+
+        HttpEntity entity = new PayloadSerializer(JS_UTILS, 64, -1)
+                .toJsonEntity(Collections.singletonMap("value", new String(value)));
+        assertEquals(EntityUtils.toString(entity), "{\"value\":\"" + new String(value) + "\"}");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPayloadDepthLimit() {
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        Map<String, Object> nested = payload;
+        for (int i = 0; i < 10; i++) {
+            Map<String, Object> child = new LinkedHashMap<>();
+            nested.put("child", child);
+            nested = child;
+        }
+
+        new PayloadSerializer(JS_UTILS, 5, 1024).toJsonEntity(payload);
+    }
+
+    @Test
+    public void testBufferIsReusedAfterFailure() throws Exception {
+
+        PayloadSerializer serializer = new PayloadSerializer(JS_UTILS, 64, 16);
+        try {
+            serializer.toJsonEntity(Collections.singletonMap("value", "a long value over the limit"));
+        } catch (IllegalArgumentException e) {
+            // Expected.
+        }
+
+        assertEquals(EntityUtils.toString(serializer.toJsonEntity(Collections.singletonMap("a", 1))), "{\"a\":1}");
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.conditional.auth.functions.http.util;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class RequestCoalescerTest {
+
+    private static final String KEY = "carbon.super:fingerprint";
+
+    @Test
+    public void testFirstCallerBecomesLeader() {
+
+        RequestCoalescer coalescer = new RequestCoalescer(true);
+        CompletableFuture<Pair<String, JSONObject>> leader = new CompletableFuture<>();
+
+        assertNull(coalescer.join(KEY, leader));
+        assertSame(coalescer.join(KEY, new CompletableFuture<>()), leader);
+        assertNull(coalescer.join("carbon.super:other", new CompletableFuture<>()));
+        assertEquals(coalescer.getLeaderCount(), 2);
+        assertEquals(coalescer.getFollowerCount(), 1);
+        assertEquals(coalescer.getInFlightCount(), 2);
+    }
+
+    @Test
+    public void testFollowersGetOutcomeOfLeader() {
+
+        RequestCoalescer coalescer = new RequestCoalescer(true);
+        CompletableFuture<Pair<String, JSONObject>> leader = new CompletableFuture<>();
+        coalescer.join(KEY, leader);
+        List<String> outcomes = new ArrayList<>();
+        List<JSONObject> responses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            coalescer.follow(coalescer.join(KEY, new CompletableFuture<>()), 10000, (outcome, json) -> {
+                outcomes.add(outcome);
+                responses.add(json);
+            });
+        }
+        JSONObject response = new JSONObject();
+        response.put("score", 10);
+
+        coalescer.complete(KEY, leader, Constants.OUTCOME_SUCCESS, response);
+
+        assertEquals(outcomes.size(), 2);
+        assertEquals(outcomes.get(0), Constants.OUTCOME_SUCCESS);
+        assertEquals(responses.get(1).get("score"), 10);
+        assertEquals(coalescer.getInFlightCount(), 0);
+        assertEquals(coalescer.getCoalescingRatio(), 2 / 3d, 0.001);
+    }
+
+    @Test
+    public void testRequestAfterCompletionIsSentAgain() {
+
+        RequestCoalescer coalescer = new RequestCoalescer(true);
+        CompletableFuture<Pair<String, JSONObject>> leader = new CompletableFuture<>();
+        coalescer.join(KEY, leader);
+        coalescer.complete(KEY, leader, Constants.OUTCOME_FAIL, null);
+
+        assertNull(coalescer.join(KEY, new CompletableFuture<>()));
+    }
+
+    @Test
+    public void testFollowersGetOwnCopyOfResponse() {
+
+        RequestCoalescer coalescer = new RequestCoalescer(true);
+        CompletableFuture<Pair<String, JSONObject>> leader = new CompletableFuture<>();
+        coalescer.join(KEY, leader);
+        List<JSONObject> responses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            coalescer.follow(coalescer.join(KEY, new CompletableFuture<>()), 10000,
+                    (outcome, json) -> responses.add(json));
+        }
+        JSONObject user = new JSONObject();
+        user.put("name", "alice");
+        JSONArray roles = new JSONArray();
+        roles.add("admin");
+        JSONObject response = new JSONObject();
+        response.put("user", user);
+        response.put("roles", roles);
+
+        coalescer.complete(KEY, leader, Constants.OUTCOME_SUCCESS, response);
+        ((JSONObject) responses.get(0).get("user")).put("name", "mallory");
+        ((JSONArray) responses.get(0).get("roles")).clear();
+
+        assertNotSame(responses.get(1), response);
+        assertEquals(((JSONObject) responses.get(1).get("user")).get("name"), "alice");
+        assertEquals(((JSONArray) responses.get(1).get("roles")).size(), 1);
+        assertEquals(user.get("name"), "alice");
+    }
+
+    @Test
+    public void testFollowerTimesOutWhenLeaderDoesNotComplete() throws InterruptedException {
+
+        RequestCoalescer coalescer = new RequestCoalescer(true);
+        CompletableFuture<Pair<String, JSONObject>> leader = new CompletableFuture<>();
+        coalescer.join(KEY, leader);
+        CountDownLatch completed = new CountDownLatch(1);
+        List<String> outcomes = new ArrayList<>();
+        coalescer.follow(coalescer.join(KEY, new CompletableFuture<>()), 50, (outcome, json) -> {
+            outcomes.add(outcome);
+            completed.countDown();
+        });
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(outcomes.get(0), Constants.OUTCOME_FAIL);
+        assertEquals(coalescer.getFollowerTimeoutCount(), 1);
+        // The outcome of the leader is not affected by the timeout of its follower.
+        assertFalse(leader.isDone());
+    }
+}
@@ -22,16 +22,23 @@ import org.apache.axis2.transport.http.HTTPConstants;
 import org.apache.commons.httpclient.HttpStatus;
 import org.apache.commons.ssl.Base64;
 import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.ssl.SSLContexts;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.carbon.identity.conditional.auth.functions.common.http.OutboundClientSettings;
+import org.wso2.carbon.identity.conditional.auth.functions.common.http.OutboundHttpEngine;
+import org.wso2.carbon.identity.conditional.auth.functions.common.utils.ConfigProvider;
 import org.wso2.carbon.identity.conditional.auth.functions.session.exception.SessionValidationException;
 import org.wso2.carbon.identity.conditional.auth.functions.session.model.Session;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 
 import java.io.BufferedReader;
@@ -41,12 +48,61 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
 
 /**
  * Utility methods used in the session validation conditional authentication functions.
  */
 public class SessionValidationUtil {
 
+    private static final String MODULE_NAME = "session";
+    private static final int DEFAULT_MAX_CONNECTIONS = 20;
+
+    // Session data is retrieved with the configured timeouts of the outbound calls.
+    private static final OutboundClientSettings CLIENT_SETTINGS = new OutboundClientSettings() {
+
+        @Override
+        public RequestConfig getRequestConfig(String tenantDomain) {
+
+            ConfigProvider configProvider = ConfigProvider.getInstance();
+            return RequestConfig.custom()
+                    .setConnectionRequestTimeout(configProvider.getConnectionRequestTimeout())
+                    .setConnectTimeout(configProvider.getConnectionTimeout())
+                    .setSocketTimeout(configProvider.getReadTimeout())
+                    .build();
+        }
+
+        @Override
+        public SSLContext getSSLContext(String tenantDomain) {
+
+            return SSLContexts.createDefault();
+        }
+
+        @Override
+        public HostnameVerifier getHostnameVerifier(String tenantDomain) {
+
+            return new DefaultHostnameVerifier();
+        }
+
+        @Override
+        public int getMaxConnections() {
+
+            return DEFAULT_MAX_CONNECTIONS;
+        }
+
+        @Override
+        public int getMaxConnectionsPerRoute() {
+
+            return DEFAULT_MAX_CONNECTIONS;
+        }
+    };
+
     /**
      * Method to retrieve session data from session data source.
      *
@@ -58,12 +114,24 @@ public class SessionValidationUtil {
     public static List<Session> getSessionDetails(AuthenticatedUser authenticatedUser) throws
             IOException, SessionValidationException {
 
-        HttpClientBuilder httpClientBuilder = HttpClientBuilder.create();
-        HttpClient httpClient = httpClientBuilder.build();
+        CloseableHttpAsyncClient httpClient = getHttpClient(authenticatedUser.getTenantDomain());
         HttpPost httpPost = createHttpRequest(authenticatedUser);
         HttpResponse httpResponse;
         JSONArray responseJsonArray;
-        httpResponse = httpClient.execute(httpPost);
+        Future<HttpResponse> responseFuture = httpClient.execute(httpPost, null);
+        try {
+            // The request timeouts bound each phase of the call, hence the wait is bounded by their sum.
+            httpResponse = responseFuture.get(getRequestTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            responseFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while retrieving data from endpoint.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to retrieve data from endpoint.", e.getCause());
+        } catch (TimeoutException e) {
+            responseFuture.cancel(true);
+            throw new IOException("Timed out while retrieving data from endpoint.", e);
+        }
         if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
             try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(httpResponse.getEntity()
                     .getContent(),
@@ -82,6 +150,35 @@ public class SessionValidationUtil {
         return getSessionListFromJSON(responseJsonArray);
     }
 
+    /**
+     * Method to get the maximum time to wait for the response of the session data source.
+     *
+     * @return Request timeout in milliseconds
+     */
+    private static long getRequestTimeout() {
+
+        ConfigProvider configProvider = ConfigProvider.getInstance();
+        return (long) configProvider.getConnectionRequestTimeout() + configProvider.getConnectionTimeout() +
+                configProvider.getReadTimeout();
+    }
+
+    /**
+     * Method to get the client of the tenant from the shared outbound http engine.
+     *
+     * @param tenantDomain Tenant domain of the user
+     * @return Running HTTP client
+     * @throws IOException When the client cannot be created
+     */
+    private static CloseableHttpAsyncClient getHttpClient(String tenantDomain) throws IOException {
+
+        try {
+            return OutboundHttpEngine.getInstance().getClient(MODULE_NAME, IdentityTenantUtil.getTenantId(tenantDomain),
+                    tenantDomain, CLIENT_SETTINGS);
+        } catch (FrameworkException e) {
+            throw new IOException("Error while getting the http client for tenant domain: " + tenantDomain, e);
+        }
+    }
+
     /**
      * Method to create HTTP Request.
      *